@@ -0,0 +1,50 @@
+#!/usr/bin/env bash
+# Test de charge en boucle fermée sur les contrôleurs REST des deux applications
+# Démarre GestionProjetApplication et StockManagementApplication, lance BancCharge par paliers
+# d'utilisateurs, puis écrit les résultats (une ligne JSON par palier et par endpoint, puis le palier
+# de saturation de chaque contrôleur) dans target/banc-charge.jsonl.
+#
+# Usage : scripts/banc-charge.sh [paliers=25,50,100,200,400,800] [chauffeSecondes=10] [mesureSecondes=30]
+# La base doit être peuplée au préalable (profil "generation"), les volumes du stock étant passés
+# à BancCharge par les variables BANC_PRODUITS, BANC_COMMANDES et BANC_CATEGORIES.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+PALIERS=${1:-25,50,100,200,400,800}
+CHAUFFE=${2:-10}
+MESURE=${3:-30}
+PORT_GESTION=${PORT_GESTION:-8080}
+PORT_STOCK=${PORT_STOCK:-8081}
+SORTIE=target/banc-charge.jsonl
+
+mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+CLASSPATH_APP="target/classes:$(cat target/classpath.txt)"
+PIDS=()
+trap 'kill "${PIDS[@]}" 2>/dev/null || true' EXIT
+
+demarrer() {
+  local nom=$1 classe=$2 port=$3 sonde=$4
+  java -cp "$CLASSPATH_APP" "$classe" \
+    --server.port="$port" \
+    --spring.jpa.show-sql=false \
+    --logging.level.org.hibernate.SQL=WARN \
+    --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN \
+    > "target/banc-charge-$nom.log" 2>&1 &
+  local pid=$!
+  PIDS+=("$pid")
+  until curl -s -o /dev/null "http://localhost:$port$sonde"; do
+    kill -0 "$pid" 2>/dev/null || { echo "Échec du démarrage ($nom), voir target/banc-charge-$nom.log"; exit 1; }
+    sleep 1
+  done
+}
+
+demarrer gestion gestion.projets.GestionProjetApplication "$PORT_GESTION" /api/projets/page
+demarrer stock ma.projet.StockManagementApplication "$PORT_STOCK" /api/categories
+
+java -Dbanc.produits="${BANC_PRODUITS:-200000}" \
+  -Dbanc.commandes="${BANC_COMMANDES:-1000000}" \
+  -Dbanc.categories="${BANC_CATEGORIES:-200}" \
+  -cp "target/test-classes:$(cat target/classpath.txt)" gestion.projets.bench.BancCharge \
+  "http://localhost:$PORT_GESTION" "http://localhost:$PORT_STOCK" "$PALIERS" "$CHAUFFE" "$MESURE" | tee "$SORTIE"
+
+echo "Résultats : $SORTIE"
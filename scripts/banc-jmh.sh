@@ -0,0 +1,23 @@
+#!/usr/bin/env bash
+# Lance les bancs d'essai JMH et enregistre les résultats sous target/jmh/<commit>.json
+# Avec un fichier de référence, compare ensuite les deux résultats (échec si régression > seuil).
+#
+# Usage : scripts/banc-jmh.sh [reference.json] [seuilPourcent=10] [filtre]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+REFERENCE=${1:-}
+SEUIL=${2:-10}
+FILTRE=${3:-'.*\.bench\..*Jmh.*'}
+COMMIT=$(git rev-parse --short HEAD)
+[ -n "$(git status --porcelain -- src pom.xml)" ] && COMMIT="$COMMIT-modifie"
+RESULTAT="target/jmh/$COMMIT.json"
+
+mvn -B -q -Pjmh test-compile exec:exec -Djmh.filtre="$FILTRE" -Djmh.resultat="$RESULTAT"
+echo "Résultats : $RESULTAT"
+
+if [ -n "$REFERENCE" ]; then
+  mvn -B -q dependency:build-classpath -Dmdep.outputFile=target/classpath.txt -Dmdep.includeScope=test
+  java -cp "target/test-classes:target/classes:$(cat target/classpath.txt)" \
+    gestion.projets.bench.ComparerJmh "$REFERENCE" "$RESULTAT" "$SEUIL"
+fi
@@ -0,0 +1,47 @@
+#!/usr/bin/env bash
+# Banc d'essai : threads de plateforme contre threads virtuels sur les endpoints /api/taches
+# Démarre GestionProjetApplication dans chaque mode, lance BancThreads, puis écrit les résultats
+# (une ligne JSON par mode et par endpoint) dans target/banc-threads.jsonl.
+#
+# Usage : scripts/banc-threads.sh [utilisateurs=400] [chauffeSecondes=10] [mesureSecondes=30]
+# Pour reproduire une base lente, pointer SPRING_DATASOURCE_URL vers un proxy qui ajoute de la latence.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+UTILISATEURS=${1:-400}
+CHAUFFE=${2:-10}
+MESURE=${3:-30}
+PORT=${PORT:-8080}
+SORTIE=target/banc-threads.jsonl
+
+mvn -B -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+CLASSPATH_APP="target/classes:$(cat target/classpath.txt)"
+: > "$SORTIE"
+
+for MODE in plateforme virtuel; do
+  VIRTUEL=false
+  [ "$MODE" = virtuel ] && VIRTUEL=true
+
+  java -cp "$CLASSPATH_APP" gestion.projets.GestionProjetApplication \
+    --server.port="$PORT" \
+    --spring.threads.virtual.enabled="$VIRTUEL" \
+    --spring.jpa.show-sql=false \
+    --logging.level.org.hibernate.SQL=WARN \
+    --logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN \
+    > "target/banc-threads-$MODE.log" 2>&1 &
+  PID=$!
+  trap 'kill $PID 2>/dev/null || true' EXIT
+
+  until curl -sf "http://localhost:$PORT/api/taches/page" > /dev/null; do
+    kill -0 "$PID" 2>/dev/null || { echo "Échec du démarrage ($MODE), voir target/banc-threads-$MODE.log"; exit 1; }
+    sleep 1
+  done
+
+  java -cp "target/test-classes" gestion.projets.bench.BancThreads \
+    "http://localhost:$PORT" "$MODE" "$UTILISATEURS" "$CHAUFFE" "$MESURE" | tee -a "$SORTIE"
+
+  kill "$PID"
+  wait "$PID" 2>/dev/null || true
+done
+
+echo "Résultats : $SORTIE"
@@ -0,0 +1,68 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Index secondaires des deux applications, repris à l'identique par les @Index des entités
+ * idx_tache_periode et idx_projet_periode existent déjà sur les bases créées par ddl-auto=update :
+ * chaque index n'est créé que s'il manque. La vérification passe par les métadonnées JDBC, si bien que
+ * la même migration est jouée sur MySQL et sur la base H2 des tests (PlansRequetesTests, PlansRequetesStockTests).
+ */
+public class V2__index_secondaires extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connexion = context.getConnection();
+
+        // Tâches : chevauchement de périodes, tâches d'un projet (par statut), tâches par statut, tâches en retard
+        // (date_fin < ? AND statut <> 'TERMINEE' : le filtre sur le statut est résolu dans l'index)
+        creerIndex(connexion, "tache", "idx_tache_periode", "date_debut, date_fin");
+        creerIndex(connexion, "tache", "idx_tache_projet_statut", "id_projet, statut");
+        creerIndex(connexion, "tache", "idx_tache_statut_fin", "statut, date_fin");
+        creerIndex(connexion, "tache", "idx_tache_fin_statut", "date_fin, statut");
+
+        // Projets : chevauchement de périodes, projets actifs (date_fin IS NULL OR date_fin >= ?)
+        creerIndex(connexion, "projet", "idx_projet_periode", "date_debut, date_fin");
+        creerIndex(connexion, "projet", "idx_projet_fin", "date_fin");
+
+        // Affectations : couvrants dans les deux sens (employés et rôles d'une tâche, tâches d'un employé)
+        creerIndex(connexion, "employee_tache", "idx_affectation_tache", "id_tache, matricule, role");
+        creerIndex(connexion, "employee_tache", "idx_affectation_employe", "matricule, id_tache");
+
+        // Dépendances : prédécesseurs d'une tâche (la clé primaire commence par id_predecesseur)
+        creerIndex(connexion, "dependance_tache", "idx_dependance_tache", "id_tache, id_predecesseur");
+
+        // Stock : commandes par date, produits au-dessus d'un prix, lignes par produit et par commande
+        creerIndex(connexion, "commande", "idx_commande_date", "`date`");
+        creerIndex(connexion, "produit", "idx_produit_prix", "prix");
+        creerIndex(connexion, "ligne_commande_produit", "idx_ligne_produit_commande", "produit_id, commande_id");
+        creerIndex(connexion, "ligne_commande_produit", "idx_ligne_commande_produit", "commande_id, produit_id");
+    }
+
+    private static void creerIndex(Connection connexion, String table, String index, String colonnes) throws SQLException {
+        if (!indexExiste(connexion, table, index)) {
+            try (Statement instruction = connexion.createStatement()) {
+                instruction.execute("CREATE INDEX " + index + " ON " + table + " (" + colonnes + ")");
+            }
+        }
+    }
+
+    private static boolean indexExiste(Connection connexion, String table, String index) throws SQLException {
+        try (ResultSet lignes = connexion.getMetaData()
+                .getIndexInfo(connexion.getCatalog(), connexion.getSchema(), table, false, true)) {
+            while (lignes.next()) {
+                if (index.equalsIgnoreCase(lignes.getString("INDEX_NAME"))
+                        && table.equalsIgnoreCase(lignes.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,41 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Colonnes de verrouillage optimiste (@Version) des projets, tâches et employés
+ * Une base créée par ddl-auto=update avant leur ajout n'a pas ces colonnes, et V1 ne modifie pas les tables
+ * existantes : chaque colonne n'est ajoutée que si elle manque (métadonnées JDBC), à 0 pour les lignes déjà présentes
+ */
+public class V3__colonnes_version extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection connexion = context.getConnection();
+        for (String table : new String[] {"projet", "tache", "employe"}) {
+            if (!colonneExiste(connexion, table, "version")) {
+                try (Statement instruction = connexion.createStatement()) {
+                    instruction.execute("ALTER TABLE " + table + " ADD COLUMN version BIGINT DEFAULT 0 NOT NULL");
+                }
+            }
+        }
+    }
+
+    private static boolean colonneExiste(Connection connexion, String table, String colonne) throws SQLException {
+        try (ResultSet lignes = connexion.getMetaData().getColumns(connexion.getCatalog(), connexion.getSchema(), table, null)) {
+            while (lignes.next()) {
+                if (colonne.equalsIgnoreCase(lignes.getString("COLUMN_NAME"))
+                        && table.equalsIgnoreCase(lignes.getString("TABLE_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
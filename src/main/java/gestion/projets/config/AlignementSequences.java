@@ -0,0 +1,66 @@
+package gestion.projets.config;
+
+import gestion.projets.model.SequencesIdentifiants;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Aligne au démarrage les séquences d'identifiants sur les données existantes
+ * Les lignes créées avant le passage aux générateurs par table (IDENTITY), ou insérées hors de l'application,
+ * ont des IDs que la séquence ne connaît pas : la valeur suivante est portée au-delà du plus grand ID
+ */
+@Component
+public class AlignementSequences {
+
+    private static final Logger log = LoggerFactory.getLogger(AlignementSequences.class);
+
+    /**
+     * Séquence, table et colonne d'identifiant alignées
+     */
+    private static final List<String[]> SEQUENCES = List.of(
+            new String[]{"tache", "tache", "id_tache"},
+            new String[]{"projet", "projet", "id_projet"}
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Injectée pour garantir que le schéma (dont la table des séquences) est à jour avant l'alignement
+     */
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void aligner() {
+        for (String[] sequence : SEQUENCES) {
+            aligner(sequence[0], sequence[1], sequence[2]);
+        }
+    }
+
+    private void aligner(String nom, String table, String colonne) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(" + colonne + "), 0) FROM " + table, Long.class);
+        // Marge d'un bloc complet : sûre quelle que soit l'interprétation de la valeur stockée par l'optimiseur
+        long minimum = max + SequencesIdentifiants.TAILLE_ALLOCATION + 1;
+
+        List<Long> valeurs = jdbcTemplate.queryForList(
+                "SELECT " + SequencesIdentifiants.COLONNE_VALEUR + " FROM " + SequencesIdentifiants.TABLE
+                        + " WHERE " + SequencesIdentifiants.COLONNE_NOM + " = ?", Long.class, nom);
+        if (valeurs.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO " + SequencesIdentifiants.TABLE + " (" + SequencesIdentifiants.COLONNE_NOM
+                    + ", " + SequencesIdentifiants.COLONNE_VALEUR + ") VALUES (?, ?)", nom, minimum);
+            log.info("Séquence {} initialisée à {}", nom, minimum);
+        } else if (valeurs.get(0) < minimum) {
+            jdbcTemplate.update("UPDATE " + SequencesIdentifiants.TABLE + " SET " + SequencesIdentifiants.COLONNE_VALEUR
+                    + " = ? WHERE " + SequencesIdentifiants.COLONNE_NOM + " = ?", minimum, nom);
+            log.info("Séquence {} avancée de {} à {}", nom, valeurs.get(0), minimum);
+        }
+    }
+}
@@ -0,0 +1,357 @@
+package gestion.projets.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Mesure le nombre de requêtes SQL de chaque requête HTTP et le confronte au budget de l'endpoint
+ * Si un tampon est configuré (requetes-sql.taille-max-tampon, ou mode ECHEC), la réponse est gardée en mémoire
+ * jusqu'à cette taille, afin que les chargements paresseux déclenchés pendant la sérialisation JSON soient comptés
+ * dans l'en-tête X-Requetes-Sql, posé avant l'envoi. Un corps plus gros, ou diffusé après le retour du contrôleur
+ * (traitement asynchrone), part au fil de l'eau sans l'en-tête : le dépassement de budget est alors seulement
+ * journalisé. Sans tampon (par défaut), la réponse n'est pas enveloppée et le budget est seulement journalisé.
+ */
+public class BudgetRequetesSqlFiltre extends OncePerRequestFilter {
+
+    public static final String ENTETE = "X-Requetes-Sql";
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetRequetesSqlFiltre.class);
+
+    private final RequetesSqlProperties proprietes;
+    private final AntPathMatcher chemins = new AntPathMatcher();
+
+    public BudgetRequetesSqlFiltre(RequetesSqlProperties proprietes) {
+        this.proprietes = proprietes;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String chemin = request.getRequestURI().substring(request.getContextPath().length());
+        return proprietes.getExclusions().stream().anyMatch(exclusion -> chemins.match(exclusion, chemin));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        int tailleTampon = proprietes.tailleTampon();
+        ReponseBornee reponse = tailleTampon > 0 ? new ReponseBornee(response, tailleTampon) : null;
+        CompteurRequetesSql.Releve releve;
+        CompteurRequetesSql.demarrer();
+        try {
+            filterChain.doFilter(request, reponse != null ? reponse : response);
+        } finally {
+            releve = CompteurRequetesSql.arreter();
+        }
+
+        if (reponse == null) {
+            String endpoint = endpoint(request);
+            if (endpoint != null) {
+                verifier(endpoint, releve, null);
+            }
+            return;
+        }
+
+        reponse.viderEcrivain();
+        if (request.isAsyncStarted()) {
+            // Le corps sera écrit par un autre thread, après le retour du filtre
+            reponse.passerEnDirect();
+        }
+        if (!reponse.isDirecte()) {
+            reponse.setHeader(ENTETE, String.valueOf(releve.getTotal()));
+        }
+        String endpoint = endpoint(request);
+        if (endpoint != null) {
+            verifier(endpoint, releve, reponse);
+        }
+        reponse.terminer();
+    }
+
+    /**
+     * @param reponse Réponse gardée en mémoire, null si elle n'est pas enveloppée (déjà envoyée)
+     */
+    private void verifier(String endpoint, CompteurRequetesSql.Releve releve, ReponseBornee reponse) throws IOException {
+        Map.Entry<String, Integer> plusRepetee = releve.getPlusRepetee();
+        boolean repetition = plusRepetee != null && plusRepetee.getValue() >= proprietes.getSeuilRepetitions();
+        if (repetition) {
+            log.warn("N+1 probable sur {} : requête exécutée {} fois : {}", endpoint, plusRepetee.getValue(), plusRepetee.getKey());
+        }
+
+        int budget = proprietes.budgetPour(endpoint);
+        if (releve.getTotal() <= budget) {
+            return;
+        }
+        String message = "Budget SQL dépassé sur " + endpoint + " : " + releve.getTotal() + " requêtes pour un budget de " + budget
+                + (repetition ? " (requête répétée " + plusRepetee.getValue() + " fois : " + plusRepetee.getKey() + ")" : "");
+        log.warn(message);
+        if (proprietes.getMode() == RequetesSqlProperties.Mode.LOG) {
+            return;
+        }
+        if (reponse == null || reponse.isDirecte()) {
+            log.warn("Réponse de {} déjà envoyée : le dépassement de budget ne peut pas la remplacer", endpoint);
+            return;
+        }
+        reponse.remplacer(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, message);
+    }
+
+    /**
+     * @return Endpoint traité ("Controleur.methode"), ou null si la requête n'a pas atteint de contrôleur
+     */
+    private static String endpoint(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod methode) {
+            return methode.getBeanType().getSimpleName() + "." + methode.getMethod().getName();
+        }
+        return null;
+    }
+
+    /**
+     * Réponse gardée en mémoire tant que son corps ne dépasse pas une taille donnée
+     * Au-delà, le début du corps est écrit sur la réponse d'origine et la suite y passe directement.
+     */
+    static final class ReponseBornee extends HttpServletResponseWrapper {
+
+        private final int tailleMax;
+
+        /**
+         * Corps en attente d'envoi ; null une fois la réponse passée en direct
+         */
+        private FastByteArrayOutputStream tampon = new FastByteArrayOutputStream();
+
+        /**
+         * Longueur annoncée par l'application, transmise seulement si le corps part tel quel
+         */
+        private Long longueur;
+
+        private ServletOutputStream flux;
+        private PrintWriter ecrivain;
+
+        ReponseBornee(HttpServletResponse response, int tailleMax) {
+            super(response);
+            this.tailleMax = tailleMax;
+        }
+
+        /**
+         * @return true si le corps n'est plus gardé en mémoire (l'en-tête ne peut plus être posé avant l'envoi)
+         */
+        boolean isDirecte() {
+            return tampon == null;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (ecrivain != null) {
+                throw new IllegalStateException("getWriter() a déjà été appelé sur cette réponse");
+            }
+            if (flux == null) {
+                flux = new FluxBorne();
+            }
+            return flux;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (ecrivain == null) {
+                if (flux != null) {
+                    throw new IllegalStateException("getOutputStream() a déjà été appelé sur cette réponse");
+                }
+                flux = new FluxBorne();
+                ecrivain = new PrintWriter(new OutputStreamWriter(flux, getCharacterEncoding()));
+            }
+            return ecrivain;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (tampon != null) {
+                longueur = len;
+            } else {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            // Appelé par Spring MVC après chaque corps : rien à envoyer tant que le corps est gardé en mémoire
+            if (tampon == null) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (tampon != null) {
+                tampon.reset();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (tampon != null) {
+                tampon.reset();
+                longueur = null;
+            }
+            super.reset();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            abandonnerTampon();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            abandonnerTampon();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            abandonnerTampon();
+            super.sendRedirect(location);
+        }
+
+        /**
+         * Vide l'écrivain éventuel dans le tampon
+         */
+        void viderEcrivain() {
+            if (ecrivain != null) {
+                ecrivain.flush();
+            }
+        }
+
+        /**
+         * Écrit le corps gardé en mémoire sur la réponse d'origine ; la suite y passe directement
+         */
+        void passerEnDirect() throws IOException {
+            if (tampon == null) {
+                return;
+            }
+            FastByteArrayOutputStream contenu = tampon;
+            tampon = null;
+            if (longueur != null) {
+                super.setContentLengthLong(longueur);
+            }
+            if (contenu.size() > 0) {
+                contenu.writeTo(getResponse().getOutputStream());
+            }
+        }
+
+        /**
+         * Remplace le corps gardé en mémoire par un message texte
+         */
+        void remplacer(int statut, String message) throws IOException {
+            byte[] octets = message.getBytes(StandardCharsets.UTF_8);
+            tampon = null;
+            HttpServletResponse cible = (HttpServletResponse) getResponse();
+            cible.setStatus(statut);
+            cible.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            cible.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            cible.setContentLength(octets.length);
+            cible.getOutputStream().write(octets);
+        }
+
+        /**
+         * Envoie le corps resté en mémoire, avec sa longueur
+         */
+        void terminer() throws IOException {
+            if (tampon == null) {
+                return;
+            }
+            if (tampon.size() > 0 && getHeader(HttpHeaders.TRANSFER_ENCODING) == null) {
+                longueur = (long) tampon.size();
+            }
+            passerEnDirect();
+        }
+
+        private void abandonnerTampon() {
+            tampon = null;
+            longueur = null;
+        }
+
+        /**
+         * @return Destination des "taille" octets suivants du corps
+         */
+        private OutputStream destination(int taille) throws IOException {
+            if (tampon != null && tampon.size() + taille > tailleMax) {
+                passerEnDirect();
+            }
+            return tampon != null ? tampon : getResponse().getOutputStream();
+        }
+
+        /**
+         * Flux du corps : en mémoire jusqu'à la taille maximale, puis vers la réponse d'origine
+         */
+        private final class FluxBorne extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                destination(1).write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                destination(len).write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (tampon == null) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                if (tampon != null) {
+                    return true;
+                }
+                try {
+                    return getResponse().getOutputStream().isReady();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            /**
+             * Écriture non bloquante : le corps part au fil de l'eau, le flux de la réponse d'origine prend l'écouteur
+             */
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                try {
+                    passerEnDirect();
+                    getResponse().getOutputStream().setWriteListener(writeListener);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package gestion.projets.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration du cache des résultats agrégés
+ * Désactivable avec gestion.cache.repartition-statuts=false
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(name = "gestion.cache.repartition-statuts", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+
+    /**
+     * Cache de la répartition des tâches par projet et par statut
+     */
+    public static final String REPARTITION_STATUTS = "repartitionStatuts";
+
+    /**
+     * Les invalidations sont appliquées après le commit de la transaction d'écriture,
+     * pour qu'une lecture concurrente ne remette pas en cache un état non validé
+     * @return Gestionnaire de cache en mémoire
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        return new TransactionAwareCacheManagerProxy(new ConcurrentMapCacheManager(REPARTITION_STATUTS));
+    }
+}
@@ -0,0 +1,20 @@
+package gestion.projets.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres du calcul de capacité des employés
+ * Valeurs lues depuis les propriétés "capacite.*"
+ */
+@Component
+@ConfigurationProperties(prefix = "capacite")
+@Data
+public class CapaciteProperties {
+
+    /**
+     * Nombre maximum de jours d'une période de calcul, bornes incluses
+     */
+    private int fenetreMaxJours = 366;
+}
@@ -0,0 +1,84 @@
+package gestion.projets.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate sur le thread courant, entre demarrer() et arreter()
+ * Chaque texte SQL est aussi compté séparément : une même requête répétée de nombreuses fois
+ * pendant une requête HTTP signale un chargement N+1.
+ * Les lots JDBC comptent pour une requête ; les accès par JdbcTemplate ne sont pas vus.
+ */
+public class CompteurRequetesSql implements StatementInspector {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Releve> RELEVE = new ThreadLocal<>();
+
+    /**
+     * Commence le relevé du thread courant
+     */
+    public static void demarrer() {
+        RELEVE.set(new Releve());
+    }
+
+    /**
+     * Termine le relevé du thread courant
+     * @return Relevé des requêtes exécutées depuis demarrer()
+     */
+    public static Releve arreter() {
+        Releve releve = RELEVE.get();
+        RELEVE.remove();
+        return releve != null ? releve : new Releve();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Releve releve = RELEVE.get();
+        if (releve != null) {
+            releve.enregistrer(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Requêtes SQL exécutées pendant un relevé
+     */
+    public static final class Releve {
+
+        private final Map<String, Integer> parRequete = new HashMap<>();
+        private int total;
+
+        private void enregistrer(String sql) {
+            total++;
+            parRequete.merge(sql, 1, Integer::sum);
+        }
+
+        /**
+         * @return Nombre total de requêtes
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return Textes SQL distincts exécutés pendant le relevé
+         */
+        public Set<String> getRequetes() {
+            return Collections.unmodifiableSet(parRequete.keySet());
+        }
+
+        /**
+         * @return Requête la plus répétée et son nombre d'exécutions (null si aucune requête)
+         */
+        public Map.Entry<String, Integer> getPlusRepetee() {
+            return parRequete.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .orElse(null);
+        }
+    }
+}
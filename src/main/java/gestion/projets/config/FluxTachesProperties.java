@@ -0,0 +1,37 @@
+package gestion.projets.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Paramètres du flux des changements de tâches (Server-Sent Events)
+ * Valeurs lues depuis les propriétés "flux-taches.*"
+ */
+@Component
+@ConfigurationProperties(prefix = "flux-taches")
+@Data
+public class FluxTachesProperties {
+
+    /**
+     * Nombre maximum d'abonnés simultanés
+     */
+    private int abonnesMax = 10_000;
+
+    /**
+     * Nombre maximum de changements en attente d'envoi par abonné ; au-delà, l'abonné est resynchronisé
+     */
+    private int tailleTampon = 256;
+
+    /**
+     * Durée de vie d'un abonnement ; le client (EventSource) se reconnecte ensuite de lui-même
+     */
+    private Duration delaiExpiration = Duration.ofMinutes(30);
+
+    /**
+     * Intervalle des commentaires envoyés aux abonnés inactifs (détection des connexions fermées)
+     */
+    private Duration intervallePulsation = Duration.ofSeconds(20);
+}
@@ -0,0 +1,57 @@
+package gestion.projets.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Encodages binaires des réponses de l'API, négociés par l'en-tête Accept
+ * (application/cbor ou application/x-jackson-smile ; JSON reste l'encodage par défaut).
+ * Les mappers reprennent la configuration Jackson de Spring Boot : seule la représentation change,
+ * les champs et les dates ISO sont ceux du JSON. La compression est réglée par server.compression.*.
+ */
+@Configuration
+public class FormatsBinairesConfig implements WebMvcConfigurer {
+
+    /**
+     * @param builder Constructeur de mappers configuré par Spring Boot (un nouveau par injection)
+     * @return Convertisseur CBOR, à la place de celui que Spring MVC crée avec une configuration par défaut
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter convertisseurCbor(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * @param builder Constructeur de mappers configuré par Spring Boot (un nouveau par injection)
+     * @return Convertisseur Smile, à la place de celui que Spring MVC crée avec une configuration par défaut
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter convertisseurSmile(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Une même URL de l'API a plusieurs représentations : les caches doivent tenir compte de l'en-tête Accept
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,104 @@
+package gestion.projets.config;
+
+/**
+ * Limite de concurrence adaptative d'un groupe d'endpoints (AIMD : croissance additive, réduction multiplicative)
+ * Chaque requête réussie sous la latence cible augmente la limite de 1/limite (soit +1 par "fenêtre" complète),
+ * pourvu que la limite soit réellement sollicitée. Une requête en échec ou trop lente la multiplie par le facteur
+ * de réduction, au plus une fois par fenêtre : les requêtes admises avant la dernière réduction ont subi la même
+ * surcharge, leurs signaux sont ignorés (sans quoi une rafale d'échecs ramènerait la limite au plancher d'un coup).
+ * Les requêtes lourdes ne peuvent occuper qu'une part de la limite : la part restante est réservée
+ * aux lectures légères.
+ */
+public class LimiteAimd {
+
+    private final int limiteMin;
+    private final int limiteMax;
+    private final double facteurReduction;
+    private final double partLourdes;
+
+    private double limite;
+    private int actives;
+    private int activesLourdes;
+
+    /**
+     * Instant (System.nanoTime) de la dernière réduction
+     */
+    private long derniereReduction;
+
+    /**
+     * @param limiteInitiale Limite au démarrage
+     * @param limiteMin Limite plancher
+     * @param limiteMax Limite plafond
+     * @param facteurReduction Facteur appliqué à la limite sur un échec ou une latence excessive (entre 0 et 1)
+     * @param partLourdes Part de la limite accessible aux requêtes lourdes (entre 0 et 1)
+     */
+    public LimiteAimd(int limiteInitiale, int limiteMin, int limiteMax, double facteurReduction, double partLourdes) {
+        if (limiteMin < 1 || limiteMax < limiteMin || limiteInitiale < limiteMin || limiteInitiale > limiteMax) {
+            throw new IllegalArgumentException("Limites incohérentes : 1 <= min <= initiale <= max attendu");
+        }
+        if (facteurReduction <= 0 || facteurReduction >= 1 || partLourdes <= 0 || partLourdes > 1) {
+            throw new IllegalArgumentException("Facteur de réduction dans ]0, 1[ et part des requêtes lourdes dans ]0, 1] attendus");
+        }
+        this.limiteMin = limiteMin;
+        this.limiteMax = limiteMax;
+        this.facteurReduction = facteurReduction;
+        this.partLourdes = partLourdes;
+        this.limite = limiteInitiale;
+        this.derniereReduction = System.nanoTime();
+    }
+
+    /**
+     * Réserve une place pour une requête
+     * @param lourde true pour une requête lourde (liste complète, export, import)
+     * @return true si la requête est admise (liberer() doit alors être appelé), false si elle doit être rejetée
+     */
+    public synchronized boolean acquerir(boolean lourde) {
+        if (actives >= (int) limite) {
+            return false;
+        }
+        if (lourde) {
+            if (activesLourdes >= Math.max(1, (int) (limite * partLourdes))) {
+                return false;
+            }
+            activesLourdes++;
+        }
+        actives++;
+        return true;
+    }
+
+    /**
+     * Rend la place d'une requête admise et ajuste la limite
+     * @param lourde Valeur passée à acquerir()
+     * @param debut Instant (System.nanoTime) relevé avant acquerir()
+     * @param surcharge true si la requête signale une surcharge (échec serveur, ou latence au-delà de la cible)
+     */
+    public synchronized void liberer(boolean lourde, long debut, boolean surcharge) {
+        boolean sollicitee = actives * 2 >= limite;
+        actives--;
+        if (lourde) {
+            activesLourdes--;
+        }
+        if (surcharge) {
+            if (debut - derniereReduction >= 0) {
+                limite = Math.max(limiteMin, limite * facteurReduction);
+                derniereReduction = System.nanoTime();
+            }
+        } else if (sollicitee) {
+            limite = Math.min(limiteMax, limite + 1 / limite);
+        }
+    }
+
+    /**
+     * @return Limite courante (nombre de requêtes simultanées admises)
+     */
+    public synchronized int getLimite() {
+        return (int) limite;
+    }
+
+    /**
+     * @return Nombre de requêtes en cours
+     */
+    public synchronized int getActives() {
+        return actives;
+    }
+}
@@ -0,0 +1,28 @@
+package gestion.projets.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limiteur de concurrence adaptatif par groupe d'endpoints (limiteur.actif=false pour le désactiver)
+ * Importée aussi par StockManagementApplication.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "limiteur", name = "actif", matchIfMissing = true)
+@EnableConfigurationProperties(LimiteurConcurrenceProperties.class)
+public class LimiteurConcurrenceConfig {
+
+    /**
+     * @param proprietes Groupes d'endpoints et paramètres de leurs limites
+     * @param registre Registre des jauges et compteurs du limiteur
+     * @return Filtre limiteur
+     */
+    @Bean
+    public LimiteurConcurrenceFiltre limiteurConcurrenceFiltre(LimiteurConcurrenceProperties proprietes,
+                                                               MeterRegistry registre) {
+        return new LimiteurConcurrenceFiltre(proprietes, registre);
+    }
+}
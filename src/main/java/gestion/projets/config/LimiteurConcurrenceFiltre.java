@@ -0,0 +1,231 @@
+package gestion.projets.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Limite le nombre de requêtes simultanées par groupe d'endpoints (LimiteAimd) et rejette l'excédent
+ * en 503 avec un en-tête Retry-After, avant que les requêtes n'attendent un thread Tomcat ou une connexion Hikari.
+ * Une réponse diffusée en asynchrone (export NDJSON) garde sa place jusqu'à la fin de la diffusion.
+ * Métriques : jauges "limiteur.limite" et "limiteur.actives" (étiquette groupe), compteur "limiteur.rejets"
+ * (étiquettes groupe et priorite).
+ */
+public class LimiteurConcurrenceFiltre extends OncePerRequestFilter implements Ordered {
+
+    private final List<GroupeLimite> groupes;
+    private final List<String> exclusions;
+    private final AntPathMatcher motifs = new AntPathMatcher();
+
+    public LimiteurConcurrenceFiltre(LimiteurConcurrenceProperties proprietes, MeterRegistry registre) {
+        this.groupes = proprietes.getGroupes().entrySet().stream()
+                .map(groupe -> new GroupeLimite(groupe.getKey(), groupe.getValue(), registre))
+                .toList();
+        this.exclusions = List.copyOf(proprietes.getExclusions());
+    }
+
+    /**
+     * Après le filtre d'observation des requêtes HTTP : les rejets apparaissent dans http.server.requests
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    /**
+     * @param groupe Nom du groupe
+     * @return Limite du groupe
+     * @throws IllegalArgumentException si le groupe n'est pas configuré
+     */
+    public LimiteAimd getLimite(String groupe) {
+        return groupes.stream()
+                .filter(candidat -> candidat.nom.equals(groupe))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Groupe non configuré : " + groupe))
+                .limite;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String chemin = chemin(request);
+        return exclusions.stream().anyMatch(exclusion -> motifs.match(exclusion, chemin)) || groupe(chemin) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String chemin = chemin(request);
+        GroupeLimite groupe = groupe(chemin);
+        boolean lourde = groupe.estLourde(request.getMethod(), chemin);
+
+        long debut = System.nanoTime();
+        if (!groupe.limite.acquerir(lourde)) {
+            (lourde ? groupe.rejetsLourdes : groupe.rejetsLegeres).increment();
+            rejeter(groupe, response);
+            return;
+        }
+
+        boolean echec = true;
+        try {
+            filterChain.doFilter(request, response);
+            echec = false;
+        } finally {
+            if (!echec && request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberationAsynchrone(groupe, lourde, debut));
+            } else {
+                groupe.liberer(lourde, debut, echec || surcharge(response));
+            }
+        }
+    }
+
+    private void rejeter(GroupeLimite groupe, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(groupe.secondesNouvelEssai));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getOutputStream().write(("Trop de requêtes simultanées (" + groupe.nom + "), réessayer dans "
+                + groupe.secondesNouvelEssai + " s").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Erreur serveur, hors 503 : un index en construction ou un flux saturé ne signale pas une base surchargée
+     */
+    private static boolean surcharge(HttpServletResponse response) {
+        int statut = response.getStatus();
+        return statut >= 500 && statut != HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
+    private static String chemin(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private GroupeLimite groupe(String chemin) {
+        for (GroupeLimite groupe : groupes) {
+            if (groupe.chemins.stream().anyMatch(motif -> motifs.match(motif, chemin))) {
+                return groupe;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Groupe d'endpoints : sa limite, ses requêtes lourdes et ses métriques
+     */
+    private final class GroupeLimite {
+
+        private final String nom;
+        private final List<String> chemins;
+        private final List<Map.Entry<String, String>> lourdes;
+        private final LimiteAimd limite;
+        private final long latenceCibleNanos;
+        private final long secondesNouvelEssai;
+        private final Counter rejetsLegeres;
+        private final Counter rejetsLourdes;
+
+        private GroupeLimite(String nom, LimiteurConcurrenceProperties.Groupe proprietes, MeterRegistry registre) {
+            this.nom = nom;
+            this.chemins = List.copyOf(proprietes.getChemins());
+            this.lourdes = proprietes.getLourdes().stream()
+                    .map(String::trim)
+                    .map(lourde -> {
+                        int espace = lourde.indexOf(' ');
+                        return espace < 0 ? Map.entry("", lourde)
+                                : Map.entry(lourde.substring(0, espace), lourde.substring(espace + 1).trim());
+                    })
+                    .toList();
+            this.limite = new LimiteAimd(proprietes.getLimiteInitiale(), proprietes.getLimiteMin(),
+                    proprietes.getLimiteMax(), proprietes.getFacteurReduction(), proprietes.getPartLourdes());
+            this.latenceCibleNanos = proprietes.getLatenceCible().toNanos();
+            this.secondesNouvelEssai = Math.max(1, (proprietes.getDelaiNouvelEssai().toMillis() + 999) / 1000);
+
+            Gauge.builder("limiteur.limite", limite, LimiteAimd::getLimite)
+                    .description("Requêtes simultanées admises")
+                    .tag("groupe", nom)
+                    .register(registre);
+            Gauge.builder("limiteur.actives", limite, LimiteAimd::getActives)
+                    .description("Requêtes en cours")
+                    .tag("groupe", nom)
+                    .register(registre);
+            this.rejetsLegeres = rejets(registre, "legere");
+            this.rejetsLourdes = rejets(registre, "lourde");
+        }
+
+        private Counter rejets(MeterRegistry registre, String priorite) {
+            return Counter.builder("limiteur.rejets")
+                    .description("Requêtes rejetées en 503 par le limiteur")
+                    .tag("groupe", nom)
+                    .tag("priorite", priorite)
+                    .register(registre);
+        }
+
+        private boolean estLourde(String methode, String chemin) {
+            return lourdes.stream().anyMatch(lourde ->
+                    (lourde.getKey().isEmpty() || lourde.getKey().equalsIgnoreCase(methode))
+                            && motifs.match(lourde.getValue(), chemin));
+        }
+
+        /**
+         * Seule la latence des requêtes légères est un signal de surcharge : une liste complète ou un export
+         * sont longs par nature
+         */
+        private void liberer(boolean lourde, long debut, boolean echec) {
+            boolean lente = !lourde && System.nanoTime() - debut > latenceCibleNanos;
+            limite.liberer(lourde, debut, echec || lente);
+        }
+    }
+
+    /**
+     * Libère la place d'une réponse asynchrone à la fin de sa diffusion
+     */
+    private static final class LiberationAsynchrone implements AsyncListener {
+
+        private final GroupeLimite groupe;
+        private final boolean lourde;
+        private final long debut;
+        private volatile boolean echec;
+
+        private LiberationAsynchrone(GroupeLimite groupe, boolean lourde, long debut) {
+            this.groupe = groupe;
+            this.lourde = lourde;
+            this.debut = debut;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            HttpServletResponse response = (HttpServletResponse) event.getSuppliedResponse();
+            groupe.liberer(lourde, debut, echec || surcharge(response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            echec = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            echec = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package gestion.projets.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paramètres du limiteur de concurrence adaptatif
+ * Valeurs lues depuis les propriétés "limiteur.*"
+ */
+@ConfigurationProperties(prefix = "limiteur")
+@Data
+public class LimiteurConcurrenceProperties {
+
+    /**
+     * Groupes d'endpoints, chacun avec sa propre limite (ex. "taches", "produits")
+     */
+    private Map<String, Groupe> groupes = new LinkedHashMap<>();
+
+    /**
+     * Chemins jamais limités : connexions longues (Server-Sent Events), outils
+     */
+    private List<String> exclusions = List.of("/api/taches/flux", "/actuator/**", "/api-docs/**", "/swagger-ui/**");
+
+    /**
+     * Paramètres d'un groupe d'endpoints
+     */
+    @Data
+    public static class Groupe {
+
+        /**
+         * Chemins du groupe (motifs Ant, ex. /api/taches/**)
+         */
+        private List<String> chemins = new ArrayList<>();
+
+        /**
+         * Requêtes lourdes du groupe : "METHODE motif" ou "motif" (toutes méthodes), ex. "GET /api/taches"
+         */
+        private List<String> lourdes = new ArrayList<>();
+
+        private int limiteInitiale = 20;
+        private int limiteMin = 2;
+        private int limiteMax = 200;
+
+        /**
+         * Latence des requêtes légères au-delà de laquelle la limite est réduite
+         * (les requêtes lourdes ne réduisent la limite qu'en cas d'échec)
+         */
+        private Duration latenceCible = Duration.ofMillis(500);
+
+        private double facteurReduction = 0.9;
+
+        /**
+         * Part de la limite accessible aux requêtes lourdes
+         */
+        private double partLourdes = 0.5;
+
+        /**
+         * Délai suggéré au client rejeté (en-tête Retry-After, arrondi à la seconde supérieure)
+         */
+        private Duration delaiNouvelEssai = Duration.ofSeconds(1);
+    }
+}
@@ -0,0 +1,156 @@
+package gestion.projets.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Métriques par méthode de repository Spring Data (gestion.projets.repository, ma.projet.dao)
+ * Chaque appel alimente un timer "repository.requetes" (histogramme de latence), une distribution
+ * "repository.lignes" (nombre de lignes retournées) et, en cas d'échec, un compteur "repository.erreurs",
+ * tous étiquetés par repository et par méthode.
+ * Pour une méthode qui retourne un Stream, le timer couvre l'exécution de la requête, et les lignes
+ * sont comptées à la fermeture du flux.
+ * Importée aussi par StockManagementApplication.
+ */
+@Configuration
+public class MetriquesRepositoriesConfig {
+
+    /**
+     * Ajoute l'intercepteur de mesure au proxy de chaque repository
+     * @param registre Registre Micrometer, résolu au premier appel d'un repository
+     * @return Post-processeur des fabriques de repositories
+     */
+    @Bean
+    public static BeanPostProcessor metriquesRepositories(ObjectProvider<MeterRegistry> registre) {
+        Supplier<MeterRegistry> registreDiffere = SingletonSupplier.of(registre::getObject);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> fabrique) {
+                    fabrique.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, information) -> proxy.addAdvice(
+                                    new MesureRequetes(registreDiffere, information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Intercepteur d'un repository : mesure chaque méthode appelée, les compteurs étant créés au premier appel
+     */
+    static class MesureRequetes implements MethodInterceptor {
+
+        private static final double[] SEUILS_LIGNES = {1, 10, 100, 1_000, 10_000, 100_000};
+
+        private final Supplier<MeterRegistry> registre;
+        private final String repository;
+        private final Map<Method, Mesures> mesures = new ConcurrentHashMap<>();
+
+        MesureRequetes(Supplier<MeterRegistry> registre, Class<?> repository) {
+            this.registre = registre;
+            this.repository = repository.getSimpleName();
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            Mesures cible = mesures.computeIfAbsent(invocation.getMethod(), this::creer);
+            long debut = System.nanoTime();
+            Object resultat;
+            try {
+                resultat = invocation.proceed();
+            } catch (Throwable e) {
+                cible.echecs.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+                Counter.builder("repository.erreurs")
+                        .description("Appels de repository terminés par une exception")
+                        .tag("repository", repository)
+                        .tag("methode", cible.methode)
+                        .tag("exception", e.getClass().getSimpleName())
+                        .register(registre.get())
+                        .increment();
+                throw e;
+            }
+            cible.succes.record(System.nanoTime() - debut, TimeUnit.NANOSECONDS);
+            return compterLignes(resultat, invocation.getMethod(), cible.lignes);
+        }
+
+        private Mesures creer(Method methode) {
+            MeterRegistry meterRegistry = registre.get();
+            String nom = methode.getName();
+            return new Mesures(nom,
+                    timer(meterRegistry, nom, "succes"),
+                    timer(meterRegistry, nom, "erreur"),
+                    DistributionSummary.builder("repository.lignes")
+                            .description("Nombre de lignes retournées par appel de repository")
+                            .baseUnit("lignes")
+                            .tag("repository", repository)
+                            .tag("methode", nom)
+                            .serviceLevelObjectives(SEUILS_LIGNES)
+                            .register(meterRegistry));
+        }
+
+        private Timer timer(MeterRegistry meterRegistry, String methode, String issue) {
+            return Timer.builder("repository.requetes")
+                    .description("Durée des appels de repository")
+                    .tag("repository", repository)
+                    .tag("methode", methode)
+                    .tag("issue", issue)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Enregistre le nombre de lignes du résultat ; les méthodes sans résultat ou scalaires (count, exists...)
+         * ne sont pas comptées
+         */
+        private static Object compterLignes(Object resultat, Method methode, DistributionSummary lignes) {
+            Class<?> type = methode.getReturnType();
+            if (type == void.class || type.isPrimitive() || Number.class.isAssignableFrom(type) || type == Boolean.class) {
+                return resultat;
+            }
+            if (resultat instanceof Stream<?> flux) {
+                AtomicLong nombre = new AtomicLong();
+                return flux.peek(element -> nombre.incrementAndGet()).onClose(() -> lignes.record(nombre.get()));
+            }
+            if (resultat == null) {
+                lignes.record(0);
+            } else if (resultat instanceof Collection<?> collection) {
+                lignes.record(collection.size());
+            } else if (resultat instanceof Slice<?> page) {
+                lignes.record(page.getNumberOfElements());
+            } else if (resultat instanceof Optional<?> optionnel) {
+                lignes.record(optionnel.isPresent() ? 1 : 0);
+            } else {
+                lignes.record(1);
+            }
+            return resultat;
+        }
+    }
+
+    private record Mesures(String methode, Timer succes, Timer echecs, DistributionSummary lignes) {
+    }
+}
@@ -0,0 +1,40 @@
+package gestion.projets.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Paramètres de la pagination par curseur
+ * Valeurs lues depuis les propriétés "pagination.*"
+ */
+@Component
+@ConfigurationProperties(prefix = "pagination")
+@Data
+public class PaginationProperties {
+
+    /**
+     * Nombre d'éléments par page lorsque le client n'en précise pas
+     */
+    private int tailleDefaut = 50;
+
+    /**
+     * Nombre maximum d'éléments par page accepté
+     */
+    private int tailleMax = 500;
+
+    /**
+     * Détermine la taille de page effective
+     * @param taille Taille demandée par le client (null pour la taille par défaut)
+     * @return Taille comprise entre 1 et tailleMax
+     */
+    public int resoudreTaille(Integer taille) {
+        if (taille == null) {
+            return tailleDefaut;
+        }
+        if (taille <= 0) {
+            throw new IllegalArgumentException("La taille de page doit être strictement positive");
+        }
+        return Math.min(taille, tailleMax);
+    }
+}
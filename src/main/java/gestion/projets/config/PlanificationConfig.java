@@ -0,0 +1,12 @@
+package gestion.projets.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active les tâches planifiées (bascule quotidienne de l'index des retards)
+ */
+@Configuration
+@EnableScheduling
+public class PlanificationConfig {
+}
@@ -0,0 +1,36 @@
+package gestion.projets.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Budget de requêtes SQL par requête HTTP
+ * Le compteur est branché comme StatementInspector d'Hibernate ; le filtre publie le nombre
+ * de requêtes dans l'en-tête X-Requetes-Sql et journalise les dépassements de budget (mode LOG, par défaut).
+ * Le mode ECHEC, qui répond en erreur 500, est réservé aux tests.
+ */
+@Configuration
+@EnableConfigurationProperties(RequetesSqlProperties.class)
+public class RequetesSqlConfig {
+
+    /**
+     * @return Personnalisation d'Hibernate déclarant le compteur de requêtes
+     */
+    @Bean
+    public HibernatePropertiesCustomizer compteurRequetesSql() {
+        CompteurRequetesSql compteur = new CompteurRequetesSql();
+        return proprietes -> proprietes.put(AvailableSettings.STATEMENT_INSPECTOR, compteur);
+    }
+
+    /**
+     * @param proprietes Budgets et mode de contrôle
+     * @return Filtre de contrôle du budget
+     */
+    @Bean
+    public BudgetRequetesSqlFiltre budgetRequetesSqlFiltre(RequetesSqlProperties proprietes) {
+        return new BudgetRequetesSqlFiltre(proprietes);
+    }
+}
@@ -0,0 +1,78 @@
+package gestion.projets.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Paramètres du budget de requêtes SQL par requête HTTP
+ * Valeurs lues depuis les propriétés "requetes-sql.*"
+ */
+@ConfigurationProperties(prefix = "requetes-sql")
+@Data
+public class RequetesSqlProperties {
+
+    /**
+     * Comportement en cas de dépassement : journaliser, ou répondre en erreur 500 (réservé aux tests)
+     */
+    public enum Mode {
+        LOG,
+        ECHEC
+    }
+
+    private Mode mode = Mode.LOG;
+
+    /**
+     * Budget des endpoints absents de "budgets"
+     */
+    private int budgetDefaut = 10;
+
+    /**
+     * Budget par endpoint, la clé étant "Controleur.methode" (ex. TacheController.getTacheById)
+     */
+    private Map<String, Integer> budgets = new HashMap<>();
+
+    /**
+     * Nombre d'exécutions d'une même requête SQL à partir duquel un chargement N+1 est signalé
+     */
+    private int seuilRepetitions = 5;
+
+    /**
+     * Taille du tampon du mode ECHEC quand tailleMaxTampon n'est pas renseignée
+     */
+    static final int TAMPON_ECHEC = 256 * 1024;
+
+    /**
+     * Taille maximale, en octets, d'une réponse gardée en mémoire pour y poser l'en-tête X-Requetes-Sql
+     * Une réponse plus grosse part au fil de l'eau, sans l'en-tête. 0 (par défaut) : aucune réponse n'est gardée
+     * en mémoire, le budget est seulement journalisé ; le profil "h2" (tests, bancs d'essai) l'active.
+     */
+    private int tailleMaxTampon = 0;
+
+    /**
+     * Chemins non mesurés : réponses diffusées en flux, outils
+     */
+    private List<String> exclusions = List.of("/api/taches/export", "/api/taches/flux", "/actuator/**", "/api-docs/**", "/swagger-ui/**");
+
+    /**
+     * @return Taille du tampon des réponses : tailleMaxTampon, ou TAMPON_ECHEC si elle n'est pas renseignée
+     * en mode ECHEC, qui doit pouvoir remplacer la réponse
+     */
+    public int tailleTampon() {
+        if (tailleMaxTampon <= 0 && mode == Mode.ECHEC) {
+            return TAMPON_ECHEC;
+        }
+        return Math.max(tailleMaxTampon, 0);
+    }
+
+    /**
+     * @param endpoint Endpoint ("Controleur.methode")
+     * @return Nombre maximum de requêtes SQL autorisées pour cet endpoint
+     */
+    public int budgetPour(String endpoint) {
+        return budgets.getOrDefault(endpoint, budgetDefaut);
+    }
+}
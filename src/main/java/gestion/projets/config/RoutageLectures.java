@@ -0,0 +1,70 @@
+package gestion.projets.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * État du routage des lectures pour la requête HTTP en cours (voir RoutageLecturesConfig)
+ * Après une écriture, les transactions en lecture seule de la même requête restent sur la base principale :
+ * la requête relit ce qu'elle vient d'écrire, même si la réplique est en retard.
+ * Hors requête (démarrage, tâches planifiées), les lectures vont à la réplique, sauf celles explicitement
+ * confiées à la principale (voir surPrincipale).
+ */
+public final class RoutageLectures {
+
+    private static final ThreadLocal<AtomicBoolean> ECRITURE = new ThreadLocal<>();
+
+    private RoutageLectures() {
+    }
+
+    /**
+     * Commence une requête sur le thread courant, sans écriture
+     */
+    public static void demarrer() {
+        ECRITURE.set(new AtomicBoolean());
+    }
+
+    /**
+     * Termine la requête du thread courant
+     */
+    public static void terminer() {
+        ECRITURE.remove();
+    }
+
+    /**
+     * Signale une connexion en écriture obtenue pendant la requête en cours (sans effet hors requête)
+     */
+    static void marquerEcriture() {
+        AtomicBoolean ecriture = ECRITURE.get();
+        if (ecriture != null) {
+            ecriture.set(true);
+        }
+    }
+
+    /**
+     * Exécute des lectures sur la base principale, même en lecture seule et hors requête
+     * Sert à la construction des index au démarrage : une réplique en retard leur ferait manquer des écritures
+     * dont les événements sont déjà reçus
+     * @param lectures Lectures à exécuter sur le thread courant
+     */
+    public static void surPrincipale(Runnable lectures) {
+        AtomicBoolean precedent = ECRITURE.get();
+        ECRITURE.set(new AtomicBoolean(true));
+        try {
+            lectures.run();
+        } finally {
+            if (precedent != null) {
+                ECRITURE.set(precedent);
+            } else {
+                ECRITURE.remove();
+            }
+        }
+    }
+
+    /**
+     * @return true si la requête en cours a déjà écrit sur la base principale (ou lit sur la principale)
+     */
+    public static boolean apresEcriture() {
+        AtomicBoolean ecriture = ECRITURE.get();
+        return ecriture != null && ecriture.get();
+    }
+}
@@ -0,0 +1,128 @@
+package gestion.projets.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Routage des transactions en lecture seule vers une réplique (active dès que replique.datasource.jdbc-url est renseignée)
+ * La source de données principale est un LazyConnectionDataSourceProxy : la connexion physique n'est prise qu'à la
+ * première instruction SQL, une fois la transaction marquée en lecture seule ou non. Les transactions
+ * "@Transactional(readOnly = true)" sont servies par la réplique, les autres (et les accès hors transaction) par la base
+ * principale. Après une écriture, la suite de la requête HTTP reste sur la principale (voir RoutageLectures).
+ * Hibernate ouvre les sessions en lecture seule sans instantanés des entités chargées ni flush.
+ * Suppose spring.jpa.open-in-view=false : une session ouverte pour toute la requête HTTP garderait la connexion de sa
+ * première transaction (DELAYED_ACQUISITION_AND_HOLD), et une écriture après une lecture partirait sur la réplique.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "replique.datasource", name = "jdbc-url")
+public class RoutageLecturesConfig {
+
+    /**
+     * @param proprietes Propriétés spring.datasource.* (URL, utilisateur, mot de passe, pilote)
+     * @return Pool de la base principale, réglé par spring.datasource.hikari.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource sourcePrincipale(DataSourceProperties proprietes) {
+        HikariDataSource source = proprietes.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        source.setPoolName("principale");
+        return source;
+    }
+
+    /**
+     * @return Pool de la réplique, réglé par replique.datasource.* (propriétés Hikari : jdbc-url, username, password...)
+     */
+    @Bean
+    @ConfigurationProperties("replique.datasource")
+    public HikariDataSource sourceReplique() {
+        HikariDataSource source = new HikariDataSource();
+        source.setPoolName("replique");
+        source.setReadOnly(true);
+        return source;
+    }
+
+    /**
+     * @param principale Pool de la base principale
+     * @param replique Pool de la réplique
+     * @return Source de données utilisée par JPA, JdbcTemplate et Flyway
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("sourcePrincipale") DataSource principale,
+                                 @Qualifier("sourceReplique") DataSource replique) throws SQLException {
+        LazyConnectionDataSourceProxy routage = new LazyConnectionDataSourceProxy(new SourceEcriture(principale));
+        routage.setReadOnlyDataSource(new SourceLecture(principale, replique));
+        // Réglages par défaut lus maintenant, hors requête : sinon la première connexion d'une requête les lirait
+        // sur la principale et marquerait la requête comme ayant écrit
+        routage.checkDefaultConnectionProperties();
+        return routage;
+    }
+
+    /**
+     * @return Filtre délimitant les requêtes HTTP pour la relecture après écriture
+     */
+    @Bean
+    public RoutageLecturesFiltre routageLecturesFiltre() {
+        return new RoutageLecturesFiltre();
+    }
+
+    /**
+     * Base principale, pour les transactions en écriture : chaque connexion délivrée marque la requête en cours
+     */
+    static class SourceEcriture extends DelegatingDataSource {
+
+        SourceEcriture(DataSource principale) {
+            super(principale);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connexion = super.getConnection();
+            RoutageLectures.marquerEcriture();
+            return connexion;
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            Connection connexion = super.getConnection(username, password);
+            RoutageLectures.marquerEcriture();
+            return connexion;
+        }
+    }
+
+    /**
+     * Source des transactions en lecture seule : la réplique, ou la principale si la requête en cours a déjà écrit
+     */
+    static class SourceLecture extends DelegatingDataSource {
+
+        private final DataSource principale;
+
+        SourceLecture(DataSource principale, DataSource replique) {
+            super(replique);
+            this.principale = principale;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return RoutageLectures.apresEcriture() ? principale.getConnection() : super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return RoutageLectures.apresEcriture()
+                    ? principale.getConnection(username, password) : super.getConnection(username, password);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package gestion.projets.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Délimite chaque requête HTTP pour le routage des lectures : une écriture n'influence
+ * que les lectures de la requête qui l'a faite
+ */
+public class RoutageLecturesFiltre extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RoutageLectures.demarrer();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RoutageLectures.terminer();
+        }
+    }
+}
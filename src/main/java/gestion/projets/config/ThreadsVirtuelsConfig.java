@@ -0,0 +1,185 @@
+package gestion.projets.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Mode d'exécution sur threads virtuels (spring.threads.virtual.enabled=true)
+ * Tomcat traite alors chaque requête, et la couche de service transactionnelle qu'elle appelle,
+ * sur un thread virtuel : le nombre de requêtes simultanées n'est plus borné par le pool de Tomcat.
+ * Le pool de connexions devient la seule limite ; pour que des milliers de threads virtuels
+ * n'encombrent pas Hikari, l'accès aux connexions passe par un sémaphore équitable de même taille.
+ * Importée aussi par StockManagementApplication.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class ThreadsVirtuelsConfig {
+
+    /**
+     * Taille retenue par Hikari quand maximum-pool-size n'est pas renseigné : getMaximumPoolSize() vaut -1
+     * jusqu'au démarrage du pool, qui applique alors cette valeur
+     */
+    static final int TAILLE_POOL_DEFAUT = 10;
+
+    /**
+     * Enveloppe chaque source de données Hikari dans une source limitée à la taille de son pool
+     * @return Post-processeur des sources de données, qui publie aussi les jauges de chaque limiteur
+     */
+    @Bean
+    public static LimiteurConnexions limiteurConnexions() {
+        return new LimiteurConnexions();
+    }
+
+    /**
+     * Limite chaque pool Hikari (principale et réplique quand le routage des lectures est actif)
+     * Jauges par pool, étiquetées "pool" : en mode virtuel, les requêtes en surnombre attendent ici et non
+     * dans Hikari (hikaricp.connections.pending reste borné par la taille du pool). Elles sont enregistrées
+     * sur les pools eux-mêmes : la source @Primary peut être un proxy de routage qui n'en expose aucun.
+     */
+    static class LimiteurConnexions implements BeanPostProcessor, MeterBinder {
+
+        private final Map<String, DataSourceLimitee> limitees = new LinkedHashMap<>();
+        private MeterRegistry registre;
+
+        @Override
+        public synchronized Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof HikariDataSource hikari) {
+                DataSourceLimitee limitee = new DataSourceLimitee(hikari, taillePool(hikari), hikari.getConnectionTimeout());
+                String pool = hikari.getPoolName() != null ? hikari.getPoolName() : beanName;
+                limitees.put(pool, limitee);
+                if (registre != null) {
+                    enregistrer(registre, pool, limitee);
+                }
+                return limitee;
+            }
+            return bean;
+        }
+
+        @Override
+        public synchronized void bindTo(MeterRegistry registre) {
+            this.registre = registre;
+            limitees.forEach((pool, limitee) -> enregistrer(registre, pool, limitee));
+        }
+
+        private static void enregistrer(MeterRegistry registre, String pool, DataSourceLimitee limitee) {
+            Gauge.builder("connexions.limiteur.attente", limitee.permis, Semaphore::getQueueLength)
+                    .description("Threads en attente d'une connexion")
+                    .tag("pool", pool)
+                    .register(registre);
+            Gauge.builder("connexions.limiteur.disponibles", limitee.permis, Semaphore::availablePermits)
+                    .description("Connexions pouvant encore être délivrées sans attente")
+                    .tag("pool", pool)
+                    .register(registre);
+        }
+    }
+
+    /**
+     * @return Taille maximale effective du pool, avant même son démarrage
+     */
+    static int taillePool(HikariDataSource hikari) {
+        return hikari.getMaximumPoolSize() > 0 ? hikari.getMaximumPoolSize() : TAILLE_POOL_DEFAUT;
+    }
+
+    /**
+     * Source de données qui délivre au plus "permis" connexions simultanées
+     * Les threads en surnombre attendent dans l'ordre d'arrivée, au plus le délai de connexion du pool
+     */
+    static class DataSourceLimitee extends DelegatingDataSource {
+
+        private final Semaphore permis;
+        private final long attenteMaxMs;
+
+        DataSourceLimitee(DataSource cible, int permis, long attenteMaxMs) {
+            super(cible);
+            this.permis = new Semaphore(permis, true);
+            this.attenteMaxMs = attenteMaxMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquerir();
+            try {
+                return liberantALaFermeture(super.getConnection());
+            } catch (SQLException | RuntimeException e) {
+                permis.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquerir();
+            try {
+                return liberantALaFermeture(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException e) {
+                permis.release();
+                throw e;
+            }
+        }
+
+        private void acquerir() throws SQLException {
+            try {
+                if (!permis.tryAcquire(attenteMaxMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException(
+                            "Aucune connexion disponible après " + attenteMaxMs + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Attente d'une connexion interrompue", e);
+            }
+        }
+
+        /**
+         * Rend le permis à la première fermeture de la connexion (retour au pool)
+         */
+        private Connection liberantALaFermeture(Connection connexion) {
+            AtomicBoolean liberee = new AtomicBoolean();
+            InvocationHandler gestionnaire = (proxy, methode, arguments) -> switch (methode.getName()) {
+                case "equals" -> proxy == arguments[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "close" -> {
+                    if (liberee.compareAndSet(false, true)) {
+                        try {
+                            connexion.close();
+                        } finally {
+                            permis.release();
+                        }
+                    }
+                    yield null;
+                }
+                default -> invoquer(connexion, methode, arguments);
+            };
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, gestionnaire);
+        }
+
+        private static Object invoquer(Connection connexion, Method methode, Object[] arguments) throws Throwable {
+            try {
+                return methode.invoke(connexion, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package gestion.projets.controller;
+
+import gestion.projets.dto.StatistiquesRegionCache;
+import gestion.projets.service.CacheStatistiquesService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Contrôleur REST exposant l'état du cache de second niveau
+ * Sert à dimensionner les régions (taille, durée de vie)
+ */
+@RestController
+@RequestMapping("/api/cache")
+@Tag(name = "Cache", description = "Statistiques du cache de second niveau")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+    @Autowired
+    private CacheStatistiquesService cacheStatistiquesService;
+
+    @GetMapping("/statistiques")
+    @Operation(summary = "Statistiques du cache",
+            description = "Retourne, pour chaque région du cache de second niveau, le nombre de succès, d'échecs et d'insertions")
+    @ApiResponse(responseCode = "200", description = "Statistiques récupérées avec succès")
+    public ResponseEntity<List<StatistiquesRegionCache>> getStatistiques() {
+        return ResponseEntity.ok(cacheStatistiquesService.getStatistiquesRegions());
+    }
+}
@@ -0,0 +1,26 @@
+package gestion.projets.controller;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Listes servies en résumés (projections), ou en entités complètes sur demande (?details=true)
+ * Entités et projections implémentent le type des éléments de leur liste (TacheEnListe, ProjetEnListe) :
+ * la réponse est typée par lui dans les deux cas.
+ */
+final class Details {
+
+    private Details() {
+    }
+
+    /**
+     * @param details true pour les entités complètes
+     * @param completes Lecture des entités complètes
+     * @param resumes Lecture des résumés
+     * @return Liste lue par l'une des deux lectures, seule exécutée
+     */
+    static <R> List<? extends R> selon(boolean details, Supplier<? extends List<? extends R>> completes,
+                                       Supplier<? extends List<? extends R>> resumes) {
+        return details ? completes.get() : resumes.get();
+    }
+}
@@ -1,5 +1,7 @@
 package gestion.projets.controller;
 
+import gestion.projets.dto.CapaciteEmploye;
+import gestion.projets.dto.PageCurseur;
 import gestion.projets.model.Employe;
 import gestion.projets.service.EmployeService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,11 +11,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Contrôleur REST pour la gestion des employés
@@ -37,18 +44,108 @@ public class EmployeController {
         return ResponseEntity.ok(employes);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Récupérer une page d'employés",
+            description = "Pagination par curseur : fournir le curseurSuivant de la page précédente pour obtenir la suivante")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur ou taille invalide")
+    })
+    public ResponseEntity<PageCurseur<Employe>> getEmployesPage(
+            @Parameter(description = "Curseur de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre d'employés par page", example = "50")
+            @RequestParam(required = false) Integer taille) {
+        try {
+            return ResponseEntity.ok(employeService.getEmployesPage(curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/charges")
+    @Operation(summary = "Récupérer la charge de tous les employés",
+            description = "Retourne, pour chaque employé, le nombre de tâches affectées par statut et le nombre de tâches en retard")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Charges récupérées avec succès"),
+            @ApiResponse(responseCode = "503", description = "Index des charges en cours de construction")
+    })
+    public ResponseEntity<?> getChargesEmployes() {
+        try {
+            return ResponseEntity.ok(employeService.getChargesEmployes());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/capacite")
+    @Operation(summary = "Rechercher les employés surchargés",
+            description = "Retourne, page par page, les employés affectés à plusieurs tâches non terminées le même jour sur la période, avec le pic et les périodes de surcharge")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Surcharges calculées avec succès"),
+            @ApiResponse(responseCode = "400", description = "Période invalide ou trop longue, curseur ou taille invalide")
+    })
+    public ResponseEntity<PageCurseur<CapaciteEmploye>> getSurcharges(
+            @Parameter(description = "Premier jour de la période", required = true, example = "2025-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @Parameter(description = "Dernier jour de la période", required = true, example = "2025-03-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @Parameter(description = "Curseur de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre d'employés surchargés par page", example = "50")
+            @RequestParam(required = false) Integer taille) {
+        try {
+            return ResponseEntity.ok(employeService.getSurcharges(dateDebut, dateFin, curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/{matricule}/capacite")
+    @Operation(summary = "Calculer l'occupation d'un employé",
+            description = "Retourne, jour par jour sur la période, le nombre de tâches non terminées menées en parallèle par l'employé")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Occupation calculée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Période invalide ou trop longue"),
+            @ApiResponse(responseCode = "404", description = "Employé introuvable")
+    })
+    public ResponseEntity<CapaciteEmploye> getCapacite(
+            @Parameter(description = "Matricule de l'employé", required = true, example = "EMP001")
+            @PathVariable String matricule,
+            @Parameter(description = "Premier jour de la période", required = true, example = "2025-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @Parameter(description = "Dernier jour de la période", required = true, example = "2025-03-31")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin) {
+        try {
+            return ResponseEntity.ok(employeService.getCapacite(matricule, dateDebut, dateFin));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/{matricule}")
     @Operation(summary = "Récupérer un employé par matricule",
             description = "Retourne les détails d'un employé spécifique")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Employé trouvé"),
+            @ApiResponse(responseCode = "304", description = "Employé inchangé depuis l'ETag fourni"),
             @ApiResponse(responseCode = "404", description = "Employé introuvable")
     })
     public ResponseEntity<Employe> getEmployeByMatricule(
             @Parameter(description = "Matricule de l'employé", required = true, example = "EMP001")
-            @PathVariable String matricule) {
+            @PathVariable String matricule,
+            @Parameter(description = "ETag d'une réponse précédente")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = employeService.getVersion(matricule).map(Etags::version);
+            if (etag.isPresent() && Etags.correspond(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         return employeService.getEmployeByMatricule(matricule)
-                .map(ResponseEntity::ok)
+                .map(employe -> ResponseEntity.ok().eTag(Etags.version(employe.getVersion())).body(employe))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -91,16 +188,24 @@ public class EmployeController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Employé mis à jour avec succès"),
             @ApiResponse(responseCode = "404", description = "Employé introuvable"),
-            @ApiResponse(responseCode = "400", description = "Données invalides")
+            @ApiResponse(responseCode = "400", description = "Données invalides"),
+            @ApiResponse(responseCode = "409", description = "Employé modifié simultanément par une autre requête"),
+            @ApiResponse(responseCode = "412", description = "Employé modifié depuis l'ETag fourni dans If-Match")
     })
     public ResponseEntity<Employe> updateEmploye(
             @Parameter(description = "Matricule de l'employé", required = true, example = "EMP001")
             @PathVariable String matricule,
+            @Parameter(description = "ETag de l'employé lu avant modification")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Nouvelles données de l'employé", required = true)
             @Valid @RequestBody Employe employeDetails) {
         try {
-            Employe employeMisAJour = employeService.updateEmploye(matricule, employeDetails);
-            return ResponseEntity.ok(employeMisAJour);
+            Employe employeMisAJour = employeService.updateEmploye(matricule, employeDetails, Etags.versionAttendue(ifMatch));
+            return ResponseEntity.ok().eTag(Etags.version(employeMisAJour.getVersion())).body(employeMisAJour);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -126,12 +231,14 @@ public class EmployeController {
 
     @GetMapping("/search")
     @Operation(summary = "Rechercher des employés",
-            description = "Recherche des employés dont le nom ou le prénom contient le terme spécifié")
+            description = "Recherche des employés dont le nom, le prénom ou l'email correspond au terme spécifié, classés par pertinence")
     @ApiResponse(responseCode = "200", description = "Recherche effectuée avec succès")
     public ResponseEntity<List<Employe>> searchEmployes(
             @Parameter(description = "Terme de recherche", required = true, example = "Dupont")
-            @RequestParam String terme) {
-        List<Employe> employes = employeService.searchEmployes(terme);
+            @RequestParam String terme,
+            @Parameter(description = "Nombre maximum de résultats", example = "20")
+            @RequestParam(defaultValue = "20") int limite) {
+        List<Employe> employes = employeService.searchEmployes(terme, limite);
         return ResponseEntity.ok(employes);
     }
 
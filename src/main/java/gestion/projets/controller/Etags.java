@@ -0,0 +1,123 @@
+package gestion.projets.controller;
+
+import gestion.projets.dto.EmpreinteVersions;
+import gestion.projets.model.Projet;
+import gestion.projets.model.Tache;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * ETags dérivés des colonnes de version
+ * Détail : ETag fort, version de l'entité (suivie de l'empreinte de ses tâches pour un projet) ; c'est lui que
+ * If-Match attend, la comparaison forte d'une précondition (RFC 9110) rejetant tout ETag faible.
+ * Liste : ETag faible, empreinte des versions de la table (nombre de lignes, somme des hachages des couples
+ * ID, version), indépendante de l'ordre d'attribution des ID.
+ * Une requête conditionnelle (If-None-Match) est tranchée par une lecture de version ou une agrégation,
+ * avant tout chargement d'entité.
+ */
+final class Etags {
+
+    private Etags() {
+    }
+
+    /**
+     * @param version Version de l'entité
+     * @return ETag du détail d'une tâche ou d'un employé
+     */
+    static String version(Long version) {
+        return fort(String.valueOf(version));
+    }
+
+    /**
+     * @param version Version du projet
+     * @param taches Empreinte des versions des tâches du projet
+     * @return ETag du détail d'un projet (le projet est renvoyé avec ses tâches)
+     */
+    static String projet(Long version, EmpreinteVersions taches) {
+        return fort(version + "." + empreinte(taches.getNombre(), taches.getSommeHachages()));
+    }
+
+    /**
+     * Calcule l'ETag d'un projet déjà chargé, sans requête d'agrégation
+     * @param projet Projet avec ses tâches
+     * @return Même ETag que projet(version, empreinte des tâches)
+     */
+    static String projet(Projet projet) {
+        long sommeHachages = projet.getTaches().stream()
+                .mapToLong(t -> EmpreinteVersions.hachage(t.getIdTache(), t.getVersion()))
+                .sum();
+        return fort(projet.getVersion() + "." + empreinte((long) projet.getTaches().size(), sommeHachages));
+    }
+
+    /**
+     * @param empreintes Empreintes des tables dont la liste dépend
+     * @return ETag d'une liste
+     */
+    static String liste(EmpreinteVersions... empreintes) {
+        return faible(Arrays.stream(empreintes)
+                .map(e -> empreinte(e.getNombre(), e.getSommeHachages()))
+                .collect(Collectors.joining(".")));
+    }
+
+    /**
+     * Comparaison faible avec l'en-tête If-None-Match
+     * @param ifNoneMatch Valeur de l'en-tête (null si absent)
+     * @param etag ETag courant
+     * @return true si le client détient déjà cette représentation
+     */
+    static boolean correspond(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String valeur = opaque(etag);
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidat -> candidat.equals("*") || opaque(candidat).equals(valeur));
+    }
+
+    /**
+     * Extrait la version attendue de l'en-tête If-Match (ETag fort d'un détail)
+     * @param ifMatch Valeur de l'en-tête (null si absent)
+     * @return Version attendue, ou null si l'en-tête est absent ou vaut *
+     * @throws OptimisticLockingFailureException si l'en-tête est un ETag faible (comparaison forte : aucune
+     * représentation ne lui correspond, la précondition échoue)
+     * @throws IllegalArgumentException si l'en-tête n'est pas un ETag de détail
+     */
+    static Long versionAttendue(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valeur = ifMatch.trim();
+        if (valeur.startsWith("W/")) {
+            throw new OptimisticLockingFailureException("ETag faible dans If-Match: " + ifMatch);
+        }
+        if (valeur.length() < 2 || !valeur.startsWith("\"") || !valeur.endsWith("\"")) {
+            throw new IllegalArgumentException("En-tête If-Match invalide: " + ifMatch);
+        }
+        valeur = valeur.substring(1, valeur.length() - 1);
+        int fin = valeur.indexOf('.');
+        try {
+            return Long.valueOf(fin < 0 ? valeur : valeur.substring(0, fin));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("En-tête If-Match invalide: " + ifMatch);
+        }
+    }
+
+    private static String empreinte(Long nombre, Long sommeHachages) {
+        return nombre + "-" + sommeHachages;
+    }
+
+    private static String fort(String valeur) {
+        return "\"" + valeur + "\"";
+    }
+
+    private static String faible(String valeur) {
+        return "W/\"" + valeur + "\"";
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
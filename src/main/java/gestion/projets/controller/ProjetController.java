@@ -1,7 +1,12 @@
 package gestion.projets.controller;
 
+import gestion.projets.dto.PageCurseur;
+import gestion.projets.dto.PlanningProjet;
+import gestion.projets.dto.ProjetEnListe;
+import gestion.projets.dto.RepartitionStatutProjet;
 import gestion.projets.model.Projet;
 import gestion.projets.service.ProjetService;
+import gestion.projets.service.TacheService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -9,13 +14,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Contrôleur REST pour la gestion des projets
@@ -30,13 +38,50 @@ public class ProjetController {
     @Autowired
     private ProjetService projetService;
 
+    @Autowired
+    private TacheService tacheService;
+
     @GetMapping
     @Operation(summary = "Récupérer tous les projets",
-            description = "Retourne la liste complète de tous les projets")
-    @ApiResponse(responseCode = "200", description = "Liste des projets récupérée avec succès")
-    public ResponseEntity<List<Projet>> getAllProjets() {
-        List<Projet> projets = projetService.getAllProjets();
-        return ResponseEntity.ok(projets);
+            description = "Retourne le résumé de tous les projets, ou les projets complets avec leurs tâches si details=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Liste des projets récupérée avec succès"),
+            @ApiResponse(responseCode = "304", description = "Liste inchangée depuis l'ETag fourni")
+    })
+    public ResponseEntity<List<? extends ProjetEnListe>> getAllProjets(
+            @Parameter(description = "Inclure la description et les tâches de chaque projet", example = "false")
+            @RequestParam(defaultValue = "false") boolean details,
+            @Parameter(description = "ETag d'une réponse précédente")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // L'empreinte est lue avant la liste : en cas d'écriture concurrente, l'ETag est périmé mais jamais en avance
+        String etag = details
+                ? Etags.liste(projetService.getEmpreinteVersions(), tacheService.getEmpreinteVersions())
+                : Etags.liste(projetService.getEmpreinteVersions());
+        if (Etags.correspond(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(Details.selon(details,
+                projetService::getAllProjets,
+                projetService::getAllProjetsResumes));
+    }
+
+    @GetMapping("/page")
+    @Operation(summary = "Récupérer une page de projets",
+            description = "Pagination par curseur : fournir le curseurSuivant de la page précédente pour obtenir la suivante")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur ou taille invalide")
+    })
+    public ResponseEntity<PageCurseur<Projet>> getProjetsPage(
+            @Parameter(description = "Curseur de la page précédente")
+            @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre de projets par page", example = "50")
+            @RequestParam(required = false) Integer taille) {
+        try {
+            return ResponseEntity.ok(projetService.getProjetsPage(curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{id}")
@@ -44,13 +89,23 @@ public class ProjetController {
             description = "Retourne les détails d'un projet spécifique")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Projet trouvé"),
+            @ApiResponse(responseCode = "304", description = "Projet et tâches inchangés depuis l'ETag fourni"),
             @ApiResponse(responseCode = "404", description = "Projet introuvable")
     })
     public ResponseEntity<Projet> getProjetById(
             @Parameter(description = "ID du projet", required = true, example = "1")
-            @PathVariable Integer id) {
+            @PathVariable Integer id,
+            @Parameter(description = "ETag d'une réponse précédente")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = projetService.getVersion(id)
+                    .map(version -> Etags.projet(version, tacheService.getEmpreinteVersionsByProjet(id)));
+            if (etag.isPresent() && Etags.correspond(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         return projetService.getProjetById(id)
-                .map(ResponseEntity::ok)
+                .map(projet -> ResponseEntity.ok().eTag(Etags.projet(projet)).body(projet))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -78,16 +133,24 @@ public class ProjetController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Projet mis à jour avec succès"),
             @ApiResponse(responseCode = "404", description = "Projet introuvable"),
-            @ApiResponse(responseCode = "400", description = "Données invalides")
+            @ApiResponse(responseCode = "400", description = "Données invalides"),
+            @ApiResponse(responseCode = "409", description = "Projet modifié simultanément par une autre requête"),
+            @ApiResponse(responseCode = "412", description = "Projet modifié depuis l'ETag fourni dans If-Match")
     })
     public ResponseEntity<Projet> updateProjet(
             @Parameter(description = "ID du projet", required = true, example = "1")
             @PathVariable Integer id,
+            @Parameter(description = "ETag du projet lu avant modification")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Parameter(description = "Nouvelles données du projet", required = true)
             @Valid @RequestBody Projet projetDetails) {
         try {
-            Projet projetMisAJour = projetService.updateProjet(id, projetDetails);
-            return ResponseEntity.ok(projetMisAJour);
+            Projet projetMisAJour = projetService.updateProjet(id, projetDetails, Etags.versionAttendue(ifMatch));
+            return ResponseEntity.ok().eTag(Etags.projet(projetMisAJour)).body(projetMisAJour);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -113,35 +176,95 @@ public class ProjetController {
 
     @GetMapping("/search")
     @Operation(summary = "Rechercher des projets par nom",
-            description = "Recherche des projets dont le nom contient le terme spécifié")
+            description = "Recherche des projets dont le nom contient le terme spécifié (résumés, ou projets complets si details=true)")
     @ApiResponse(responseCode = "200", description = "Recherche effectuée avec succès")
-    public ResponseEntity<List<Projet>> searchProjets(
+    public ResponseEntity<List<? extends ProjetEnListe>> searchProjets(
             @Parameter(description = "Terme de recherche", required = true, example = "Gestion")
-            @RequestParam String nom) {
-        List<Projet> projets = projetService.searchProjetsByNom(nom);
-        return ResponseEntity.ok(projets);
+            @RequestParam String nom,
+            @Parameter(description = "Inclure la description et les tâches de chaque projet", example = "false")
+            @RequestParam(defaultValue = "false") boolean details) {
+        return ResponseEntity.ok(Details.selon(details,
+                () -> projetService.searchProjetsByNom(nom),
+                () -> projetService.searchProjetsResumesByNom(nom)));
     }
 
     @GetMapping("/actifs")
     @Operation(summary = "Récupérer les projets actifs",
-            description = "Retourne tous les projets dont la date de fin n'est pas dépassée")
+            description = "Retourne tous les projets dont la date de fin n'est pas dépassée (résumés, ou projets complets si details=true)")
     @ApiResponse(responseCode = "200", description = "Projets actifs récupérés avec succès")
-    public ResponseEntity<List<Projet>> getProjetsActifs() {
-        List<Projet> projets = projetService.getProjetsActifs();
-        return ResponseEntity.ok(projets);
+    public ResponseEntity<List<? extends ProjetEnListe>> getProjetsActifs(
+            @Parameter(description = "Inclure la description et les tâches de chaque projet", example = "false")
+            @RequestParam(defaultValue = "false") boolean details) {
+        return ResponseEntity.ok(Details.selon(details,
+                projetService::getProjetsActifs,
+                projetService::getProjetsActifsResumes));
     }
 
     @GetMapping("/periode")
     @Operation(summary = "Récupérer les projets d'une période",
-            description = "Retourne les projets dont la date de début est dans la période spécifiée")
+            description = "Retourne les projets dont la date de début est dans la période spécifiée (résumés, ou projets complets si details=true)")
     @ApiResponse(responseCode = "200", description = "Projets récupérés avec succès")
-    public ResponseEntity<List<Projet>> getProjetsByPeriode(
+    public ResponseEntity<List<? extends ProjetEnListe>> getProjetsByPeriode(
             @Parameter(description = "Date de début de la période", required = true, example = "2025-01-01")
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
             @Parameter(description = "Date de fin de la période", required = true, example = "2025-12-31")
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin) {
-        List<Projet> projets = projetService.getProjetsByPeriode(dateDebut, dateFin);
-        return ResponseEntity.ok(projets);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @Parameter(description = "Inclure la description et les tâches de chaque projet", example = "false")
+            @RequestParam(defaultValue = "false") boolean details) {
+        return ResponseEntity.ok(Details.selon(details,
+                () -> projetService.getProjetsByPeriode(dateDebut, dateFin),
+                () -> projetService.getProjetsResumesByPeriode(dateDebut, dateFin)));
+    }
+
+    @GetMapping("/chevauchement")
+    @Operation(summary = "Rechercher les projets qui chevauchent une période",
+            description = "Retourne les projets dont la période [dateDebut, dateFin] chevauche la période demandée (sans date de fin : projet en cours), par date de début (résumés, ou projets complets si details=true)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Projets trouvés"),
+            @ApiResponse(responseCode = "400", description = "Date de fin antérieure à la date de début")
+    })
+    public ResponseEntity<List<? extends ProjetEnListe>> getProjetsChevauchant(
+            @Parameter(description = "Début de la période", required = true, example = "2025-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @Parameter(description = "Fin de la période (absente : sans fin)", example = "2025-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @Parameter(description = "Inclure la description et les tâches de chaque projet", example = "false")
+            @RequestParam(defaultValue = "false") boolean details) {
+        try {
+            return ResponseEntity.ok(Details.selon(details,
+                    () -> projetService.getProjetsChevauchant(dateDebut, dateFin),
+                    () -> projetService.getProjetsResumesChevauchant(dateDebut, dateFin)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/statuts")
+    @Operation(summary = "Répartition des tâches par statut",
+            description = "Retourne, pour chaque projet, le nombre de tâches par statut et éventuellement le nombre de tâches en retard, la répartition par statut étant mise en cache indépendamment de la date")
+    @ApiResponse(responseCode = "200", description = "Répartition calculée avec succès")
+    public ResponseEntity<List<RepartitionStatutProjet>> getRepartitionStatuts(
+            @Parameter(description = "Inclure le nombre de tâches en retard", example = "true")
+            @RequestParam(defaultValue = "false") boolean avecRetard) {
+        List<RepartitionStatutProjet> repartitions = projetService.getRepartitionStatuts();
+        return ResponseEntity.ok(avecRetard ? projetService.completerRetards(repartitions) : repartitions);
+    }
+
+    @GetMapping("/{id}/planning")
+    @Operation(summary = "Planifier un projet",
+            description = "Retourne, d'après les dépendances entre les tâches, les dates au plus tôt et au plus tard, la marge de chaque tâche et le chemin critique")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Planification calculée"),
+            @ApiResponse(responseCode = "404", description = "Projet introuvable")
+    })
+    public ResponseEntity<PlanningProjet> getPlanning(
+            @Parameter(description = "ID du projet", required = true, example = "1")
+            @PathVariable Integer id) {
+        try {
+            return ResponseEntity.ok(projetService.getPlanning(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     @GetMapping("/{id}/taches/count")
@@ -154,7 +277,7 @@ public class ProjetController {
     public ResponseEntity<Long> countTaches(
             @Parameter(description = "ID du projet", required = true, example = "1")
             @PathVariable Integer id) {
-        if (!projetService.getProjetById(id).isPresent()) {
+        if (projetService.getVersion(id).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
         Long count = projetService.countTachesByProjet(id);
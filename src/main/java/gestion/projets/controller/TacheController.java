@@ -1,8 +1,15 @@
 package gestion.projets.controller;
 
+import gestion.projets.dto.AffectationDemande;
+import gestion.projets.dto.AffectationResultat;
+import gestion.projets.dto.PageCurseur;
+import gestion.projets.dto.TacheEnListe;
+import gestion.projets.dto.TacheResume;
 import gestion.projets.model.Tache;
 import gestion.projets.model.Tache.StatutTache;
 import gestion.projets.model.EmployeeTache;
+import gestion.projets.service.FluxTachesService;
+import gestion.projets.service.TacheImportService;
 import gestion.projets.service.TacheService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -11,13 +18,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Contrôleur REST pour la gestion des tâches
@@ -32,11 +48,114 @@ public class TacheController {
     @Autowired
     private TacheService tacheService;
 
-    // 📘 Récupérer toutes les tâches
+    @Autowired
+    private TacheImportService tacheImportService;
+
+    @Autowired
+    private FluxTachesService fluxTachesService;
+
+    // 📘 Récupérer toutes les tâches (304 si l'empreinte des versions n'a pas changé)
     @GetMapping
-    @Operation(summary = "Récupérer toutes les tâches", description = "Retourne la liste complète de toutes les tâches")
-    public ResponseEntity<List<Tache>> getAllTaches() {
-        return ResponseEntity.ok(tacheService.getAllTaches());
+    @Operation(summary = "Récupérer toutes les tâches", description = "Retourne le résumé de toutes les tâches, ou les tâches complètes si details=true")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Liste des tâches"),
+            @ApiResponse(responseCode = "304", description = "Liste inchangée depuis l'ETag fourni")
+    })
+    public ResponseEntity<List<? extends TacheEnListe>> getAllTaches(
+            @Parameter(description = "Inclure la description de chaque tâche", example = "false")
+            @RequestParam(defaultValue = "false") boolean details,
+            @Parameter(description = "ETag d'une réponse précédente")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = Etags.liste(tacheService.getEmpreinteVersions());
+        if (Etags.correspond(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(Details.selon(details,
+                tacheService::getAllTaches,
+                tacheService::getAllTachesResumes));
+    }
+
+    // 📘 Récupérer une page de tâches (pagination par curseur)
+    @GetMapping("/page")
+    @Operation(summary = "Récupérer une page de tâches",
+            description = "Pagination par curseur : fournir le curseurSuivant de la page précédente pour obtenir la suivante")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page récupérée"),
+            @ApiResponse(responseCode = "400", description = "Curseur ou taille invalide")
+    })
+    public ResponseEntity<PageCurseur<Tache>> getTachesPage(
+            @Parameter(description = "Curseur de la page précédente") @RequestParam(required = false) String curseur,
+            @Parameter(description = "Nombre de tâches par page", example = "50") @RequestParam(required = false) Integer taille) {
+        try {
+            return ResponseEntity.ok(tacheService.getTachesPage(curseur, taille));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 📘 Exporter toutes les tâches (NDJSON)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exporter toutes les tâches",
+            description = "Diffuse toutes les tâches, avec l'ID de leur projet et leurs affectations, au format NDJSON (une tâche par ligne)")
+    public ResponseEntity<StreamingResponseBody> exporterTaches() {
+        StreamingResponseBody corps = sortie -> tacheService.exporterTaches(sortie);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(corps);
+    }
+
+    // 📘 S'abonner aux changements des tâches (Server-Sent Events)
+    @GetMapping(value = "/flux", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "S'abonner aux changements des tâches",
+            description = "Diffuse en Server-Sent Events (événements \"changement\") les créations, modifications, changements de statut, suppressions et affectations de tâches, après leur commit. Un événement \"resync\" signale des changements perdus : relire alors les listes")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flux ouvert"),
+            @ApiResponse(responseCode = "503", description = "Nombre maximum d'abonnés atteint")
+    })
+    public ResponseEntity<SseEmitter> abonnerFlux(
+            @Parameter(description = "Ne recevoir que les changements des tâches de ce projet")
+            @RequestParam(required = false) Integer idProjet,
+            @Parameter(description = "Ne recevoir que les changements des tâches de cet employé")
+            @RequestParam(required = false) String matricule,
+            @Parameter(description = "ID du dernier événement reçu, envoyé par EventSource à la reconnexion")
+            @RequestHeader(value = "Last-Event-ID", required = false) String dernierEvenement) {
+        try {
+            return ResponseEntity.ok(fluxTachesService.abonner(idProjet, matricule, dernierEvenement != null));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // 📘 Importer des tâches en masse (CSV)
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Importer des tâches (CSV)",
+            description = "Importe en flux un CSV avec en-tête (titre, description, dateDebut, dateFin, statut, idProjet), par lots, et retourne le bilan avec le débit")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import terminé, voir les lignes rejetées dans le bilan"),
+            @ApiResponse(responseCode = "400", description = "Fichier illisible ou mal formé")
+    })
+    public ResponseEntity<?> importerTachesCsv(InputStream corps) {
+        try {
+            return ResponseEntity.ok(tacheImportService.importerCsv(corps));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Fichier CSV invalide: " + e.getMessage());
+        }
+    }
+
+    // 📘 Importer des tâches en masse (JSON)
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Importer des tâches (JSON)",
+            description = "Importe en flux un tableau JSON (ou du NDJSON) de tâches, par lots, et retourne le bilan avec le débit")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import terminé, voir les lignes rejetées dans le bilan"),
+            @ApiResponse(responseCode = "400", description = "Fichier illisible ou mal formé")
+    })
+    public ResponseEntity<?> importerTachesJson(InputStream corps) {
+        try {
+            return ResponseEntity.ok(tacheImportService.importerJson(corps));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Fichier JSON invalide: " + e.getMessage());
+        }
     }
 
     // 📘 Récupérer une tâche par ID
@@ -44,11 +163,21 @@ public class TacheController {
     @Operation(summary = "Récupérer une tâche par ID", description = "Retourne les détails d'une tâche spécifique")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Tâche trouvée"),
+            @ApiResponse(responseCode = "304", description = "Tâche inchangée depuis l'ETag fourni"),
             @ApiResponse(responseCode = "404", description = "Tâche introuvable")
     })
-    public ResponseEntity<Tache> getTacheById(@PathVariable Integer id) {
+    public ResponseEntity<Tache> getTacheById(
+            @PathVariable Integer id,
+            @Parameter(description = "ETag d'une réponse précédente")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            Optional<String> etag = tacheService.getVersion(id).map(Etags::version);
+            if (etag.isPresent() && Etags.correspond(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
         return tacheService.getTacheById(id)
-                .map(ResponseEntity::ok)
+                .map(tache -> ResponseEntity.ok().eTag(Etags.version(tache.getVersion())).body(tache))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -76,11 +205,22 @@ public class TacheController {
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Tâche mise à jour"),
             @ApiResponse(responseCode = "404", description = "Tâche introuvable"),
-            @ApiResponse(responseCode = "400", description = "Données invalides")
+            @ApiResponse(responseCode = "400", description = "Données invalides"),
+            @ApiResponse(responseCode = "409", description = "Tâche modifiée simultanément par une autre requête"),
+            @ApiResponse(responseCode = "412", description = "Tâche modifiée depuis l'ETag fourni dans If-Match")
     })
-    public ResponseEntity<?> updateTache(@PathVariable Integer id, @Valid @RequestBody Tache tacheDetails) {
+    public ResponseEntity<?> updateTache(
+            @PathVariable Integer id,
+            @Parameter(description = "ETag de la tâche lue avant modification")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody Tache tacheDetails) {
         try {
-            return ResponseEntity.ok(tacheService.updateTache(id, tacheDetails));
+            Tache modifiee = tacheService.updateTache(id, tacheDetails, Etags.versionAttendue(ifMatch));
+            return ResponseEntity.ok().eTag(Etags.version(modifiee.getVersion())).body(modifiee);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -104,37 +244,101 @@ public class TacheController {
 
     // 📘 Rechercher des tâches par titre
     @GetMapping("/search")
-    @Operation(summary = "Rechercher des tâches", description = "Recherche des tâches dont le titre contient le terme spécifié")
-    public ResponseEntity<List<Tache>> searchTaches(@RequestParam String titre) {
-        return ResponseEntity.ok(tacheService.searchTachesByTitre(titre));
+    @Operation(summary = "Rechercher des tâches", description = "Recherche des tâches dont le titre ou la description correspond au terme spécifié, classées par pertinence (résumés)")
+    public ResponseEntity<List<TacheResume>> searchTaches(
+            @RequestParam String titre,
+            @Parameter(description = "Nombre maximum de résultats", example = "20") @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(tacheService.searchTaches(titre, limite));
     }
 
     // Récupérer les tâches d’un projet
     @GetMapping("/projet/{idProjet}")
-    @Operation(summary = "Récupérer les tâches d’un projet", description = "Retourne toutes les tâches d’un projet spécifique")
-    public ResponseEntity<List<Tache>> getTachesByProjet(@PathVariable Integer idProjet) {
-        return ResponseEntity.ok(tacheService.getTachesByProjet(idProjet));
+    @Operation(summary = "Récupérer les tâches d’un projet", description = "Retourne toutes les tâches d’un projet spécifique (résumés, ou tâches complètes si details=true)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Tâches du projet"),
+            @ApiResponse(responseCode = "304", description = "Tâches inchangées depuis l'ETag fourni")
+    })
+    public ResponseEntity<List<? extends TacheEnListe>> getTachesByProjet(
+            @PathVariable Integer idProjet,
+            @RequestParam(defaultValue = "false") boolean details,
+            @Parameter(description = "ETag d'une réponse précédente")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = Etags.liste(tacheService.getEmpreinteVersionsByProjet(idProjet));
+        if (Etags.correspond(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(Details.selon(details,
+                () -> tacheService.getTachesByProjet(idProjet),
+                () -> tacheService.getTachesResumesByProjet(idProjet)));
     }
 
     // 📘 Récupérer les tâches d’un employé
     @GetMapping("/employe/{matricule}")
-    @Operation(summary = "Récupérer les tâches d’un employé", description = "Retourne toutes les tâches assignées à un employé")
-    public ResponseEntity<List<Tache>> getTachesByEmploye(@PathVariable String matricule) {
-        return ResponseEntity.ok(tacheService.getTachesByEmploye(matricule));
+    @Operation(summary = "Récupérer les tâches d’un employé", description = "Retourne toutes les tâches assignées à un employé (résumés, ou tâches complètes si details=true)")
+    public ResponseEntity<List<? extends TacheEnListe>> getTachesByEmploye(
+            @PathVariable String matricule,
+            @RequestParam(defaultValue = "false") boolean details) {
+        return ResponseEntity.ok(Details.selon(details,
+                () -> tacheService.getTachesByEmploye(matricule),
+                () -> tacheService.getTachesResumesByEmploye(matricule)));
     }
 
     // 📘 Récupérer les tâches en retard
     @GetMapping("/en-retard")
-    @Operation(summary = "Récupérer les tâches en retard", description = "Retourne les tâches dont la date de fin est dépassée et non terminées")
-    public ResponseEntity<List<Tache>> getTachesEnRetard() {
-        return ResponseEntity.ok(tacheService.getTachesEnRetard());
+    @Operation(summary = "Récupérer les tâches en retard", description = "Retourne les tâches dont la date de fin est dépassée et non terminées, en résumés ou complètes si details=true")
+    public ResponseEntity<List<? extends TacheEnListe>> getTachesEnRetard(
+            @Parameter(description = "Retourner les tâches complètes") @RequestParam(defaultValue = "false") boolean details) {
+        return ResponseEntity.ok(Details.selon(details,
+                tacheService::getTachesEnRetard,
+                tacheService::getTachesResumesEnRetard));
+    }
+
+    // 📘 Rechercher les tâches qui chevauchent une période
+    @GetMapping("/chevauchement")
+    @Operation(summary = "Rechercher les tâches qui chevauchent une période", description = "Retourne les tâches dont la période [dateDebut, dateFin] chevauche la période demandée (sans date de fin : tâche en cours), par date de début, en résumés ou complètes si details=true")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Tâches trouvées"),
+            @ApiResponse(responseCode = "400", description = "Date de fin antérieure à la date de début")
+    })
+    public ResponseEntity<List<? extends TacheEnListe>> getTachesChevauchant(
+            @Parameter(description = "Début de la période", required = true, example = "2025-01-01")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDebut,
+            @Parameter(description = "Fin de la période (absente : sans fin)", example = "2025-12-31")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFin,
+            @Parameter(description = "Retourner les tâches complètes") @RequestParam(defaultValue = "false") boolean details) {
+        try {
+            return ResponseEntity.ok(Details.selon(details,
+                    () -> tacheService.getTachesChevauchant(dateDebut, dateFin),
+                    () -> tacheService.getTachesResumesChevauchant(dateDebut, dateFin)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // 📘 Compter les tâches en retard
+    @GetMapping("/en-retard/compteurs")
+    @Operation(summary = "Compter les tâches en retard", description = "Retourne le nombre de tâches en retard, au total, par projet et par employé")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Compteurs des retards"),
+            @ApiResponse(responseCode = "503", description = "Index des retards en cours de construction")
+    })
+    public ResponseEntity<?> getCompteursRetard() {
+        try {
+            return ResponseEntity.ok(tacheService.getCompteursRetard());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
     }
 
     // 📘 Filtrer par statut
     @GetMapping("/statut/{statut}")
-    @Operation(summary = "Récupérer les tâches par statut", description = "Retourne les tâches selon leur statut (EN_COURS, TERMINEE, EN_ATTENTE)")
-    public ResponseEntity<List<Tache>> getTachesByStatut(@PathVariable StatutTache statut) {
-        return ResponseEntity.ok(tacheService.getTachesByStatut(statut));
+    @Operation(summary = "Récupérer les tâches par statut", description = "Retourne les tâches selon leur statut (EN_COURS, TERMINEE, EN_ATTENTE), en résumés ou complètes si details=true")
+    public ResponseEntity<List<? extends TacheEnListe>> getTachesByStatut(
+            @PathVariable StatutTache statut,
+            @RequestParam(defaultValue = "false") boolean details) {
+        return ResponseEntity.ok(Details.selon(details,
+                () -> tacheService.getTachesByStatut(statut),
+                () -> tacheService.getTachesResumesByStatut(statut)));
     }
 
     // 📘 Changer le statut d’une tâche
@@ -142,9 +346,16 @@ public class TacheController {
     @Operation(summary = "Changer le statut d’une tâche", description = "Met à jour uniquement le statut d’une tâche")
     public ResponseEntity<?> changeStatut(
             @PathVariable Integer id,
-            @RequestParam StatutTache statut) {
+            @RequestParam StatutTache statut,
+            @Parameter(description = "ETag de la tâche lue avant modification")
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            return ResponseEntity.ok(tacheService.changeStatut(id, statut));
+            Tache modifiee = tacheService.changeStatut(id, statut, Etags.versionAttendue(ifMatch));
+            return ResponseEntity.ok().eTag(Etags.version(modifiee.getVersion())).body(modifiee);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -160,11 +371,33 @@ public class TacheController {
         try {
             EmployeeTache affectation = tacheService.assignerEmploye(idTache, matricule, role);
             return ResponseEntity.status(HttpStatus.CREATED).body(affectation);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // 📘 Assigner des employés à des tâches en masse
+    @PostMapping("/affectations")
+    @Operation(summary = "Assigner des employés en masse",
+            description = "Crée en une seule transaction une liste d'affectations (tâche, employé, rôle) et retourne le résultat de chacune")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Demandes traitées, voir le statut de chaque affectation"),
+            @ApiResponse(responseCode = "400", description = "Trop d'affectations dans la demande"),
+            @ApiResponse(responseCode = "409", description = "Tâches verrouillées par une autre requête")
+    })
+    public ResponseEntity<?> assignerEmployesEnMasse(@RequestBody List<AffectationDemande> demandes) {
+        try {
+            List<AffectationResultat> resultats = tacheService.assignerEmployesEnMasse(demandes);
+            return ResponseEntity.ok(resultats);
+        } catch (PessimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // 📘 Retirer un employé d’une tâche
     @DeleteMapping("/{idTache}/retirer")
     @Operation(summary = "Retirer un employé d’une tâche", description = "Supprime une affectation entre un employé et une tâche")
@@ -174,6 +407,53 @@ public class TacheController {
         try {
             tacheService.retirerEmploye(idTache, matricule);
             return ResponseEntity.noContent().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // 📘 Lister les prédécesseurs d'une tâche
+    @GetMapping("/{idTache}/predecesseurs")
+    @Operation(summary = "Lister les prédécesseurs d'une tâche", description = "Retourne les IDs des tâches à terminer avant celle-ci")
+    public ResponseEntity<?> getPredecesseurs(@PathVariable Integer idTache) {
+        try {
+            return ResponseEntity.ok(tacheService.getPredecesseurs(idTache));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // 📘 Ajouter un prédécesseur à une tâche
+    @PostMapping("/{idTache}/predecesseurs/{idPredecesseur}")
+    @Operation(summary = "Ajouter un prédécesseur à une tâche", description = "La tâche ne pourra commencer qu'une fois le prédécesseur terminé ; les deux tâches doivent appartenir au même projet")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Dépendance créée"),
+            @ApiResponse(responseCode = "400", description = "Tâches de projets différents, dépendance existante ou cycle"),
+            @ApiResponse(responseCode = "404", description = "Tâche introuvable")
+    })
+    public ResponseEntity<?> ajouterPredecesseur(
+            @PathVariable Integer idTache,
+            @PathVariable Integer idPredecesseur) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(tacheService.ajouterPredecesseur(idTache, idPredecesseur));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // 📘 Retirer un prédécesseur d'une tâche
+    @DeleteMapping("/{idTache}/predecesseurs/{idPredecesseur}")
+    @Operation(summary = "Retirer un prédécesseur d'une tâche", description = "Supprime une dépendance entre deux tâches")
+    public ResponseEntity<?> retirerPredecesseur(
+            @PathVariable Integer idTache,
+            @PathVariable Integer idPredecesseur) {
+        try {
+            tacheService.retirerPredecesseur(idTache, idPredecesseur);
+            return ResponseEntity.noContent().build();
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -0,0 +1,25 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Demande d'affectation d'un employé à une tâche (affectation en masse)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Affectation demandée : tâche, employé et rôle")
+public class AffectationDemande {
+
+    @Schema(description = "ID de la tâche", example = "1", required = true)
+    private Integer idTache;
+
+    @Schema(description = "Matricule de l'employé", example = "EMP001", required = true)
+    private String matricule;
+
+    @Schema(description = "Rôle de l'employé sur la tâche", example = "Développeur")
+    private String role;
+}
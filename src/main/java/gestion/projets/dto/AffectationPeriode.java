@@ -0,0 +1,17 @@
+package gestion.projets.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection d'une affectation avec la période de sa tâche (calcul de la capacité des employés)
+ */
+public interface AffectationPeriode {
+
+    String getMatricule();
+
+    Integer getIdTache();
+
+    LocalDate getDateDebut();
+
+    LocalDate getDateFin();
+}
@@ -0,0 +1,37 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Résultat d'une demande d'affectation, dans l'ordre des demandes reçues
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Résultat d'une affectation en masse")
+public class AffectationResultat {
+
+    /**
+     * Issue d'une demande d'affectation
+     */
+    public enum Statut {
+        CREEE,
+        INVALIDE,
+        DOUBLON,
+        TACHE_INTROUVABLE,
+        EMPLOYE_INTROUVABLE,
+        DEJA_AFFECTE
+    }
+
+    @Schema(description = "ID de la tâche", example = "1")
+    private Integer idTache;
+
+    @Schema(description = "Matricule de l'employé", example = "EMP001")
+    private String matricule;
+
+    @Schema(description = "Issue de la demande", example = "CREEE")
+    private Statut statut;
+}
@@ -0,0 +1,14 @@
+package gestion.projets.dto;
+
+/**
+ * Projection d'une affectation employé / tâche
+ * Ne lit que les colonnes de la table de liaison, sans charger Employe ni Tache
+ */
+public interface AffectationResume {
+
+    Integer getIdTache();
+
+    String getMatricule();
+
+    String getRole();
+}
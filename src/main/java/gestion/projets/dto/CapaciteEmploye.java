@@ -0,0 +1,30 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Occupation d'un employé sur une période : nombre de tâches menées en parallèle jour par jour
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Occupation d'un employé par ses tâches affectées sur une période")
+public class CapaciteEmploye {
+
+    @Schema(description = "Matricule de l'employé", example = "EMP001")
+    private String matricule;
+
+    @Schema(description = "Plus grand nombre de tâches en cours le même jour", example = "3")
+    private int pic;
+
+    @Schema(description = "Nombre de jours avec au moins deux tâches en cours", example = "12")
+    private long joursSurcharge;
+
+    @Schema(description = "Périodes d'occupation, par date de début")
+    private List<PeriodeCharge> periodes;
+}
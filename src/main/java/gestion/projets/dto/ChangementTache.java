@@ -0,0 +1,54 @@
+package gestion.projets.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.model.Tache.StatutTache;
+import lombok.Value;
+
+/**
+ * Changement d'une tâche diffusé aux abonnés du flux (GET /api/taches/flux)
+ * Volontairement réduit : le client relit la tâche ou la liste s'il a besoin du détail
+ */
+@Value
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangementTache {
+
+    /**
+     * CREEE, MODIFIEE, STATUT_MODIFIE, SUPPRIMEE, AFFECTEE ou RETIREE
+     */
+    String type;
+
+    Integer idTache;
+    Integer idProjet;
+
+    /**
+     * Statut après le changement (absent pour une suppression ou une affectation)
+     */
+    StatutTache statut;
+
+    /**
+     * Employé affecté ou retiré (affectations uniquement)
+     */
+    String matricule;
+
+    /**
+     * @param evenement Écriture d'une tâche
+     * @return Changement correspondant
+     */
+    public static ChangementTache de(TacheEvenement evenement) {
+        TacheInstantane etat = evenement.getApres() != null ? evenement.getApres() : evenement.getAvant();
+        StatutTache statut = evenement.getApres() != null ? evenement.getApres().getStatut() : null;
+        return new ChangementTache(evenement.getType().name(), etat.getIdTache(), etat.getIdProjet(), statut, null);
+    }
+
+    /**
+     * @param evenement Affectation ou retrait d'un employé
+     * @return Changement correspondant
+     */
+    public static ChangementTache de(AffectationEvenement evenement) {
+        return new ChangementTache(evenement.getType().name(), evenement.getIdTache(), evenement.getIdProjet(),
+                null, evenement.getMatricule());
+    }
+}
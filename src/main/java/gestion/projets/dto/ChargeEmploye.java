@@ -0,0 +1,38 @@
+package gestion.projets.dto;
+
+import gestion.projets.model.Tache.StatutTache;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Charge d'un employé : nombre de tâches affectées par statut, et tâches en retard
+ * Utilisée par l'écran d'affectation des équipes
+ */
+@Data
+@NoArgsConstructor
+@Schema(description = "Nombre de tâches affectées à un employé par statut")
+public class ChargeEmploye {
+
+    @Schema(description = "Matricule de l'employé", example = "EMP001")
+    private String matricule;
+
+    @Schema(description = "Nombre de tâches affectées par statut (tous les statuts sont présents)")
+    private Map<StatutTache, Long> parStatut = new EnumMap<>(StatutTache.class);
+
+    @Schema(description = "Nombre total de tâches affectées", example = "7")
+    private long total;
+
+    @Schema(description = "Nombre de tâches affectées en retard", example = "1")
+    private long enRetard;
+
+    public ChargeEmploye(String matricule) {
+        this.matricule = matricule;
+        for (StatutTache statut : StatutTache.values()) {
+            parStatut.put(statut, 0L);
+        }
+    }
+}
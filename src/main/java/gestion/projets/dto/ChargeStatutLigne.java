@@ -0,0 +1,16 @@
+package gestion.projets.dto;
+
+import gestion.projets.model.Tache.StatutTache;
+
+/**
+ * Ligne de l'agrégation des affectations par employé et par statut de tâche
+ * Le statut est null pour un employé sans affectation
+ */
+public interface ChargeStatutLigne {
+
+    String getMatricule();
+
+    StatutTache getStatut();
+
+    Long getNombre();
+}
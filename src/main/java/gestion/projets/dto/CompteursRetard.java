@@ -0,0 +1,31 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Nombre de tâches en retard, au total, par projet et par employé
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Compteurs des tâches en retard")
+public class CompteursRetard {
+
+    @Schema(description = "Date de référence : une tâche est en retard si sa date de fin la précède", example = "2025-03-01")
+    private LocalDate dateReference;
+
+    @Schema(description = "Nombre total de tâches en retard", example = "42")
+    private int total;
+
+    @Schema(description = "Nombre de tâches en retard par ID de projet")
+    private Map<Integer, Integer> parProjet;
+
+    @Schema(description = "Nombre de tâches en retard par matricule d'employé")
+    private Map<String, Integer> parEmploye;
+}
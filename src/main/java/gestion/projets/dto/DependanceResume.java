@@ -0,0 +1,13 @@
+package gestion.projets.dto;
+
+/**
+ * Projection d'une dépendance entre deux tâches, sans charger les tâches
+ */
+public interface DependanceResume {
+
+    Integer getIdTache();
+
+    Integer getIdPredecesseur();
+
+    Integer getIdProjet();
+}
@@ -0,0 +1,40 @@
+package gestion.projets.dto;
+
+/**
+ * Empreinte des versions d'un ensemble de lignes, calculée en une agrégation sans lire les lignes
+ * Somme d'un hachage de chaque couple (ID, version) : indépendante de l'ordre des lignes et de l'attribution
+ * des ID (les blocs de la table sequence_id ne sont pas croissants d'un nœud à l'autre). Une création,
+ * une modification ou une suppression change le nombre de lignes ou, sauf collision du hachage, la somme.
+ */
+public interface EmpreinteVersions {
+
+    /**
+     * Hachage SQL (JPQL) d'une tâche d'alias t, identique à hachage(idTache, version)
+     * Le diviseur du mélange est converti en BIGINT : H2 donne à MOD le type de son diviseur, et le carré
+     * d'un INT déborderait.
+     */
+    String HACHAGE_TACHE = "MOD(MOD(t.version + CAST(t.idTache AS Long) * 1000003, CAST(2147483647 AS Long)) "
+            + "* MOD(t.version + CAST(t.idTache AS Long) * 1000003, CAST(2147483647 AS Long)), 2147483629)";
+
+    /**
+     * Hachage SQL (JPQL) d'un projet d'alias p, identique à hachage(idProjet, version)
+     */
+    String HACHAGE_PROJET = "MOD(MOD(p.version + CAST(p.idProjet AS Long) * 1000003, CAST(2147483647 AS Long)) "
+            + "* MOD(p.version + CAST(p.idProjet AS Long) * 1000003, CAST(2147483647 AS Long)), 2147483629)";
+
+    Long getNombre();
+
+    Long getSommeHachages();
+
+    /**
+     * Hachage d'une ligne, calculé comme en base : mélange linéaire réduit modulo 2^31 - 1, puis élevé au carré
+     * modulo un second nombre premier (les valeurs intermédiaires tiennent dans un BIGINT)
+     * @param id ID de la ligne
+     * @param version Version de la ligne
+     * @return Hachage, entre 0 et 2147483628
+     */
+    static long hachage(Integer id, Long version) {
+        long melange = Math.floorMod(version + id * 1000003L, 2147483647L);
+        return melange * melange % 2147483629L;
+    }
+}
@@ -0,0 +1,36 @@
+package gestion.projets.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ligne d'un import de tâches (CSV avec en-tête, ou tableau JSON)
+ * Les valeurs sont lues telles quelles puis validées par le service d'import,
+ * afin qu'une ligne mal formée soit rejetée sans interrompre l'import
+ */
+@Data
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Schema(description = "Ligne d'un import de tâches")
+public class LigneImportTache {
+
+    @Schema(description = "Titre de la tâche", example = "Développer le module de login", required = true)
+    private String titre;
+
+    @Schema(description = "Description de la tâche")
+    private String description;
+
+    @Schema(description = "Date de début (AAAA-MM-JJ)", example = "2025-01-15", required = true)
+    private String dateDebut;
+
+    @Schema(description = "Date de fin (AAAA-MM-JJ), postérieure ou égale à la date de début", example = "2025-02-15")
+    private String dateFin;
+
+    @Schema(description = "Statut (EN_ATTENTE par défaut)", example = "EN_COURS")
+    private String statut;
+
+    @Schema(description = "ID du projet", example = "1", required = true)
+    private String idProjet;
+}
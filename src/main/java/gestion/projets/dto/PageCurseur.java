@@ -0,0 +1,29 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de résultats paginée par curseur (keyset)
+ * Le curseur est opaque pour le client : il suffit de le renvoyer pour obtenir la page suivante
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page de résultats paginée par curseur")
+public class PageCurseur<T> {
+
+    @Schema(description = "Éléments de la page")
+    private List<T> contenu;
+
+    @Schema(description = "Nombre d'éléments dans la page", example = "50")
+    private int taille;
+
+    @Schema(description = "Curseur à fournir pour obtenir la page suivante (absent sur la dernière page)",
+            example = "djE6NTA")
+    private String curseurSuivant;
+}
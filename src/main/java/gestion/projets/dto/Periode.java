@@ -0,0 +1,16 @@
+package gestion.projets.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projection de la période [dateDebut, dateFin] d'une tâche ou d'un projet (construction de l'index des périodes)
+ * La date de fin est null pour une tâche ou un projet en cours
+ */
+public interface Periode {
+
+    Integer getId();
+
+    LocalDate getDateDebut();
+
+    LocalDate getDateFin();
+}
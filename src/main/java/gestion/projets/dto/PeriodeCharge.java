@@ -0,0 +1,31 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Suite de jours pendant lesquels un employé est affecté au même ensemble de tâches
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Période pendant laquelle les tâches en cours d'un employé ne changent pas")
+public class PeriodeCharge {
+
+    @Schema(description = "Premier jour de la période", example = "2025-03-03")
+    private LocalDate dateDebut;
+
+    @Schema(description = "Dernier jour de la période", example = "2025-03-07")
+    private LocalDate dateFin;
+
+    @Schema(description = "Nombre de tâches en cours chaque jour de la période", example = "2")
+    private int nombreTaches;
+
+    @Schema(description = "IDs des tâches en cours")
+    private List<Integer> taches;
+}
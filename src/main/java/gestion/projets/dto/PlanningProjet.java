@@ -0,0 +1,31 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Planification d'un projet : dates de chaque tâche et chemin critique
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Planification d'un projet (méthode du chemin critique)")
+public class PlanningProjet {
+
+    @Schema(description = "ID du projet", example = "1")
+    private Integer idProjet;
+
+    @Schema(description = "Date de fin au plus tôt du projet (null si le projet n'a pas de tâche)", example = "2025-03-28")
+    private LocalDate finAuPlusTot;
+
+    @Schema(description = "IDs des tâches critiques, dans l'ordre des dépendances")
+    private List<Integer> cheminCritique;
+
+    @Schema(description = "Planification des tâches, par date de début au plus tôt")
+    private List<PlanningTache> taches;
+}
@@ -0,0 +1,46 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Dates au plus tôt et au plus tard d'une tâche, calculées sur le graphe des dépendances de son projet
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Planification d'une tâche (méthode du chemin critique)")
+public class PlanningTache {
+
+    @Schema(description = "ID de la tâche", example = "1")
+    private Integer idTache;
+
+    @Schema(description = "IDs des prédécesseurs de la tâche")
+    private List<Integer> predecesseurs;
+
+    @Schema(description = "Durée restante en jours (0 pour une tâche terminée)", example = "5")
+    private long duree;
+
+    @Schema(description = "Date de début au plus tôt", example = "2025-01-06")
+    private LocalDate debutAuPlusTot;
+
+    @Schema(description = "Date de fin au plus tôt (dernier jour de travail)", example = "2025-01-10")
+    private LocalDate finAuPlusTot;
+
+    @Schema(description = "Date de début au plus tard sans retarder le projet", example = "2025-01-08")
+    private LocalDate debutAuPlusTard;
+
+    @Schema(description = "Date de fin au plus tard sans retarder le projet", example = "2025-01-12")
+    private LocalDate finAuPlusTard;
+
+    @Schema(description = "Marge totale en jours", example = "2")
+    private long marge;
+
+    @Schema(description = "true si la tâche est sur le chemin critique (marge nulle)", example = "false")
+    private boolean critique;
+}
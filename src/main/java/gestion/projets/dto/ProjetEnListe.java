@@ -0,0 +1,18 @@
+package gestion.projets.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Champs d'un projet communs aux listes résumées (ProjetResume) et détaillées (Projet)
+ * Type des éléments des listes de projets, quel que soit le paramètre details
+ */
+public interface ProjetEnListe {
+
+    Integer getIdProjet();
+
+    String getNom();
+
+    LocalDate getDateDebut();
+
+    LocalDate getDateFin();
+}
@@ -0,0 +1,10 @@
+package gestion.projets.dto;
+
+/**
+ * Projection d'un projet pour les listes
+ * Ne sélectionne ni la description ni les tâches associées
+ * Distincte de ProjetEnListe, que l'entité implémente : Spring Data ne traite en projection qu'un type
+ * que l'entité n'implémente pas
+ */
+public interface ProjetResume extends ProjetEnListe {
+}
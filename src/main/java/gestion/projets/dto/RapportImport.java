@@ -0,0 +1,51 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bilan d'un import de tâches
+ */
+@Data
+@NoArgsConstructor
+@Schema(description = "Bilan d'un import de tâches")
+public class RapportImport {
+
+    @Schema(description = "Nombre de lignes lues", example = "200000")
+    private long lignesLues;
+
+    @Schema(description = "Nombre de tâches créées", example = "199850")
+    private long lignesImportees;
+
+    @Schema(description = "Nombre de lignes rejetées", example = "150")
+    private long lignesRejetees;
+
+    @Schema(description = "Durée de l'import en millisecondes", example = "12500")
+    private long dureeMs;
+
+    @Schema(description = "Débit de l'import (lignes lues par seconde)", example = "16000")
+    private long lignesParSeconde;
+
+    @Schema(description = "Premières erreurs rencontrées (nombre limité)")
+    private List<Erreur> erreurs = new ArrayList<>();
+
+    /**
+     * Erreur de validation d'une ligne
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Erreur {
+
+        @Schema(description = "Numéro de la ligne (enregistrement) dans le fichier, à partir de 1", example = "42")
+        private long ligne;
+
+        @Schema(description = "Motif du rejet", example = "La date de fin précède la date de début")
+        private String message;
+    }
+}
@@ -0,0 +1,16 @@
+package gestion.projets.dto;
+
+import gestion.projets.model.Tache.StatutTache;
+
+/**
+ * Ligne de l'agrégation des tâches par projet et par statut
+ * Le statut est null pour un projet sans tâche
+ */
+public interface RepartitionStatutLigne {
+
+    Integer getIdProjet();
+
+    StatutTache getStatut();
+
+    Long getNombre();
+}
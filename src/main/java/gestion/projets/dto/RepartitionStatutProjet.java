@@ -0,0 +1,40 @@
+package gestion.projets.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import gestion.projets.model.Tache.StatutTache;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Répartition des tâches d'un projet par statut
+ * Utilisée par le tableau de bord du portefeuille de projets
+ */
+@Data
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Nombre de tâches d'un projet par statut")
+public class RepartitionStatutProjet {
+
+    @Schema(description = "Identifiant du projet", example = "1")
+    private Integer idProjet;
+
+    @Schema(description = "Nombre de tâches par statut (tous les statuts sont présents)")
+    private Map<StatutTache, Long> parStatut = new EnumMap<>(StatutTache.class);
+
+    @Schema(description = "Nombre total de tâches", example = "12")
+    private long total;
+
+    @Schema(description = "Nombre de tâches en retard (présent uniquement si demandé)", example = "2")
+    private Long enRetard;
+
+    public RepartitionStatutProjet(Integer idProjet) {
+        this.idProjet = idProjet;
+        for (StatutTache statut : StatutTache.values()) {
+            parStatut.put(statut, 0L);
+        }
+    }
+}
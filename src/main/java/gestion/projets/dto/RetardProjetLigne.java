@@ -0,0 +1,11 @@
+package gestion.projets.dto;
+
+/**
+ * Ligne du comptage des tâches en retard par projet
+ */
+public interface RetardProjetLigne {
+
+    Integer getIdProjet();
+
+    Long getNombre();
+}
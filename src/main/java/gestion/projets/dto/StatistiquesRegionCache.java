@@ -0,0 +1,31 @@
+package gestion.projets.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Statistiques d'une région du cache de second niveau
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Statistiques d'une région du cache de second niveau")
+public class StatistiquesRegionCache {
+
+    @Schema(description = "Nom de la région", example = "employe")
+    private String region;
+
+    @Schema(description = "Nombre de lectures servies par le cache", example = "1520")
+    private long succes;
+
+    @Schema(description = "Nombre de lectures absentes du cache", example = "35")
+    private long echecs;
+
+    @Schema(description = "Nombre d'insertions dans le cache", example = "35")
+    private long insertions;
+
+    @Schema(description = "Taux de succès (entre 0 et 1)", example = "0.977")
+    private double tauxSucces;
+}
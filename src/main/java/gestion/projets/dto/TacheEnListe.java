@@ -0,0 +1,24 @@
+package gestion.projets.dto;
+
+import gestion.projets.model.Tache.StatutTache;
+
+import java.time.LocalDate;
+
+/**
+ * Champs d'une tâche communs aux listes résumées (TacheResume) et détaillées (Tache)
+ * Type des éléments des listes de tâches, quel que soit le paramètre details
+ */
+public interface TacheEnListe {
+
+    Integer getIdTache();
+
+    String getTitre();
+
+    StatutTache getStatut();
+
+    LocalDate getDateDebut();
+
+    LocalDate getDateFin();
+
+    Integer getIdProjet();
+}
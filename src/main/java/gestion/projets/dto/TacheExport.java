@@ -0,0 +1,60 @@
+package gestion.projets.dto;
+
+import gestion.projets.model.Tache;
+import gestion.projets.model.Tache.StatutTache;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ligne de l'export NDJSON des tâches
+ * Une tâche, l'ID de son projet et ses affectations, sérialisées sur une seule ligne
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Tâche exportée avec son projet et ses affectations")
+public class TacheExport {
+
+    private Integer idTache;
+    private String titre;
+    private String description;
+    private LocalDate dateDebut;
+    private LocalDate dateFin;
+    private StatutTache statut;
+    private Integer idProjet;
+    private List<Affectation> affectations;
+
+    /**
+     * Construit la ligne d'export d'une tâche
+     * @param tache Tâche à exporter
+     * @param affectations Affectations de la tâche
+     * @return Ligne d'export
+     */
+    public static TacheExport de(Tache tache, List<Affectation> affectations) {
+        return new TacheExport(
+                tache.getIdTache(),
+                tache.getTitre(),
+                tache.getDescription(),
+                tache.getDateDebut(),
+                tache.getDateFin(),
+                tache.getStatut(),
+                tache.getProjet().getIdProjet(),
+                affectations);
+    }
+
+    /**
+     * Affectation d'un employé dans l'export
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Affectation {
+        private String matricule;
+        private String role;
+    }
+}
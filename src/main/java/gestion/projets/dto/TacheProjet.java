@@ -0,0 +1,18 @@
+package gestion.projets.dto;
+
+import gestion.projets.model.Tache.StatutTache;
+
+/**
+ * Projection associant une tâche à son projet, à son statut et à sa version
+ * Ne lit que les colonnes de la table des tâches, sans charger Projet
+ */
+public interface TacheProjet {
+
+    Integer getIdTache();
+
+    Integer getIdProjet();
+
+    StatutTache getStatut();
+
+    Long getVersion();
+}
@@ -0,0 +1,10 @@
+package gestion.projets.dto;
+
+/**
+ * Projection d'une tâche pour les listes
+ * Ne sélectionne pas la description (colonne TEXT) et ne charge pas le projet
+ * Distincte de TacheEnListe, que l'entité implémente : Spring Data ne traite en projection qu'un type
+ * que l'entité n'implémente pas
+ */
+public interface TacheResume extends TacheEnListe {
+}
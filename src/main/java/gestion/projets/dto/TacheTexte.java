@@ -0,0 +1,9 @@
+package gestion.projets.dto;
+
+/**
+ * Projection du résumé et des champs texte d'une tâche, utilisée pour construire l'index de recherche
+ */
+public interface TacheTexte extends TacheResume {
+
+    String getDescription();
+}
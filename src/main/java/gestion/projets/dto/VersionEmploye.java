@@ -0,0 +1,12 @@
+package gestion.projets.dto;
+
+/**
+ * Projection du matricule et de la version d'un employé
+ * Lue par un index qui rejoue les événements reçus pendant sa construction
+ */
+public interface VersionEmploye {
+
+    String getMatricule();
+
+    Long getVersion();
+}
@@ -0,0 +1,12 @@
+package gestion.projets.dto;
+
+/**
+ * Projection de l'ID et de la version d'une ligne
+ * Lue par un index qui rejoue les événements reçus pendant sa construction
+ */
+public interface VersionLigne {
+
+    Integer getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,54 @@
+package gestion.projets.event;
+
+import gestion.projets.model.Tache.StatutTache;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Événement publié par TacheService lors de l'affectation ou du retrait d'un employé sur une tâche
+ * Les écouteurs le reçoivent après le commit (@TransactionalEventListener)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class AffectationEvenement {
+
+    /**
+     * Nature de la modification
+     */
+    public enum Type {
+        AFFECTEE,
+        RETIREE
+    }
+
+    private final Type type;
+    private final Integer idTache;
+
+    /**
+     * Projet de la tâche (filtre du flux des changements)
+     */
+    private final Integer idProjet;
+
+    /**
+     * Statut de la tâche au moment de l'affectation ou du retrait (charge des employés)
+     */
+    private final StatutTache statut;
+
+    private final String matricule;
+
+    /**
+     * Version de la tâche lue avant l'écriture, que l'affectation ou le retrait incrémente
+     * (ou que la suppression de la tâche contrôle)
+     */
+    private final Long version;
+
+    public static AffectationEvenement affectee(Integer idTache, Integer idProjet, StatutTache statut, String matricule,
+                                                Long version) {
+        return new AffectationEvenement(Type.AFFECTEE, idTache, idProjet, statut, matricule, version);
+    }
+
+    public static AffectationEvenement retiree(Integer idTache, Integer idProjet, StatutTache statut, String matricule,
+                                               Long version) {
+        return new AffectationEvenement(Type.RETIREE, idTache, idProjet, statut, matricule, version);
+    }
+}
@@ -0,0 +1,35 @@
+package gestion.projets.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Événement publié par TacheService lors de l'ajout ou du retrait d'une dépendance entre deux tâches
+ * Les écouteurs le reçoivent après le commit (@TransactionalEventListener)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class DependanceEvenement {
+
+    /**
+     * Nature de la modification
+     */
+    public enum Type {
+        AJOUTEE,
+        RETIREE
+    }
+
+    private final Type type;
+    private final Integer idProjet;
+    private final Integer idTache;
+    private final Integer idPredecesseur;
+
+    public static DependanceEvenement ajoutee(Integer idProjet, Integer idTache, Integer idPredecesseur) {
+        return new DependanceEvenement(Type.AJOUTEE, idProjet, idTache, idPredecesseur);
+    }
+
+    public static DependanceEvenement retiree(Integer idProjet, Integer idTache, Integer idPredecesseur) {
+        return new DependanceEvenement(Type.RETIREE, idProjet, idTache, idPredecesseur);
+    }
+}
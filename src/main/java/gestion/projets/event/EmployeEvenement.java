@@ -0,0 +1,52 @@
+package gestion.projets.event;
+
+import gestion.projets.model.Employe;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Événement publié par EmployeService lors de l'écriture d'un employé
+ * Les écouteurs le reçoivent après le commit (@TransactionalEventListener)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class EmployeEvenement {
+
+    /**
+     * Nature de la modification
+     */
+    public enum Type {
+        CREE,
+        MODIFIE,
+        SUPPRIME
+    }
+
+    private final Type type;
+    private final String matricule;
+    private final String nom;
+    private final String prenom;
+    private final String email;
+
+    /**
+     * Version de l'employé lue avant l'écriture (version initiale pour une création)
+     */
+    private final Long version;
+
+    public static EmployeEvenement cree(Employe employe) {
+        return de(Type.CREE, employe);
+    }
+
+    public static EmployeEvenement modifie(Employe employe) {
+        return de(Type.MODIFIE, employe);
+    }
+
+    public static EmployeEvenement supprime(Employe employe) {
+        return de(Type.SUPPRIME, employe);
+    }
+
+    private static EmployeEvenement de(Type type, Employe employe) {
+        return new EmployeEvenement(type, employe.getMatricule(), employe.getNom(),
+                employe.getPrenom(), employe.getEmail(), employe.getVersion());
+    }
+}
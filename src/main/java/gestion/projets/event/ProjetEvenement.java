@@ -0,0 +1,53 @@
+package gestion.projets.event;
+
+import gestion.projets.model.Projet;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Événement publié par ProjetService lors de l'écriture d'un projet
+ * Les écouteurs le reçoivent après le commit (@TransactionalEventListener)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class ProjetEvenement {
+
+    /**
+     * Nature de la modification
+     */
+    public enum Type {
+        CREE,
+        MODIFIE,
+        SUPPRIME
+    }
+
+    private final Type type;
+    private final Integer idProjet;
+    private final LocalDate dateDebut;
+    private final LocalDate dateFin;
+
+    /**
+     * Version du projet lue avant l'écriture (version initiale pour une création)
+     */
+    private final Long version;
+
+    public static ProjetEvenement cree(Projet projet) {
+        return de(Type.CREE, projet);
+    }
+
+    public static ProjetEvenement modifie(Projet projet) {
+        return de(Type.MODIFIE, projet);
+    }
+
+    public static ProjetEvenement supprime(Projet projet) {
+        return de(Type.SUPPRIME, projet);
+    }
+
+    private static ProjetEvenement de(Type type, Projet projet) {
+        return new ProjetEvenement(type, projet.getIdProjet(), projet.getDateDebut(), projet.getDateFin(),
+                projet.getVersion());
+    }
+}
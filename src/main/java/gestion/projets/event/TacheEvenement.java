@@ -0,0 +1,68 @@
+package gestion.projets.event;
+
+import gestion.projets.model.Tache;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Événement publié par TacheService lors de l'écriture d'une tâche
+ * Les écouteurs le reçoivent après le commit (@TransactionalEventListener)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class TacheEvenement {
+
+    /**
+     * Nature de la modification
+     */
+    public enum Type {
+        CREEE,
+        MODIFIEE,
+        STATUT_MODIFIE,
+        SUPPRIMEE
+    }
+
+    private final Type type;
+
+    /**
+     * État avant la modification (null pour une création)
+     */
+    private final TacheInstantane avant;
+
+    /**
+     * État après la modification (null pour une suppression)
+     */
+    private final TacheInstantane apres;
+
+    /**
+     * Matricules des employés affectés, lus dans la transaction qui modifie la tâche
+     * (vide pour une création, et pour une suppression dont les affectations sont signalées comme retirées)
+     */
+    private final List<String> matricules;
+
+    public static TacheEvenement creee(Tache tache) {
+        return new TacheEvenement(Type.CREEE, null, TacheInstantane.de(tache), List.of());
+    }
+
+    public static TacheEvenement modifiee(TacheInstantane avant, Tache tache, List<String> matricules) {
+        return new TacheEvenement(Type.MODIFIEE, avant, TacheInstantane.de(tache), List.copyOf(matricules));
+    }
+
+    public static TacheEvenement statutModifie(TacheInstantane avant, Tache tache, List<String> matricules) {
+        return new TacheEvenement(Type.STATUT_MODIFIE, avant, TacheInstantane.de(tache), List.copyOf(matricules));
+    }
+
+    public static TacheEvenement supprimee(Tache tache) {
+        return new TacheEvenement(Type.SUPPRIMEE, TacheInstantane.de(tache), null, List.of());
+    }
+
+    /**
+     * @return ID de la tâche concernée
+     */
+    public Integer getIdTache() {
+        return apres != null ? apres.getIdTache() : avant.getIdTache();
+    }
+}
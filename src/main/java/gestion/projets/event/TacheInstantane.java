@@ -0,0 +1,45 @@
+package gestion.projets.event;
+
+import gestion.projets.model.Tache;
+import gestion.projets.model.Tache.StatutTache;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Copie immuable de l'état d'une tâche à un instant donné
+ * Permet aux écouteurs exécutés après le commit de ne pas toucher aux entités gérées
+ */
+@Value
+public class TacheInstantane {
+
+    Integer idTache;
+    Integer idProjet;
+    String titre;
+    String description;
+    LocalDate dateDebut;
+    LocalDate dateFin;
+    StatutTache statut;
+
+    /**
+     * Version lue avec l'état (l'instantané « avant » porte la version que l'écriture remplace)
+     */
+    Long version;
+
+    /**
+     * Capture l'état courant d'une tâche
+     * @param tache Tâche à copier
+     * @return Instantané de la tâche
+     */
+    public static TacheInstantane de(Tache tache) {
+        return new TacheInstantane(
+                tache.getIdTache(),
+                tache.getProjet() != null ? tache.getProjet().getIdProjet() : null,
+                tache.getTitre(),
+                tache.getDescription(),
+                tache.getDateDebut(),
+                tache.getDateFin(),
+                tache.getStatut(),
+                tache.getVersion());
+    }
+}
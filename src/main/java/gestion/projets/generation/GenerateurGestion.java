@@ -0,0 +1,207 @@
+package gestion.projets.generation;
+
+import gestion.projets.config.AlignementSequences;
+import gestion.projets.model.Tache.StatutTache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Générateur de données synthétiques de la gestion de projets (profil "generation")
+ * Remplit Employe, Projet, Tache et EmployeeTache par insertions JDBC en lots, avec des distributions
+ * asymétriques : quelques projets concentrent la plupart des tâches, quelques employés la plupart
+ * des affectations, et les durées suivent une loi log-normale. Le statut d'une tâche découle de ses
+ * dates par rapport au jour de référence, ce qui produit des tâches en retard.
+ * Exécuté avant la construction des index (ApplicationReadyEvent).
+ */
+@Component
+@Profile("generation")
+@EnableConfigurationProperties(GenerationProperties.class)
+public class GenerateurGestion implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerateurGestion.class);
+
+    private static final String[] NOMS = {"Alami", "Benani", "Berrada", "Chraibi", "Dupont", "El Amrani",
+            "El Idrissi", "Fassi", "Garcia", "Haddad", "Hamdi", "Kettani", "Lahlou", "Laurent", "Martin",
+            "Moreau", "Naciri", "Ouazzani", "Petit", "Rachidi", "Sefrioui", "Tazi", "Bernard", "Ziani"};
+    private static final String[] PRENOMS = {"Ahmed", "Amina", "Claire", "Youssef", "Fatima", "Karim",
+            "Julien", "Salma", "Omar", "Nadia", "Hugo", "Leila", "Mehdi", "Sophie", "Yasmine", "Hamza",
+            "Imane", "Lucas", "Meryem", "Rachid", "Sara", "Thomas", "Zineb", "Adam"};
+    private static final String[] ACTIONS = {"Développer", "Tester", "Concevoir", "Documenter", "Corriger",
+            "Déployer", "Optimiser", "Analyser", "Valider", "Migrer"};
+    private static final String[] OBJETS = {"le module de login", "l'API de facturation", "le tableau de bord",
+            "le schéma de base de données", "l'export PDF", "les notifications", "le moteur de recherche",
+            "la gestion des droits", "le paiement en ligne", "l'application mobile", "le reporting",
+            "l'import des données"};
+    private static final String[] DOMAINES = {"Gestion de stock", "Portail client", "Paie", "CRM", "ERP",
+            "Site e-commerce", "Intranet", "Logistique", "Comptabilité", "Support"};
+    private static final String[] ROLES = {"Développeur", "Chef de projet", "Testeur", "Analyste", "Architecte"};
+
+    /**
+     * Nombre maximum d'employés affectés à une même tâche
+     */
+    private static final int MAX_AFFECTATIONS_PAR_TACHE = 8;
+
+    @Autowired
+    private GenerationProperties proprietes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AlignementSequences alignementSequences;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (proprietes.isVider()) {
+            vider();
+        } else if (contientDesDonnees()) {
+            log.warn("Génération ignorée : la base de la gestion de projets contient déjà des données (generation.vider=false)");
+            return;
+        }
+
+        GenerationProperties.Gestion volumes = proprietes.getGestion();
+        TirageAleatoire tirage = new TirageAleatoire(proprietes.getGraine());
+        LocalDate aujourdhui = proprietes.dateReferenceOuAujourdhui();
+        long debut = System.nanoTime();
+
+        genererEmployes(tirage.scinder(), volumes.getEmployes());
+        long[] projets = genererProjets(tirage.scinder(), volumes.getProjets(), aujourdhui);
+        long affectations = genererTaches(tirage.scinder(), volumes, projets, aujourdhui);
+
+        // Les IDs ont été fixés sans passer par Hibernate : séquences et cache de second niveau sont remis à niveau
+        alignementSequences.aligner();
+        entityManagerFactory.getCache().evictAll();
+
+        log.info("Gestion de projets générée : {} employés, {} projets, {} tâches, {} affectations en {} ms",
+                volumes.getEmployes(), volumes.getProjets(), volumes.getTaches(), affectations,
+                (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    private void genererEmployes(TirageAleatoire tirage, int nombre) {
+        try (InsertionsParLots insertions = new InsertionsParLots(jdbcTemplate,
+                "INSERT INTO employe (matricule, nom, prenom, email, version) VALUES (?, ?, ?, ?, 0)", proprietes.getTailleLot())) {
+            for (int i = 0; i < nombre; i++) {
+                String nom = tirage.parmi(NOMS);
+                String prenom = tirage.parmi(PRENOMS);
+                String email = (prenom + "." + nom).toLowerCase(Locale.ROOT).replace(' ', '-') + "." + (i + 1) + "@entreprise.ma";
+                insertions.ajouter(matricule(i), nom, prenom, email);
+            }
+        }
+    }
+
+    /**
+     * @return Date de début et date de fin (jours epoch) de chaque projet, rangés par paires
+     */
+    private long[] genererProjets(TirageAleatoire tirage, int nombre, LocalDate aujourdhui) {
+        long[] dates = new long[2 * nombre];
+        LocalDate origine = aujourdhui.minusYears(3);
+        try (InsertionsParLots insertions = new InsertionsParLots(jdbcTemplate,
+                "INSERT INTO projet (id_projet, nom, description, date_debut, date_fin, version) VALUES (?, ?, ?, ?, ?, 0)",
+                proprietes.getTailleLot())) {
+            for (int i = 0; i < nombre; i++) {
+                LocalDate dateDebut = origine.plusDays(tirage.entier(3 * 365 + 180));
+                LocalDate dateFin = dateDebut.plusDays(30 + Math.round(tirage.logNormale(180, 0.6)));
+                dates[2 * i] = dateDebut.toEpochDay();
+                dates[2 * i + 1] = dateFin.toEpochDay();
+                String domaine = tirage.parmi(DOMAINES);
+                insertions.ajouter(i + 1, domaine + " " + (i + 1), "Projet " + domaine.toLowerCase(Locale.ROOT),
+                        Date.valueOf(dateDebut), tirage.probabilite(0.2) ? null : Date.valueOf(dateFin));
+            }
+        }
+        return dates;
+    }
+
+    /**
+     * Génère les tâches et leurs affectations
+     * @return Nombre d'affectations créées
+     */
+    private long genererTaches(TirageAleatoire tirage, GenerationProperties.Gestion volumes, long[] projets,
+                               LocalDate aujourdhui) {
+        TirageAleatoire.Zipf projetsCharges = new TirageAleatoire.Zipf(volumes.getProjets(), 1.0);
+        TirageAleatoire.Zipf employesSollicites = new TirageAleatoire.Zipf(volumes.getEmployes(), 0.8);
+        long jour = aujourdhui.toEpochDay();
+        Set<Integer> affectes = new HashSet<>();
+
+        try (InsertionsParLots taches = new InsertionsParLots(jdbcTemplate,
+                "INSERT INTO tache (id_tache, titre, description, date_debut, date_fin, statut, id_projet, version) VALUES (?, ?, ?, ?, ?, ?, ?, 0)",
+                proprietes.getTailleLot());
+             InsertionsParLots affectations = new InsertionsParLots(jdbcTemplate,
+                     "INSERT INTO employee_tache (matricule, id_tache, role) VALUES (?, ?, ?)", proprietes.getTailleLot())
+                     .apres(taches)) {
+            for (int i = 0; i < volumes.getTaches(); i++) {
+                int projet = projetsCharges.tirer(tirage);
+                long debutProjet = projets[2 * projet];
+                long dureeProjet = Math.max(1, projets[2 * projet + 1] - debutProjet);
+                long dateDebut = debutProjet + tirage.entier((int) dureeProjet);
+                long dateFin = dateDebut + 1 + Math.round(tirage.logNormale(7, 0.8));
+                boolean sansEcheance = tirage.probabilite(0.05);
+                StatutTache statut = statut(tirage, dateDebut, sansEcheance ? Long.MAX_VALUE : dateFin, jour);
+
+                int idTache = i + 1;
+                taches.ajouter(idTache, tirage.parmi(ACTIONS) + " " + tirage.parmi(OBJETS),
+                        tirage.probabilite(0.3) ? "Tâche générée n°" + idTache : null,
+                        Date.valueOf(LocalDate.ofEpochDay(dateDebut)),
+                        sansEcheance ? null : Date.valueOf(LocalDate.ofEpochDay(dateFin)),
+                        statut.name(), projet + 1);
+
+                affectes.clear();
+                int nombre = Math.min(MAX_AFFECTATIONS_PAR_TACHE, tirage.geometrique(volumes.getAffectationsParTache()));
+                for (int a = 0; a < nombre; a++) {
+                    int employe = employesSollicites.tirer(tirage);
+                    if (affectes.add(employe)) {
+                        affectations.ajouter(matricule(employe), idTache, tirage.parmi(ROLES));
+                    }
+                }
+            }
+            return affectations.getTotal();
+        }
+    }
+
+    /**
+     * Statut cohérent avec les dates : les tâches échues sont presque toutes terminées, les autres en retard
+     */
+    private static StatutTache statut(TirageAleatoire tirage, long dateDebut, long dateFin, long aujourdhui) {
+        if (dateDebut > aujourdhui) {
+            return StatutTache.EN_ATTENTE;
+        }
+        if (dateFin < aujourdhui) {
+            return tirage.probabilite(0.85) ? StatutTache.TERMINEE : StatutTache.EN_COURS;
+        }
+        return tirage.probabilite(0.75) ? StatutTache.EN_COURS : StatutTache.EN_ATTENTE;
+    }
+
+    private static String matricule(int rang) {
+        return String.format("EMP%07d", rang + 1);
+    }
+
+    private boolean contientDesDonnees() {
+        Long projets = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM projet", Long.class);
+        Long employes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employe", Long.class);
+        return projets > 0 || employes > 0;
+    }
+
+    private void vider() {
+        jdbcTemplate.update("DELETE FROM dependance_tache");
+        jdbcTemplate.update("DELETE FROM employee_tache");
+        jdbcTemplate.update("DELETE FROM tache");
+        jdbcTemplate.update("DELETE FROM projet");
+        jdbcTemplate.update("DELETE FROM employe");
+    }
+}
@@ -0,0 +1,79 @@
+package gestion.projets.generation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Paramètres du générateur de données synthétiques (profil "generation")
+ * Valeurs lues depuis les propriétés "generation.*", voir application-generation.properties
+ */
+@ConfigurationProperties(prefix = "generation")
+@Data
+public class GenerationProperties {
+
+    /**
+     * Graine des tirages : une même graine, les mêmes volumes et la même date de référence produisent les mêmes données
+     */
+    private long graine = 42;
+
+    /**
+     * Jour par rapport auquel les dates sont tirées (statuts des tâches, historique des commandes)
+     * Non renseigné : le jour de la génération, les données changent alors d'un jour à l'autre
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateReference;
+
+    /**
+     * Vide les tables avant la génération ; sinon la génération est ignorée si la base contient déjà des données
+     */
+    private boolean vider = false;
+
+    /**
+     * Nombre de lignes par lot d'insertions JDBC
+     */
+    private int tailleLot = 5_000;
+
+    private Gestion gestion = new Gestion();
+
+    private Stock stock = new Stock();
+
+    /**
+     * @return Date de référence, ou le jour courant si elle n'est pas renseignée
+     */
+    public LocalDate dateReferenceOuAujourdhui() {
+        return dateReference != null ? dateReference : LocalDate.now();
+    }
+
+    /**
+     * Volumes de la gestion de projets
+     */
+    @Data
+    public static class Gestion {
+        private int employes = 50_000;
+        private int projets = 10_000;
+        private int taches = 2_000_000;
+
+        /**
+         * Nombre moyen d'employés affectés à une tâche
+         */
+        private double affectationsParTache = 1.5;
+    }
+
+    /**
+     * Volumes de la gestion de stock
+     */
+    @Data
+    public static class Stock {
+        private int categories = 200;
+        private int produits = 200_000;
+        private int commandes = 1_000_000;
+
+        /**
+         * Nombre moyen de lignes par commande
+         */
+        private double lignesParCommande = 2.5;
+    }
+}
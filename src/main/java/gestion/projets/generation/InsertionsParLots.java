@@ -0,0 +1,70 @@
+package gestion.projets.generation;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tampon d'insertions JDBC envoyé par lots (batchUpdate) dès qu'il atteint la taille du lot
+ * Un tampon préalable (table référencée par clé étrangère) est toujours envoyé avant celui-ci
+ */
+public class InsertionsParLots implements AutoCloseable {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String sql;
+    private final int tailleLot;
+    private final List<Object[]> lignes;
+    private InsertionsParLots prealable;
+    private long total;
+
+    public InsertionsParLots(JdbcTemplate jdbcTemplate, String sql, int tailleLot) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.sql = sql;
+        this.tailleLot = tailleLot;
+        this.lignes = new ArrayList<>(tailleLot);
+    }
+
+    /**
+     * Déclare un tampon dont les lignes doivent être insérées avant celles de ce tampon
+     * @return Ce tampon
+     */
+    public InsertionsParLots apres(InsertionsParLots prealable) {
+        this.prealable = prealable;
+        return this;
+    }
+
+    public void ajouter(Object... valeurs) {
+        lignes.add(valeurs);
+        if (lignes.size() == tailleLot) {
+            envoyer();
+        }
+    }
+
+    /**
+     * @return Nombre de lignes ajoutées
+     */
+    public long getTotal() {
+        return total + lignes.size();
+    }
+
+    /**
+     * Envoie les lignes restantes
+     */
+    @Override
+    public void close() {
+        envoyer();
+    }
+
+    private void envoyer() {
+        if (prealable != null) {
+            prealable.envoyer();
+        }
+        if (lignes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(sql, lignes);
+        total += lignes.size();
+        lignes.clear();
+    }
+}
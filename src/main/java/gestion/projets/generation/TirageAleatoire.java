@@ -0,0 +1,104 @@
+package gestion.projets.generation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Tirages pseudo-aléatoires reproductibles pour la génération de données
+ * Une même graine produit toujours la même suite de valeurs ; scinder() fournit un flux indépendant
+ * par table, pour que la taille d'une table ne modifie pas le contenu des autres.
+ */
+public final class TirageAleatoire {
+
+    private final SplittableRandom aleatoire;
+
+    public TirageAleatoire(long graine) {
+        this(new SplittableRandom(graine));
+    }
+
+    private TirageAleatoire(SplittableRandom aleatoire) {
+        this.aleatoire = aleatoire;
+    }
+
+    /**
+     * @return Nouveau flux indépendant, déterminé par l'état courant
+     */
+    public TirageAleatoire scinder() {
+        return new TirageAleatoire(aleatoire.split());
+    }
+
+    /**
+     * @return Entier uniforme dans [0, borne[
+     */
+    public int entier(int borne) {
+        return aleatoire.nextInt(borne);
+    }
+
+    /**
+     * @return Réel uniforme dans [0, 1[
+     */
+    public double reel() {
+        return aleatoire.nextDouble();
+    }
+
+    /**
+     * @return true avec la probabilité donnée
+     */
+    public boolean probabilite(double p) {
+        return aleatoire.nextDouble() < p;
+    }
+
+    /**
+     * @return Élément uniforme du tableau
+     */
+    public <T> T parmi(T[] valeurs) {
+        return valeurs[aleatoire.nextInt(valeurs.length)];
+    }
+
+    /**
+     * Loi log-normale : valeurs positives, asymétriques, avec une longue traîne à droite
+     * @param mediane Médiane de la loi
+     * @param sigma Dispersion (écart type du logarithme)
+     */
+    public double logNormale(double mediane, double sigma) {
+        return mediane * Math.exp(sigma * aleatoire.nextGaussian());
+    }
+
+    /**
+     * Loi géométrique sur {0, 1, 2...}
+     * @param moyenne Moyenne de la loi
+     */
+    public int geometrique(double moyenne) {
+        if (moyenne <= 0) {
+            return 0;
+        }
+        double echec = moyenne / (1 + moyenne);
+        return (int) Math.floor(Math.log(1 - aleatoire.nextDouble()) / Math.log(echec));
+    }
+
+    /**
+     * Loi de Zipf sur les rangs {0 .. n-1} : le rang k est tiré avec une probabilité proportionnelle à 1/(k+1)^s
+     * Quelques rangs concentrent l'essentiel des tirages (projets très chargés, produits populaires...)
+     */
+    public static final class Zipf {
+
+        private final double[] cumul;
+
+        public Zipf(int n, double exposant) {
+            cumul = new double[n];
+            double somme = 0;
+            for (int k = 0; k < n; k++) {
+                somme += 1.0 / Math.pow(k + 1, exposant);
+                cumul[k] = somme;
+            }
+            for (int k = 0; k < n; k++) {
+                cumul[k] /= somme;
+            }
+        }
+
+        public int tirer(TirageAleatoire tirage) {
+            int rang = Arrays.binarySearch(cumul, tirage.aleatoire.nextDouble());
+            return Math.min(rang >= 0 ? rang : -rang - 1, cumul.length - 1);
+        }
+    }
+}
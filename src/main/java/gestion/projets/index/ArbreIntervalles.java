@@ -0,0 +1,208 @@
+package gestion.projets.index;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arbre d'intervalles de dates [debut, fin] identifiés par un entier
+ * Arbre AVL ordonné par (debut, id) ; chaque nœud retient la plus grande fin de son sous-arbre,
+ * ce qui permet d'écarter les sous-arbres qui se terminent avant la période recherchée.
+ * Une fin absente signifie un intervalle en cours (sans borne de fin).
+ * Recherche en O(log n + k) pour k intervalles trouvés, insertion et retrait en O(log n).
+ * Non synchronisé : l'appelant protège les accès.
+ */
+final class ArbreIntervalles {
+
+    /**
+     * Fin d'un intervalle ouvert
+     */
+    private static final long SANS_FIN = Long.MAX_VALUE;
+
+    private static final class Noeud {
+        final int id;
+        final long debut;
+        final long fin;
+        long finMax;
+        int hauteur = 1;
+        Noeud gauche;
+        Noeud droite;
+
+        Noeud(int id, long debut, long fin) {
+            this.id = id;
+            this.debut = debut;
+            this.fin = fin;
+            this.finMax = fin;
+        }
+    }
+
+    private Noeud racine;
+
+    /**
+     * Nœud de chaque ID, pour retrouver la clé (debut, id) au retrait
+     */
+    private final Map<Integer, Noeud> parId = new HashMap<>();
+
+    /**
+     * Ajoute ou remplace l'intervalle d'un ID
+     * @param id Identifiant
+     * @param debut Date de début
+     * @param fin Date de fin, null pour un intervalle en cours
+     */
+    void ajouter(int id, LocalDate debut, LocalDate fin) {
+        retirer(id);
+        Noeud noeud = new Noeud(id, debut.toEpochDay(), fin != null ? fin.toEpochDay() : SANS_FIN);
+        racine = inserer(racine, noeud);
+        parId.put(id, noeud);
+    }
+
+    /**
+     * Retire l'intervalle d'un ID (sans effet s'il est absent)
+     * @param id Identifiant
+     */
+    void retirer(int id) {
+        Noeud noeud = parId.remove(id);
+        if (noeud != null) {
+            racine = supprimer(racine, noeud.debut, noeud.id);
+        }
+    }
+
+    int taille() {
+        return parId.size();
+    }
+
+    /**
+     * Recherche les intervalles qui chevauchent une période [debut, fin], bornes incluses
+     * @param debut Début de la période
+     * @param fin Fin de la période, null pour une période sans fin
+     * @return IDs trouvés, par date de début puis par ID
+     */
+    List<Integer> chevauchant(LocalDate debut, LocalDate fin) {
+        List<Integer> ids = new ArrayList<>();
+        chercher(racine, debut.toEpochDay(), fin != null ? fin.toEpochDay() : SANS_FIN, ids);
+        return ids;
+    }
+
+    private static void chercher(Noeud noeud, long debut, long fin, List<Integer> ids) {
+        // Aucun intervalle du sous-arbre ne se termine après le début de la période
+        if (noeud == null || noeud.finMax < debut) {
+            return;
+        }
+        chercher(noeud.gauche, debut, fin, ids);
+        // Ce nœud et ceux de droite commencent après la fin de la période
+        if (noeud.debut > fin) {
+            return;
+        }
+        if (noeud.fin >= debut) {
+            ids.add(noeud.id);
+        }
+        chercher(noeud.droite, debut, fin, ids);
+    }
+
+    private static int comparer(long debut, int id, Noeud noeud) {
+        int parDebut = Long.compare(debut, noeud.debut);
+        return parDebut != 0 ? parDebut : Integer.compare(id, noeud.id);
+    }
+
+    private static Noeud inserer(Noeud noeud, Noeud nouveau) {
+        if (noeud == null) {
+            return nouveau;
+        }
+        if (comparer(nouveau.debut, nouveau.id, noeud) < 0) {
+            noeud.gauche = inserer(noeud.gauche, nouveau);
+        } else {
+            noeud.droite = inserer(noeud.droite, nouveau);
+        }
+        return equilibrer(noeud);
+    }
+
+    private static Noeud supprimer(Noeud noeud, long debut, int id) {
+        if (noeud == null) {
+            return null;
+        }
+        int comparaison = comparer(debut, id, noeud);
+        if (comparaison < 0) {
+            noeud.gauche = supprimer(noeud.gauche, debut, id);
+        } else if (comparaison > 0) {
+            noeud.droite = supprimer(noeud.droite, debut, id);
+        } else {
+            if (noeud.gauche == null) {
+                return noeud.droite;
+            }
+            if (noeud.droite == null) {
+                return noeud.gauche;
+            }
+            // Remplacé par le plus petit nœud de droite
+            Noeud successeur = noeud.droite;
+            while (successeur.gauche != null) {
+                successeur = successeur.gauche;
+            }
+            successeur.droite = supprimerMin(noeud.droite);
+            successeur.gauche = noeud.gauche;
+            return equilibrer(successeur);
+        }
+        return equilibrer(noeud);
+    }
+
+    private static Noeud supprimerMin(Noeud noeud) {
+        if (noeud.gauche == null) {
+            return noeud.droite;
+        }
+        noeud.gauche = supprimerMin(noeud.gauche);
+        return equilibrer(noeud);
+    }
+
+    private static int hauteur(Noeud noeud) {
+        return noeud != null ? noeud.hauteur : 0;
+    }
+
+    private static void mettreAJour(Noeud noeud) {
+        noeud.hauteur = 1 + Math.max(hauteur(noeud.gauche), hauteur(noeud.droite));
+        long finMax = noeud.fin;
+        if (noeud.gauche != null) {
+            finMax = Math.max(finMax, noeud.gauche.finMax);
+        }
+        if (noeud.droite != null) {
+            finMax = Math.max(finMax, noeud.droite.finMax);
+        }
+        noeud.finMax = finMax;
+    }
+
+    private static Noeud equilibrer(Noeud noeud) {
+        mettreAJour(noeud);
+        int ecart = hauteur(noeud.gauche) - hauteur(noeud.droite);
+        if (ecart > 1) {
+            if (hauteur(noeud.gauche.gauche) < hauteur(noeud.gauche.droite)) {
+                noeud.gauche = rotationGauche(noeud.gauche);
+            }
+            return rotationDroite(noeud);
+        }
+        if (ecart < -1) {
+            if (hauteur(noeud.droite.droite) < hauteur(noeud.droite.gauche)) {
+                noeud.droite = rotationDroite(noeud.droite);
+            }
+            return rotationGauche(noeud);
+        }
+        return noeud;
+    }
+
+    private static Noeud rotationDroite(Noeud noeud) {
+        Noeud pivot = noeud.gauche;
+        noeud.gauche = pivot.droite;
+        pivot.droite = noeud;
+        mettreAJour(noeud);
+        mettreAJour(pivot);
+        return pivot;
+    }
+
+    private static Noeud rotationGauche(Noeud noeud) {
+        Noeud pivot = noeud.droite;
+        noeud.droite = pivot.gauche;
+        pivot.gauche = noeud;
+        mettreAJour(noeud);
+        mettreAJour(pivot);
+        return pivot;
+    }
+}
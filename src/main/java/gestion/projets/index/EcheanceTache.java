@@ -0,0 +1,40 @@
+package gestion.projets.index;
+
+import gestion.projets.dto.TacheResume;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.model.Tache.StatutTache;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Résumé immuable d'une tâche (sans description)
+ * Tenu en mémoire par l'index des retards (tâches non terminées seulement) et par l'index de recherche
+ */
+@Value
+public class EcheanceTache implements TacheResume {
+
+    Integer idTache;
+    String titre;
+    StatutTache statut;
+    LocalDate dateDebut;
+    LocalDate dateFin;
+    Integer idProjet;
+
+    static EcheanceTache de(TacheResume tache) {
+        return new EcheanceTache(tache.getIdTache(), tache.getTitre(), tache.getStatut(),
+                tache.getDateDebut(), tache.getDateFin(), tache.getIdProjet());
+    }
+
+    static EcheanceTache de(TacheInstantane tache) {
+        return new EcheanceTache(tache.getIdTache(), tache.getTitre(), tache.getStatut(),
+                tache.getDateDebut(), tache.getDateFin(), tache.getIdProjet());
+    }
+
+    /**
+     * @return true si la tâche doit être suivie : non terminée et avec une date de fin
+     */
+    static boolean estSuivie(StatutTache statut, LocalDate dateFin) {
+        return statut != StatutTache.TERMINEE && dateFin != null;
+    }
+}
@@ -0,0 +1,117 @@
+package gestion.projets.index;
+
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.EmployeEvenement;
+import gestion.projets.event.ProjetEvenement;
+import gestion.projets.event.TacheEvenement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Rattrapage des événements reçus par un index pendant sa construction
+ * L'index lit la base hors de son verrou, dans un instantané (REPEATABLE READ), et met de côté les événements reçus
+ * entre-temps. Il les rejoue ensuite sur l'état lu, dans leur ordre de réception, sauf ceux dont l'écriture y est
+ * déjà visible : la version lue par l'écriture a été remplacée dans l'instantané, ou l'objet n'y figure plus
+ * (supprimé avant lui) sans que sa création fasse partie des événements reçus.
+ */
+final class EvenementsEnAttente {
+
+    /**
+     * Écriture signalée par un événement
+     * @param id Objet écrit
+     * @param creation true pour une création
+     * @param versionLue Version lue avant l'écriture (sans objet pour une création)
+     */
+    record Ecriture<K>(K id, boolean creation, Long versionLue) {
+    }
+
+    private EvenementsEnAttente() {
+    }
+
+    /**
+     * @return Écriture d'une tâche signalée par l'événement, null s'il ne concerne pas une tâche
+     */
+    static Ecriture<Integer> tache(Object evenement) {
+        if (evenement instanceof TacheEvenement tache) {
+            return tache.getType() == TacheEvenement.Type.CREEE
+                    ? new Ecriture<>(tache.getIdTache(), true, null)
+                    : new Ecriture<>(tache.getIdTache(), false, tache.getAvant().getVersion());
+        }
+        if (evenement instanceof AffectationEvenement affectation) {
+            return new Ecriture<>(affectation.getIdTache(), false, affectation.getVersion());
+        }
+        return null;
+    }
+
+    /**
+     * @return Écriture d'un projet signalée par l'événement, null s'il ne concerne pas un projet
+     */
+    static Ecriture<Integer> projet(Object evenement) {
+        if (evenement instanceof ProjetEvenement projet) {
+            return new Ecriture<>(projet.getIdProjet(), projet.getType() == ProjetEvenement.Type.CREE, projet.getVersion());
+        }
+        return null;
+    }
+
+    /**
+     * @return Écriture d'un employé signalée par l'événement, null s'il ne concerne pas un employé
+     */
+    static Ecriture<String> employe(Object evenement) {
+        if (evenement instanceof EmployeEvenement employe) {
+            return new Ecriture<>(employe.getMatricule(), employe.getType() == EmployeEvenement.Type.CREE,
+                    employe.getVersion());
+        }
+        return null;
+    }
+
+    /**
+     * Écarte les événements dont l'écriture est déjà visible dans l'instantané de la construction
+     * Les événements d'un autre type que celui reconnu par "ecriture" sont conservés.
+     * @param recus Événements reçus pendant la construction, dans leur ordre de réception
+     * @param ecriture Écriture signalée par un événement (null si l'événement est d'un autre type)
+     * @param versions Lecture, dans l'instantané, de la version des objets existants parmi des IDs donnés
+     * @return Événements à rejouer, dans leur ordre de réception
+     */
+    static <K> List<Object> ecarterVisibles(List<Object> recus, Function<Object, Ecriture<K>> ecriture,
+                                            Function<Collection<K>, Map<K, Long>> versions) {
+        Set<K> ids = new HashSet<>();
+        Set<K> creees = new HashSet<>();
+        for (Object evenement : recus) {
+            Ecriture<K> e = ecriture.apply(evenement);
+            if (e != null) {
+                ids.add(e.id());
+                if (e.creation()) {
+                    creees.add(e.id());
+                }
+            }
+        }
+        if (ids.isEmpty()) {
+            return recus;
+        }
+        Map<K, Long> lues = versions.apply(ids);
+        List<Object> rejoues = new ArrayList<>();
+        for (Object evenement : recus) {
+            Ecriture<K> e = ecriture.apply(evenement);
+            if (e == null || !visible(e, lues.get(e.id()), creees)) {
+                rejoues.add(evenement);
+            }
+        }
+        return rejoues;
+    }
+
+    private static <K> boolean visible(Ecriture<K> ecriture, Long version, Set<K> creees) {
+        if (ecriture.creation()) {
+            return version != null;
+        }
+        if (version == null) {
+            return !creees.contains(ecriture.id());
+        }
+        return version > ecriture.versionLue();
+    }
+}
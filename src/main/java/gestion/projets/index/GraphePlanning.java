@@ -0,0 +1,468 @@
+package gestion.projets.index;
+
+import gestion.projets.dto.PlanningProjet;
+import gestion.projets.dto.PlanningTache;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Graphe orienté sans cycle des dépendances entre les tâches d'un projet (méthode du chemin critique)
+ * Chaque nœud porte son début au plus tôt (passe avant : début prévu ou fin du dernier prédécesseur)
+ * et son début au plus tard (passe arrière : depuis la fin du projet ou le premier successeur).
+ * Un rang topologique est tenu à jour : il n'est recalculé que lorsqu'une nouvelle dépendance le contredit.
+ * Après une modification, seuls les nœuds dont une date peut changer sont recalculés, par rang
+ * croissant (avant) puis décroissant (arrière) ; la passe arrière n'est complète que si la fin du projet change.
+ * Les dates sont des jours (epoch day) ; une fin au plus tôt est exclusive (début + durée).
+ * Non synchronisé : l'appelant protège les accès.
+ */
+final class GraphePlanning {
+
+    private static final Comparator<Noeud> PAR_RANG = Comparator.comparingInt(n -> n.rang);
+
+    private static final class Noeud {
+        final int id;
+        long debutPrevu;
+        long duree;
+        final List<Noeud> predecesseurs = new ArrayList<>(2);
+        final List<Noeud> successeurs = new ArrayList<>(2);
+        int rang;
+        long debutTot = Long.MIN_VALUE;
+        long debutTard = Long.MIN_VALUE;
+
+        /**
+         * Fin au plus tôt comptée dans finsTot (la durée peut avoir changé depuis), Long.MIN_VALUE si non comptée
+         */
+        long finComptee = Long.MIN_VALUE;
+
+        Noeud(int id, long debutPrevu, long duree) {
+            this.id = id;
+            this.debutPrevu = debutPrevu;
+            this.duree = duree;
+        }
+
+        long finTot() {
+            return debutTot + duree;
+        }
+    }
+
+    private final Map<Integer, Noeud> noeuds = new HashMap<>();
+
+    /**
+     * Fins au plus tôt des nœuds calculés, avec leur nombre : la plus grande est la fin du projet
+     */
+    private final TreeMap<Long, Integer> finsTot = new TreeMap<>();
+
+    private int rangSuivant;
+
+    boolean estVide() {
+        return noeuds.isEmpty();
+    }
+
+    int taille() {
+        return noeuds.size();
+    }
+
+    boolean contient(int id) {
+        return noeuds.containsKey(id);
+    }
+
+    /**
+     * Indique si une tâche en suit une autre, directement ou non
+     * @param depart ID de la tâche de départ
+     * @param cible ID de la tâche cherchée parmi celles qui la suivent
+     * @param supplementaires Dépendances pas encore ajoutées au graphe (clé : prédécesseur, valeurs : tâches dépendantes)
+     * @return true si cible est atteignable depuis depart
+     */
+    boolean atteint(int depart, int cible, Map<Integer, List<Integer>> supplementaires) {
+        Noeud noeudDepart = noeuds.get(depart);
+        Noeud noeudCible = noeuds.get(cible);
+        if (supplementaires.isEmpty()) {
+            return atteint(noeudDepart, noeudCible);
+        }
+        // Les dépendances supplémentaires peuvent contredire les rangs : parcours sans élagage
+        Deque<Integer> pile = new ArrayDeque<>();
+        Set<Integer> vus = new HashSet<>(Set.of(depart));
+        pile.push(depart);
+        while (!pile.isEmpty()) {
+            int id = pile.pop();
+            if (id == cible) {
+                return true;
+            }
+            Noeud noeud = noeuds.get(id);
+            if (noeud != null) {
+                for (Noeud successeur : noeud.successeurs) {
+                    if (vus.add(successeur.id)) {
+                        pile.push(successeur.id);
+                    }
+                }
+            }
+            for (Integer suivant : supplementaires.getOrDefault(id, List.of())) {
+                if (vus.add(suivant)) {
+                    pile.push(suivant);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ajoute une tâche sans recalculer les dates (chargement initial, suivi de recalculerTout)
+     * @param id ID de la tâche
+     * @param debutPrevu Date de début prévue (epoch day)
+     * @param duree Durée restante en jours
+     */
+    void charger(int id, long debutPrevu, long duree) {
+        Noeud noeud = new Noeud(id, debutPrevu, duree);
+        noeud.rang = rangSuivant++;
+        noeuds.put(id, noeud);
+    }
+
+    /**
+     * Ajoute une dépendance sans recalculer les dates (chargement initial, suivi de recalculerTout)
+     * @return false si l'une des tâches est inconnue
+     */
+    boolean chargerDependance(int idTache, int idPredecesseur) {
+        Noeud tache = noeuds.get(idTache);
+        Noeud predecesseur = noeuds.get(idPredecesseur);
+        if (tache == null || predecesseur == null || tache.predecesseurs.contains(predecesseur)) {
+            return false;
+        }
+        tache.predecesseurs.add(predecesseur);
+        predecesseur.successeurs.add(tache);
+        return true;
+    }
+
+    /**
+     * Recalcule le rang et les dates de tous les nœuds
+     * @return false si le graphe contient un cycle (les nœuds du cycle sont alors rangés à la fin)
+     */
+    boolean recalculerTout() {
+        boolean sansCycle = ordonner();
+        List<Noeud> ordre = new ArrayList<>(noeuds.values());
+        ordre.sort(PAR_RANG);
+        for (Noeud noeud : ordre) {
+            definirDebutTot(noeud, debutTot(noeud));
+        }
+        for (int i = ordre.size() - 1; i >= 0; i--) {
+            ordre.get(i).debutTard = debutTard(ordre.get(i));
+        }
+        return sansCycle;
+    }
+
+    /**
+     * Ajoute une tâche ou modifie sa date de début prévue et sa durée, puis recalcule les dates concernées
+     * @param id ID de la tâche
+     * @param debutPrevu Date de début prévue (epoch day)
+     * @param duree Durée restante en jours
+     */
+    void placer(int id, long debutPrevu, long duree) {
+        Noeud noeud = noeuds.get(id);
+        if (noeud == null) {
+            charger(id, debutPrevu, duree);
+            noeud = noeuds.get(id);
+        } else if (noeud.debutPrevu == debutPrevu && noeud.duree == duree) {
+            return;
+        } else {
+            noeud.debutPrevu = debutPrevu;
+            noeud.duree = duree;
+        }
+        propager(List.of(noeud), List.of(noeud));
+    }
+
+    /**
+     * Retire une tâche et ses dépendances, puis recalcule les dates concernées
+     * @param id ID de la tâche
+     */
+    void retirer(int id) {
+        Noeud noeud = noeuds.remove(id);
+        if (noeud == null) {
+            return;
+        }
+        oublierFinTot(noeud);
+        for (Noeud predecesseur : noeud.predecesseurs) {
+            predecesseur.successeurs.remove(noeud);
+        }
+        for (Noeud successeur : noeud.successeurs) {
+            successeur.predecesseurs.remove(noeud);
+        }
+        propager(noeud.successeurs, noeud.predecesseurs);
+    }
+
+    /**
+     * Ajoute une dépendance, puis recalcule les dates concernées
+     * @param idTache ID de la tâche dépendante
+     * @param idPredecesseur ID du prédécesseur
+     * @throws IllegalArgumentException si la dépendance créerait un cycle
+     */
+    void relier(int idTache, int idPredecesseur) {
+        Noeud tache = noeuds.get(idTache);
+        Noeud predecesseur = noeuds.get(idPredecesseur);
+        if (tache == null || predecesseur == null || tache.predecesseurs.contains(predecesseur)) {
+            return;
+        }
+        if (atteint(tache, predecesseur)) {
+            throw new IllegalArgumentException("La dépendance " + idPredecesseur + " -> " + idTache + " créerait un cycle");
+        }
+        tache.predecesseurs.add(predecesseur);
+        predecesseur.successeurs.add(tache);
+        // Seule une dépendance qui contredit l'ordre actuel oblige à le recalculer
+        if (predecesseur.rang > tache.rang) {
+            ordonner();
+        }
+        propager(List.of(tache), List.of(predecesseur));
+    }
+
+    /**
+     * Retire une dépendance, puis recalcule les dates concernées
+     * @param idTache ID de la tâche dépendante
+     * @param idPredecesseur ID du prédécesseur
+     */
+    void delier(int idTache, int idPredecesseur) {
+        Noeud tache = noeuds.get(idTache);
+        Noeud predecesseur = noeuds.get(idPredecesseur);
+        if (tache == null || predecesseur == null || !tache.predecesseurs.remove(predecesseur)) {
+            return;
+        }
+        predecesseur.successeurs.remove(tache);
+        propager(List.of(tache), List.of(predecesseur));
+    }
+
+    /**
+     * Copie les dates de toutes les tâches
+     * @param idProjet ID du projet
+     * @return Planification, tâches par date de début au plus tôt puis par ID
+     */
+    PlanningProjet planning(Integer idProjet) {
+        List<Noeud> critiques = new ArrayList<>();
+        List<PlanningTache> taches = new ArrayList<>(noeuds.size());
+        LocalDate finProjet = null;
+        for (Noeud noeud : noeuds.values()) {
+            long marge = noeud.debutTard - noeud.debutTot;
+            List<Integer> predecesseurs = new ArrayList<>(noeud.predecesseurs.size());
+            for (Noeud predecesseur : noeud.predecesseurs) {
+                predecesseurs.add(predecesseur.id);
+            }
+            predecesseurs.sort(null);
+            PlanningTache tache = new PlanningTache(noeud.id, predecesseurs, noeud.duree,
+                    LocalDate.ofEpochDay(noeud.debutTot), dernierJour(noeud.debutTot, noeud.duree),
+                    LocalDate.ofEpochDay(noeud.debutTard), dernierJour(noeud.debutTard, noeud.duree),
+                    marge, marge == 0);
+            taches.add(tache);
+            if (tache.isCritique()) {
+                critiques.add(noeud);
+            }
+            if (finProjet == null || tache.getFinAuPlusTot().isAfter(finProjet)) {
+                finProjet = tache.getFinAuPlusTot();
+            }
+        }
+        taches.sort(Comparator.comparing(PlanningTache::getDebutAuPlusTot).thenComparing(PlanningTache::getIdTache));
+        return new PlanningProjet(idProjet, finProjet, ordonnerCritiques(critiques), taches);
+    }
+
+    /**
+     * Ordonne les tâches critiques selon leurs dépendances, puis par début au plus tôt et par ID
+     * (ordre indépendant des rangs, qui varient selon l'historique des modifications)
+     */
+    private static List<Integer> ordonnerCritiques(List<Noeud> critiques) {
+        Set<Noeud> restants = new HashSet<>(critiques);
+        Map<Noeud, Integer> entrants = new HashMap<>();
+        PriorityQueue<Noeud> prets = new PriorityQueue<>(
+                Comparator.<Noeud>comparingLong(n -> n.debutTot).thenComparingInt(n -> n.id));
+        for (Noeud noeud : critiques) {
+            int nombre = 0;
+            for (Noeud predecesseur : noeud.predecesseurs) {
+                if (restants.contains(predecesseur)) {
+                    nombre++;
+                }
+            }
+            entrants.put(noeud, nombre);
+            if (nombre == 0) {
+                prets.add(noeud);
+            }
+        }
+        List<Integer> ids = new ArrayList<>(critiques.size());
+        while (!prets.isEmpty()) {
+            Noeud noeud = prets.poll();
+            ids.add(noeud.id);
+            for (Noeud successeur : noeud.successeurs) {
+                if (restants.contains(successeur) && entrants.merge(successeur, -1, Integer::sum) == 0) {
+                    prets.add(successeur);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Dernier jour de travail d'une tâche ; une tâche sans durée restante finit le jour où elle commence
+     */
+    private static LocalDate dernierJour(long debut, long duree) {
+        return LocalDate.ofEpochDay(debut + Math.max(duree, 1) - 1);
+    }
+
+    /**
+     * Fin du projet (exclusive), ou Long.MIN_VALUE si aucun nœud n'est calculé
+     */
+    private long finProjet() {
+        return finsTot.isEmpty() ? Long.MIN_VALUE : finsTot.lastKey();
+    }
+
+    /**
+     * Recalcule les dates à partir de nœuds modifiés
+     * @param avant Nœuds dont le début au plus tôt peut changer
+     * @param arriere Nœuds dont le début au plus tard peut changer
+     */
+    private void propager(Collection<Noeud> avant, Collection<Noeud> arriere) {
+        long ancienneFin = finProjet();
+
+        PriorityQueue<Noeud> file = new PriorityQueue<>(PAR_RANG);
+        Set<Noeud> enFile = new HashSet<>();
+        for (Noeud noeud : avant) {
+            if (enFile.add(noeud)) {
+                file.add(noeud);
+            }
+        }
+        while (!file.isEmpty()) {
+            Noeud noeud = file.poll();
+            enFile.remove(noeud);
+            long ancienneFinTot = noeud.finComptee;
+            definirDebutTot(noeud, debutTot(noeud));
+            // Les successeurs ne dépendent que de la fin au plus tôt
+            if (noeud.finTot() != ancienneFinTot) {
+                for (Noeud successeur : noeud.successeurs) {
+                    if (enFile.add(successeur)) {
+                        file.add(successeur);
+                    }
+                }
+            }
+        }
+
+        // La fin du projet borne toutes les tâches sans successeur : passe arrière complète
+        if (finProjet() != ancienneFin) {
+            List<Noeud> ordre = new ArrayList<>(noeuds.values());
+            ordre.sort(PAR_RANG.reversed());
+            for (Noeud noeud : ordre) {
+                noeud.debutTard = debutTard(noeud);
+            }
+            return;
+        }
+        file = new PriorityQueue<>(PAR_RANG.reversed());
+        for (Noeud noeud : arriere) {
+            if (enFile.add(noeud)) {
+                file.add(noeud);
+            }
+        }
+        while (!file.isEmpty()) {
+            Noeud noeud = file.poll();
+            enFile.remove(noeud);
+            long debutTard = debutTard(noeud);
+            if (debutTard != noeud.debutTard) {
+                noeud.debutTard = debutTard;
+                for (Noeud predecesseur : noeud.predecesseurs) {
+                    if (enFile.add(predecesseur)) {
+                        file.add(predecesseur);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long debutTot(Noeud noeud) {
+        long debut = noeud.debutPrevu;
+        for (Noeud predecesseur : noeud.predecesseurs) {
+            debut = Math.max(debut, predecesseur.finTot());
+        }
+        return debut;
+    }
+
+    private long debutTard(Noeud noeud) {
+        long fin = noeud.successeurs.isEmpty() ? finProjet() : Long.MAX_VALUE;
+        for (Noeud successeur : noeud.successeurs) {
+            fin = Math.min(fin, successeur.debutTard);
+        }
+        return fin - noeud.duree;
+    }
+
+    private void definirDebutTot(Noeud noeud, long debutTot) {
+        oublierFinTot(noeud);
+        noeud.debutTot = debutTot;
+        noeud.finComptee = noeud.finTot();
+        finsTot.merge(noeud.finComptee, 1, Integer::sum);
+    }
+
+    private void oublierFinTot(Noeud noeud) {
+        if (noeud.finComptee != Long.MIN_VALUE) {
+            finsTot.computeIfPresent(noeud.finComptee, (fin, nombre) -> nombre > 1 ? nombre - 1 : null);
+            noeud.finComptee = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * @return true si cible est atteignable depuis depart en suivant les successeurs
+     */
+    private static boolean atteint(Noeud depart, Noeud cible) {
+        Deque<Noeud> pile = new ArrayDeque<>();
+        Set<Noeud> vus = new HashSet<>();
+        pile.push(depart);
+        while (!pile.isEmpty()) {
+            Noeud noeud = pile.pop();
+            if (noeud == cible) {
+                return true;
+            }
+            for (Noeud successeur : noeud.successeurs) {
+                // Un nœud de rang supérieur à la cible ne peut pas la précéder
+                if (successeur.rang <= cible.rang && vus.add(successeur)) {
+                    pile.push(successeur);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Recalcule les rangs topologiques (algorithme de Kahn)
+     * @return false si des nœuds forment un cycle
+     */
+    private boolean ordonner() {
+        Map<Noeud, Integer> entrants = new HashMap<>();
+        Deque<Noeud> prets = new ArrayDeque<>();
+        List<Noeud> parRang = new ArrayList<>(noeuds.values());
+        parRang.sort(PAR_RANG);
+        for (Noeud noeud : parRang) {
+            entrants.put(noeud, noeud.predecesseurs.size());
+            if (noeud.predecesseurs.isEmpty()) {
+                prets.add(noeud);
+            }
+        }
+        int rang = 0;
+        while (!prets.isEmpty()) {
+            Noeud noeud = prets.poll();
+            noeud.rang = rang++;
+            entrants.remove(noeud);
+            for (Noeud successeur : noeud.successeurs) {
+                if (entrants.merge(successeur, -1, Integer::sum) == 0) {
+                    prets.add(successeur);
+                }
+            }
+        }
+        for (Noeud noeud : parRang) {
+            if (entrants.containsKey(noeud)) {
+                noeud.rang = rang++;
+            }
+        }
+        rangSuivant = rang;
+        return entrants.isEmpty();
+    }
+}
@@ -0,0 +1,300 @@
+package gestion.projets.index;
+
+import gestion.projets.config.RoutageLectures;
+import gestion.projets.dto.ChargeEmploye;
+import gestion.projets.dto.ChargeStatutLigne;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.EmployeEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.EmployeRepository;
+import gestion.projets.repository.TacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Compteurs en mémoire des tâches affectées à chaque employé, par statut
+ * Initialisés au démarrage par une seule requête d'agrégation, puis tenus à jour par les événements
+ * publiés après chaque commit : une transaction annulée ne modifie donc jamais les compteurs.
+ * Chaque événement est appliqué en entier sous le verrou d'écriture (un changement de statut
+ * déplace d'un coup les compteurs de tous les employés affectés).
+ * Les employés d'un changement de statut et le statut d'une affectation sont lus par la transaction
+ * d'écriture ; une affectation ou un retrait incrémente la version de la tâche, si bien que deux écritures
+ * concurrentes sur une même tâche ne peuvent pas être validées toutes les deux (verrouillage optimiste).
+ * L'index retient, pour chaque tâche, la dernière version comptée : un événement qui porte une version
+ * antérieure (écriture déjà comprise dans l'agrégat, ou écouteur exécuté en retard) est écarté.
+ * Un événement qui porte le matricule d'un employé inconnu (supprimé entre-temps) ne modifie aucun compteur.
+ */
+@Component
+public class IndexChargeEmployes {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexChargeEmployes.class);
+
+    private static final StatutTache[] STATUTS = StatutTache.values();
+
+    /**
+     * Nombre de tâches affectées par matricule, indexé par l'ordinal du statut
+     */
+    private final Map<String, long[]> compteurs = new HashMap<>();
+
+    /**
+     * Dernière version comptée de chaque tâche : celle de l'agrégat, puis celle lue par chaque écriture appliquée
+     * (les événements d'une même transaction portent la même version)
+     */
+    private Map<Integer, Long> versions = new HashMap<>();
+
+    /**
+     * Événements de tâches absentes de l'agrégat dont la création n'a pas encore été signalée, appliqués avec elle
+     * Ceux d'une tâche supprimée avant l'agrégat ne le sont jamais
+     */
+    private final Map<Integer, List<Object>> sansCreation = new HashMap<>();
+
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Événements reçus pendant la construction, appliqués ensuite s'ils ne sont pas déjà comptés ; null en dehors
+     */
+    private List<Object> enAttente;
+
+    private volatile boolean pret;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    /**
+     * Initialise les compteurs à partir de la base au démarrage de l'application
+     * L'agrégation et la lecture des versions des tâches s'exécutent sans le verrou, dans le même instantané
+     * (REPEATABLE READ) ; les événements reçus entre-temps sont mis de côté, puis appliqués comme les suivants,
+     * en écartant ceux dont la version est déjà comptée.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void construire() {
+        // Sur la base principale : la réplique peut ne pas encore contenir les écritures déjà signalées
+        RoutageLectures.surPrincipale(this::charger);
+    }
+
+    private void charger() {
+        long debut = System.nanoTime();
+        verrou.writeLock().lock();
+        try {
+            enAttente = new ArrayList<>();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        List<ChargeStatutLigne> lignes = employeRepository.findChargesParStatut();
+        Map<Integer, Long> lues = new HashMap<>();
+        try (Stream<TacheProjet> taches = tacheRepository.streamVersions()) {
+            taches.forEach(t -> lues.put(t.getIdTache(), t.getVersion()));
+        }
+
+        verrou.writeLock().lock();
+        try {
+            List<Object> recus = enAttente;
+            enAttente = null;
+            compteurs.clear();
+            for (ChargeStatutLigne ligne : lignes) {
+                long[] parStatut = compteurs.computeIfAbsent(ligne.getMatricule(), m -> new long[STATUTS.length]);
+                if (ligne.getStatut() != null) {
+                    parStatut[ligne.getStatut().ordinal()] = ligne.getNombre();
+                }
+            }
+            versions = lues;
+            sansCreation.clear();
+            for (Object evenement : recus) {
+                appliquerSiNouveau(evenement);
+            }
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Index des charges construit : {} employés en {} ms",
+                compteurs.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    /**
+     * @return true une fois les compteurs initialisés
+     */
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * Copie les compteurs de tous les employés (le nombre de tâches en retard n'est pas renseigné)
+     * @return Charge de chaque employé, par ordre de matricule
+     */
+    public List<ChargeEmploye> getCharges() {
+        List<ChargeEmploye> charges = new ArrayList<>();
+        verrou.readLock().lock();
+        try {
+            compteurs.forEach((matricule, parStatut) -> {
+                ChargeEmploye charge = new ChargeEmploye(matricule);
+                for (StatutTache statut : STATUTS) {
+                    charge.getParStatut().put(statut, parStatut[statut.ordinal()]);
+                    charge.setTotal(charge.getTotal() + parStatut[statut.ordinal()]);
+                }
+                charges.add(charge);
+            });
+        } finally {
+            verrou.readLock().unlock();
+        }
+        charges.sort(Comparator.comparing(ChargeEmploye::getMatricule));
+        return charges;
+    }
+
+    /**
+     * @param matricule Matricule de l'employé
+     * @return Nombre total de tâches affectées, ou null si l'employé n'est pas connu de l'index
+     */
+    public Long getTotal(String matricule) {
+        verrou.readLock().lock();
+        try {
+            long[] parStatut = compteurs.get(matricule);
+            if (parStatut == null) {
+                return null;
+            }
+            long total = 0;
+            for (long nombre : parStatut) {
+                total += nombre;
+            }
+            return total;
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void surAffectation(AffectationEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surTache(TacheEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surEmploye(EmployeEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    private void recevoir(Object evenement) {
+        verrou.writeLock().lock();
+        try {
+            if (enAttente != null) {
+                enAttente.add(evenement);
+            } else {
+                appliquerSiNouveau(evenement);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applique un événement s'il est postérieur à la dernière version comptée de sa tâche (verrou d'écriture tenu)
+     * Une tâche inconnue a été créée après l'agrégat (ses événements attendent sa création) ou supprimée avant lui.
+     */
+    private void appliquerSiNouveau(Object evenement) {
+        Integer idTache;
+        Long versionLue;
+        if (evenement instanceof AffectationEvenement affectation) {
+            idTache = affectation.getIdTache();
+            versionLue = affectation.getVersion();
+        } else if (evenement instanceof TacheEvenement tache) {
+            idTache = tache.getIdTache();
+            if (tache.getType() == TacheEvenement.Type.CREEE) {
+                // Une création validée avant l'agrégat n'abaisse pas la version qu'il contient
+                versions.merge(idTache, tache.getApres().getVersion(), Math::max);
+                List<Object> suivants = sansCreation.remove(idTache);
+                if (suivants != null) {
+                    suivants.sort(Comparator.comparing(IndexChargeEmployes::versionLue));
+                    suivants.forEach(this::appliquerSiNouveau);
+                }
+                return;
+            }
+            versionLue = tache.getAvant().getVersion();
+        } else {
+            // Événements des employés : idempotents, toujours appliqués
+            appliquer(evenement);
+            return;
+        }
+
+        Long comptee = versions.get(idTache);
+        if (comptee == null) {
+            sansCreation.computeIfAbsent(idTache, id -> new ArrayList<>()).add(evenement);
+        } else if (versionLue >= comptee) {
+            versions.put(idTache, versionLue);
+            appliquer(evenement);
+        }
+    }
+
+    private static Long versionLue(Object evenement) {
+        return evenement instanceof AffectationEvenement affectation
+                ? affectation.getVersion()
+                : ((TacheEvenement) evenement).getAvant().getVersion();
+    }
+
+    /**
+     * Applique un événement aux compteurs (verrou d'écriture tenu)
+     */
+    private void appliquer(Object evenement) {
+        if (evenement instanceof AffectationEvenement affectation) {
+            int delta = affectation.getType() == AffectationEvenement.Type.AFFECTEE ? 1 : -1;
+            compter(affectation.getMatricule(), affectation.getStatut(), delta);
+        } else if (evenement instanceof TacheEvenement tache) {
+            // Suppression : les affectations sont signalées comme retirées
+            if (tache.getApres() == null) {
+                return;
+            }
+            StatutTache avant = tache.getAvant().getStatut();
+            StatutTache apres = tache.getApres().getStatut();
+            if (avant == apres) {
+                return;
+            }
+            for (String matricule : tache.getMatricules()) {
+                compter(matricule, avant, -1);
+                compter(matricule, apres, 1);
+            }
+        } else if (evenement instanceof EmployeEvenement employe) {
+            switch (employe.getType()) {
+                case CREE -> compteurs.putIfAbsent(employe.getMatricule(), new long[STATUTS.length]);
+                // Les affectations de l'employé sont supprimées avec lui
+                case SUPPRIME -> compteurs.remove(employe.getMatricule());
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Seuls l'agrégat et la création d'un employé ouvrent un compteur : la suppression d'un employé n'incrémente
+     * la version d'aucune tâche, un changement de statut validé après elle peut donc encore porter son matricule
+     */
+    private void compter(String matricule, StatutTache statut, int delta) {
+        compteurs.computeIfPresent(matricule, (m, parStatut) -> {
+            parStatut[statut.ordinal()] += delta;
+            return parStatut;
+        });
+    }
+}
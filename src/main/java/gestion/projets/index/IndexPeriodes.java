@@ -0,0 +1,198 @@
+package gestion.projets.index;
+
+import gestion.projets.config.RoutageLectures;
+import gestion.projets.dto.Periode;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.dto.VersionLigne;
+import gestion.projets.event.ProjetEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.repository.ProjetRepository;
+import gestion.projets.repository.TacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Index en mémoire des périodes [dateDebut, dateFin] des tâches et des projets (arbres d'intervalles)
+ * Construit au démarrage, puis tenu à jour par les événements publiés après chaque commit.
+ * Tant qu'il n'est pas prêt, les recherches de chevauchement passent par la base.
+ */
+@Component
+public class IndexPeriodes {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexPeriodes.class);
+
+    private ArbreIntervalles taches = new ArbreIntervalles();
+    private ArbreIntervalles projets = new ArbreIntervalles();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Événements reçus pendant la construction, rejoués ensuite ; null en dehors
+     */
+    private List<Object> enAttente;
+
+    private volatile boolean pret;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    /**
+     * Charge les périodes de toutes les tâches et de tous les projets au démarrage de l'application
+     * La lecture s'exécute sans le verrou, dans un seul instantané (REPEATABLE READ) : les événements reçus
+     * entre-temps sont mis de côté, puis rejoués sur les arbres lus s'ils n'y sont pas déjà visibles
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void construire() {
+        // Sur la base principale : la réplique peut ne pas encore contenir les écritures déjà signalées
+        RoutageLectures.surPrincipale(this::charger);
+    }
+
+    private void charger() {
+        long debut = System.nanoTime();
+        verrou.writeLock().lock();
+        try {
+            enAttente = new ArrayList<>();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        ArbreIntervalles tachesLues = new ArbreIntervalles();
+        ArbreIntervalles projetsLus = new ArbreIntervalles();
+        try (Stream<Periode> periodes = tacheRepository.streamPeriodes()) {
+            periodes.forEach(p -> tachesLues.ajouter(p.getId(), p.getDateDebut(), p.getDateFin()));
+        }
+        for (Periode p : projetRepository.findPeriodes()) {
+            projetsLus.ajouter(p.getId(), p.getDateDebut(), p.getDateFin());
+        }
+
+        verrou.writeLock().lock();
+        try {
+            List<Object> recus = EvenementsEnAttente.ecarterVisibles(enAttente, EvenementsEnAttente::tache,
+                    this::versionsTaches);
+            recus = EvenementsEnAttente.ecarterVisibles(recus, EvenementsEnAttente::projet, this::versionsProjets);
+            enAttente = null;
+            taches = tachesLues;
+            projets = projetsLus;
+            recus.forEach(this::appliquer);
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Index des périodes construit : {} tâches, {} projets en {} ms",
+                tachesLues.taille(), projetsLus.taille(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    /**
+     * @return true une fois l'index construit
+     */
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * @param debut Début de la période
+     * @param fin Fin de la période, null pour une période sans fin
+     * @return IDs des tâches dont la période chevauche [debut, fin], par date de début puis par ID
+     */
+    public List<Integer> getTachesChevauchant(LocalDate debut, LocalDate fin) {
+        verrou.readLock().lock();
+        try {
+            return taches.chevauchant(debut, fin);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param debut Début de la période
+     * @param fin Fin de la période, null pour une période sans fin
+     * @return IDs des projets dont la période chevauche [debut, fin], par date de début puis par ID
+     */
+    public List<Integer> getProjetsChevauchant(LocalDate debut, LocalDate fin) {
+        verrou.readLock().lock();
+        try {
+            return projets.chevauchant(debut, fin);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void surTache(TacheEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surProjet(ProjetEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    private void recevoir(Object evenement) {
+        verrou.writeLock().lock();
+        try {
+            if (enAttente != null) {
+                enAttente.add(evenement);
+            } else {
+                appliquer(evenement);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applique un événement aux arbres (verrou d'écriture tenu)
+     */
+    private void appliquer(Object evenement) {
+        if (evenement instanceof TacheEvenement tache) {
+            TacheInstantane apres = tache.getApres();
+            if (apres == null) {
+                taches.retirer(tache.getIdTache());
+            } else {
+                taches.ajouter(apres.getIdTache(), apres.getDateDebut(), apres.getDateFin());
+            }
+        } else if (evenement instanceof ProjetEvenement projet) {
+            if (projet.getType() == ProjetEvenement.Type.SUPPRIME) {
+                projets.retirer(projet.getIdProjet());
+            } else {
+                projets.ajouter(projet.getIdProjet(), projet.getDateDebut(), projet.getDateFin());
+            }
+        }
+    }
+
+    private Map<Integer, Long> versionsTaches(Collection<Integer> ids) {
+        Map<Integer, Long> versions = new HashMap<>();
+        for (TacheProjet tache : tacheRepository.findProjetsExistants(ids)) {
+            versions.put(tache.getIdTache(), tache.getVersion());
+        }
+        return versions;
+    }
+
+    private Map<Integer, Long> versionsProjets(Collection<Integer> ids) {
+        Map<Integer, Long> versions = new HashMap<>();
+        for (VersionLigne projet : projetRepository.findVersionsByIds(ids)) {
+            versions.put(projet.getId(), projet.getVersion());
+        }
+        return versions;
+    }
+}
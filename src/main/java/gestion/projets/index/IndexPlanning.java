@@ -0,0 +1,320 @@
+package gestion.projets.index;
+
+import gestion.projets.config.RoutageLectures;
+import gestion.projets.dto.DependanceResume;
+import gestion.projets.dto.PlanningProjet;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.event.DependanceEvenement;
+import gestion.projets.event.ProjetEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.DependanceTacheRepository;
+import gestion.projets.repository.TacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Planification en mémoire de chaque projet : graphe des dépendances entre ses tâches,
+ * dates au plus tôt et au plus tard, marges et chemin critique
+ * Construit au démarrage, puis tenu à jour par les événements publiés après chaque commit :
+ * un changement de dates ou de statut ne recalcule que les tâches qui en dépendent.
+ * La durée restante d'une tâche est son nombre de jours (1 si elle n'a pas de date de fin), 0 une fois terminée.
+ */
+@Component
+public class IndexPlanning {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexPlanning.class);
+
+    private Map<Integer, GraphePlanning> graphes = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Dépendances vérifiées par une transaction pas encore terminée, par projet (clé : prédécesseur,
+     * valeurs : tâches dépendantes) : elles comptent pour la détection des cycles jusqu'à ce que l'événement
+     * qui les ajoute au graphe ait été appliqué
+     */
+    private final Map<Integer, Map<Integer, List<Integer>>> reservees = new HashMap<>();
+
+    /**
+     * Événements reçus pendant la construction, rejoués ensuite ; null en dehors
+     */
+    private List<Object> enAttente;
+
+    private volatile boolean pret;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private DependanceTacheRepository dependanceTacheRepository;
+
+    /**
+     * Construit le graphe de chaque projet à partir de la base au démarrage de l'application
+     * Les tâches et les dépendances sont lues sans le verrou, dans un seul instantané (REPEATABLE READ), et les
+     * graphes calculés avant d'être publiés : les événements reçus entre-temps sont mis de côté, puis rejoués
+     * s'ils ne sont pas déjà visibles dans l'instantané
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void construire() {
+        // Sur la base principale : la réplique peut ne pas encore contenir les écritures déjà signalées
+        RoutageLectures.surPrincipale(this::charger);
+    }
+
+    private void charger() {
+        long debut = System.nanoTime();
+        verrou.writeLock().lock();
+        try {
+            enAttente = new ArrayList<>();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        Map<Integer, GraphePlanning> lus = new HashMap<>();
+        try (Stream<TacheResume> taches = tacheRepository.streamResumes()) {
+            taches.forEach(t -> lus.computeIfAbsent(t.getIdProjet(), id -> new GraphePlanning())
+                    .charger(t.getIdTache(), t.getDateDebut().toEpochDay(), duree(t.getDateDebut(), t.getDateFin(), t.getStatut())));
+        }
+        try (Stream<DependanceResume> dependances = dependanceTacheRepository.streamResumes()) {
+            dependances.forEach(d -> {
+                GraphePlanning graphe = lus.get(d.getIdProjet());
+                if (graphe != null) {
+                    graphe.chargerDependance(d.getIdTache(), d.getIdPredecesseur());
+                }
+            });
+        }
+        lus.forEach((idProjet, graphe) -> {
+            if (!graphe.recalculerTout()) {
+                log.warn("Dépendances circulaires dans le projet {} : planification partielle", idProjet);
+            }
+        });
+
+        verrou.writeLock().lock();
+        try {
+            List<Object> recus = EvenementsEnAttente.ecarterVisibles(enAttente, EvenementsEnAttente::tache,
+                    this::versionsTaches);
+            enAttente = null;
+            graphes = lus;
+            recus.forEach(this::appliquer);
+            pret = true;
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        log.info("Index de planification construit : {} projets en {} ms",
+                lus.size(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    /**
+     * @return true une fois l'index construit ; avant, la planification est calculée à chaque demande
+     */
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * @param idProjet ID du projet
+     * @return Planification du projet (sans tâche si le projet n'en a pas)
+     */
+    public PlanningProjet getPlanning(Integer idProjet) {
+        verrou.readLock().lock();
+        try {
+            GraphePlanning graphe = graphes.get(idProjet);
+            return graphe != null ? graphe.planning(idProjet) : new GraphePlanning().planning(idProjet);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Calcule la planification d'un projet lu en base, sans passer par l'index
+     * @param idProjet ID du projet
+     * @param taches Tâches du projet
+     * @param dependances Dépendances entre ces tâches
+     * @return Planification du projet
+     */
+    public static PlanningProjet planifier(Integer idProjet, List<TacheResume> taches, List<DependanceResume> dependances) {
+        GraphePlanning graphe = new GraphePlanning();
+        for (TacheResume t : taches) {
+            graphe.charger(t.getIdTache(), t.getDateDebut().toEpochDay(), duree(t.getDateDebut(), t.getDateFin(), t.getStatut()));
+        }
+        for (DependanceResume dependance : dependances) {
+            graphe.chargerDependance(dependance.getIdTache(), dependance.getIdPredecesseur());
+        }
+        graphe.recalculerTout();
+        return graphe.planning(idProjet);
+    }
+
+    /**
+     * Indique si une dépendance créerait un cycle, d'après le graphe du projet et les dépendances réservées
+     * L'appelant tient le verrou du projet en base, si bien qu'aucune autre dépendance du projet n'est
+     * vérifiée en même temps
+     * @param idProjet ID du projet des deux tâches
+     * @param idTache ID de la tâche dépendante
+     * @param idPredecesseur ID du prédécesseur
+     * @return true si le prédécesseur suit déjà la tâche, false sinon, null si l'index ne peut pas répondre
+     * (pas encore construit, ou tâche dont la création n'a pas encore été appliquée)
+     */
+    public Boolean creeraitUnCycle(Integer idProjet, Integer idTache, Integer idPredecesseur) {
+        if (!pret) {
+            return null;
+        }
+        verrou.readLock().lock();
+        try {
+            GraphePlanning graphe = graphes.get(idProjet);
+            if (graphe == null || !graphe.contient(idTache) || !graphe.contient(idPredecesseur)) {
+                return null;
+            }
+            return graphe.atteint(idTache, idPredecesseur, reservees.getOrDefault(idProjet, Map.of()));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Réserve une dépendance vérifiée par une transaction en cours, jusqu'à la fin de celle-ci
+     * Après un commit, l'événement qui l'ajoute au graphe est appliqué avant la libération
+     * @param idProjet ID du projet des deux tâches
+     * @param idTache ID de la tâche dépendante
+     * @param idPredecesseur ID du prédécesseur
+     */
+    public void reserver(Integer idProjet, Integer idTache, Integer idPredecesseur) {
+        verrou.writeLock().lock();
+        try {
+            reservees.computeIfAbsent(idProjet, id -> new HashMap<>())
+                    .computeIfAbsent(idPredecesseur, id -> new ArrayList<>()).add(idTache);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int statut) {
+                liberer(idProjet, idTache, idPredecesseur);
+            }
+        });
+    }
+
+    private void liberer(Integer idProjet, Integer idTache, Integer idPredecesseur) {
+        verrou.writeLock().lock();
+        try {
+            Map<Integer, List<Integer>> projet = reservees.get(idProjet);
+            List<Integer> successeurs = projet.get(idPredecesseur);
+            successeurs.remove(idTache);
+            if (successeurs.isEmpty()) {
+                projet.remove(idPredecesseur);
+                if (projet.isEmpty()) {
+                    reservees.remove(idProjet);
+                }
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void surTache(TacheEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surDependance(DependanceEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surProjet(ProjetEvenement evenement) {
+        if (evenement.getType() == ProjetEvenement.Type.SUPPRIME) {
+            recevoir(evenement);
+        }
+    }
+
+    private void recevoir(Object evenement) {
+        verrou.writeLock().lock();
+        try {
+            if (enAttente != null) {
+                enAttente.add(evenement);
+            } else {
+                appliquer(evenement);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applique un événement aux graphes (verrou d'écriture tenu)
+     * Les dépendances et les suppressions de projets sont idempotentes : rejouées telles quelles après la construction
+     */
+    private void appliquer(Object evenement) {
+        if (evenement instanceof TacheEvenement tacheEvenement) {
+            TacheInstantane tache = tacheEvenement.getApres() != null ? tacheEvenement.getApres() : tacheEvenement.getAvant();
+            if (tacheEvenement.getApres() == null) {
+                GraphePlanning graphe = graphes.get(tache.getIdProjet());
+                if (graphe != null) {
+                    graphe.retirer(tache.getIdTache());
+                    if (graphe.estVide()) {
+                        graphes.remove(tache.getIdProjet());
+                    }
+                }
+            } else {
+                graphes.computeIfAbsent(tache.getIdProjet(), id -> new GraphePlanning()).placer(tache.getIdTache(),
+                        tache.getDateDebut().toEpochDay(), duree(tache.getDateDebut(), tache.getDateFin(), tache.getStatut()));
+            }
+        } else if (evenement instanceof DependanceEvenement dependance) {
+            GraphePlanning graphe = graphes.get(dependance.getIdProjet());
+            if (graphe == null) {
+                return;
+            }
+            try {
+                if (dependance.getType() == DependanceEvenement.Type.AJOUTEE) {
+                    graphe.relier(dependance.getIdTache(), dependance.getIdPredecesseur());
+                } else {
+                    graphe.delier(dependance.getIdTache(), dependance.getIdPredecesseur());
+                }
+            } catch (IllegalArgumentException e) {
+                // Refusée en base par TacheService : ne peut arriver que si l'index a divergé
+                log.error("Dépendance ignorée par l'index de planification : {}", e.getMessage());
+            }
+        } else if (evenement instanceof ProjetEvenement projet) {
+            graphes.remove(projet.getIdProjet());
+        }
+    }
+
+    private Map<Integer, Long> versionsTaches(Collection<Integer> ids) {
+        Map<Integer, Long> versions = new HashMap<>();
+        for (TacheProjet tache : tacheRepository.findProjetsExistants(ids)) {
+            versions.put(tache.getIdTache(), tache.getVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * @return Durée restante en jours : 0 pour une tâche terminée, 1 sans date de fin
+     */
+    private static long duree(LocalDate debut, LocalDate fin, StatutTache statut) {
+        if (statut == StatutTache.TERMINEE) {
+            return 0;
+        }
+        return fin != null ? Math.max(1, ChronoUnit.DAYS.between(debut, fin) + 1) : 1;
+    }
+}
@@ -0,0 +1,234 @@
+package gestion.projets.index;
+
+import gestion.projets.config.RoutageLectures;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.dto.TacheTexte;
+import gestion.projets.dto.VersionEmploye;
+import gestion.projets.event.EmployeEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.model.Employe;
+import gestion.projets.repository.EmployeRepository;
+import gestion.projets.repository.TacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Index de recherche plein texte des tâches et des employés
+ * Construit au démarrage, puis tenu à jour par les événements publiés après chaque commit
+ */
+@Component
+public class IndexRecherche {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexRecherche.class);
+
+    /**
+     * Seul le début des descriptions est indexé, pour borner la mémoire occupée par l'index
+     */
+    private static final int LONGUEUR_MAX_DESCRIPTION = 2000;
+
+    private volatile IndexTrigrammes<Integer> taches = new IndexTrigrammes<>();
+    private volatile IndexTrigrammes<String> employes = new IndexTrigrammes<>();
+
+    /**
+     * Résumé des tâches indexées : les recherches de tâches répondent sans relire la base
+     */
+    private volatile Map<Integer, EcheanceTache> resumes = new ConcurrentHashMap<>();
+
+    /**
+     * Sérialise les mises à jour et l'échange des index construits (les recherches passent par le verrou de chaque index)
+     */
+    private final Lock verrou = new ReentrantLock();
+
+    /**
+     * Événements reçus pendant la construction, rejoués ensuite ; null en dehors
+     */
+    private List<Object> enAttente;
+
+    private volatile boolean pret;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private EmployeRepository employeRepository;
+
+    /**
+     * Construit l'index à partir de la base au démarrage de l'application
+     * La lecture s'exécute sans le verrou, dans un seul instantané (REPEATABLE READ) : les événements reçus
+     * entre-temps sont mis de côté, puis rejoués sur l'index lu s'ils n'y sont pas déjà visibles
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void construire() {
+        // Sur la base principale : la réplique peut ne pas encore contenir les écritures déjà signalées
+        RoutageLectures.surPrincipale(this::charger);
+    }
+
+    private void charger() {
+        long debut = System.nanoTime();
+        verrou.lock();
+        try {
+            enAttente = new ArrayList<>();
+        } finally {
+            verrou.unlock();
+        }
+        IndexTrigrammes<Integer> tachesLues = new IndexTrigrammes<>();
+        IndexTrigrammes<String> employesLus = new IndexTrigrammes<>();
+        Map<Integer, EcheanceTache> resumesLus = new ConcurrentHashMap<>();
+        try (Stream<TacheTexte> textes = tacheRepository.streamTextesTaches()) {
+            textes.forEach(t -> {
+                tachesLues.indexer(t.getIdTache(), t.getTitre(), tronquer(t.getDescription()));
+                resumesLus.put(t.getIdTache(), EcheanceTache.de(t));
+            });
+        }
+        for (Employe employe : employeRepository.findAll()) {
+            employesLus.indexer(employe.getMatricule(), employe.getNom(), employe.getPrenom(), employe.getEmail());
+        }
+
+        verrou.lock();
+        try {
+            List<Object> recus = EvenementsEnAttente.ecarterVisibles(enAttente, EvenementsEnAttente::tache,
+                    this::versionsTaches);
+            recus = EvenementsEnAttente.ecarterVisibles(recus, EvenementsEnAttente::employe, this::versionsEmployes);
+            enAttente = null;
+            taches = tachesLues;
+            employes = employesLus;
+            resumes = resumesLus;
+            recus.forEach(this::appliquer);
+            pret = true;
+        } finally {
+            verrou.unlock();
+        }
+        log.info("Index de recherche construit : {} tâches, {} employés en {} ms",
+                tachesLues.taille(), employesLus.taille(), (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    /**
+     * @return true une fois l'index construit ; avant, les recherches passent par la base
+     */
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * Recherche des tâches par titre ou description
+     * @param terme Terme recherché
+     * @param limite Nombre maximum de résultats
+     * @return Résumés des tâches, de la plus pertinente à la moins pertinente
+     */
+    public List<TacheResume> rechercherTaches(String terme, int limite) {
+        Map<Integer, EcheanceTache> parId = resumes;
+        List<TacheResume> trouvees = new ArrayList<>();
+        for (Integer idTache : taches.rechercher(terme, limite)) {
+            // Une tâche supprimée entre les deux lectures n'a plus de résumé
+            EcheanceTache resume = parId.get(idTache);
+            if (resume != null) {
+                trouvees.add(resume);
+            }
+        }
+        return trouvees;
+    }
+
+    /**
+     * Recherche des employés par nom, prénom ou email
+     * @param terme Terme recherché
+     * @param limite Nombre maximum de résultats
+     * @return Matricules des employés, du plus pertinent au moins pertinent
+     */
+    public List<String> rechercherEmployes(String terme, int limite) {
+        return employes.rechercher(terme, limite);
+    }
+
+    @TransactionalEventListener
+    public void surTache(TacheEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surEmploye(EmployeEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    private void recevoir(Object evenement) {
+        verrou.lock();
+        try {
+            if (enAttente != null) {
+                enAttente.add(evenement);
+            } else {
+                appliquer(evenement);
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    /**
+     * Applique un événement à l'index (verrou tenu)
+     */
+    private void appliquer(Object evenement) {
+        if (evenement instanceof TacheEvenement tache) {
+            TacheInstantane apres = tache.getApres();
+            if (apres == null) {
+                taches.retirer(tache.getIdTache());
+                resumes.remove(tache.getIdTache());
+            } else {
+                // Le changement de statut ne modifie pas le texte indexé, seulement le résumé
+                if (tache.getType() != TacheEvenement.Type.STATUT_MODIFIE) {
+                    taches.indexer(apres.getIdTache(), apres.getTitre(), tronquer(apres.getDescription()));
+                }
+                resumes.put(apres.getIdTache(), EcheanceTache.de(apres));
+            }
+        } else if (evenement instanceof EmployeEvenement employe) {
+            if (employe.getType() == EmployeEvenement.Type.SUPPRIME) {
+                employes.retirer(employe.getMatricule());
+            } else {
+                employes.indexer(employe.getMatricule(), employe.getNom(), employe.getPrenom(), employe.getEmail());
+            }
+        }
+    }
+
+    private Map<Integer, Long> versionsTaches(Collection<Integer> ids) {
+        Map<Integer, Long> versions = new HashMap<>();
+        for (TacheProjet tache : tacheRepository.findProjetsExistants(ids)) {
+            versions.put(tache.getIdTache(), tache.getVersion());
+        }
+        return versions;
+    }
+
+    private Map<String, Long> versionsEmployes(Collection<String> matricules) {
+        Map<String, Long> versions = new HashMap<>();
+        for (VersionEmploye employe : employeRepository.findVersionsByMatricules(matricules)) {
+            versions.put(employe.getMatricule(), employe.getVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * Seul le début des descriptions est indexé
+     */
+    private static String tronquer(String description) {
+        if (description != null && description.length() > LONGUEUR_MAX_DESCRIPTION) {
+            return description.substring(0, LONGUEUR_MAX_DESCRIPTION);
+        }
+        return description;
+    }
+}
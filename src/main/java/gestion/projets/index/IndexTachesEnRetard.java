@@ -0,0 +1,320 @@
+package gestion.projets.index;
+
+import gestion.projets.config.RoutageLectures;
+import gestion.projets.dto.AffectationResume;
+import gestion.projets.dto.CompteursRetard;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.EmployeEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.repository.EmployeeTacheRepository;
+import gestion.projets.repository.TacheRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Index en mémoire des tâches non terminées, ordonnées par date de fin
+ * Les tâches dont l'échéance n'est pas atteinte attendent dans "aVenir" ; au changement de jour
+ * (planificateur de minuit, ou première lecture du jour), celles dont la date de fin est dépassée
+ * basculent dans "enRetard" et les compteurs par projet et par employé sont mis à jour.
+ * Construit au démarrage, puis tenu à jour par les événements publiés après chaque commit.
+ */
+@Component
+public class IndexTachesEnRetard {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexTachesEnRetard.class);
+
+    private static final Comparator<EcheanceTache> PAR_ECHEANCE =
+            Comparator.comparing(EcheanceTache::getDateFin).thenComparing(EcheanceTache::getIdTache);
+
+    private final Map<Integer, EcheanceTache> suivies = new HashMap<>();
+    private final NavigableSet<EcheanceTache> aVenir = new TreeSet<>(PAR_ECHEANCE);
+    private final NavigableSet<EcheanceTache> enRetard = new TreeSet<>(PAR_ECHEANCE);
+
+    /**
+     * Matricules affectés à chaque tâche suivie
+     */
+    private final Map<Integer, Set<String>> affectations = new HashMap<>();
+
+    private final Map<Integer, Integer> retardsParProjet = new HashMap<>();
+    private final Map<String, Integer> retardsParEmploye = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Une tâche est en retard si sa date de fin précède ce jour
+     */
+    private LocalDate jour = LocalDate.now();
+
+    /**
+     * Événements reçus pendant la construction, rejoués ensuite ; null en dehors
+     */
+    private List<Object> enAttente;
+
+    private volatile boolean pret;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private EmployeeTacheRepository employeeTacheRepository;
+
+    /**
+     * Construit l'index à partir de la base au démarrage de l'application
+     * La lecture s'exécute sans le verrou, dans un seul instantané (REPEATABLE READ) : les événements reçus
+     * entre-temps sont mis de côté, puis rejoués sur l'état lu s'ils n'y sont pas déjà visibles
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void construire() {
+        // Sur la base principale : la réplique peut ne pas encore contenir les écritures déjà signalées
+        RoutageLectures.surPrincipale(this::charger);
+    }
+
+    private void charger() {
+        long debut = System.nanoTime();
+        verrou.writeLock().lock();
+        try {
+            enAttente = new ArrayList<>();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+        Map<Integer, Set<String>> matricules = new HashMap<>();
+        for (AffectationResume affectation : employeeTacheRepository.findAffectationsTachesOuvertesAvecEcheance()) {
+            matricules.computeIfAbsent(affectation.getIdTache(), id -> new HashSet<>()).add(affectation.getMatricule());
+        }
+        List<EcheanceTache> lues = new ArrayList<>();
+        try (Stream<TacheResume> taches = tacheRepository.streamResumesOuvertesAvecEcheance()) {
+            taches.forEach(t -> lues.add(EcheanceTache.de(t)));
+        }
+
+        verrou.writeLock().lock();
+        try {
+            List<Object> recus = EvenementsEnAttente.ecarterVisibles(enAttente, EvenementsEnAttente::tache,
+                    this::versionsTaches);
+            enAttente = null;
+            suivies.clear();
+            aVenir.clear();
+            enRetard.clear();
+            affectations.clear();
+            retardsParProjet.clear();
+            retardsParEmploye.clear();
+            for (EcheanceTache tache : lues) {
+                ajouterSansVerrou(tache, matricules.getOrDefault(tache.getIdTache(), Set.of()));
+            }
+            recus.forEach(this::appliquer);
+            pret = true;
+            log.info("Index des retards construit : {} tâches suivies, {} en retard en {} ms",
+                    suivies.size(), enRetard.size(), (System.nanoTime() - debut) / 1_000_000);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true une fois l'index construit ; avant, les retards sont calculés en base
+     */
+    public boolean isPret() {
+        return pret;
+    }
+
+    /**
+     * Fait basculer en retard les tâches dont l'échéance vient d'être dépassée
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void changerDeJour() {
+        basculer(LocalDate.now());
+    }
+
+    /**
+     * Récupère les tâches en retard, de l'échéance la plus ancienne à la plus récente
+     * @return Résumés des tâches en retard
+     */
+    public List<TacheResume> getTachesEnRetard() {
+        basculer(LocalDate.now());
+        verrou.readLock().lock();
+        try {
+            return new ArrayList<>(enRetard);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Récupère les nombres de tâches en retard, au total, par projet et par employé
+     * @return Compteurs des retards
+     */
+    public CompteursRetard getCompteurs() {
+        basculer(LocalDate.now());
+        verrou.readLock().lock();
+        try {
+            return new CompteursRetard(jour, enRetard.size(),
+                    new TreeMap<>(retardsParProjet), new TreeMap<>(retardsParEmploye));
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void surTache(TacheEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surAffectation(AffectationEvenement evenement) {
+        recevoir(evenement);
+    }
+
+    @TransactionalEventListener
+    public void surEmploye(EmployeEvenement evenement) {
+        if (evenement.getType() == EmployeEvenement.Type.SUPPRIME) {
+            recevoir(evenement);
+        }
+    }
+
+    private void recevoir(Object evenement) {
+        verrou.writeLock().lock();
+        try {
+            if (enAttente != null) {
+                enAttente.add(evenement);
+            } else {
+                appliquer(evenement);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applique un événement à l'index (verrou d'écriture tenu)
+     */
+    private void appliquer(Object evenement) {
+        if (evenement instanceof TacheEvenement tache) {
+            TacheInstantane apres = tache.getApres();
+            // Une tâche qui redevient suivie (rouverte, ou dotée d'une date de fin) reprend les affectations de l'événement
+            Set<String> anciennes = retirerSansVerrou(tache.getIdTache());
+            if (apres != null && EcheanceTache.estSuivie(apres.getStatut(), apres.getDateFin())) {
+                ajouterSansVerrou(EcheanceTache.de(apres), anciennes != null ? anciennes : tache.getMatricules());
+            }
+        } else if (evenement instanceof AffectationEvenement affectation) {
+            Set<String> matricules = affectations.get(affectation.getIdTache());
+            if (matricules == null) {
+                return;
+            }
+            boolean affectee = affectation.getType() == AffectationEvenement.Type.AFFECTEE;
+            boolean modifiee = affectee
+                    ? matricules.add(affectation.getMatricule())
+                    : matricules.remove(affectation.getMatricule());
+            if (modifiee && enRetard.contains(suivies.get(affectation.getIdTache()))) {
+                compter(retardsParEmploye, affectation.getMatricule(), affectee ? 1 : -1);
+            }
+        } else if (evenement instanceof EmployeEvenement employe) {
+            // Les affectations de l'employé sont supprimées avec lui
+            for (Set<String> matricules : affectations.values()) {
+                matricules.remove(employe.getMatricule());
+            }
+            retardsParEmploye.remove(employe.getMatricule());
+        }
+    }
+
+    private Map<Integer, Long> versionsTaches(Collection<Integer> ids) {
+        Map<Integer, Long> versions = new HashMap<>();
+        for (TacheProjet tache : tacheRepository.findProjetsExistants(ids)) {
+            versions.put(tache.getIdTache(), tache.getVersion());
+        }
+        return versions;
+    }
+
+    /**
+     * Avance le jour de référence et fait basculer les échéances dépassées
+     */
+    private void basculer(LocalDate nouveauJour) {
+        verrou.readLock().lock();
+        try {
+            if (!nouveauJour.isAfter(jour)) {
+                return;
+            }
+        } finally {
+            verrou.readLock().unlock();
+        }
+
+        verrou.writeLock().lock();
+        try {
+            if (!nouveauJour.isAfter(jour)) {
+                return;
+            }
+            jour = nouveauJour;
+            while (!aVenir.isEmpty() && aVenir.first().getDateFin().isBefore(jour)) {
+                EcheanceTache tache = aVenir.pollFirst();
+                enRetard.add(tache);
+                compterRetard(tache, 1);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    private void ajouterSansVerrou(EcheanceTache tache, Collection<String> matricules) {
+        suivies.put(tache.getIdTache(), tache);
+        affectations.put(tache.getIdTache(), new HashSet<>(matricules));
+        if (tache.getDateFin().isBefore(jour)) {
+            enRetard.add(tache);
+            compterRetard(tache, 1);
+        } else {
+            aVenir.add(tache);
+        }
+    }
+
+    /**
+     * Retire une tâche de l'index
+     * @return Matricules qui lui étaient affectés, ou null si elle n'était pas suivie
+     */
+    private Set<String> retirerSansVerrou(Integer idTache) {
+        EcheanceTache tache = suivies.remove(idTache);
+        if (tache == null) {
+            return null;
+        }
+        if (enRetard.remove(tache)) {
+            compterRetard(tache, -1);
+        } else {
+            aVenir.remove(tache);
+        }
+        return affectations.remove(idTache);
+    }
+
+    private void compterRetard(EcheanceTache tache, int delta) {
+        compter(retardsParProjet, tache.getIdProjet(), delta);
+        for (String matricule : affectations.getOrDefault(tache.getIdTache(), Set.of())) {
+            compter(retardsParEmploye, matricule, delta);
+        }
+    }
+
+    private static <K> void compter(Map<K, Integer> compteurs, K cle, int delta) {
+        compteurs.merge(cle, delta, (ancien, ajout) -> ancien + ajout == 0 ? null : ancien + ajout);
+    }
+}
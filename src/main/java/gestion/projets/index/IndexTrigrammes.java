@@ -0,0 +1,272 @@
+package gestion.projets.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé de trigrammes en mémoire
+ * Associe chaque trigramme du texte normalisé (minuscules, sans accents) aux documents qui le contiennent.
+ * Les lectures sont concurrentes, les écritures exclusives.
+ *
+ * @param <K> Type de la clé des documents (ID de tâche, matricule...)
+ */
+public class IndexTrigrammes<K> {
+
+    /**
+     * Proportion minimale des trigrammes de la requête qu'un document doit contenir pour être retenu
+     */
+    private static final double SEUIL_SIMILARITE = 0.6;
+
+    private static final Pattern DIACRITIQUES = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}@.]+");
+
+    private final Map<String, Set<K>> postings = new HashMap<>();
+
+    /**
+     * Documents par première lettre de chacun de leurs mots (termes d'un seul caractère)
+     * Les termes de deux caractères passent par le trigramme " xy" des débuts de mot, déjà présent dans postings
+     */
+    private final Map<String, Set<K>> initiales = new HashMap<>();
+    private final Map<K, String> textes = new HashMap<>();
+    private final ReadWriteLock verrou = new ReentrantReadWriteLock();
+
+    /**
+     * Indexe (ou réindexe) un document
+     * @param cle Clé du document
+     * @param champs Champs texte du document (les valeurs null sont ignorées)
+     */
+    public void indexer(K cle, String... champs) {
+        StringBuilder texte = new StringBuilder();
+        for (String champ : champs) {
+            if (champ != null && !champ.isBlank()) {
+                texte.append(' ').append(normaliser(champ));
+            }
+        }
+        String normalise = texte.toString().trim();
+
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(cle);
+            textes.put(cle, normalise);
+            for (String trigramme : trigrammesDocument(normalise)) {
+                postings.computeIfAbsent(trigramme, t -> new HashSet<>()).add(cle);
+            }
+            for (String initiale : initiales(normalise)) {
+                initiales.computeIfAbsent(initiale, i -> new HashSet<>()).add(cle);
+            }
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retire un document de l'index
+     * @param cle Clé du document
+     */
+    public void retirer(K cle) {
+        verrou.writeLock().lock();
+        try {
+            retirerSansVerrou(cle);
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vide l'index
+     */
+    public void vider() {
+        verrou.writeLock().lock();
+        try {
+            postings.clear();
+            initiales.clear();
+            textes.clear();
+        } finally {
+            verrou.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Nombre de documents indexés
+     */
+    public int taille() {
+        verrou.readLock().lock();
+        try {
+            return textes.size();
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les documents correspondant à un terme, du plus pertinent au moins pertinent
+     * Un document qui contient le terme est toujours mieux classé qu'une correspondance approchée
+     * @param terme Terme recherché
+     * @param limite Nombre maximum de résultats
+     * @return Clés des documents trouvés
+     */
+    public List<K> rechercher(String terme, int limite) {
+        String requete = normaliser(terme);
+        if (requete.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        verrou.readLock().lock();
+        try {
+            if (requete.length() < 3) {
+                return rechercherCourt(requete, limite);
+            }
+            return rechercherTrigrammes(requete, limite);
+        } finally {
+            verrou.readLock().unlock();
+        }
+    }
+
+    private List<K> rechercherTrigrammes(String requete, int limite) {
+        Set<String> trigrammes = trigrammesRequete(requete);
+        List<Set<K>> listes = new ArrayList<>(trigrammes.size());
+        for (String trigramme : trigrammes) {
+            listes.add(postings.getOrDefault(trigramme, Set.of()));
+        }
+        listes.sort(Comparator.comparingInt(Set::size));
+
+        // Un document retenu contient au moins "minimum" trigrammes : il figure donc forcément
+        // dans l'une des (n - minimum + 1) plus petites listes, qui suffisent à fournir les candidats
+        int minimum = (int) Math.ceil(SEUIL_SIMILARITE * listes.size());
+        Set<K> candidats = new HashSet<>();
+        for (int i = 0; i <= listes.size() - minimum; i++) {
+            candidats.addAll(listes.get(i));
+        }
+
+        List<Resultat<K>> resultats = new ArrayList<>();
+        for (K candidat : candidats) {
+            int communs = 0;
+            for (Set<K> liste : listes) {
+                if (liste.contains(candidat)) {
+                    communs++;
+                }
+            }
+            if (communs < minimum) {
+                continue;
+            }
+            String texte = textes.get(candidat);
+            double score = (double) communs / listes.size();
+            if (texte.contains(requete)) {
+                score += 1.0;
+                if (texte.startsWith(requete) || texte.contains(" " + requete)) {
+                    score += 0.5;
+                }
+            }
+            resultats.add(new Resultat<>(candidat, score, texte.length()));
+        }
+        return trier(resultats, limite);
+    }
+
+    /**
+     * Requêtes de moins de trois caractères : pas de trigramme exploitable,
+     * on retient les documents dont un mot commence par le terme, sans parcourir les autres
+     */
+    private List<K> rechercherCourt(String requete, int limite) {
+        Set<K> candidats = requete.length() == 1
+                ? initiales.getOrDefault(requete, Set.of())
+                : postings.getOrDefault(" " + requete, Set.of());
+        List<Resultat<K>> resultats = new ArrayList<>(candidats.size());
+        for (K candidat : candidats) {
+            resultats.add(new Resultat<>(candidat, 1.0, textes.get(candidat).length()));
+        }
+        return trier(resultats, limite);
+    }
+
+    private List<K> trier(List<Resultat<K>> resultats, int limite) {
+        resultats.sort(Comparator.<Resultat<K>>comparingDouble(Resultat::score).reversed()
+                .thenComparingInt(Resultat::longueur));
+        List<K> cles = new ArrayList<>(Math.min(limite, resultats.size()));
+        for (int i = 0; i < resultats.size() && i < limite; i++) {
+            cles.add(resultats.get(i).cle());
+        }
+        return cles;
+    }
+
+    private void retirerSansVerrou(K cle) {
+        String ancien = textes.remove(cle);
+        if (ancien == null) {
+            return;
+        }
+        for (String trigramme : trigrammesDocument(ancien)) {
+            retirerDe(postings, trigramme, cle);
+        }
+        for (String initiale : initiales(ancien)) {
+            retirerDe(initiales, initiale, cle);
+        }
+    }
+
+    private static <K> void retirerDe(Map<String, Set<K>> listes, String terme, K cle) {
+        Set<K> liste = listes.get(terme);
+        if (liste != null) {
+            liste.remove(cle);
+            if (liste.isEmpty()) {
+                listes.remove(terme);
+            }
+        }
+    }
+
+    /**
+     * Normalise un texte : minuscules, accents supprimés, ponctuation remplacée par des espaces
+     */
+    static String normaliser(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansAccents = DIACRITIQUES.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATEURS.matcher(sansAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Trigrammes d'un document, avec un espace en bordure pour marquer le début et la fin du texte
+     */
+    private static Set<String> trigrammesDocument(String normalise) {
+        return trigrammes(" " + normalise + " ");
+    }
+
+    /**
+     * Trigrammes d'une requête, sans bordure : le terme peut apparaître au milieu d'un mot
+     */
+    private static Set<String> trigrammesRequete(String normalise) {
+        return trigrammes(normalise);
+    }
+
+    /**
+     * Première lettre de chaque mot d'un texte normalisé
+     */
+    private static Set<String> initiales(String normalise) {
+        Set<String> initiales = new HashSet<>();
+        for (String mot : normalise.split(" ")) {
+            if (!mot.isEmpty()) {
+                initiales.add(mot.substring(0, 1));
+            }
+        }
+        return initiales;
+    }
+
+    private static Set<String> trigrammes(String texte) {
+        Set<String> trigrammes = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= texte.length(); i++) {
+            trigrammes.add(texte.substring(i, i + 3));
+        }
+        return trigrammes;
+    }
+
+    private record Resultat<K>(K cle, double score, int longueur) {
+    }
+}
@@ -0,0 +1,71 @@
+package gestion.projets.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.io.Serializable;
+
+/**
+ * Entité représentant une dépendance de fin à début entre deux tâches d'un même projet
+ * La tâche ne peut commencer qu'une fois son prédécesseur terminé.
+ * Table "DependanceTache" avec clé composite ; l'index idx_dependance_tache (déclaré aussi dans db/migration)
+ * sert la recherche des prédécesseurs d'une tâche
+ */
+@Entity
+@Table(name = "DependanceTache", indexes = @Index(name = "idx_dependance_tache", columnList = "id_tache, id_predecesseur"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Représente la dépendance d'une tâche envers un prédécesseur")
+public class DependanceTache {
+
+    @EmbeddedId
+    private DependanceTacheId id = new DependanceTacheId();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("idTache")
+    @JoinColumn(name = "id_tache")
+    @Schema(description = "Tâche dépendante")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Tache tache;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("idPredecesseur")
+    @JoinColumn(name = "id_predecesseur")
+    @Schema(description = "Tâche à terminer avant la tâche dépendante")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private Tache predecesseur;
+
+    /**
+     * Constructeur avec paramètres
+     */
+    public DependanceTache(Tache tache, Tache predecesseur) {
+        this.tache = tache;
+        this.predecesseur = predecesseur;
+        this.id = new DependanceTacheId(tache.getIdTache(), predecesseur.getIdTache());
+    }
+
+    /**
+     * Classe interne représentant la clé composite
+     * pour la table DependanceTache
+     */
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DependanceTacheId implements Serializable {
+
+        @Column(name = "id_tache")
+        private Integer idTache;
+
+        @Column(name = "id_predecesseur")
+        private Integer idPredecesseur;
+    }
+}
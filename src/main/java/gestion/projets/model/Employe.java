@@ -5,8 +5,15 @@ import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.util.HashSet;
@@ -15,9 +22,13 @@ import java.util.Set;
 /**
  * Entité représentant un Employé
  * Correspond à la table "Employe" dans la base de données
+ * Mise en cache de second niveau (région "employe"), ainsi que la résolution email -> matricule
  */
 @Entity
 @Table(name = "Employe")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "employe")
+@NaturalIdCache(region = "employe-email")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,10 +53,21 @@ public class Employe {
 
     @Email(message = "L'email doit être valide")
     @NotBlank(message = "L'email est obligatoire")
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true, length = 100)
     @Schema(description = "Adresse email professionnelle", example = "jean.dupont@entreprise.com", required = true)
     private String email;
 
+    /**
+     * Version de l'enregistrement, incrémentée par Hibernate à chaque modification
+     * Verrouillage optimiste (If-Match) et ETag des lectures, sans verrou de ligne
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Version de l'enregistrement (ETag)", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     /**
      * Relation Many-to-Many avec Tache via EmployeeTache
      * Un employé peut être assigné à plusieurs tâches
@@ -53,6 +75,8 @@ public class Employe {
     @OneToMany(mappedBy = "employe", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     @Schema(description = "Affectations de l'employé aux tâches")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<EmployeeTache> affectations = new HashSet<>();
 
     /**
@@ -3,7 +3,9 @@ package gestion.projets.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.io.Serializable;
@@ -11,9 +13,13 @@ import java.io.Serializable;
 /**
  * Entité représentant la relation Many-to-Many entre Employé et Tâche
  * Table de liaison "EmployeeTache" avec clé composite
+ * Un index par sens de parcours (tâche vers employés, employé vers tâches), déclarés aussi dans db/migration
  */
 @Entity
-@Table(name = "EmployeeTache")
+@Table(name = "EmployeeTache", indexes = {
+        @Index(name = "idx_affectation_tache", columnList = "id_tache, matricule, role"),
+        @Index(name = "idx_affectation_employe", columnList = "matricule, id_tache")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,12 +33,16 @@ public class EmployeeTache {
     @MapsId("matricule")
     @JoinColumn(name = "matricule")
     @Schema(description = "Employé affecté")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Employe employe;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @MapsId("idTache")
     @JoinColumn(name = "id_tache")
     @Schema(description = "Tâche assignée")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Tache tache;
 
     @Column(name = "role", length = 50)
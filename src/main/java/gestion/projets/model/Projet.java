@@ -1,12 +1,18 @@
 package gestion.projets.model;
 
+import gestion.projets.dto.ProjetEnListe;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDate;
@@ -16,17 +22,30 @@ import java.util.List;
 /**
  * Entité représentant un Projet
  * Correspond à la table "Projet" dans la base de données
+ * Mise en cache de second niveau (région "projet") ; la collection des tâches n'est pas mise en cache
+ * Index déclarés à l'identique dans les migrations (db/migration)
  */
 @Entity
-@Table(name = "Projet")
+@Table(name = "Projet", indexes = {
+        @Index(name = "idx_projet_periode", columnList = "date_debut, date_fin"),
+        @Index(name = "idx_projet_fin", columnList = "date_fin")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projet")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Représente un projet dans le système de gestion")
-public class Projet {
+public class Projet implements ProjetEnListe {
 
+    /**
+     * Identifiants attribués par blocs (table "sequence_id", optimiseur pooled), voir Tache
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sequence_projet")
+    @TableGenerator(name = "sequence_projet", table = SequencesIdentifiants.TABLE,
+            pkColumnName = SequencesIdentifiants.COLONNE_NOM, valueColumnName = SequencesIdentifiants.COLONNE_VALEUR,
+            pkColumnValue = "projet", allocationSize = SequencesIdentifiants.TAILLE_ALLOCATION)
     @Column(name = "id_projet")
     @Schema(description = "Identifiant unique du projet", example = "1")
     private Integer idProjet;
@@ -49,6 +68,16 @@ public class Projet {
     @Schema(description = "Date de fin prévue du projet", example = "2025-06-30")
     private LocalDate dateFin;
 
+    /**
+     * Version de l'enregistrement, incrémentée par Hibernate à chaque modification
+     * Verrouillage optimiste (If-Match) et ETag des lectures, sans verrou de ligne
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Version de l'enregistrement (ETag)", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     /**
      * Relation One-to-Many avec Tache
      * Un projet peut avoir plusieurs tâches
@@ -58,6 +87,8 @@ public class Projet {
     @OneToMany(mappedBy = "projet", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonManagedReference
     @Schema(description = "Liste des tâches associées au projet")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Tache> taches = new ArrayList<>();
 
     /**
@@ -0,0 +1,20 @@
+package gestion.projets.model;
+
+/**
+ * Paramètres communs des générateurs d'identifiants par table (Tache, Projet)
+ * Chaque entité possède une ligne dans la table "sequence_id", réservée par blocs de TAILLE_ALLOCATION
+ */
+public final class SequencesIdentifiants {
+
+    public static final String TABLE = "sequence_id";
+    public static final String COLONNE_NOM = "nom_sequence";
+    public static final String COLONNE_VALEUR = "valeur_suivante";
+
+    /**
+     * Nombre d'identifiants réservés par accès à la table (aligné sur hibernate.jdbc.batch_size)
+     */
+    public static final int TAILLE_ALLOCATION = 50;
+
+    private SequencesIdentifiants() {
+    }
+}
@@ -1,13 +1,17 @@
 package gestion.projets.model;
 
+import gestion.projets.dto.TacheEnListe;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDate;
@@ -17,17 +21,30 @@ import java.util.Set;
 /**
  * Entité représentant une Tâche
  * Correspond à la table "Tache" dans la base de données
+ * Index déclarés à l'identique dans les migrations (db/migration)
  */
 @Entity
-@Table(name = "Tache")
+@Table(name = "Tache", indexes = {
+        @Index(name = "idx_tache_periode", columnList = "date_debut, date_fin"),
+        @Index(name = "idx_tache_projet_statut", columnList = "id_projet, statut"),
+        @Index(name = "idx_tache_statut_fin", columnList = "statut, date_fin"),
+        @Index(name = "idx_tache_fin_statut", columnList = "date_fin, statut")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Schema(description = "Représente une tâche dans un projet")
-public class Tache {
+public class Tache implements TacheEnListe {
 
+    /**
+     * Identifiants attribués par blocs (table "sequence_id", optimiseur pooled) :
+     * contrairement à IDENTITY, permet le regroupement des insertions en lots JDBC
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sequence_tache")
+    @TableGenerator(name = "sequence_tache", table = SequencesIdentifiants.TABLE,
+            pkColumnName = SequencesIdentifiants.COLONNE_NOM, valueColumnName = SequencesIdentifiants.COLONNE_VALEUR,
+            pkColumnValue = "tache", allocationSize = SequencesIdentifiants.TAILLE_ALLOCATION)
     @Column(name = "id_tache")
     @Schema(description = "Identifiant unique de la tâche", example = "1")
     private Integer idTache;
@@ -55,6 +72,17 @@ public class Tache {
     @Schema(description = "Statut de la tâche", example = "EN_COURS", allowableValues = {"EN_ATTENTE", "EN_COURS", "TERMINEE"})
     private StatutTache statut = StatutTache.EN_ATTENTE;
 
+    /**
+     * Version de l'enregistrement, incrémentée par Hibernate à chaque modification,
+     * ainsi qu'à chaque affectation ou retrait d'un employé
+     * Verrouillage optimiste (If-Match) et ETag des lectures, sans verrou de ligne
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "Version de l'enregistrement (ETag)", example = "0", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long version;
+
     /**
      * Relation Many-to-One avec Projet
      * Plusieurs tâches appartiennent à un projet
@@ -63,6 +91,8 @@ public class Tache {
     @JoinColumn(name = "id_projet", nullable = false)
     @JsonBackReference
     @Schema(description = "Projet auquel appartient la tâche")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Projet projet;
 
     /**
@@ -72,8 +102,20 @@ public class Tache {
     @OneToMany(mappedBy = "tache", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     @Schema(description = "Employés assignés à cette tâche")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<EmployeeTache> affectations = new HashSet<>();
 
+    /**
+     * ID du projet, lu sur la référence sans la charger (une liste détaillée reste une liste de TacheEnListe)
+     * @return ID du projet, null pour une tâche sans projet
+     */
+    @Override
+    @Schema(description = "ID du projet de la tâche", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
+    public Integer getIdProjet() {
+        return projet != null ? projet.getIdProjet() : null;
+    }
+
     /**
      * Énumération des statuts possibles d'une tâche
      */
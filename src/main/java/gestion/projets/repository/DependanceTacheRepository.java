@@ -0,0 +1,62 @@
+package gestion.projets.repository;
+
+import gestion.projets.dto.DependanceResume;
+import gestion.projets.model.DependanceTache;
+import gestion.projets.model.DependanceTache.DependanceTacheId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository pour l'entité DependanceTache
+ * Gère le graphe des dépendances entre les tâches d'un projet
+ */
+@Repository
+public interface DependanceTacheRepository extends JpaRepository<DependanceTache, DependanceTacheId> {
+
+    /**
+     * Trouve les dépendances des tâches d'un projet, sans charger les tâches
+     * @param idProjet ID du projet
+     * @return Liste des dépendances
+     */
+    @Query("SELECT d.id.idTache AS idTache, d.id.idPredecesseur AS idPredecesseur, d.tache.projet.idProjet AS idProjet " +
+            "FROM DependanceTache d WHERE d.tache.projet.idProjet = :idProjet")
+    List<DependanceResume> findResumesByProjetId(@Param("idProjet") Integer idProjet);
+
+    /**
+     * Parcourt toutes les dépendances (construction de l'index de planification)
+     * @return Flux des dépendances, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT d.id.idTache AS idTache, d.id.idPredecesseur AS idPredecesseur, d.tache.projet.idProjet AS idProjet " +
+            "FROM DependanceTache d")
+    Stream<DependanceResume> streamResumes();
+
+    /**
+     * Trouve les IDs des prédécesseurs d'une tâche
+     * @param idTache ID de la tâche
+     * @return IDs des prédécesseurs
+     */
+    @Query("SELECT d.id.idPredecesseur FROM DependanceTache d WHERE d.id.idTache = :idTache ORDER BY d.id.idPredecesseur")
+    List<Integer> findIdsPredecesseurs(@Param("idTache") Integer idTache);
+
+    /**
+     * Supprime les dépendances d'une tâche, dans les deux sens
+     * @param idTache ID de la tâche
+     * @param idPredecesseur ID de la tâche (comme prédécesseur)
+     */
+    void deleteByTacheIdTacheOrPredecesseurIdTache(Integer idTache, Integer idPredecesseur);
+
+    /**
+     * Supprime les dépendances des tâches d'un projet
+     * @param idProjet ID du projet
+     */
+    void deleteByTacheProjetIdProjet(Integer idProjet);
+}
@@ -1,11 +1,15 @@
 package gestion.projets.repository;
 
+import gestion.projets.dto.ChargeStatutLigne;
+import gestion.projets.dto.VersionEmploye;
 import gestion.projets.model.Employe;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,26 +28,21 @@ public interface EmployeRepository extends JpaRepository<Employe, String> {
     Optional<Employe> findByEmail(String email);
 
     /**
-     * Recherche des employés par nom (contient, insensible à la casse)
-     * @param nom Nom ou partie du nom
-     * @return Liste des employés correspondants
-     */
-    List<Employe> findByNomContainingIgnoreCase(String nom);
-
-    /**
-     * Recherche des employés par prénom (contient, insensible à la casse)
-     * @param prenom Prénom ou partie du prénom
+     * Recherche des employés par nom OU prénom
+     * @param nom Nom
+     * @param prenom Prénom
      * @return Liste des employés correspondants
      */
-    List<Employe> findByPrenomContainingIgnoreCase(String prenom);
+    List<Employe> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(String nom, String prenom);
 
     /**
-     * Recherche des employés par nom OU prénom
+     * Recherche des employés par nom OU prénom, en s'arrêtant au nombre de résultats demandé
      * @param nom Nom
      * @param prenom Prénom
+     * @param limite Nombre maximum d'employés
      * @return Liste des employés correspondants
      */
-    List<Employe> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(String nom, String prenom);
+    List<Employe> findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(String nom, String prenom, Limit limite);
 
     /**
      * Vérifie si un email existe déjà
@@ -67,4 +66,52 @@ public interface EmployeRepository extends JpaRepository<Employe, String> {
      */
     @Query("SELECT COUNT(a) FROM EmployeeTache a WHERE a.employe.matricule = :matricule")
     Long countTachesByEmployeMatricule(@Param("matricule") String matricule);
+
+    /**
+     * Agrège les affectations de tous les employés par statut de tâche (construction de l'index des charges)
+     * @return Une ligne par couple (employé, statut)
+     */
+    @Query("SELECT e.matricule AS matricule, t.statut AS statut, COUNT(t) AS nombre " +
+            "FROM Employe e LEFT JOIN e.affectations a LEFT JOIN a.tache t " +
+            "GROUP BY e.matricule, t.statut")
+    List<ChargeStatutLigne> findChargesParStatut();
+
+    /**
+     * Première page des employés triés par matricule (pagination par curseur)
+     * @param limite Nombre maximum d'employés
+     * @return Liste des employés
+     */
+    List<Employe> findAllByOrderByMatriculeAsc(Limit limite);
+
+    /**
+     * Page d'employés suivant un matricule donné (seek sur la clé primaire matricule)
+     * @param matricule Dernier matricule de la page précédente
+     * @param limite Nombre maximum d'employés
+     * @return Liste des employés
+     */
+    List<Employe> findByMatriculeGreaterThanOrderByMatriculeAsc(String matricule, Limit limite);
+
+    /**
+     * Filtre, parmi des matricules donnés, ceux qui correspondent à un employé existant
+     * @param matricules Matricules à vérifier
+     * @return Matricules existants
+     */
+    @Query("SELECT e.matricule FROM Employe e WHERE e.matricule IN :matricules")
+    List<String> findMatriculesExistants(@Param("matricules") Collection<String> matricules);
+
+    /**
+     * Version des employés existants parmi des matricules donnés
+     * @param matricules Matricules à lire
+     * @return Matricule et version des employés existants
+     */
+    @Query("SELECT e.matricule AS matricule, e.version AS version FROM Employe e WHERE e.matricule IN :matricules")
+    List<VersionEmploye> findVersionsByMatricules(@Param("matricules") Collection<String> matricules);
+
+    /**
+     * Version d'un employé, sans charger l'entité (ETag du détail)
+     * @param matricule Matricule de l'employé
+     * @return Optional contenant la version si l'employé existe
+     */
+    @Query("SELECT e.version FROM Employe e WHERE e.matricule = :matricule")
+    Optional<Long> findVersionByMatricule(@Param("matricule") String matricule);
 }
\ No newline at end of file
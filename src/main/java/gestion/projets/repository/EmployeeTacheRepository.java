@@ -1,11 +1,21 @@
 package gestion.projets.repository;
 
+import gestion.projets.dto.AffectationPeriode;
+import gestion.projets.dto.AffectationResume;
 import gestion.projets.model.EmployeeTache;
 import gestion.projets.model.EmployeeTache.EmployeeTacheId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'entité EmployeeTache
@@ -54,4 +64,73 @@ public interface EmployeeTacheRepository extends JpaRepository<EmployeeTache, Em
      * @return true si l'affectation existe
      */
     boolean existsByEmployeMatriculeAndTacheIdTache(String matricule, Integer idTache);
+
+    /**
+     * Trouve les affectations d'un ensemble de tâches, sans charger les entités liées
+     * @param idsTaches IDs des tâches
+     * @return Liste des affectations
+     */
+    @Query("SELECT a.id.idTache AS idTache, a.id.matricule AS matricule, a.role AS role " +
+            "FROM EmployeeTache a WHERE a.id.idTache IN :idsTaches")
+    List<AffectationResume> findAffectationsByTacheIds(@Param("idsTaches") Collection<Integer> idsTaches);
+
+    /**
+     * Trouve les matricules des employés affectés à une tâche
+     * @param idTache ID de la tâche
+     * @return Matricules des employés
+     */
+    @Query("SELECT a.id.matricule FROM EmployeeTache a WHERE a.id.idTache = :idTache")
+    List<String> findMatriculesByTacheId(@Param("idTache") Integer idTache);
+
+    /**
+     * Parcourt les affectations des tâches non terminées dont la période chevauche [debut, fin]
+     * Trié par employé puis par date de début : les affectations d'un employé se suivent
+     * @param debut Début de la période
+     * @param fin Fin de la période
+     * @return Flux des affectations, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id.matricule AS matricule, t.idTache AS idTache, t.dateDebut AS dateDebut, t.dateFin AS dateFin " +
+            "FROM EmployeeTache a JOIN a.tache t WHERE t.statut != 'TERMINEE' " +
+            "AND t.dateDebut <= :fin AND (t.dateFin IS NULL OR t.dateFin >= :debut) " +
+            "ORDER BY a.id.matricule, t.dateDebut, t.idTache")
+    Stream<AffectationPeriode> streamPeriodesAffectees(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /**
+     * Parcourt les affectations des tâches non terminées dont la période chevauche [debut, fin],
+     * pour les employés de matricule supérieur à une borne
+     * @param debut Début de la période
+     * @param fin Fin de la période
+     * @param apres Matricule après lequel reprendre (exclu)
+     * @return Flux des affectations, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT a.id.matricule AS matricule, t.idTache AS idTache, t.dateDebut AS dateDebut, t.dateFin AS dateFin " +
+            "FROM EmployeeTache a JOIN a.tache t WHERE a.id.matricule > :apres AND t.statut != 'TERMINEE' " +
+            "AND t.dateDebut <= :fin AND (t.dateFin IS NULL OR t.dateFin >= :debut) " +
+            "ORDER BY a.id.matricule, t.dateDebut, t.idTache")
+    Stream<AffectationPeriode> streamPeriodesAffecteesApres(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin,
+                                                            @Param("apres") String apres);
+
+    /**
+     * Trouve les affectations d'un employé à des tâches non terminées dont la période chevauche [debut, fin]
+     * @param matricule Matricule de l'employé
+     * @param debut Début de la période
+     * @param fin Fin de la période
+     * @return Liste des affectations, par date de début
+     */
+    @Query("SELECT a.id.matricule AS matricule, t.idTache AS idTache, t.dateDebut AS dateDebut, t.dateFin AS dateFin " +
+            "FROM EmployeeTache a JOIN a.tache t WHERE a.id.matricule = :matricule AND t.statut != 'TERMINEE' " +
+            "AND t.dateDebut <= :fin AND (t.dateFin IS NULL OR t.dateFin >= :debut) " +
+            "ORDER BY t.dateDebut, t.idTache")
+    List<AffectationPeriode> findPeriodesAffectees(@Param("matricule") String matricule,
+                                                   @Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /**
+     * Trouve les affectations des tâches non terminées ayant une date de fin (construction de l'index des retards)
+     * @return Liste des affectations
+     */
+    @Query("SELECT a.id.idTache AS idTache, a.id.matricule AS matricule, a.role AS role " +
+            "FROM EmployeeTache a WHERE a.tache.statut != 'TERMINEE' AND a.tache.dateFin IS NOT NULL")
+    List<AffectationResume> findAffectationsTachesOuvertesAvecEcheance();
 }
\ No newline at end of file
@@ -1,13 +1,25 @@
 package gestion.projets.repository;
 
+import gestion.projets.dto.EmpreinteVersions;
+import gestion.projets.dto.Periode;
+import gestion.projets.dto.ProjetResume;
+import gestion.projets.dto.RepartitionStatutLigne;
+import gestion.projets.dto.RetardProjetLigne;
+import gestion.projets.dto.VersionLigne;
 import gestion.projets.model.Projet;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository pour l'entité Projet
@@ -17,27 +29,49 @@ import java.util.List;
 public interface ProjetRepository extends JpaRepository<Projet, Integer> {
 
     /**
-     * Recherche des projets par nom (contient, insensible à la casse)
+     * Recherche des projets par nom (contient, insensible à la casse), avec leurs tâches
      * @param nom Nom ou partie du nom à rechercher
      * @return Liste des projets correspondants
      */
+    @EntityGraph(attributePaths = "taches")
     List<Projet> findByNomContainingIgnoreCase(String nom);
 
     /**
-     * Trouve les projets dont la date de début est dans une plage donnée
+     * Trouve les projets dont la date de début est dans une plage donnée, avec leurs tâches
      * @param dateDebut Date de début de la plage
      * @param dateFin Date de fin de la plage
      * @return Liste des projets
      */
+    @EntityGraph(attributePaths = "taches")
     List<Projet> findByDateDebutBetween(LocalDate dateDebut, LocalDate dateFin);
 
     /**
-     * Trouve les projets actifs (dont la date de fin est après aujourd'hui ou null)
-     * @param aujourdhui Date du jour
-     * @return Liste des projets actifs
+     * Trouve un projet avec ses tâches, chargées dans la même requête
+     * @param idProjet ID du projet
+     * @return Optional contenant le projet si trouvé
+     */
+    @EntityGraph(attributePaths = "taches")
+    @Query("SELECT p FROM Projet p WHERE p.idProjet = :idProjet")
+    Optional<Projet> findAvecTachesById(@Param("idProjet") Integer idProjet);
+
+    /**
+     * Trouve les projets sans date de fin, avec leurs tâches
+     * Avec findProjetsFinissantDepuis, donne les projets actifs : deux lectures de idx_projet_fin plutôt
+     * qu'un OR sur date_fin, que l'optimiseur peut résoudre par un parcours complet
+     * @return Liste des projets sans date de fin
+     */
+    @EntityGraph(attributePaths = "taches")
+    @Query("SELECT p FROM Projet p WHERE p.dateFin IS NULL")
+    List<Projet> findProjetsSansDateFin();
+
+    /**
+     * Trouve les projets dont la date de fin est postérieure ou égale à une date, avec leurs tâches
+     * @param date Date de référence (généralement aujourd'hui)
+     * @return Liste des projets
      */
-    @Query("SELECT p FROM Projet p WHERE p.dateFin IS NULL OR p.dateFin >= :aujourdhui")
-    List<Projet> findProjetsActifs(@Param("aujourdhui") LocalDate aujourdhui);
+    @EntityGraph(attributePaths = "taches")
+    @Query("SELECT p FROM Projet p WHERE p.dateFin >= :date")
+    List<Projet> findProjetsFinissantDepuis(@Param("date") LocalDate date);
 
     /**
      * Compte le nombre de tâches d'un projet
@@ -52,4 +86,175 @@ public interface ProjetRepository extends JpaRepository<Projet, Integer> {
      * @return Liste des projets
      */
     List<Projet> findByDateFinIsNull();
+
+    /**
+     * Première page des projets triés par ID (pagination par curseur)
+     * @param limite Nombre maximum de projets
+     * @return Liste des projets
+     */
+    List<Projet> findAllByOrderByIdProjetAsc(Limit limite);
+
+    /**
+     * Page de projets suivant un ID donné (seek sur la clé primaire id_projet)
+     * @param idProjet Dernier ID de la page précédente
+     * @param limite Nombre maximum de projets
+     * @return Liste des projets
+     */
+    List<Projet> findByIdProjetGreaterThanOrderByIdProjetAsc(Integer idProjet, Limit limite);
+
+    /**
+     * Trouve tous les projets avec leurs tâches, chargées dans la même requête
+     * @return Liste des projets
+     */
+    @EntityGraph(attributePaths = "taches")
+    @Query("SELECT p FROM Projet p")
+    List<Projet> findAllAvecTaches();
+
+    /**
+     * Résumé de tous les projets (sans description ni tâches)
+     * @return Liste des résumés
+     */
+    @Query("SELECT p.idProjet AS idProjet, p.nom AS nom, p.dateDebut AS dateDebut, p.dateFin AS dateFin " +
+            "FROM Projet p")
+    List<ProjetResume> findAllResumes();
+
+    /**
+     * Résumé des projets sans date de fin
+     * @return Liste des résumés
+     */
+    @Query("SELECT p.idProjet AS idProjet, p.nom AS nom, p.dateDebut AS dateDebut, p.dateFin AS dateFin " +
+            "FROM Projet p WHERE p.dateFin IS NULL")
+    List<ProjetResume> findResumesProjetsSansDateFin();
+
+    /**
+     * Résumé des projets dont la date de fin est postérieure ou égale à une date
+     * @param date Date de référence (généralement aujourd'hui)
+     * @return Liste des résumés
+     */
+    @Query("SELECT p.idProjet AS idProjet, p.nom AS nom, p.dateDebut AS dateDebut, p.dateFin AS dateFin " +
+            "FROM Projet p WHERE p.dateFin >= :date")
+    List<ProjetResume> findResumesProjetsFinissantDepuis(@Param("date") LocalDate date);
+
+    /**
+     * Résumé des projets dont le nom contient un terme (insensible à la casse)
+     * @param nom Nom ou partie du nom à rechercher
+     * @return Liste des résumés
+     */
+    List<ProjetResume> findResumesByNomContainingIgnoreCase(String nom);
+
+    /**
+     * Résumé des projets dont la date de début est dans une plage donnée
+     * @param dateDebut Date de début de la plage
+     * @param dateFin Date de fin de la plage
+     * @return Liste des résumés
+     */
+    List<ProjetResume> findResumesByDateDebutBetween(LocalDate dateDebut, LocalDate dateFin);
+
+    /**
+     * Trouve les projets dont la période [dateDebut, dateFin] chevauche [debut, fin] (dateFin null : projet en cours)
+     * Parcourt l'index idx_projet_periode jusqu'à la fin de la période demandée
+     * @param debut Début de la période
+     * @param fin Fin de la période
+     * @return Liste des projets, par date de début
+     */
+    @EntityGraph(attributePaths = "taches")
+    @Query("SELECT p FROM Projet p WHERE p.dateDebut <= :fin AND (p.dateFin IS NULL OR p.dateFin >= :debut) " +
+            "ORDER BY p.dateDebut, p.idProjet")
+    List<Projet> findChevauchant(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /**
+     * Résumé des projets dont la période chevauche [debut, fin]
+     * @param debut Début de la période
+     * @param fin Fin de la période
+     * @return Liste des résumés, par date de début
+     */
+    @Query("SELECT p.idProjet AS idProjet, p.nom AS nom, p.dateDebut AS dateDebut, p.dateFin AS dateFin " +
+            "FROM Projet p WHERE p.dateDebut <= :fin AND (p.dateFin IS NULL OR p.dateFin >= :debut) " +
+            "ORDER BY p.dateDebut, p.idProjet")
+    List<ProjetResume> findResumesChevauchant(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /**
+     * Verrouille un projet jusqu'à la fin de la transaction (SELECT ... FOR UPDATE)
+     * Sérialise les modifications du graphe des dépendances d'un même projet
+     * @param idProjet ID du projet
+     * @return Projet verrouillé, vide s'il n'existe pas
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Projet p WHERE p.idProjet = :idProjet")
+    Optional<Projet> findByIdVerrouille(@Param("idProjet") Integer idProjet);
+
+    /**
+     * Trouve les projets d'IDs donnés avec leurs tâches
+     * @param ids IDs des projets
+     * @return Liste des projets, sans ordre garanti
+     */
+    @EntityGraph(attributePaths = "taches")
+    List<Projet> findByIdProjetIn(Collection<Integer> ids);
+
+    /**
+     * Résumé des projets d'IDs donnés
+     * @param ids IDs des projets
+     * @return Liste des résumés, sans ordre garanti
+     */
+    @Query("SELECT p.idProjet AS idProjet, p.nom AS nom, p.dateDebut AS dateDebut, p.dateFin AS dateFin " +
+            "FROM Projet p WHERE p.idProjet IN :ids")
+    List<ProjetResume> findResumesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Liste les périodes de tous les projets (construction de l'index des périodes)
+     * @return Périodes des projets
+     */
+    @Query("SELECT p.idProjet AS id, p.dateDebut AS dateDebut, p.dateFin AS dateFin FROM Projet p")
+    List<Periode> findPeriodes();
+
+    /**
+     * Compte les tâches de chaque projet par statut
+     * Une seule agrégation GROUP BY pour tous les projets (les projets sans tâche ont un statut null)
+     * @return Une ligne par couple (projet, statut)
+     */
+    @Query("SELECT p.idProjet AS idProjet, t.statut AS statut, COUNT(t) AS nombre " +
+            "FROM Projet p LEFT JOIN p.taches t " +
+            "GROUP BY p.idProjet, t.statut ORDER BY p.idProjet")
+    List<RepartitionStatutLigne> findRepartitionStatuts();
+
+    /**
+     * Compte les tâches en retard de chaque projet (seuls les projets ayant des retards sont retournés)
+     * @param date Date de référence pour le retard (généralement aujourd'hui)
+     * @return Une ligne par projet en retard
+     */
+    @Query("SELECT t.projet.idProjet AS idProjet, COUNT(t) AS nombre FROM Tache t " +
+            "WHERE t.dateFin < :date AND t.statut != 'TERMINEE' GROUP BY t.projet.idProjet")
+    List<RetardProjetLigne> findRetardsParProjet(@Param("date") LocalDate date);
+
+    /**
+     * Filtre, parmi des IDs donnés, ceux qui correspondent à un projet existant
+     * @param ids IDs à vérifier
+     * @return IDs existants
+     */
+    @Query("SELECT p.idProjet FROM Projet p WHERE p.idProjet IN :ids")
+    List<Integer> findIdsExistants(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Version des projets existants parmi des IDs donnés
+     * @param ids IDs à vérifier
+     * @return ID et version des projets existants
+     */
+    @Query("SELECT p.idProjet AS id, p.version AS version FROM Projet p WHERE p.idProjet IN :ids")
+    List<VersionLigne> findVersionsByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Empreinte des versions de tous les projets (ETag des listes)
+     * @return Nombre de projets et somme des hachages (ID, version)
+     */
+    @Query("SELECT COUNT(p) AS nombre, COALESCE(SUM(" + EmpreinteVersions.HACHAGE_PROJET + "), 0) AS sommeHachages " +
+            "FROM Projet p")
+    EmpreinteVersions findEmpreinteVersions();
+
+    /**
+     * Version d'un projet, sans charger l'entité (ETag du détail)
+     * @param idProjet ID du projet
+     * @return Optional contenant la version si le projet existe
+     */
+    @Query("SELECT p.version FROM Projet p WHERE p.idProjet = :idProjet")
+    Optional<Long> findVersionById(@Param("idProjet") Integer idProjet);
 }
\ No newline at end of file
@@ -1,14 +1,28 @@
 package gestion.projets.repository;
 
+import gestion.projets.dto.EmpreinteVersions;
+import gestion.projets.dto.Periode;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.dto.TacheTexte;
 import gestion.projets.model.Tache;
 import gestion.projets.model.Tache.StatutTache;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository pour l'entité Tache
@@ -40,11 +54,15 @@ public interface TacheRepository extends JpaRepository<Tache, Integer> {
     List<Tache> findByProjetIdProjetAndStatut(Integer idProjet, StatutTache statut);
 
     /**
-     * Recherche des tâches par titre (contient, insensible à la casse)
+     * Résumé des tâches dont le titre contient un terme, en s'arrêtant au nombre de résultats demandé
      * @param titre Titre ou partie du titre
-     * @return Liste des tâches correspondantes
+     * @param limite Nombre maximum de tâches
+     * @return Liste des résumés
      */
-    List<Tache> findByTitreContainingIgnoreCase(String titre);
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet " +
+            "FROM Tache t WHERE LOWER(t.titre) LIKE LOWER(CONCAT('%', :titre, '%'))")
+    List<TacheResume> findResumesByTitreContenant(@Param("titre") String titre, Limit limite);
 
     /**
      * Trouve les tâches dont la date de fin est dépassée et le statut n'est pas TERMINEE
@@ -54,6 +72,16 @@ public interface TacheRepository extends JpaRepository<Tache, Integer> {
     @Query("SELECT t FROM Tache t WHERE t.dateFin < :date AND t.statut != 'TERMINEE'")
     List<Tache> findTachesEnRetard(@Param("date") LocalDate date);
 
+    /**
+     * Trouve le résumé des tâches en retard, de l'échéance la plus ancienne à la plus récente
+     * @param date Date de référence (généralement aujourd'hui)
+     * @return Liste des résumés
+     */
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet " +
+            "FROM Tache t WHERE t.dateFin < :date AND t.statut != 'TERMINEE' ORDER BY t.dateFin, t.idTache")
+    List<TacheResume> findResumesEnRetard(@Param("date") LocalDate date);
+
     /**
      * Trouve les tâches assignées à un employé spécifique
      * @param matricule Matricule de l'employé
@@ -70,6 +98,38 @@ public interface TacheRepository extends JpaRepository<Tache, Integer> {
      */
     List<Tache> findByDateDebutBetween(LocalDate dateDebut, LocalDate dateFin);
 
+    /**
+     * Trouve les tâches dont la période [dateDebut, dateFin] chevauche [debut, fin] (dateFin null : tâche en cours)
+     * Parcourt l'index idx_tache_periode jusqu'à la fin de la période demandée
+     * @param debut Début de la période
+     * @param fin Fin de la période
+     * @return Liste des tâches, par date de début
+     */
+    @Query("SELECT t FROM Tache t WHERE t.dateDebut <= :fin AND (t.dateFin IS NULL OR t.dateFin >= :debut) " +
+            "ORDER BY t.dateDebut, t.idTache")
+    List<Tache> findChevauchant(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /**
+     * Résumé des tâches dont la période chevauche [debut, fin]
+     * @param debut Début de la période
+     * @param fin Fin de la période
+     * @return Liste des résumés, par date de début
+     */
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet " +
+            "FROM Tache t WHERE t.dateDebut <= :fin AND (t.dateFin IS NULL OR t.dateFin >= :debut) " +
+            "ORDER BY t.dateDebut, t.idTache")
+    List<TacheResume> findResumesChevauchant(@Param("debut") LocalDate debut, @Param("fin") LocalDate fin);
+
+    /**
+     * Résumé des tâches d'IDs donnés
+     * @param ids IDs des tâches
+     * @return Liste des résumés, sans ordre garanti
+     */
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet FROM Tache t WHERE t.idTache IN :ids")
+    List<TacheResume> findResumesByIds(@Param("ids") Collection<Integer> ids);
+
     /**
      * Compte les tâches par statut pour un projet
      * @param idProjet ID du projet
@@ -77,4 +137,172 @@ public interface TacheRepository extends JpaRepository<Tache, Integer> {
      * @return Nombre de tâches
      */
     Long countByProjetIdProjetAndStatut(Integer idProjet, StatutTache statut);
+
+    /**
+     * Première page des tâches triées par ID (pagination par curseur)
+     * @param limite Nombre maximum de tâches
+     * @return Liste des tâches
+     */
+    List<Tache> findAllByOrderByIdTacheAsc(Limit limite);
+
+    /**
+     * Page de tâches suivant un ID donné (seek sur la clé primaire id_tache)
+     * @param idTache Dernier ID de la page précédente
+     * @param limite Nombre maximum de tâches
+     * @return Liste des tâches
+     */
+    List<Tache> findByIdTacheGreaterThanOrderByIdTacheAsc(Integer idTache, Limit limite);
+
+    /**
+     * Parcourt toutes les tâches via un curseur côté serveur (export)
+     * Le fetch size borne le nombre de lignes transférées à chaque aller-retour
+     * Le flux doit être consommé dans une transaction puis fermé
+     * @return Flux des tâches triées par ID
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT t FROM Tache t ORDER BY t.idTache")
+    Stream<Tache> streamTachesPourExport();
+
+    /**
+     * Résumé de toutes les tâches (sans description)
+     * @return Liste des résumés
+     */
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet FROM Tache t")
+    List<TacheResume> findAllResumes();
+
+    /**
+     * Parcourt le résumé de toutes les tâches (construction de l'index de planification)
+     * @return Flux des résumés, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet FROM Tache t")
+    Stream<TacheResume> streamResumes();
+
+    /**
+     * Résumé des tâches d'un projet
+     * @param idProjet ID du projet
+     * @return Liste des résumés
+     */
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet FROM Tache t WHERE t.projet.idProjet = :idProjet")
+    List<TacheResume> findResumesByProjetId(@Param("idProjet") Integer idProjet);
+
+    /**
+     * Résumé des tâches ayant un statut donné
+     * @param statut Statut recherché
+     * @return Liste des résumés
+     */
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet FROM Tache t WHERE t.statut = :statut")
+    List<TacheResume> findResumesByStatut(@Param("statut") StatutTache statut);
+
+    /**
+     * Résumé des tâches assignées à un employé
+     * @param matricule Matricule de l'employé
+     * @return Liste des résumés
+     */
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet " +
+            "FROM Tache t JOIN t.affectations a WHERE a.employe.matricule = :matricule")
+    List<TacheResume> findResumesByEmployeMatricule(@Param("matricule") String matricule);
+
+    /**
+     * Parcourt les champs texte de toutes les tâches (construction de l'index de recherche)
+     * @return Flux des textes, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.description AS description, t.statut AS statut, " +
+            "t.dateDebut AS dateDebut, t.dateFin AS dateFin, t.projet.idProjet AS idProjet FROM Tache t")
+    Stream<TacheTexte> streamTextesTaches();
+
+    /**
+     * Parcourt les tâches non terminées ayant une date de fin (construction de l'index des retards)
+     * Les statuts ouverts sont énumérés plutôt qu'exclus par "!= 'TERMINEE'" : deux plages de idx_tache_statut_fin
+     * @return Flux des résumés, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.idTache AS idTache, t.titre AS titre, t.statut AS statut, t.dateDebut AS dateDebut, " +
+            "t.dateFin AS dateFin, t.projet.idProjet AS idProjet " +
+            "FROM Tache t WHERE t.statut IN ('EN_ATTENTE', 'EN_COURS') AND t.dateFin IS NOT NULL")
+    Stream<TacheResume> streamResumesOuvertesAvecEcheance();
+
+    /**
+     * Parcourt les périodes de toutes les tâches (construction de l'index des périodes)
+     * @return Flux des périodes, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.idTache AS id, t.dateDebut AS dateDebut, t.dateFin AS dateFin FROM Tache t")
+    Stream<Periode> streamPeriodes();
+
+    /**
+     * Charge une tâche dont la version sera incrémentée au commit (UPDATE ... WHERE version = ?), sans verrou de ligne
+     * Une affectation ou un retrait entre ainsi en conflit avec un changement de statut concurrent : le statut
+     * signalé avec une affectation et les employés signalés avec un changement de statut sont ceux de l'état validé
+     * @param idTache ID de la tâche
+     * @return Tâche, vide si elle n'existe pas
+     */
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT t FROM Tache t WHERE t.idTache = :idTache")
+    Optional<Tache> findByIdPourAffectation(@Param("idTache") Integer idTache);
+
+    /**
+     * Charge et verrouille des tâches (SELECT ... FOR UPDATE) avant de leur ajouter des affectations en masse
+     * Leur version ne change plus jusqu'au commit ; l'ordre des IDs évite l'interblocage de deux demandes
+     * qui portent sur des tâches communes
+     * @param ids IDs des tâches
+     * @return Tâches existantes, par ID croissant
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Tache t WHERE t.idTache IN :ids ORDER BY t.idTache")
+    List<Tache> findPourAffectationsEnMasse(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Filtre, parmi des IDs donnés, ceux qui correspondent à une tâche existante, avec leur projet, leur statut
+     * et leur version
+     * @param ids IDs à vérifier
+     * @return Tâches existantes
+     */
+    @Query("SELECT t.idTache AS idTache, t.projet.idProjet AS idProjet, t.statut AS statut, t.version AS version " +
+            "FROM Tache t WHERE t.idTache IN :ids")
+    List<TacheProjet> findProjetsExistants(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Parcourt l'ID, le projet, le statut et la version de toutes les tâches (construction de l'index des charges)
+     * @return Flux des tâches, à consommer dans une transaction puis fermer
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t.idTache AS idTache, t.projet.idProjet AS idProjet, t.statut AS statut, t.version AS version " +
+            "FROM Tache t")
+    Stream<TacheProjet> streamVersions();
+
+    /**
+     * Empreinte des versions de toutes les tâches (ETag des listes)
+     * @return Nombre de tâches et somme des hachages (ID, version)
+     */
+    @Query("SELECT COUNT(t) AS nombre, COALESCE(SUM(" + EmpreinteVersions.HACHAGE_TACHE + "), 0) AS sommeHachages " +
+            "FROM Tache t")
+    EmpreinteVersions findEmpreinteVersions();
+
+    /**
+     * Empreinte des versions des tâches d'un projet (ETag du projet et de ses tâches)
+     * @param idProjet ID du projet
+     * @return Nombre de tâches et somme des hachages (ID, version)
+     */
+    @Query("SELECT COUNT(t) AS nombre, COALESCE(SUM(" + EmpreinteVersions.HACHAGE_TACHE + "), 0) AS sommeHachages " +
+            "FROM Tache t WHERE t.projet.idProjet = :idProjet")
+    EmpreinteVersions findEmpreinteVersionsByProjetId(@Param("idProjet") Integer idProjet);
+
+    /**
+     * Version d'une tâche, sans charger l'entité (ETag du détail)
+     * @param idTache ID de la tâche
+     * @return Optional contenant la version si la tâche existe
+     */
+    @Query("SELECT t.version FROM Tache t WHERE t.idTache = :idTache")
+    Optional<Long> findVersionById(@Param("idTache") Integer idTache);
 }
\ No newline at end of file
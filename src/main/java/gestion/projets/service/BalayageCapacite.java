@@ -0,0 +1,129 @@
+package gestion.projets.service;
+
+import gestion.projets.dto.CapaciteEmploye;
+import gestion.projets.dto.PeriodeCharge;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Balayage des périodes des tâches d'un employé, par date de début, pour compter les tâches menées en parallèle
+ * Les tâches en cours sont tenues dans un tas ordonné par date de fin : chaque début ou fin de tâche
+ * clôt une période d'occupation. Seules les tâches de l'employé courant sont en mémoire, quel que soit
+ * le nombre d'employés balayés à la suite.
+ */
+final class BalayageCapacite {
+
+    /**
+     * Tâche en cours et son lendemain de fin (epoch day)
+     */
+    private record EnCours(int idTache, long finExclusive) {
+    }
+
+    private final long debutFenetre;
+    private final long finFenetre;
+
+    /**
+     * Nombre minimum de tâches en cours pour retenir une période
+     */
+    private final int seuil;
+
+    private final PriorityQueue<EnCours> enCours = new PriorityQueue<>(Comparator.comparingLong(EnCours::finExclusive));
+    private final List<PeriodeCharge> periodes = new ArrayList<>();
+    private String matricule;
+    private long curseur;
+    private int pic;
+    private long joursSurcharge;
+
+    /**
+     * @param debut Premier jour de la fenêtre
+     * @param fin Dernier jour de la fenêtre
+     * @param seuil Nombre minimum de tâches en cours pour retenir une période
+     */
+    BalayageCapacite(LocalDate debut, LocalDate fin, int seuil) {
+        this.debutFenetre = debut.toEpochDay();
+        this.finFenetre = fin.toEpochDay();
+        this.seuil = seuil;
+    }
+
+    /**
+     * Commence le balayage des tâches d'un employé
+     * @param matricule Matricule de l'employé
+     */
+    void commencer(String matricule) {
+        this.matricule = matricule;
+        enCours.clear();
+        periodes.clear();
+        curseur = debutFenetre;
+        pic = 0;
+        joursSurcharge = 0;
+    }
+
+    /**
+     * Ajoute une tâche de l'employé ; les tâches doivent être ajoutées par date de début croissante
+     * @param idTache ID de la tâche
+     * @param debut Date de début de la tâche
+     * @param fin Date de fin de la tâche, null si elle est en cours (jusqu'à la fin de la fenêtre)
+     */
+    void ajouter(int idTache, LocalDate debut, LocalDate fin) {
+        long jourDebut = Math.max(debut.toEpochDay(), debutFenetre);
+        long finExclusive = (fin != null ? Math.min(fin.toEpochDay(), finFenetre) : finFenetre) + 1;
+        if (finExclusive <= jourDebut) {
+            return;
+        }
+        avancer(jourDebut);
+        enCours.add(new EnCours(idTache, finExclusive));
+        pic = Math.max(pic, enCours.size());
+    }
+
+    /**
+     * Termine le balayage de l'employé courant
+     * @return Occupation de l'employé sur la fenêtre
+     */
+    CapaciteEmploye terminer() {
+        avancer(Long.MAX_VALUE);
+        return new CapaciteEmploye(matricule, pic, joursSurcharge, new ArrayList<>(periodes));
+    }
+
+    /**
+     * Clôt les périodes jusqu'au jour donné (exclu) en retirant les tâches terminées avant lui
+     */
+    private void avancer(long jour) {
+        while (!enCours.isEmpty() && enCours.peek().finExclusive() <= jour) {
+            long fin = enCours.peek().finExclusive();
+            clore(fin);
+            while (!enCours.isEmpty() && enCours.peek().finExclusive() == fin) {
+                enCours.poll();
+            }
+        }
+        if (!enCours.isEmpty()) {
+            clore(jour);
+        }
+        curseur = jour;
+    }
+
+    /**
+     * Retient la période [curseur, fin[ avec les tâches actuellement en cours
+     */
+    private void clore(long fin) {
+        if (fin <= curseur) {
+            return;
+        }
+        if (enCours.size() >= 2) {
+            joursSurcharge += fin - curseur;
+        }
+        if (enCours.size() >= seuil) {
+            List<Integer> taches = new ArrayList<>(enCours.size());
+            for (EnCours tache : enCours) {
+                taches.add(tache.idTache());
+            }
+            taches.sort(null);
+            periodes.add(new PeriodeCharge(LocalDate.ofEpochDay(curseur), LocalDate.ofEpochDay(fin - 1),
+                    enCours.size(), taches));
+        }
+        curseur = fin;
+    }
+}
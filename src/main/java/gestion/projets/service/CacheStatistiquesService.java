@@ -0,0 +1,45 @@
+package gestion.projets.service;
+
+import gestion.projets.dto.StatistiquesRegionCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Service exposant les statistiques du cache de second niveau Hibernate
+ * Nécessite hibernate.generate_statistics=true
+ */
+@Service
+public class CacheStatistiquesService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Récupère les statistiques de chaque région du cache de second niveau
+     * @return Statistiques par région, triées par nom
+     */
+    public List<StatistiquesRegionCache> getStatistiquesRegions() {
+        Statistics statistiques = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String[] regions = statistiques.getSecondLevelCacheRegionNames();
+        Arrays.sort(regions);
+
+        List<StatistiquesRegionCache> resultat = new ArrayList<>(regions.length);
+        for (String region : regions) {
+            CacheRegionStatistics stats = statistiques.getDomainDataRegionStatistics(region);
+            long succes = stats.getHitCount();
+            long echecs = stats.getMissCount();
+            long lectures = succes + echecs;
+            resultat.add(new StatistiquesRegionCache(region, succes, echecs, stats.getPutCount(),
+                    lectures == 0 ? 0.0 : (double) succes / lectures));
+        }
+        return resultat;
+    }
+}
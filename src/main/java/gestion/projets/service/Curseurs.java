@@ -0,0 +1,84 @@
+package gestion.projets.service;
+
+import gestion.projets.dto.PageCurseur;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Encodage des curseurs de pagination
+ * Le curseur contient la dernière clé retournée, encodée en Base64 URL
+ */
+final class Curseurs {
+
+    private static final String PREFIXE = "v1:";
+
+    private Curseurs() {
+    }
+
+    /**
+     * Encode une clé en curseur opaque
+     * @param cle Dernière clé de la page courante
+     * @return Curseur opaque
+     */
+    static String encoder(Object cle) {
+        byte[] octets = (PREFIXE + cle).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(octets);
+    }
+
+    /**
+     * Décode un curseur opaque
+     * @param curseur Curseur fourni par le client (null ou vide pour la première page)
+     * @return Clé après laquelle reprendre, ou null pour la première page
+     */
+    static String decoder(String curseur) {
+        if (curseur == null || curseur.isBlank()) {
+            return null;
+        }
+        String valeur;
+        try {
+            valeur = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+        if (!valeur.startsWith(PREFIXE) || valeur.length() == PREFIXE.length()) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+        return valeur.substring(PREFIXE.length());
+    }
+
+    /**
+     * Décode un curseur dont la clé est un identifiant numérique
+     * @param curseur Curseur fourni par le client
+     * @return Identifiant après lequel reprendre, ou null pour la première page
+     */
+    static Integer decoderEntier(String curseur) {
+        String valeur = decoder(curseur);
+        if (valeur == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(valeur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide");
+        }
+    }
+
+    /**
+     * Construit une page à partir des lignes lues
+     * Les requêtes lisent taille + 1 lignes : la ligne supplémentaire indique qu'une page suivante existe
+     * @param lignes Lignes lues (au plus taille + 1)
+     * @param taille Taille de page demandée
+     * @param cle Fonction d'extraction de la clé de tri
+     * @return Page avec son curseur suivant
+     */
+    static <T> PageCurseur<T> page(List<T> lignes, int taille, Function<T, ?> cle) {
+        if (lignes.size() <= taille) {
+            return new PageCurseur<>(lignes, lignes.size(), null);
+        }
+        List<T> contenu = lignes.subList(0, taille);
+        return new PageCurseur<>(contenu, taille, encoder(cle.apply(contenu.get(taille - 1))));
+    }
+}
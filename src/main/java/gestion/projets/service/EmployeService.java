@@ -1,13 +1,36 @@
 package gestion.projets.service;
 
+import gestion.projets.config.CapaciteProperties;
+import gestion.projets.config.PaginationProperties;
+import gestion.projets.dto.AffectationPeriode;
+import gestion.projets.dto.CapaciteEmploye;
+import gestion.projets.dto.ChargeEmploye;
+import gestion.projets.dto.PageCurseur;
+import gestion.projets.event.EmployeEvenement;
+import gestion.projets.index.IndexChargeEmployes;
+import gestion.projets.index.IndexRecherche;
+import gestion.projets.index.IndexTachesEnRetard;
 import gestion.projets.model.Employe;
 import gestion.projets.repository.EmployeRepository;
+import gestion.projets.repository.EmployeeTacheRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Service pour la gestion des employés
@@ -17,33 +40,90 @@ import java.util.Optional;
 @Transactional
 public class EmployeService {
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     @Autowired
     private EmployeRepository employeRepository;
 
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private CapaciteProperties capaciteProperties;
+
+    @Autowired
+    private IndexRecherche indexRecherche;
+
+    @Autowired
+    private IndexChargeEmployes indexChargeEmployes;
+
+    @Autowired
+    private IndexTachesEnRetard indexTachesEnRetard;
+
+    @Autowired
+    private EmployeeTacheRepository employeeTacheRepository;
+
+    @Autowired
+    private ApplicationEventPublisher evenements;
+
     /**
      * Récupère tous les employés
      * @return Liste de tous les employés
      */
+    @Transactional(readOnly = true)
     public List<Employe> getAllEmployes() {
         return employeRepository.findAll();
     }
 
+    /**
+     * Récupère une page d'employés à partir d'un curseur
+     * Chaque page est lue par un seek sur matricule : son coût ne dépend pas de la profondeur
+     * @param curseur Curseur de la page précédente (null pour la première page)
+     * @param taille Nombre d'employés souhaité (taille par défaut si null)
+     * @return Page d'employés
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<Employe> getEmployesPage(String curseur, Integer taille) {
+        int limite = paginationProperties.resoudreTaille(taille);
+        String apres = Curseurs.decoder(curseur);
+        List<Employe> lignes = apres == null
+                ? employeRepository.findAllByOrderByMatriculeAsc(Limit.of(limite + 1))
+                : employeRepository.findByMatriculeGreaterThanOrderByMatriculeAsc(apres, Limit.of(limite + 1));
+        return Curseurs.page(lignes, limite, Employe::getMatricule);
+    }
+
     /**
      * Récupère un employé par son matricule
      * @param matricule Matricule de l'employé
      * @return Optional contenant l'employé si trouvé
      */
+    @Transactional(readOnly = true)
     public Optional<Employe> getEmployeByMatricule(String matricule) {
         return employeRepository.findById(matricule);
     }
 
+    /**
+     * Récupère la version d'un employé sans le charger
+     * @param matricule Matricule de l'employé
+     * @return Optional contenant la version si l'employé existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(String matricule) {
+        return employeRepository.findVersionByMatricule(matricule);
+    }
+
     /**
      * Récupère un employé par son email
+     * L'email est l'identifiant naturel de l'employé : la résolution passe par le cache de second niveau
      * @param email Email de l'employé
      * @return Optional contenant l'employé si trouvé
      */
+    @Transactional(readOnly = true)
     public Optional<Employe> getEmployeByEmail(String email) {
-        return employeRepository.findByEmail(email);
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Employe.class)
+                .loadOptional(email);
     }
 
     /**
@@ -62,18 +142,22 @@ public class EmployeService {
             throw new IllegalArgumentException("Un employé avec cet email existe déjà");
         }
 
-        return employeRepository.save(employe);
+        Employe cree = employeRepository.save(employe);
+        evenements.publishEvent(EmployeEvenement.cree(cree));
+        return cree;
     }
 
     /**
      * Met à jour un employé existant
      * @param matricule Matricule de l'employé à modifier
      * @param employeDetails Nouvelles données de l'employé
+     * @param versionAttendue Version lue par le client (If-Match), null pour ne pas la contrôler
      * @return Employé mis à jour
      */
-    public Employe updateEmploye(String matricule, Employe employeDetails) {
+    public Employe updateEmploye(String matricule, Employe employeDetails, Long versionAttendue) {
         Employe employe = employeRepository.findById(matricule)
                 .orElseThrow(() -> new RuntimeException("Employé introuvable avec le matricule: " + matricule));
+        Versions.verifier(Employe.class, matricule, versionAttendue, employe.getVersion());
 
         // Vérifier si le nouvel email n'est pas déjà utilisé par un autre employé
         if (!employe.getEmail().equals(employeDetails.getEmail()) &&
@@ -85,7 +169,9 @@ public class EmployeService {
         employe.setPrenom(employeDetails.getPrenom());
         employe.setEmail(employeDetails.getEmail());
 
-        return employeRepository.save(employe);
+        Employe modifie = employeRepository.save(employe);
+        evenements.publishEvent(EmployeEvenement.modifie(modifie));
+        return modifie;
     }
 
     /**
@@ -93,37 +179,49 @@ public class EmployeService {
      * @param matricule Matricule de l'employé à supprimer
      */
     public void deleteEmploye(String matricule) {
-        if (!employeRepository.existsById(matricule)) {
-            throw new RuntimeException("Employé introuvable avec le matricule: " + matricule);
-        }
-        employeRepository.deleteById(matricule);
-    }
-
-    /**
-     * Recherche des employés par nom
-     * @param nom Nom ou partie du nom
-     * @return Liste des employés correspondants
-     */
-    public List<Employe> searchEmployesByNom(String nom) {
-        return employeRepository.findByNomContainingIgnoreCase(nom);
+        Employe employe = employeRepository.findById(matricule)
+                .orElseThrow(() -> new RuntimeException("Employé introuvable avec le matricule: " + matricule));
+        evenements.publishEvent(EmployeEvenement.supprime(employe));
+        employeRepository.delete(employe);
     }
 
     /**
-     * Recherche des employés par prénom
-     * @param prenom Prénom ou partie du prénom
+     * Recherche des employés par nom ou prénom
+     * @param terme Terme de recherche
      * @return Liste des employés correspondants
      */
-    public List<Employe> searchEmployesByPrenom(String prenom) {
-        return employeRepository.findByPrenomContainingIgnoreCase(prenom);
+    @Transactional(readOnly = true)
+    public List<Employe> searchEmployes(String terme) {
+        return employeRepository.findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(terme, terme);
     }
 
     /**
-     * Recherche des employés par nom ou prénom
+     * Recherche des employés par nom, prénom ou email dans l'index de trigrammes
+     * Les employés trouvés sont chargés par le cache de second niveau, la base n'est lue que pour les absents.
+     * Tant que l'index n'est pas construit, la recherche se fait par nom ou prénom en base
      * @param terme Terme de recherche
-     * @return Liste des employés correspondants
+     * @param limite Nombre maximum de résultats
+     * @return Employés, du plus pertinent au moins pertinent
      */
-    public List<Employe> searchEmployes(String terme) {
-        return employeRepository.findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(terme, terme);
+    @Transactional(readOnly = true)
+    public List<Employe> searchEmployes(String terme, int limite) {
+        if (limite <= 0) {
+            return List.of();
+        }
+        if (!indexRecherche.isPret()) {
+            return employeRepository.findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase(terme, terme, Limit.of(limite));
+        }
+        List<String> matricules = indexRecherche.rechercherEmployes(terme, limite);
+        if (matricules.isEmpty()) {
+            return List.of();
+        }
+        // Dans l'ordre des matricules, null pour un employé supprimé entre-temps
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Employe.class)
+                .multiLoad(matricules)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
     }
 
     /**
@@ -131,16 +229,115 @@ public class EmployeService {
      * @param idTache ID de la tâche
      * @return Liste des employés
      */
+    @Transactional(readOnly = true)
     public List<Employe> getEmployesByTache(Integer idTache) {
         return employeRepository.findEmployesByTacheId(idTache);
     }
 
     /**
-     * Compte le nombre de tâches d'un employé
+     * Compte le nombre de tâches d'un employé, depuis l'index des charges dès qu'il est construit
      * @param matricule Matricule de l'employé
      * @return Nombre de tâches
      */
+    @Transactional(readOnly = true)
     public Long countTachesByEmploye(String matricule) {
-        return employeRepository.countTachesByEmployeMatricule(matricule);
+        Long total = indexChargeEmployes.isPret() ? indexChargeEmployes.getTotal(matricule) : null;
+        return total != null ? total : employeRepository.countTachesByEmployeMatricule(matricule);
+    }
+
+    /**
+     * Récupère la charge de tous les employés, servie depuis les index sans accès à la base
+     * @return Nombre de tâches affectées par statut et nombre de tâches en retard, par ordre de matricule
+     * @throws IllegalStateException si l'index des charges ou celui des retards n'est pas encore construit
+     */
+    @Transactional(readOnly = true)
+    public List<ChargeEmploye> getChargesEmployes() {
+        if (!indexChargeEmployes.isPret() || !indexTachesEnRetard.isPret()) {
+            throw new IllegalStateException("Les index des charges et des retards sont en cours de construction");
+        }
+        Map<String, Integer> retards = indexTachesEnRetard.getCompteurs().getParEmploye();
+        List<ChargeEmploye> charges = indexChargeEmployes.getCharges();
+        for (ChargeEmploye charge : charges) {
+            charge.setEnRetard(retards.getOrDefault(charge.getMatricule(), 0));
+        }
+        return charges;
+    }
+
+    /**
+     * Recherche les employés affectés à plusieurs tâches non terminées en même temps sur une période, page par page
+     * Une seule requête, lue en flux par employé : seules les tâches de l'employé en cours de balayage sont en mémoire,
+     * et la lecture s'arrête dès que la page est complète
+     * @param dateDebut Premier jour de la période
+     * @param dateFin Dernier jour de la période
+     * @param curseur Curseur de la page précédente (null pour la première page)
+     * @param taille Nombre d'employés surchargés souhaité (taille par défaut si null)
+     * @return Page d'employés surchargés, par ordre de matricule, avec leurs seules périodes de surcharge
+     * @throws IllegalArgumentException si la période est invalide ou trop longue, ou si le curseur ou la taille est invalide
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<CapaciteEmploye> getSurcharges(LocalDate dateDebut, LocalDate dateFin, String curseur, Integer taille) {
+        verifierFenetre(dateDebut, dateFin);
+        int limite = paginationProperties.resoudreTaille(taille);
+        String apres = Curseurs.decoder(curseur);
+        List<CapaciteEmploye> surcharges = new ArrayList<>();
+        BalayageCapacite balayage = new BalayageCapacite(dateDebut, dateFin, 2);
+        String matricule = null;
+        try (Stream<AffectationPeriode> affectations = apres == null
+                ? employeeTacheRepository.streamPeriodesAffectees(dateDebut, dateFin)
+                : employeeTacheRepository.streamPeriodesAffecteesApres(dateDebut, dateFin, apres)) {
+            Iterator<AffectationPeriode> iterateur = affectations.iterator();
+            while (iterateur.hasNext() && surcharges.size() <= limite) {
+                AffectationPeriode affectation = iterateur.next();
+                if (!affectation.getMatricule().equals(matricule)) {
+                    if (matricule != null) {
+                        retenirSurcharge(balayage.terminer(), surcharges);
+                    }
+                    matricule = affectation.getMatricule();
+                    balayage.commencer(matricule);
+                }
+                balayage.ajouter(affectation.getIdTache(), affectation.getDateDebut(), affectation.getDateFin());
+            }
+        }
+        if (matricule != null && surcharges.size() <= limite) {
+            retenirSurcharge(balayage.terminer(), surcharges);
+        }
+        return Curseurs.page(surcharges, limite, CapaciteEmploye::getMatricule);
+    }
+
+    private static void retenirSurcharge(CapaciteEmploye capacite, List<CapaciteEmploye> surcharges) {
+        if (capacite.getPic() >= 2) {
+            surcharges.add(capacite);
+        }
+    }
+
+    /**
+     * Calcule l'occupation d'un employé jour par jour sur une période
+     * @param matricule Matricule de l'employé
+     * @param dateDebut Premier jour de la période
+     * @param dateFin Dernier jour de la période
+     * @return Occupation de l'employé, avec toutes ses périodes d'activité
+     * @throws IllegalArgumentException si la date de fin précède la date de début ou si la période est trop longue
+     */
+    @Transactional(readOnly = true)
+    public CapaciteEmploye getCapacite(String matricule, LocalDate dateDebut, LocalDate dateFin) {
+        verifierFenetre(dateDebut, dateFin);
+        if (!employeRepository.existsById(matricule)) {
+            throw new RuntimeException("Employé introuvable avec le matricule: " + matricule);
+        }
+        BalayageCapacite balayage = new BalayageCapacite(dateDebut, dateFin, 1);
+        balayage.commencer(matricule);
+        for (AffectationPeriode affectation : employeeTacheRepository.findPeriodesAffectees(matricule, dateDebut, dateFin)) {
+            balayage.ajouter(affectation.getIdTache(), affectation.getDateDebut(), affectation.getDateFin());
+        }
+        return balayage.terminer();
+    }
+
+    private void verifierFenetre(LocalDate dateDebut, LocalDate dateFin) {
+        if (dateFin.isBefore(dateDebut)) {
+            throw new IllegalArgumentException("La date de fin précède la date de début");
+        }
+        if (ChronoUnit.DAYS.between(dateDebut, dateFin) >= capaciteProperties.getFenetreMaxJours()) {
+            throw new IllegalArgumentException("La période dépasse " + capaciteProperties.getFenetreMaxJours() + " jours");
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,295 @@
+package gestion.projets.service;
+
+import gestion.projets.config.FluxTachesProperties;
+import gestion.projets.dto.ChangementTache;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.TacheEvenement;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Flux des changements de tâches diffusé en Server-Sent Events (GET /api/taches/flux)
+ * Les événements de TacheService sont reçus après le commit et déposés, sans attente, dans la file
+ * bornée de chaque abonné concerné. Une file pleine est vidée et remplacée par un événement "resync" :
+ * l'abonné relit alors les listes (If-None-Match) au lieu de ralentir les écritures ou la mémoire.
+ * Entre deux envois, un abonné n'occupe aucun thread (requête asynchrone) ; chaque envoi passe par un thread
+ * virtuel, quel que soit spring.threads.virtual.enabled : un client lent ne bloque que son propre envoi.
+ * Les abonnés filtrés par employé apprennent la suppression d'une tâche par le retrait de ses affectations.
+ */
+@Service
+public class FluxTachesService {
+
+    private static final Logger log = LoggerFactory.getLogger(FluxTachesService.class);
+
+    private final Set<Abonne> abonnes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Nombre d'abonnés filtrés par employé : les affectations d'une tâche modifiée ne sont copiées que s'il y en a
+     */
+    private final AtomicInteger abonnesParEmploye = new AtomicInteger();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Autowired
+    private FluxTachesProperties proprietes;
+
+    @Autowired
+    private TaskScheduler planificateur;
+
+    /**
+     * SseEmitter.send bloque sur la socket : un thread virtuel par envoi, pour qu'un abonné bloqué
+     * n'immobilise pas le flux des autres
+     */
+    private final TaskExecutor executeur = new VirtualThreadTaskExecutor("flux-taches-");
+
+    private ScheduledFuture<?> pulsation;
+
+    @PostConstruct
+    void demarrer() {
+        pulsation = planificateur.scheduleWithFixedDelay(this::pulser, proprietes.getIntervallePulsation());
+    }
+
+    @PreDestroy
+    void arreter() {
+        pulsation.cancel(false);
+        for (Abonne abonne : abonnes) {
+            abonne.emetteur.complete();
+        }
+    }
+
+    /**
+     * Ouvre un abonnement au flux des changements
+     * @param idProjet Ne diffuser que les changements de ce projet (null pour tous)
+     * @param matricule Ne diffuser que les changements des tâches de cet employé (null pour tous)
+     * @param reconnexion true si le client se reconnecte (Last-Event-ID) : il est d'abord resynchronisé
+     * @return Émetteur de la réponse asynchrone
+     * @throws IllegalStateException si le nombre maximum d'abonnés est atteint
+     */
+    public SseEmitter abonner(Integer idProjet, String matricule, boolean reconnexion) {
+        if (abonnes.size() >= proprietes.getAbonnesMax()) {
+            throw new IllegalStateException("Nombre maximum d'abonnés au flux atteint");
+        }
+        SseEmitter emetteur = new SseEmitter(proprietes.getDelaiExpiration().toMillis());
+        Abonne abonne = new Abonne(emetteur, idProjet, matricule, proprietes.getTailleTampon());
+        emetteur.onCompletion(() -> desabonner(abonne));
+        emetteur.onTimeout(emetteur::complete);
+        emetteur.onError(erreur -> desabonner(abonne));
+        abonnes.add(abonne);
+        if (matricule != null) {
+            abonnesParEmploye.incrementAndGet();
+        }
+
+        // Les changements manqués pendant la déconnexion ne sont pas conservés
+        if (reconnexion) {
+            abonne.resynchroniser("RECONNEXION");
+        } else {
+            abonne.pulser();
+        }
+        planifier(abonne);
+        return emetteur;
+    }
+
+    /**
+     * @return Nombre d'abonnés connectés
+     */
+    public int getNombreAbonnes() {
+        return abonnes.size();
+    }
+
+    @TransactionalEventListener
+    public void surTache(TacheEvenement evenement) {
+        if (abonnes.isEmpty()) {
+            return;
+        }
+        Collection<String> matricules = Set.of();
+        if (abonnesParEmploye.get() > 0) {
+            matricules = new HashSet<>(evenement.getMatricules());
+        }
+        diffuser(ChangementTache.de(evenement), matricules);
+    }
+
+    @TransactionalEventListener
+    public void surAffectation(AffectationEvenement evenement) {
+        if (abonnes.isEmpty()) {
+            return;
+        }
+        diffuser(ChangementTache.de(evenement), Set.of(evenement.getMatricule()));
+    }
+
+    /**
+     * Dépose un changement dans la file de chaque abonné concerné
+     * @param matricules Employés affectés à la tâche
+     */
+    private void diffuser(ChangementTache changement, Collection<String> matricules) {
+        Envoi envoi = new Envoi(sequence.incrementAndGet(), changement);
+        for (Abonne abonne : abonnes) {
+            if (abonne.concerne(changement, matricules)) {
+                abonne.deposer(envoi);
+                planifier(abonne);
+            }
+        }
+    }
+
+    /**
+     * Envoie un commentaire aux abonnés sans changement en attente : une connexion fermée par le client
+     * est ainsi détectée à l'écriture, et les intermédiaires ne coupent pas un flux inactif
+     */
+    private void pulser() {
+        for (Abonne abonne : abonnes) {
+            if (abonne.pulser()) {
+                planifier(abonne);
+            }
+        }
+    }
+
+    /**
+     * Confie l'envoi de la file d'un abonné à l'exécuteur, sauf si un envoi est déjà en cours pour lui
+     */
+    private void planifier(Abonne abonne) {
+        if (abonne.planifie.compareAndSet(false, true)) {
+            executeur.execute(() -> envoyer(abonne));
+        }
+    }
+
+    /**
+     * Vide la file d'un abonné ; un seul envoi à la fois par abonné, dans l'ordre des changements
+     */
+    private void envoyer(Abonne abonne) {
+        try {
+            for (Lot lot = abonne.prendre(); lot != null; lot = abonne.prendre()) {
+                if (lot.resynchronisation() != null) {
+                    abonne.emetteur.send(SseEmitter.event().name("resync").data(lot.resynchronisation()));
+                }
+                for (Envoi envoi : lot.envois()) {
+                    abonne.emetteur.send(SseEmitter.event()
+                            .id(Long.toString(envoi.id()))
+                            .name("changement")
+                            .data(envoi.changement(), MediaType.APPLICATION_JSON));
+                }
+                if (lot.pulsation()) {
+                    abonne.emetteur.send(SseEmitter.event().comment(""));
+                }
+            }
+        } catch (Exception e) {
+            // Connexion fermée ou abonnement terminé : l'abonné n'est plus planifié
+            log.debug("Abonné au flux des tâches déconnecté : {}", e.getMessage());
+            desabonner(abonne);
+        }
+    }
+
+    private void desabonner(Abonne abonne) {
+        if (abonnes.remove(abonne) && abonne.matricule != null) {
+            abonnesParEmploye.decrementAndGet();
+        }
+    }
+
+    /**
+     * Changement numéroté (champ "id" de l'événement SSE)
+     */
+    private record Envoi(long id, ChangementTache changement) {
+    }
+
+    /**
+     * Contenu de la file d'un abonné pris en une fois
+     */
+    private record Lot(String resynchronisation, List<Envoi> envois, boolean pulsation) {
+    }
+
+    /**
+     * Abonné au flux et sa file bornée de changements en attente d'envoi
+     */
+    private static final class Abonne {
+
+        private final SseEmitter emetteur;
+        private final Integer idProjet;
+        private final String matricule;
+        private final int capacite;
+
+        /**
+         * true tant qu'un envoi de la file est confié à l'exécuteur
+         */
+        private final AtomicBoolean planifie = new AtomicBoolean();
+
+        // Protégés par le moniteur de l'abonné
+        private final ArrayDeque<Envoi> file = new ArrayDeque<>();
+        private String resynchronisation;
+        private boolean pulsation;
+
+        Abonne(SseEmitter emetteur, Integer idProjet, String matricule, int capacite) {
+            this.emetteur = emetteur;
+            this.idProjet = idProjet;
+            this.matricule = matricule;
+            this.capacite = capacite;
+        }
+
+        boolean concerne(ChangementTache changement, Collection<String> matricules) {
+            return (idProjet == null || idProjet.equals(changement.getIdProjet()))
+                    && (matricule == null || matricules.contains(matricule));
+        }
+
+        /**
+         * Ajoute un changement ; si la file est pleine, l'abonné perd les changements en attente et sera resynchronisé
+         */
+        synchronized void deposer(Envoi envoi) {
+            if (file.size() >= capacite) {
+                file.clear();
+                resynchronisation = "DEBORDEMENT";
+            } else {
+                file.add(envoi);
+            }
+        }
+
+        synchronized void resynchroniser(String raison) {
+            file.clear();
+            resynchronisation = raison;
+        }
+
+        /**
+         * @return true si un commentaire doit être envoyé (rien d'autre n'est en attente)
+         */
+        synchronized boolean pulser() {
+            if (file.isEmpty() && resynchronisation == null) {
+                pulsation = true;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * @return Contenu de la file, ou null si elle est vide (l'abonné n'est alors plus planifié)
+         */
+        synchronized Lot prendre() {
+            if (file.isEmpty() && resynchronisation == null && !pulsation) {
+                planifie.set(false);
+                return null;
+            }
+            Lot lot = new Lot(resynchronisation, new ArrayList<>(file), pulsation);
+            file.clear();
+            resynchronisation = null;
+            pulsation = false;
+            return lot;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package gestion.projets.service;
+
+import gestion.projets.dto.AffectationDemande;
+import gestion.projets.model.EmployeeTache;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Insertion d'affectations par lots JDBC, dans la transaction en cours
+ * Si un couple a été affecté entre-temps par une autre transaction, les lots sont annulés (point de sauvegarde JDBC :
+ * le gestionnaire de transactions JPA n'en propose pas) puis les affectations insérées une à une, chacune derrière
+ * son propre point de sauvegarde : seules celles déjà présentes sont écartées, la transaction reste utilisable.
+ * La table et les colonnes sont celles du mapping de EmployeeTache.
+ */
+@Component
+public class InsertionAffectations {
+
+    /**
+     * Nombre d'affectations par lot JDBC
+     */
+    static final int TAILLE_LOT = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String insertion;
+
+    @PostConstruct
+    void preparer() {
+        AbstractEntityPersister mapping = (AbstractEntityPersister) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(EmployeeTache.class);
+        insertion = "INSERT INTO " + mapping.getTableName() + " (" + colonne(mapping, "employe") + ", "
+                + colonne(mapping, "tache") + ", " + colonne(mapping, "role") + ") VALUES (?, ?, ?)";
+    }
+
+    private static String colonne(AbstractEntityPersister mapping, String propriete) {
+        return mapping.getPropertyColumnNames(propriete)[0];
+    }
+
+    /**
+     * Insère des affectations
+     * @param affectations Affectations à insérer (celles qui existent déjà en sont retirées)
+     * @return Couples déjà affectés, non insérés
+     */
+    public Set<EmployeeTache.EmployeeTacheId> inserer(List<AffectationDemande> affectations) {
+        Set<EmployeeTache.EmployeeTacheId> dejaAffectees = new HashSet<>();
+        if (affectations.isEmpty()) {
+            return dejaAffectees;
+        }
+        try {
+            sousPointDeSauvegarde(() -> jdbcTemplate.batchUpdate(insertion, affectations, TAILLE_LOT, (ps, demande) -> {
+                ps.setString(1, demande.getMatricule());
+                ps.setInt(2, demande.getIdTache());
+                ps.setString(3, demande.getRole());
+            }));
+        } catch (DuplicateKeyException e) {
+            for (Iterator<AffectationDemande> iterateur = affectations.iterator(); iterateur.hasNext(); ) {
+                AffectationDemande demande = iterateur.next();
+                try {
+                    sousPointDeSauvegarde(() -> jdbcTemplate.update(insertion,
+                            demande.getMatricule(), demande.getIdTache(), demande.getRole()));
+                } catch (DuplicateKeyException doublon) {
+                    dejaAffectees.add(new EmployeeTache.EmployeeTacheId(demande.getMatricule(), demande.getIdTache()));
+                    iterateur.remove();
+                }
+            }
+        }
+        return dejaAffectees;
+    }
+
+    /**
+     * Exécute des écritures derrière un point de sauvegarde, annulées jusqu'à lui si elles échouent
+     */
+    private void sousPointDeSauvegarde(Runnable ecritures) {
+        Savepoint point = jdbcTemplate.execute((Connection connexion) -> connexion.setSavepoint());
+        try {
+            ecritures.run();
+        } catch (RuntimeException e) {
+            jdbcTemplate.execute((Connection connexion) -> {
+                connexion.rollback(point);
+                return null;
+            });
+            throw e;
+        }
+        jdbcTemplate.execute((Connection connexion) -> {
+            connexion.releaseSavepoint(point);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package gestion.projets.service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Recherche des tâches et des projets dont la période [dateDebut, dateFin] chevauche une période donnée
+ * Les IDs viennent de l'index des périodes ; les lignes sont ensuite chargées par clé, par lots.
+ */
+final class Periodes {
+
+    /**
+     * Borne utilisée en base pour une période demandée sans date de fin
+     */
+    static final LocalDate FIN_OUVERTE = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Nombre maximum d'IDs par clause IN
+     */
+    private static final int TAILLE_LOT = 1_000;
+
+    private Periodes() {
+    }
+
+    /**
+     * @param debut Début de la période
+     * @param fin Fin de la période (null : sans fin)
+     * @throws IllegalArgumentException si la date de début manque ou suit la date de fin
+     */
+    static void verifier(LocalDate debut, LocalDate fin) {
+        if (debut == null) {
+            throw new IllegalArgumentException("La date de début est obligatoire");
+        }
+        if (fin != null && fin.isBefore(debut)) {
+            throw new IllegalArgumentException("La date de fin précède la date de début");
+        }
+    }
+
+    /**
+     * @param fin Fin de la période demandée
+     * @return Fin à passer à la requête SQL
+     */
+    static LocalDate finEnBase(LocalDate fin) {
+        return fin != null ? fin : FIN_OUVERTE;
+    }
+
+    /**
+     * Charge des lignes par lots de clés en conservant l'ordre des IDs
+     * Une ligne supprimée entre la lecture de l'index et le chargement est ignorée.
+     * @param ids IDs dans l'ordre voulu
+     * @param chargeur Chargement d'un lot d'IDs
+     * @param cle ID d'une ligne chargée
+     * @return Lignes dans l'ordre des IDs
+     */
+    static <T> List<T> charger(List<Integer> ids, Function<List<Integer>, List<T>> chargeur, Function<T, Integer> cle) {
+        Map<Integer, T> parId = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += TAILLE_LOT) {
+            for (T ligne : chargeur.apply(ids.subList(i, Math.min(i + TAILLE_LOT, ids.size())))) {
+                parId.put(cle.apply(ligne), ligne);
+            }
+        }
+        return ids.stream().map(parId::get).filter(Objects::nonNull).toList();
+    }
+}
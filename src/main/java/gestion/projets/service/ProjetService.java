@@ -1,13 +1,41 @@
 package gestion.projets.service;
 
+import gestion.projets.config.CacheConfig;
+import gestion.projets.config.PaginationProperties;
+import gestion.projets.dto.EmpreinteVersions;
+import gestion.projets.dto.PageCurseur;
+import gestion.projets.dto.PlanningProjet;
+import gestion.projets.dto.ProjetResume;
+import gestion.projets.dto.RepartitionStatutLigne;
+import gestion.projets.dto.RepartitionStatutProjet;
+import gestion.projets.dto.RetardProjetLigne;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.ProjetEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.index.IndexPeriodes;
+import gestion.projets.index.IndexPlanning;
+import gestion.projets.index.IndexTachesEnRetard;
+import gestion.projets.model.EmployeeTache;
 import gestion.projets.model.Projet;
+import gestion.projets.model.Tache;
+import gestion.projets.repository.DependanceTacheRepository;
 import gestion.projets.repository.ProjetRepository;
+import gestion.projets.repository.TacheRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -21,12 +49,63 @@ public class ProjetService {
     @Autowired
     private ProjetRepository projetRepository;
 
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private ApplicationEventPublisher evenements;
+
+    @Autowired
+    private IndexPeriodes indexPeriodes;
+
+    @Autowired
+    private IndexPlanning indexPlanning;
+
+    @Autowired
+    private IndexTachesEnRetard indexTachesEnRetard;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private DependanceTacheRepository dependanceTacheRepository;
+
     /**
      * Récupère tous les projets
      * @return Liste de tous les projets
      */
+    @Transactional(readOnly = true)
     public List<Projet> getAllProjets() {
-        return projetRepository.findAll();
+        return projetRepository.findAllAvecTaches();
+    }
+
+    /**
+     * Récupère le résumé de tous les projets (sans description ni tâches)
+     * @return Liste des résumés
+     */
+    @Transactional(readOnly = true)
+    public List<ProjetResume> getAllProjetsResumes() {
+        return projetRepository.findAllResumes();
+    }
+
+    /**
+     * Récupère une page de projets à partir d'un curseur
+     * Chaque page est lue par un seek sur id_projet : son coût ne dépend pas de la profondeur
+     * @param curseur Curseur de la page précédente (null pour la première page)
+     * @param taille Nombre de projets souhaité (taille par défaut si null)
+     * @return Page de projets
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<Projet> getProjetsPage(String curseur, Integer taille) {
+        int limite = paginationProperties.resoudreTaille(taille);
+        Integer apres = Curseurs.decoderEntier(curseur);
+        List<Projet> lignes = apres == null
+                ? projetRepository.findAllByOrderByIdProjetAsc(Limit.of(limite + 1))
+                : projetRepository.findByIdProjetGreaterThanOrderByIdProjetAsc(apres, Limit.of(limite + 1));
+        // Tâches chargées avant la fin de la transaction (par lots de default_batch_fetch_size projets),
+        // sans jointure qui ferait paginer Hibernate en mémoire
+        lignes.forEach(projet -> Hibernate.initialize(projet.getTaches()));
+        return Curseurs.page(lignes, limite, Projet::getIdProjet);
     }
 
     /**
@@ -34,8 +113,28 @@ public class ProjetService {
      * @param id ID du projet
      * @return Optional contenant le projet si trouvé
      */
+    @Transactional(readOnly = true)
     public Optional<Projet> getProjetById(Integer id) {
-        return projetRepository.findById(id);
+        return projetRepository.findAvecTachesById(id);
+    }
+
+    /**
+     * Récupère la version d'un projet sans le charger
+     * @param id ID du projet
+     * @return Optional contenant la version si le projet existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Integer id) {
+        return projetRepository.findVersionById(id);
+    }
+
+    /**
+     * Calcule l'empreinte des versions de tous les projets
+     * @return Nombre de projets et somme des hachages (ID, version)
+     */
+    @Transactional(readOnly = true)
+    public EmpreinteVersions getEmpreinteVersions() {
+        return projetRepository.findEmpreinteVersions();
     }
 
     /**
@@ -43,23 +142,28 @@ public class ProjetService {
      * @param projet Projet à créer
      * @return Projet créé avec son ID généré
      */
+    @CacheEvict(cacheNames = CacheConfig.REPARTITION_STATUTS, allEntries = true)
     public Projet createProjet(Projet projet) {
         // Validation métier
         if (projet.getDateFin() != null && projet.getDateFin().isBefore(projet.getDateDebut())) {
             throw new IllegalArgumentException("La date de fin ne peut pas être antérieure à la date de début");
         }
-        return projetRepository.save(projet);
+        Projet cree = projetRepository.save(projet);
+        evenements.publishEvent(ProjetEvenement.cree(cree));
+        return cree;
     }
 
     /**
      * Met à jour un projet existant
      * @param id ID du projet à modifier
      * @param projetDetails Nouvelles données du projet
+     * @param versionAttendue Version lue par le client (If-Match), null pour ne pas la contrôler
      * @return Projet mis à jour
      */
-    public Projet updateProjet(Integer id, Projet projetDetails) {
+    public Projet updateProjet(Integer id, Projet projetDetails, Long versionAttendue) {
         Projet projet = projetRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Projet introuvable avec l'ID: " + id));
+        Versions.verifier(Projet.class, id, versionAttendue, projet.getVersion());
 
         // Validation métier
         if (projetDetails.getDateFin() != null &&
@@ -72,18 +176,33 @@ public class ProjetService {
         projet.setDateDebut(projetDetails.getDateDebut());
         projet.setDateFin(projetDetails.getDateFin());
 
-        return projetRepository.save(projet);
+        Projet modifie = projetRepository.save(projet);
+        evenements.publishEvent(ProjetEvenement.modifie(modifie));
+        // Le projet retourné est sérialisé avec ses tâches après la fin de la transaction
+        Hibernate.initialize(modifie.getTaches());
+        return modifie;
     }
 
     /**
      * Supprime un projet
      * @param id ID du projet à supprimer
      */
+    @CacheEvict(cacheNames = CacheConfig.REPARTITION_STATUTS, allEntries = true)
     public void deleteProjet(Integer id) {
-        if (!projetRepository.existsById(id)) {
-            throw new RuntimeException("Projet introuvable avec l'ID: " + id);
+        Projet projet = projetRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Projet introuvable avec l'ID: " + id));
+        // Les tâches et leurs affectations sont supprimées en cascade : on le signale comme des retraits
+        // d'affectations et des suppressions de tâches
+        for (Tache tache : projet.getTaches()) {
+            for (EmployeeTache affectation : tache.getAffectations()) {
+                evenements.publishEvent(AffectationEvenement.retiree(tache.getIdTache(), id, tache.getStatut(),
+                        affectation.getId().getMatricule(), tache.getVersion()));
+            }
+            evenements.publishEvent(TacheEvenement.supprimee(tache));
         }
-        projetRepository.deleteById(id);
+        evenements.publishEvent(ProjetEvenement.supprime(projet));
+        dependanceTacheRepository.deleteByTacheProjetIdProjet(id);
+        projetRepository.delete(projet);
     }
 
     /**
@@ -91,16 +210,41 @@ public class ProjetService {
      * @param nom Nom ou partie du nom
      * @return Liste des projets correspondants
      */
+    @Transactional(readOnly = true)
     public List<Projet> searchProjetsByNom(String nom) {
         return projetRepository.findByNomContainingIgnoreCase(nom);
     }
 
     /**
-     * Récupère les projets actifs
+     * Recherche des projets par nom (résumés)
+     * @param nom Nom ou partie du nom
+     * @return Liste des résumés correspondants
+     */
+    @Transactional(readOnly = true)
+    public List<ProjetResume> searchProjetsResumesByNom(String nom) {
+        return projetRepository.findResumesByNomContainingIgnoreCase(nom);
+    }
+
+    /**
+     * Récupère les projets actifs (sans date de fin, ou dont la date de fin n'est pas passée)
      * @return Liste des projets actifs
      */
+    @Transactional(readOnly = true)
     public List<Projet> getProjetsActifs() {
-        return projetRepository.findProjetsActifs(LocalDate.now());
+        List<Projet> projets = new ArrayList<>(projetRepository.findProjetsSansDateFin());
+        projets.addAll(projetRepository.findProjetsFinissantDepuis(LocalDate.now()));
+        return projets;
+    }
+
+    /**
+     * Récupère le résumé des projets actifs (sans date de fin, ou dont la date de fin n'est pas passée)
+     * @return Liste des résumés
+     */
+    @Transactional(readOnly = true)
+    public List<ProjetResume> getProjetsActifsResumes() {
+        List<ProjetResume> resumes = new ArrayList<>(projetRepository.findResumesProjetsSansDateFin());
+        resumes.addAll(projetRepository.findResumesProjetsFinissantDepuis(LocalDate.now()));
+        return resumes;
     }
 
     /**
@@ -109,16 +253,134 @@ public class ProjetService {
      * @param dateFin Date de fin
      * @return Liste des projets
      */
+    @Transactional(readOnly = true)
     public List<Projet> getProjetsByPeriode(LocalDate dateDebut, LocalDate dateFin) {
         return projetRepository.findByDateDebutBetween(dateDebut, dateFin);
     }
 
+    /**
+     * Récupère le résumé des projets dans une période donnée
+     * @param dateDebut Date de début
+     * @param dateFin Date de fin
+     * @return Liste des résumés
+     */
+    @Transactional(readOnly = true)
+    public List<ProjetResume> getProjetsResumesByPeriode(LocalDate dateDebut, LocalDate dateFin) {
+        return projetRepository.findResumesByDateDebutBetween(dateDebut, dateFin);
+    }
+
+    /**
+     * Récupère les projets dont la période chevauche [dateDebut, dateFin] (dateFin null : projet en cours)
+     * Les IDs viennent de l'index des périodes dès qu'il est construit, les projets sont chargés par clé
+     * @param dateDebut Début de la période
+     * @param dateFin Fin de la période, null pour une période sans fin
+     * @return Liste des projets, par date de début
+     * @throws IllegalArgumentException si la date de fin précède la date de début
+     */
+    @Transactional(readOnly = true)
+    public List<Projet> getProjetsChevauchant(LocalDate dateDebut, LocalDate dateFin) {
+        Periodes.verifier(dateDebut, dateFin);
+        if (!indexPeriodes.isPret()) {
+            return projetRepository.findChevauchant(dateDebut, Periodes.finEnBase(dateFin));
+        }
+        return Periodes.charger(indexPeriodes.getProjetsChevauchant(dateDebut, dateFin),
+                projetRepository::findByIdProjetIn, Projet::getIdProjet);
+    }
+
+    /**
+     * Récupère le résumé des projets dont la période chevauche [dateDebut, dateFin]
+     * @param dateDebut Début de la période
+     * @param dateFin Fin de la période, null pour une période sans fin
+     * @return Liste des résumés, par date de début
+     * @throws IllegalArgumentException si la date de fin précède la date de début
+     */
+    @Transactional(readOnly = true)
+    public List<ProjetResume> getProjetsResumesChevauchant(LocalDate dateDebut, LocalDate dateFin) {
+        Periodes.verifier(dateDebut, dateFin);
+        if (!indexPeriodes.isPret()) {
+            return projetRepository.findResumesChevauchant(dateDebut, Periodes.finEnBase(dateFin));
+        }
+        return Periodes.charger(indexPeriodes.getProjetsChevauchant(dateDebut, dateFin),
+                projetRepository::findResumesByIds, ProjetResume::getIdProjet);
+    }
+
+    /**
+     * Calcule la planification d'un projet : dates au plus tôt et au plus tard, marges et chemin critique
+     * Servie par l'index de planification dès qu'il est construit, calculée depuis la base avant
+     * @param idProjet ID du projet
+     * @return Planification du projet
+     */
+    @Transactional(readOnly = true)
+    public PlanningProjet getPlanning(Integer idProjet) {
+        if (!projetRepository.existsById(idProjet)) {
+            throw new RuntimeException("Projet introuvable avec l'ID: " + idProjet);
+        }
+        if (!indexPlanning.isPret()) {
+            return IndexPlanning.planifier(idProjet, tacheRepository.findResumesByProjetId(idProjet),
+                    dependanceTacheRepository.findResumesByProjetId(idProjet));
+        }
+        return indexPlanning.getPlanning(idProjet);
+    }
+
     /**
      * Compte le nombre de tâches d'un projet
      * @param idProjet ID du projet
      * @return Nombre de tâches
      */
+    @Transactional(readOnly = true)
     public Long countTachesByProjet(Integer idProjet) {
         return projetRepository.countTachesByProjetId(idProjet);
     }
-}
\ No newline at end of file
+
+    /**
+     * Calcule, pour chaque projet, le nombre de tâches par statut
+     * Le résultat ne dépend pas de la date : il est mis en cache sous une clé fixe
+     * et invalidé par les écritures sur les tâches et les projets
+     * @return Répartition par projet, triée par ID de projet
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.REPARTITION_STATUTS, key = "'tous'")
+    public List<RepartitionStatutProjet> getRepartitionStatuts() {
+        Map<Integer, RepartitionStatutProjet> repartitions = new LinkedHashMap<>();
+        for (RepartitionStatutLigne ligne : projetRepository.findRepartitionStatuts()) {
+            RepartitionStatutProjet repartition = repartitions.computeIfAbsent(
+                    ligne.getIdProjet(), RepartitionStatutProjet::new);
+            if (ligne.getStatut() == null) {
+                continue;
+            }
+            repartition.getParStatut().put(ligne.getStatut(), ligne.getNombre());
+            repartition.setTotal(repartition.getTotal() + ligne.getNombre());
+        }
+        return new ArrayList<>(repartitions.values());
+    }
+
+    /**
+     * Complète une répartition par statut avec le nombre de tâches en retard de chaque projet
+     * Les retards viennent de l'index des retards dès qu'il est construit, sinon d'un comptage en base
+     * @param repartitions Répartition par projet (non modifiée, elle peut provenir du cache)
+     * @return Copie de la répartition avec le nombre de tâches en retard
+     */
+    @Transactional(readOnly = true)
+    public List<RepartitionStatutProjet> completerRetards(List<RepartitionStatutProjet> repartitions) {
+        Map<Integer, ? extends Number> retards;
+        if (indexTachesEnRetard.isPret()) {
+            retards = indexTachesEnRetard.getCompteurs().getParProjet();
+        } else {
+            Map<Integer, Long> enBase = new HashMap<>();
+            for (RetardProjetLigne ligne : projetRepository.findRetardsParProjet(LocalDate.now())) {
+                enBase.put(ligne.getIdProjet(), ligne.getNombre());
+            }
+            retards = enBase;
+        }
+        List<RepartitionStatutProjet> completees = new ArrayList<>(repartitions.size());
+        for (RepartitionStatutProjet repartition : repartitions) {
+            RepartitionStatutProjet copie = new RepartitionStatutProjet(repartition.getIdProjet());
+            copie.getParStatut().putAll(repartition.getParStatut());
+            copie.setTotal(repartition.getTotal());
+            Number retard = retards.get(repartition.getIdProjet());
+            copie.setEnRetard(retard != null ? retard.longValue() : 0L);
+            completees.add(copie);
+        }
+        return completees;
+    }
+}
@@ -0,0 +1,260 @@
+package gestion.projets.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import gestion.projets.config.CacheConfig;
+import gestion.projets.dto.LigneImportTache;
+import gestion.projets.dto.RapportImport;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.model.Projet;
+import gestion.projets.model.Tache;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.ProjetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Service d'import en masse de tâches
+ * Le fichier est lu en flux (jamais chargé en entier), validé ligne par ligne,
+ * puis enregistré par lots : une transaction par lot, insertions regroupées en lots JDBC.
+ * L'import n'est pas atomique : un lot en échec (ex. projet supprimé pendant l'import) est rejeté en entier,
+ * les lots déjà validés restent enregistrés et l'import se poursuit avec le lot suivant.
+ */
+@Service
+public class TacheImportService {
+
+    /**
+     * Nombre de tâches par transaction (multiple de hibernate.jdbc.batch_size)
+     */
+    private static final int TAILLE_LOT_IMPORT = 1_000;
+
+    /**
+     * Nombre maximum d'erreurs détaillées dans le rapport (toutes sont comptées)
+     */
+    private static final int MAX_ERREURS_RAPPORTEES = 100;
+
+    private static final int LONGUEUR_MAX_TITRE = 100;
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final CsvSchema SCHEMA_CSV = CsvSchema.emptySchema().withHeader();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjetRepository projetRepository;
+
+    @Autowired
+    private ApplicationEventPublisher evenements;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TacheImportService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Importe des tâches depuis un CSV avec ligne d'en-tête
+     * (colonnes titre, description, dateDebut, dateFin, statut, idProjet)
+     * @param flux Contenu du fichier
+     * @return Bilan de l'import
+     * @throws IOException si le fichier est illisible ou mal formé
+     */
+    @CacheEvict(value = CacheConfig.REPARTITION_STATUTS, allEntries = true)
+    public RapportImport importerCsv(InputStream flux) throws IOException {
+        try (MappingIterator<LigneImportTache> lignes = CSV_MAPPER.readerFor(LigneImportTache.class)
+                .with(SCHEMA_CSV).readValues(flux)) {
+            return importer(lignes);
+        }
+    }
+
+    /**
+     * Importe des tâches depuis un tableau JSON (ou une suite d'objets JSON, un par ligne)
+     * @param flux Contenu du fichier
+     * @return Bilan de l'import
+     * @throws IOException si le fichier est illisible ou mal formé
+     */
+    @CacheEvict(value = CacheConfig.REPARTITION_STATUTS, allEntries = true)
+    public RapportImport importerJson(InputStream flux) throws IOException {
+        try (MappingIterator<LigneImportTache> lignes = objectMapper.readerFor(LigneImportTache.class).readValues(flux)) {
+            return importer(lignes);
+        }
+    }
+
+    private RapportImport importer(MappingIterator<LigneImportTache> lignes) throws IOException {
+        long debut = System.nanoTime();
+        RapportImport rapport = new RapportImport();
+        List<LigneValidee> lot = new ArrayList<>(TAILLE_LOT_IMPORT);
+        long numero = 0;
+
+        while (lignes.hasNextValue()) {
+            LigneImportTache ligne = lignes.nextValue();
+            numero++;
+            try {
+                lot.add(valider(numero, ligne));
+            } catch (IllegalArgumentException e) {
+                rejeter(rapport, numero, e.getMessage());
+            }
+            if (lot.size() == TAILLE_LOT_IMPORT) {
+                enregistrer(lot, rapport);
+                lot.clear();
+            }
+        }
+        if (!lot.isEmpty()) {
+            enregistrer(lot, rapport);
+        }
+
+        long duree = System.nanoTime() - debut;
+        rapport.setLignesLues(numero);
+        rapport.setDureeMs(duree / 1_000_000);
+        rapport.setLignesParSeconde(duree == 0 ? numero : numero * 1_000_000_000L / duree);
+        return rapport;
+    }
+
+    /**
+     * Enregistre un lot dans sa propre transaction, puis vide le contexte de persistance
+     * Les projets du lot sont vérifiés en une requête ; les événements de création partent à la validation.
+     * Les rejets du lot ne sont reportés dans le bilan qu'après la validation : si elle échoue,
+     * toutes les lignes du lot sont rejetées avec la cause de l'échec.
+     */
+    private void enregistrer(List<LigneValidee> lot, RapportImport rapport) {
+        List<RapportImport.Erreur> rejets = new ArrayList<>();
+        Integer importees;
+        try {
+            importees = transactionTemplate.execute(statut -> enregistrerLot(lot, rejets));
+        } catch (RuntimeException e) {
+            String message = "Lot non enregistré: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (LigneValidee ligne : lot) {
+                rejeter(rapport, ligne.numero(), message);
+            }
+            return;
+        }
+        for (RapportImport.Erreur rejet : rejets) {
+            rejeter(rapport, rejet.getLigne(), rejet.getMessage());
+        }
+        rapport.setLignesImportees(rapport.getLignesImportees() + importees);
+    }
+
+    private int enregistrerLot(List<LigneValidee> lot, List<RapportImport.Erreur> rejets) {
+        Set<Integer> idsProjets = new HashSet<>();
+        for (LigneValidee ligne : lot) {
+            idsProjets.add(ligne.idProjet());
+        }
+        Set<Integer> projetsExistants = new HashSet<>(projetRepository.findIdsExistants(idsProjets));
+
+        int nombre = 0;
+        for (LigneValidee ligne : lot) {
+            if (!projetsExistants.contains(ligne.idProjet())) {
+                rejets.add(new RapportImport.Erreur(ligne.numero(), "Projet introuvable avec l'ID: " + ligne.idProjet()));
+                continue;
+            }
+            Tache tache = ligne.tache();
+            tache.setProjet(entityManager.getReference(Projet.class, ligne.idProjet()));
+            entityManager.persist(tache);
+            evenements.publishEvent(TacheEvenement.creee(tache));
+            nombre++;
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return nombre;
+    }
+
+    /**
+     * Valide une ligne et construit la tâche correspondante
+     * @throws IllegalArgumentException si la ligne est invalide
+     */
+    private LigneValidee valider(long numero, LigneImportTache ligne) {
+        String titre = ligne.getTitre() == null ? "" : ligne.getTitre().trim();
+        if (titre.isEmpty()) {
+            throw new IllegalArgumentException("Le titre de la tâche est obligatoire");
+        }
+        if (titre.length() > LONGUEUR_MAX_TITRE) {
+            throw new IllegalArgumentException("Le titre dépasse " + LONGUEUR_MAX_TITRE + " caractères");
+        }
+        LocalDate dateDebut = lireDate(ligne.getDateDebut(), "dateDebut");
+        if (dateDebut == null) {
+            throw new IllegalArgumentException("La date de début est obligatoire");
+        }
+        LocalDate dateFin = lireDate(ligne.getDateFin(), "dateFin");
+        if (dateFin != null && dateFin.isBefore(dateDebut)) {
+            throw new IllegalArgumentException("La date de fin précède la date de début");
+        }
+
+        Tache tache = new Tache();
+        tache.setTitre(titre);
+        tache.setDescription(estVide(ligne.getDescription()) ? null : ligne.getDescription());
+        tache.setDateDebut(dateDebut);
+        tache.setDateFin(dateFin);
+        tache.setStatut(lireStatut(ligne.getStatut()));
+        return new LigneValidee(numero, tache, lireIdProjet(ligne.getIdProjet()));
+    }
+
+    private static LocalDate lireDate(String valeur, String champ) {
+        if (estVide(valeur)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valeur.trim());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Date invalide pour " + champ + ": " + valeur);
+        }
+    }
+
+    private static StatutTache lireStatut(String valeur) {
+        if (estVide(valeur)) {
+            return StatutTache.EN_ATTENTE;
+        }
+        try {
+            return StatutTache.valueOf(valeur.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Statut invalide: " + valeur);
+        }
+    }
+
+    private static Integer lireIdProjet(String valeur) {
+        if (estVide(valeur)) {
+            throw new IllegalArgumentException("L'ID du projet est obligatoire");
+        }
+        try {
+            return Integer.valueOf(valeur.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("ID de projet invalide: " + valeur);
+        }
+    }
+
+    private static boolean estVide(String valeur) {
+        return valeur == null || valeur.isBlank();
+    }
+
+    private static void rejeter(RapportImport rapport, long numero, String message) {
+        rapport.setLignesRejetees(rapport.getLignesRejetees() + 1);
+        if (rapport.getErreurs().size() < MAX_ERREURS_RAPPORTEES) {
+            rapport.getErreurs().add(new RapportImport.Erreur(numero, message));
+        }
+    }
+
+    private record LigneValidee(long numero, Tache tache, Integer idProjet) {
+    }
+}
@@ -1,21 +1,62 @@
 package gestion.projets.service;
 
+import gestion.projets.config.CacheConfig;
+import gestion.projets.config.PaginationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import gestion.projets.dto.AffectationDemande;
+import gestion.projets.dto.AffectationResultat;
+import gestion.projets.dto.AffectationResume;
+import gestion.projets.dto.CompteursRetard;
+import gestion.projets.dto.DependanceResume;
+import gestion.projets.dto.EmpreinteVersions;
+import gestion.projets.dto.PageCurseur;
+import gestion.projets.dto.TacheExport;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.DependanceEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.index.IndexPeriodes;
+import gestion.projets.index.IndexPlanning;
+import gestion.projets.index.IndexRecherche;
+import gestion.projets.index.IndexTachesEnRetard;
 import gestion.projets.model.Tache;
 import gestion.projets.model.Tache.StatutTache;
 import gestion.projets.model.Projet;
 import gestion.projets.model.Employe;
+import gestion.projets.model.DependanceTache;
 import gestion.projets.model.EmployeeTache;
 import gestion.projets.repository.TacheRepository;
 import gestion.projets.repository.ProjetRepository;
 import gestion.projets.repository.EmployeRepository;
 import gestion.projets.repository.EmployeeTacheRepository;
+import gestion.projets.repository.DependanceTacheRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 /**
  * Service pour la gestion des tâches
@@ -25,6 +66,27 @@ import java.util.Optional;
 @Transactional
 public class TacheService {
 
+    /**
+     * Nombre de tâches écrites entre deux vidages du contexte de persistance pendant l'export
+     */
+    private static final int TAILLE_LOT_EXPORT = 500;
+
+    /**
+     * Nombre maximum d'affectations acceptées par une demande d'affectation en masse
+     */
+    private static final int TAILLE_MAX_AFFECTATIONS = 10_000;
+
+    /**
+     * Taille des lots pour les clauses IN des affectations en masse
+     */
+    private static final int TAILLE_LOT_AFFECTATIONS = 1_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Autowired
     private TacheRepository tacheRepository;
 
@@ -37,47 +99,206 @@ public class TacheService {
     @Autowired
     private EmployeeTacheRepository employeeTacheRepository;
 
+    @Autowired
+    private PaginationProperties paginationProperties;
+
+    @Autowired
+    private IndexRecherche indexRecherche;
+
+    @Autowired
+    private ApplicationEventPublisher evenements;
+
+    @Autowired
+    private InsertionAffectations insertionAffectations;
+
+    @Autowired
+    private IndexTachesEnRetard indexTachesEnRetard;
+
+    @Autowired
+    private IndexPeriodes indexPeriodes;
+
+    @Autowired
+    private DependanceTacheRepository dependanceTacheRepository;
+
+    @Autowired
+    private IndexPlanning indexPlanning;
+
     /**
      * Récupère toutes les tâches
      * @return Liste de toutes les tâches
      */
+    @Transactional(readOnly = true)
     public List<Tache> getAllTaches() {
         return tacheRepository.findAll();
     }
 
+    /**
+     * Récupère le résumé de toutes les tâches (sans description)
+     * @return Liste des résumés
+     */
+    @Transactional(readOnly = true)
+    public List<TacheResume> getAllTachesResumes() {
+        return tacheRepository.findAllResumes();
+    }
+
+    /**
+     * Récupère une page de tâches à partir d'un curseur
+     * Chaque page est lue par un seek sur id_tache : son coût ne dépend pas de la profondeur
+     * @param curseur Curseur de la page précédente (null pour la première page)
+     * @param taille Nombre de tâches souhaité (taille par défaut si null)
+     * @return Page de tâches
+     */
+    @Transactional(readOnly = true)
+    public PageCurseur<Tache> getTachesPage(String curseur, Integer taille) {
+        int limite = paginationProperties.resoudreTaille(taille);
+        Integer apres = Curseurs.decoderEntier(curseur);
+        List<Tache> lignes = apres == null
+                ? tacheRepository.findAllByOrderByIdTacheAsc(Limit.of(limite + 1))
+                : tacheRepository.findByIdTacheGreaterThanOrderByIdTacheAsc(apres, Limit.of(limite + 1));
+        return Curseurs.page(lignes, limite, Tache::getIdTache);
+    }
+
+    /**
+     * Exporte toutes les tâches au format NDJSON (une tâche JSON par ligne)
+     * Les tâches sont lues via un curseur côté serveur et détachées après écriture,
+     * la mémoire utilisée ne dépend donc pas du nombre de tâches
+     * @param sortie Flux de sortie de la réponse
+     * @return Nombre de tâches exportées
+     */
+    @Transactional(readOnly = true)
+    public long exporterTaches(OutputStream sortie) throws IOException {
+        long total = 0;
+        List<Tache> lot = new ArrayList<>(TAILLE_LOT_EXPORT);
+        try (Stream<Tache> taches = tacheRepository.streamTachesPourExport()) {
+            Iterator<Tache> iterateur = taches.iterator();
+            while (iterateur.hasNext()) {
+                lot.add(iterateur.next());
+                if (lot.size() == TAILLE_LOT_EXPORT) {
+                    total += ecrireLotExport(lot, sortie);
+                }
+            }
+            total += ecrireLotExport(lot, sortie);
+        }
+        return total;
+    }
+
+    /**
+     * Écrit un lot de tâches avec leurs affectations (une requête par lot), puis les détache
+     * @param lot Tâches à écrire, vidé en sortie
+     * @param sortie Flux de sortie
+     * @return Nombre de tâches écrites
+     */
+    private int ecrireLotExport(List<Tache> lot, OutputStream sortie) throws IOException {
+        if (lot.isEmpty()) {
+            return 0;
+        }
+
+        List<Integer> ids = lot.stream().map(Tache::getIdTache).toList();
+        Map<Integer, List<TacheExport.Affectation>> affectations = new HashMap<>();
+        for (AffectationResume affectation : employeeTacheRepository.findAffectationsByTacheIds(ids)) {
+            affectations.computeIfAbsent(affectation.getIdTache(), k -> new ArrayList<>())
+                    .add(new TacheExport.Affectation(affectation.getMatricule(), affectation.getRole()));
+        }
+
+        for (Tache tache : lot) {
+            TacheExport ligne = TacheExport.de(tache, affectations.getOrDefault(tache.getIdTache(), List.of()));
+            sortie.write(objectMapper.writeValueAsBytes(ligne));
+            sortie.write('\n');
+        }
+        sortie.flush();
+
+        int ecrites = lot.size();
+        lot.clear();
+        entityManager.clear();
+        return ecrites;
+    }
+
     /**
      * Récupère une tâche par son ID
      * @param id ID de la tâche
      * @return Optional contenant la tâche si trouvée
      */
+    @Transactional(readOnly = true)
     public Optional<Tache> getTacheById(Integer id) {
         return tacheRepository.findById(id);
     }
 
+    /**
+     * Récupère la version d'une tâche sans la charger
+     * @param id ID de la tâche
+     * @return Optional contenant la version si la tâche existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Integer id) {
+        return tacheRepository.findVersionById(id);
+    }
+
+    /**
+     * Calcule l'empreinte des versions de toutes les tâches
+     * @return Nombre de tâches et somme des hachages (ID, version)
+     */
+    @Transactional(readOnly = true)
+    public EmpreinteVersions getEmpreinteVersions() {
+        return tacheRepository.findEmpreinteVersions();
+    }
+
+    /**
+     * Calcule l'empreinte des versions des tâches d'un projet
+     * @param idProjet ID du projet
+     * @return Nombre de tâches et somme des hachages (ID, version)
+     */
+    @Transactional(readOnly = true)
+    public EmpreinteVersions getEmpreinteVersionsByProjet(Integer idProjet) {
+        return tacheRepository.findEmpreinteVersionsByProjetId(idProjet);
+    }
+
     /**
      * Récupère toutes les tâches d'un projet
      * @param idProjet ID du projet
      * @return Liste des tâches du projet
      */
+    @Transactional(readOnly = true)
     public List<Tache> getTachesByProjet(Integer idProjet) {
         return tacheRepository.findByProjetIdProjet(idProjet);
     }
 
+    /**
+     * Récupère le résumé des tâches d'un projet
+     * @param idProjet ID du projet
+     * @return Liste des résumés
+     */
+    @Transactional(readOnly = true)
+    public List<TacheResume> getTachesResumesByProjet(Integer idProjet) {
+        return tacheRepository.findResumesByProjetId(idProjet);
+    }
+
     /**
      * Récupère les tâches par statut
      * @param statut Statut recherché
      * @return Liste des tâches
      */
+    @Transactional(readOnly = true)
     public List<Tache> getTachesByStatut(StatutTache statut) {
         return tacheRepository.findByStatut(statut);
     }
 
+    /**
+     * Récupère le résumé des tâches par statut
+     * @param statut Statut recherché
+     * @return Liste des résumés
+     */
+    @Transactional(readOnly = true)
+    public List<TacheResume> getTachesResumesByStatut(StatutTache statut) {
+        return tacheRepository.findResumesByStatut(statut);
+    }
+
     /**
      * Crée une nouvelle tâche
      * @param tache Tâche à créer
      * @param idProjet ID du projet auquel rattacher la tâche
      * @return Tâche créée
      */
+    @CacheEvict(cacheNames = CacheConfig.REPARTITION_STATUTS, allEntries = true)
     public Tache createTache(Tache tache, Integer idProjet) {
         Projet projet = projetRepository.findById(idProjet)
                 .orElseThrow(() -> new RuntimeException("Projet introuvable avec l'ID: " + idProjet));
@@ -88,18 +309,23 @@ public class TacheService {
         }
 
         tache.setProjet(projet);
-        return tacheRepository.save(tache);
+        Tache creee = tacheRepository.save(tache);
+        evenements.publishEvent(TacheEvenement.creee(creee));
+        return creee;
     }
 
     /**
      * Met à jour une tâche existante
      * @param id ID de la tâche à modifier
      * @param tacheDetails Nouvelles données de la tâche
+     * @param versionAttendue Version lue par le client (If-Match), null pour ne pas la contrôler
      * @return Tâche mise à jour
      */
-    public Tache updateTache(Integer id, Tache tacheDetails) {
+    @CacheEvict(cacheNames = CacheConfig.REPARTITION_STATUTS, allEntries = true)
+    public Tache updateTache(Integer id, Tache tacheDetails, Long versionAttendue) {
         Tache tache = tacheRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tâche introuvable avec l'ID: " + id));
+        Versions.verifier(Tache.class, id, versionAttendue, tache.getVersion());
 
         // Validation métier
         if (tacheDetails.getDateFin() != null &&
@@ -107,50 +333,74 @@ public class TacheService {
             throw new IllegalArgumentException("La date de fin ne peut pas être antérieure à la date de début");
         }
 
+        TacheInstantane avant = TacheInstantane.de(tache);
         tache.setTitre(tacheDetails.getTitre());
         tache.setDescription(tacheDetails.getDescription());
         tache.setDateDebut(tacheDetails.getDateDebut());
         tache.setDateFin(tacheDetails.getDateFin());
         tache.setStatut(tacheDetails.getStatut());
 
-        return tacheRepository.save(tache);
+        Tache modifiee = tacheRepository.save(tache);
+        evenements.publishEvent(TacheEvenement.modifiee(avant, modifiee,
+                employeeTacheRepository.findMatriculesByTacheId(id)));
+        return modifiee;
     }
 
     /**
      * Change le statut d'une tâche
+     * Les employés signalés avec l'événement sont lus dans la même transaction : une affectation ou un retrait
+     * validé entre-temps incrémente la version de la tâche, et l'UPDATE contrôlé par version échoue alors
      * @param id ID de la tâche
      * @param statut Nouveau statut
+     * @param versionAttendue Version lue par le client (If-Match), null pour ne pas la contrôler
      * @return Tâche mise à jour
      */
-    public Tache changeStatut(Integer id, StatutTache statut) {
+    @CacheEvict(cacheNames = CacheConfig.REPARTITION_STATUTS, allEntries = true)
+    public Tache changeStatut(Integer id, StatutTache statut, Long versionAttendue) {
         Tache tache = tacheRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Tâche introuvable avec l'ID: " + id));
+        Versions.verifier(Tache.class, id, versionAttendue, tache.getVersion());
 
+        TacheInstantane avant = TacheInstantane.de(tache);
         tache.setStatut(statut);
-        return tacheRepository.save(tache);
+        Tache modifiee = tacheRepository.save(tache);
+        evenements.publishEvent(TacheEvenement.statutModifie(avant, modifiee,
+                employeeTacheRepository.findMatriculesByTacheId(id)));
+        return modifiee;
     }
 
     /**
      * Supprime une tâche
+     * Ses affectations, supprimées avec elle, sont signalées comme retirées
+     * (la collection est de toute façon chargée pour la suppression en cascade)
      * @param id ID de la tâche à supprimer
      */
+    @CacheEvict(cacheNames = CacheConfig.REPARTITION_STATUTS, allEntries = true)
     public void deleteTache(Integer id) {
-        if (!tacheRepository.existsById(id)) {
-            throw new RuntimeException("Tâche introuvable avec l'ID: " + id);
+        Tache tache = tacheRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Tâche introuvable avec l'ID: " + id));
+        for (EmployeeTache affectation : tache.getAffectations()) {
+            evenements.publishEvent(AffectationEvenement.retiree(id, tache.getProjet().getIdProjet(),
+                    tache.getStatut(), affectation.getId().getMatricule(), tache.getVersion()));
         }
-        tacheRepository.deleteById(id);
+        evenements.publishEvent(TacheEvenement.supprimee(tache));
+        dependanceTacheRepository.deleteByTacheIdTacheOrPredecesseurIdTache(id, id);
+        tacheRepository.delete(tache);
     }
 
     /**
      * Assigne un employé à une tâche
+     * La version de la tâche est incrémentée au commit (UPDATE ... WHERE version = ?) : le statut signalé
+     * avec l'affectation est celui de la version lue, sinon la transaction échoue comme un changement concurrent
      * @param idTache ID de la tâche
      * @param matricule Matricule de l'employé
      * @param role Rôle de l'employé sur la tâche
      * @return EmployeeTache créé
      */
     public EmployeeTache assignerEmploye(Integer idTache, String matricule, String role) {
-        Tache tache = tacheRepository.findById(idTache)
+        Tache tache = tacheRepository.findByIdPourAffectation(idTache)
                 .orElseThrow(() -> new RuntimeException("Tâche introuvable avec l'ID: " + idTache));
+        Long versionLue = tache.getVersion();
 
         Employe employe = employeRepository.findById(matricule)
                 .orElseThrow(() -> new RuntimeException("Employé introuvable avec le matricule: " + matricule));
@@ -161,30 +411,315 @@ public class TacheService {
         }
 
         EmployeeTache affectation = new EmployeeTache(employe, tache, role);
-        return employeeTacheRepository.save(affectation);
+        EmployeeTache enregistree = employeeTacheRepository.save(affectation);
+        evenements.publishEvent(AffectationEvenement.affectee(idTache, tache.getProjet().getIdProjet(),
+                tache.getStatut(), matricule, versionLue));
+        return enregistree;
+    }
+
+    /**
+     * Assigne des employés à des tâches en une seule transaction
+     * Les tâches concernées sont verrouillées et leur version lue, puis leurs affectations existantes et les employés
+     * sont vérifiés par quelques requêtes ensemblistes ; les nouvelles affectations sont insérées par lots JDBC
+     * (voir InsertionAffectations) et la version de chaque tâche modifiée incrémentée, comme pour une
+     * affectation unitaire. Les événements portent la version lue sous le verrou, celle que l'écriture remplace.
+     * @param demandes Affectations demandées (tâche, employé, rôle)
+     * @return Résultat de chaque demande, dans l'ordre reçu
+     */
+    public List<AffectationResultat> assignerEmployesEnMasse(List<AffectationDemande> demandes) {
+        if (demandes.size() > TAILLE_MAX_AFFECTATIONS) {
+            throw new IllegalArgumentException("Au plus " + TAILLE_MAX_AFFECTATIONS + " affectations par demande");
+        }
+
+        Set<Integer> idsTaches = new HashSet<>();
+        Set<String> matricules = new HashSet<>();
+        for (AffectationDemande demande : demandes) {
+            if (demande != null && demande.getIdTache() != null && demande.getMatricule() != null) {
+                idsTaches.add(demande.getIdTache());
+                matricules.add(demande.getMatricule());
+            }
+        }
+
+        Map<Integer, Tache> taches = new HashMap<>();
+        Map<Integer, Long> versionsLues = new HashMap<>();
+        for (List<Integer> lot : decouper(new TreeSet<>(idsTaches))) {
+            for (Tache tache : tacheRepository.findPourAffectationsEnMasse(lot)) {
+                taches.put(tache.getIdTache(), tache);
+                versionsLues.put(tache.getIdTache(), tache.getVersion());
+            }
+        }
+        Set<String> employesExistants = new HashSet<>();
+        for (List<String> lot : decouper(matricules)) {
+            employesExistants.addAll(employeRepository.findMatriculesExistants(lot));
+        }
+
+        List<AffectationResultat> resultats = new ArrayList<>(demandes.size());
+        Map<EmployeeTache.EmployeeTacheId, AffectationDemande> candidates = new LinkedHashMap<>();
+        Set<EmployeeTache.EmployeeTacheId> vues = new HashSet<>();
+        for (AffectationDemande demande : demandes) {
+            if (demande == null || demande.getIdTache() == null || demande.getMatricule() == null) {
+                resultats.add(new AffectationResultat(demande != null ? demande.getIdTache() : null,
+                        demande != null ? demande.getMatricule() : null, AffectationResultat.Statut.INVALIDE));
+                continue;
+            }
+            AffectationResultat.Statut statut;
+            EmployeeTache.EmployeeTacheId id = new EmployeeTache.EmployeeTacheId(demande.getMatricule(), demande.getIdTache());
+            if (!vues.add(id)) {
+                statut = AffectationResultat.Statut.DOUBLON;
+            } else if (!taches.containsKey(demande.getIdTache())) {
+                statut = AffectationResultat.Statut.TACHE_INTROUVABLE;
+            } else if (!employesExistants.contains(demande.getMatricule())) {
+                statut = AffectationResultat.Statut.EMPLOYE_INTROUVABLE;
+            } else {
+                statut = AffectationResultat.Statut.CREEE;
+                candidates.put(id, demande);
+            }
+            resultats.add(new AffectationResultat(demande.getIdTache(), demande.getMatricule(), statut));
+        }
+
+        Set<EmployeeTache.EmployeeTacheId> dejaAffectees = new HashSet<>();
+        Set<Integer> tachesCandidates = new HashSet<>();
+        candidates.keySet().forEach(id -> tachesCandidates.add(id.getIdTache()));
+        for (List<Integer> lot : decouper(tachesCandidates)) {
+            for (AffectationResume affectation : employeeTacheRepository.findAffectationsByTacheIds(lot)) {
+                EmployeeTache.EmployeeTacheId id = new EmployeeTache.EmployeeTacheId(affectation.getMatricule(),
+                        affectation.getIdTache());
+                if (candidates.containsKey(id)) {
+                    dejaAffectees.add(id);
+                }
+            }
+        }
+        List<AffectationDemande> aInserer = new ArrayList<>();
+        candidates.forEach((id, demande) -> {
+            if (!dejaAffectees.contains(id)) {
+                aInserer.add(demande);
+            }
+        });
+        // Couple inséré entre-temps par une transaction qui n'a pas encore incrémenté la version de sa tâche
+        dejaAffectees.addAll(insertionAffectations.inserer(aInserer));
+        for (AffectationResultat resultat : resultats) {
+            if (resultat.getStatut() == AffectationResultat.Statut.CREEE && dejaAffectees.contains(
+                    new EmployeeTache.EmployeeTacheId(resultat.getMatricule(), resultat.getIdTache()))) {
+                resultat.setStatut(AffectationResultat.Statut.DEJA_AFFECTE);
+            }
+        }
+
+        Set<Integer> tachesModifiees = new HashSet<>();
+        for (AffectationDemande demande : aInserer) {
+            Tache tache = taches.get(demande.getIdTache());
+            if (tachesModifiees.add(tache.getIdTache())) {
+                // Tâche déjà verrouillée : la version est incrémentée tout de suite, l'entité porte la nouvelle
+                entityManager.lock(tache, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            }
+            evenements.publishEvent(AffectationEvenement.affectee(tache.getIdTache(), tache.getProjet().getIdProjet(),
+                    tache.getStatut(), demande.getMatricule(), versionsLues.get(tache.getIdTache())));
+        }
+        return resultats;
+    }
+
+    /**
+     * Découpe un ensemble en lots de TAILLE_LOT_AFFECTATIONS éléments (clauses IN bornées)
+     */
+    private static <T> List<List<T>> decouper(Collection<T> valeurs) {
+        List<T> liste = new ArrayList<>(valeurs);
+        List<List<T>> lots = new ArrayList<>();
+        for (int i = 0; i < liste.size(); i += TAILLE_LOT_AFFECTATIONS) {
+            lots.add(liste.subList(i, Math.min(i + TAILLE_LOT_AFFECTATIONS, liste.size())));
+        }
+        return lots;
     }
 
     /**
      * Retire un employé d'une tâche
+     * Comme une affectation, le retrait incrémente la version de la tâche au commit
      * @param idTache ID de la tâche
      * @param matricule Matricule de l'employé
      */
     public void retirerEmploye(Integer idTache, String matricule) {
         EmployeeTache.EmployeeTacheId id = new EmployeeTache.EmployeeTacheId(matricule, idTache);
 
-        if (!employeeTacheRepository.existsById(id)) {
-            throw new RuntimeException("Affectation introuvable");
+        Tache tache = tacheRepository.findByIdPourAffectation(idTache)
+                .orElseThrow(() -> new RuntimeException("Affectation introuvable"));
+        Long versionLue = tache.getVersion();
+        EmployeeTache affectation = employeeTacheRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Affectation introuvable"));
+
+        employeeTacheRepository.delete(affectation);
+        evenements.publishEvent(AffectationEvenement.retiree(idTache, tache.getProjet().getIdProjet(),
+                tache.getStatut(), matricule, versionLue));
+    }
+
+    /**
+     * Ajoute une dépendance : la tâche ne peut commencer qu'une fois le prédécesseur terminé
+     * Le projet est verrouillé pendant la vérification : deux ajouts concurrents ne peuvent pas former un cycle.
+     * Le cycle est recherché dans le graphe de l'index de planification, à partir de la tâche et sans
+     * charger les autres dépendances ; celles du projet ne sont lues en base que si l'index ne peut pas répondre.
+     * @param idTache ID de la tâche dépendante
+     * @param idPredecesseur ID du prédécesseur
+     * @return Clé de la dépendance créée
+     * @throws IllegalArgumentException si les tâches ne sont pas du même projet, si la dépendance existe
+     * ou si elle créerait un cycle
+     */
+    public DependanceTache.DependanceTacheId ajouterPredecesseur(Integer idTache, Integer idPredecesseur) {
+        if (idTache.equals(idPredecesseur)) {
+            throw new IllegalArgumentException("Une tâche ne peut pas dépendre d'elle-même");
+        }
+        Tache tache = tacheRepository.findById(idTache)
+                .orElseThrow(() -> new RuntimeException("Tâche introuvable avec l'ID: " + idTache));
+        Tache predecesseur = tacheRepository.findById(idPredecesseur)
+                .orElseThrow(() -> new RuntimeException("Tâche introuvable avec l'ID: " + idPredecesseur));
+        Integer idProjet = tache.getProjet().getIdProjet();
+        if (!idProjet.equals(predecesseur.getProjet().getIdProjet())) {
+            throw new IllegalArgumentException("Les deux tâches doivent appartenir au même projet");
+        }
+
+        projetRepository.findByIdVerrouille(idProjet);
+        DependanceTache.DependanceTacheId id = new DependanceTache.DependanceTacheId(idTache, idPredecesseur);
+        if (dependanceTacheRepository.existsById(id)) {
+            throw new IllegalArgumentException("Cette dépendance existe déjà");
+        }
+        Boolean cycle = indexPlanning.creeraitUnCycle(idProjet, idTache, idPredecesseur);
+        if (cycle == null) {
+            cycle = atteint(dependanceTacheRepository.findResumesByProjetId(idProjet), idTache, idPredecesseur);
+        }
+        if (cycle) {
+            throw new IllegalArgumentException("Cette dépendance créerait un cycle");
+        }
+
+        dependanceTacheRepository.save(new DependanceTache(tache, predecesseur));
+        // Prise en compte par les vérifications suivantes avant même que l'index ne reçoive l'événement
+        indexPlanning.reserver(idProjet, idTache, idPredecesseur);
+        evenements.publishEvent(DependanceEvenement.ajoutee(idProjet, idTache, idPredecesseur));
+        return id;
+    }
+
+    /**
+     * @return true si la tâche cible suit, directement ou non, la tâche de départ
+     */
+    private static boolean atteint(List<DependanceResume> dependances, Integer depart, Integer cible) {
+        Map<Integer, List<Integer>> successeurs = new HashMap<>();
+        for (DependanceResume dependance : dependances) {
+            successeurs.computeIfAbsent(dependance.getIdPredecesseur(), id -> new ArrayList<>()).add(dependance.getIdTache());
         }
+        Set<Integer> vues = new HashSet<>(Set.of(depart));
+        List<Integer> aVisiter = new ArrayList<>(vues);
+        while (!aVisiter.isEmpty()) {
+            Integer courante = aVisiter.remove(aVisiter.size() - 1);
+            if (courante.equals(cible)) {
+                return true;
+            }
+            for (Integer suivante : successeurs.getOrDefault(courante, List.of())) {
+                if (vues.add(suivante)) {
+                    aVisiter.add(suivante);
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Retire une dépendance
+     * @param idTache ID de la tâche dépendante
+     * @param idPredecesseur ID du prédécesseur
+     */
+    public void retirerPredecesseur(Integer idTache, Integer idPredecesseur) {
+        DependanceTache dependance = dependanceTacheRepository
+                .findById(new DependanceTache.DependanceTacheId(idTache, idPredecesseur))
+                .orElseThrow(() -> new RuntimeException("Dépendance introuvable"));
+        Integer idProjet = dependance.getTache().getProjet().getIdProjet();
+        dependanceTacheRepository.delete(dependance);
+        evenements.publishEvent(DependanceEvenement.retiree(idProjet, idTache, idPredecesseur));
+    }
 
-        employeeTacheRepository.deleteById(id);
+    /**
+     * Récupère les prédécesseurs d'une tâche
+     * @param idTache ID de la tâche
+     * @return IDs des prédécesseurs
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> getPredecesseurs(Integer idTache) {
+        if (!tacheRepository.existsById(idTache)) {
+            throw new RuntimeException("Tâche introuvable avec l'ID: " + idTache);
+        }
+        return dependanceTacheRepository.findIdsPredecesseurs(idTache);
     }
 
     /**
      * Récupère les tâches en retard
+     * Les IDs viennent de l'index des retards dès qu'il est construit, les tâches sont chargées par clé
      * @return Liste des tâches en retard
      */
+    @Transactional(readOnly = true)
     public List<Tache> getTachesEnRetard() {
-        return tacheRepository.findTachesEnRetard(LocalDate.now());
+        if (!indexTachesEnRetard.isPret()) {
+            return tacheRepository.findTachesEnRetard(LocalDate.now());
+        }
+        List<Integer> ids = indexTachesEnRetard.getTachesEnRetard().stream().map(TacheResume::getIdTache).toList();
+        Map<Integer, Tache> parId = new HashMap<>();
+        for (List<Integer> lot : decouper(ids)) {
+            tacheRepository.findAllById(lot).forEach(t -> parId.put(t.getIdTache(), t));
+        }
+        return ids.stream().map(parId::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Récupère le résumé des tâches en retard, servi depuis l'index des retards sans accès à la base
+     * @return Liste des résumés, de l'échéance la plus ancienne à la plus récente
+     */
+    @Transactional(readOnly = true)
+    public List<TacheResume> getTachesResumesEnRetard() {
+        if (!indexTachesEnRetard.isPret()) {
+            return tacheRepository.findResumesEnRetard(LocalDate.now());
+        }
+        return indexTachesEnRetard.getTachesEnRetard();
+    }
+
+    /**
+     * Récupère le nombre de tâches en retard, au total, par projet et par employé
+     * @return Compteurs des retards
+     * @throws IllegalStateException si l'index des retards n'est pas encore construit
+     */
+    @Transactional(readOnly = true)
+    public CompteursRetard getCompteursRetard() {
+        if (!indexTachesEnRetard.isPret()) {
+            throw new IllegalStateException("L'index des tâches en retard est en cours de construction");
+        }
+        return indexTachesEnRetard.getCompteurs();
+    }
+
+    /**
+     * Récupère les tâches dont la période chevauche [dateDebut, dateFin] (dateFin null : tâche en cours)
+     * Les IDs viennent de l'index des périodes dès qu'il est construit, les tâches sont chargées par clé
+     * @param dateDebut Début de la période
+     * @param dateFin Fin de la période, null pour une période sans fin
+     * @return Liste des tâches, par date de début
+     * @throws IllegalArgumentException si la date de fin précède la date de début
+     */
+    @Transactional(readOnly = true)
+    public List<Tache> getTachesChevauchant(LocalDate dateDebut, LocalDate dateFin) {
+        Periodes.verifier(dateDebut, dateFin);
+        if (!indexPeriodes.isPret()) {
+            return tacheRepository.findChevauchant(dateDebut, Periodes.finEnBase(dateFin));
+        }
+        return Periodes.charger(indexPeriodes.getTachesChevauchant(dateDebut, dateFin),
+                tacheRepository::findAllById, Tache::getIdTache);
+    }
+
+    /**
+     * Récupère le résumé des tâches dont la période chevauche [dateDebut, dateFin]
+     * @param dateDebut Début de la période
+     * @param dateFin Fin de la période, null pour une période sans fin
+     * @return Liste des résumés, par date de début
+     * @throws IllegalArgumentException si la date de fin précède la date de début
+     */
+    @Transactional(readOnly = true)
+    public List<TacheResume> getTachesResumesChevauchant(LocalDate dateDebut, LocalDate dateFin) {
+        Periodes.verifier(dateDebut, dateFin);
+        if (!indexPeriodes.isPret()) {
+            return tacheRepository.findResumesChevauchant(dateDebut, Periodes.finEnBase(dateFin));
+        }
+        return Periodes.charger(indexPeriodes.getTachesChevauchant(dateDebut, dateFin),
+                tacheRepository::findResumesByIds, TacheResume::getIdTache);
     }
 
     /**
@@ -192,16 +727,36 @@ public class TacheService {
      * @param matricule Matricule de l'employé
      * @return Liste des tâches
      */
+    @Transactional(readOnly = true)
     public List<Tache> getTachesByEmploye(String matricule) {
         return tacheRepository.findTachesByEmployeMatricule(matricule);
     }
 
     /**
-     * Recherche des tâches par titre
-     * @param titre Titre ou partie du titre
-     * @return Liste des tâches correspondantes
+     * Récupère le résumé des tâches d'un employé
+     * @param matricule Matricule de l'employé
+     * @return Liste des résumés
      */
-    public List<Tache> searchTachesByTitre(String titre) {
-        return tacheRepository.findByTitreContainingIgnoreCase(titre);
+    @Transactional(readOnly = true)
+    public List<TacheResume> getTachesResumesByEmploye(String matricule) {
+        return tacheRepository.findResumesByEmployeMatricule(matricule);
+    }
+
+    /**
+     * Recherche des tâches par titre ou description dans l'index de trigrammes, qui fournit aussi leur résumé
+     * Tant que l'index n'est pas construit, la recherche se fait par titre en base
+     * @param terme Terme recherché
+     * @param limite Nombre maximum de résultats
+     * @return Résumés des tâches, de la plus pertinente à la moins pertinente
+     */
+    @Transactional(readOnly = true)
+    public List<TacheResume> searchTaches(String terme, int limite) {
+        if (limite <= 0) {
+            return List.of();
+        }
+        if (!indexRecherche.isPret()) {
+            return tacheRepository.findResumesByTitreContenant(terme, Limit.of(limite));
+        }
+        return indexRecherche.rechercherTaches(terme, limite);
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package gestion.projets.service;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+/**
+ * Contrôle de la version attendue par le client (en-tête If-Match) avant une modification
+ * Une modification concurrente entre la lecture et l'écriture est ensuite détectée par Hibernate
+ * (UPDATE ... WHERE version = ?) : aucune ligne n'est verrouillée.
+ */
+final class Versions {
+
+    private Versions() {
+    }
+
+    /**
+     * @param type Type de l'entité modifiée
+     * @param id Identifiant de l'entité
+     * @param attendue Version attendue par le client (null : pas de contrôle)
+     * @param actuelle Version lue
+     * @throws ObjectOptimisticLockingFailureException si les versions diffèrent
+     */
+    static void verifier(Class<?> type, Object id, Long attendue, Long actuelle) {
+        if (attendue != null && !attendue.equals(actuelle)) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package ma.projet.classes;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.List;
@@ -18,5 +19,8 @@ public class Categorie {
     private String libelle;
 
     @OneToMany(mappedBy = "categorie", cascade = CascadeType.ALL)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<Produit> produits;
 }
\ No newline at end of file
@@ -5,7 +5,9 @@ import lombok.*;
 import java.util.Date;
 import java.util.List;
 
+// Index déclaré aussi dans les migrations (db/migration)
 @Entity
+@Table(indexes = @Index(name = "idx_commande_date", columnList = "date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,5 +21,7 @@ public class Commande {
     private Date date;
 
     @OneToMany(mappedBy = "commande", cascade = CascadeType.ALL)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<LigneCommandeProduit> lignesCommande;
 }
\ No newline at end of file
@@ -1,9 +1,15 @@
 package ma.projet.classes;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
+// Un index par sens de parcours (produit vers commandes, commande vers produits), déclarés aussi dans db/migration
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_ligne_produit_commande", columnList = "produit_id, commande_id"),
+        @Index(name = "idx_ligne_commande_produit", columnList = "commande_id, produit_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,7 +25,10 @@ public class LigneCommandeProduit {
     @JoinColumn(name = "produit_id")
     private Produit produit;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "commande_id")
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Commande commande;
 }
\ No newline at end of file
@@ -1,10 +1,13 @@
 package ma.projet.classes;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.util.List;
 
+// Index déclaré aussi dans les migrations (db/migration)
 @Entity
+@Table(indexes = @Index(name = "idx_produit_prix", columnList = "prix"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -22,5 +25,8 @@ public class Produit {
     private Categorie categorie;
 
     @OneToMany(mappedBy = "produit", cascade = CascadeType.ALL)
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private List<LigneCommandeProduit> lignesCommande;
 }
\ No newline at end of file
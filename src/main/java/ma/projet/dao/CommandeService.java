@@ -1,9 +1,22 @@
 package ma.projet.dao;
 
 import ma.projet.classes.Commande;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CommandeService extends JpaRepository<Commande, Integer> {
+
+    // Lignes, produits et catégories sont sérialisés avec la commande : chargés en une seule requête
+    @Override
+    @EntityGraph(attributePaths = {"lignesCommande", "lignesCommande.produit", "lignesCommande.produit.categorie"})
+    List<Commande> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"lignesCommande", "lignesCommande.produit", "lignesCommande.produit.categorie"})
+    Optional<Commande> findById(Integer id);
 }
\ No newline at end of file
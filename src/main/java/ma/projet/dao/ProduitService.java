@@ -1,37 +1,49 @@
 package ma.projet.dao;
 
 import ma.projet.classes.Produit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProduitService extends JpaRepository<Produit, Integer> {
 
+    // La catégorie (relation EAGER) est chargée par jointure, et non par une requête par produit
+    @Override
+    @EntityGraph(attributePaths = "categorie")
+    List<Produit> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "categorie")
+    Optional<Produit> findById(Integer id);
+
     // Trouver les produits commandés entre deux dates
-    @Query("SELECT DISTINCT p FROM Produit p " +
-            "JOIN p.lignesCommande lc " +
-            "JOIN lc.commande c " +
-            "WHERE c.date BETWEEN :startDate AND :endDate")
+    // Semi-jointure : parcours de idx_commande_date puis des lignes par commande, sans DISTINCT sur les produits
+    @Query("SELECT p FROM Produit p " +
+            "LEFT JOIN FETCH p.categorie " +
+            "WHERE p.id IN (SELECT lc.produit.id FROM LigneCommandeProduit lc " +
+            "WHERE lc.commande.date BETWEEN :startDate AND :endDate)")
     List<Produit> findProduitsCommandesEntreDates(
             @Param("startDate") Date startDate,
             @Param("endDate") Date endDate
     );
 
     // Trouver les produits par catégorie
-    @Query("SELECT p FROM Produit p WHERE p.categorie.id = :categorieId")
+    @Query("SELECT p FROM Produit p JOIN FETCH p.categorie c WHERE c.id = :categorieId")
     List<Produit> findProduitsByCategorie(@Param("categorieId") int categorieId);
 
     // Trouver les produits avec prix > 100 DH
-    @Query("SELECT p FROM Produit p WHERE p.prix > 100")
+    @Query("SELECT p FROM Produit p LEFT JOIN FETCH p.categorie WHERE p.prix > 100")
     List<Produit> findProduitsAvecPrixSuperieurA100();
 
-    // Trouver les produits commandés dans une commande donnée
+    // Trouver les produits commandés dans une commande donnée (semi-jointure sur idx_ligne_commande_produit)
     @Query("SELECT p FROM Produit p " +
-            "JOIN p.lignesCommande lc " +
-            "WHERE lc.commande.id = :commandeId")
+            "LEFT JOIN FETCH p.categorie " +
+            "WHERE p.id IN (SELECT lc.produit.id FROM LigneCommandeProduit lc WHERE lc.commande.id = :commandeId)")
     List<Produit> findProduitsByCommande(@Param("commandeId") int commandeId);
 }
\ No newline at end of file
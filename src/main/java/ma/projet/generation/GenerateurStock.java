@@ -0,0 +1,176 @@
+package ma.projet.generation;
+
+import gestion.projets.generation.GenerationProperties;
+import gestion.projets.generation.InsertionsParLots;
+import gestion.projets.generation.TirageAleatoire;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Générateur de données synthétiques de la gestion de stock (profil "generation")
+ * Remplace l'ancien jeu de données codé en dur. Remplit Categorie, Produit, Commande et
+ * LigneCommandeProduit par insertions JDBC en lots : tailles de catégories et popularité des produits
+ * selon une loi de Zipf, prix log-normaux, commandes en croissance avec moins d'activité le week-end.
+ */
+@Component
+@Profile("generation")
+@EnableConfigurationProperties(GenerationProperties.class)
+public class GenerateurStock implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(GenerateurStock.class);
+
+    private static final String[] FAMILLES = {"Ordinateurs", "Imprimantes", "Écrans", "Réseau", "Stockage",
+            "Accessoires", "Téléphonie", "Audio", "Logiciels", "Mobilier"};
+
+    /**
+     * Nombre maximum de lignes dans une commande
+     */
+    private static final int MAX_LIGNES_PAR_COMMANDE = 20;
+
+    @Autowired
+    private GenerationProperties proprietes;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (proprietes.isVider()) {
+            vider();
+        } else if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categorie", Long.class) > 0) {
+            log.warn("Génération ignorée : la base de la gestion de stock contient déjà des données (generation.vider=false)");
+            return;
+        }
+
+        GenerationProperties.Stock volumes = proprietes.getStock();
+        TirageAleatoire tirage = new TirageAleatoire(proprietes.getGraine());
+        long debut = System.nanoTime();
+
+        genererCategories(volumes.getCategories());
+        genererProduits(tirage.scinder(), volumes);
+        long lignes = genererCommandes(tirage.scinder(), volumes, proprietes.dateReferenceOuAujourdhui());
+
+        realignerIdentites();
+        entityManagerFactory.getCache().evictAll();
+
+        log.info("Gestion de stock générée : {} catégories, {} produits, {} commandes, {} lignes en {} ms",
+                volumes.getCategories(), volumes.getProduits(), volumes.getCommandes(), lignes,
+                (System.nanoTime() - debut) / 1_000_000);
+    }
+
+    private void genererCategories(int nombre) {
+        try (InsertionsParLots insertions = new InsertionsParLots(jdbcTemplate,
+                "INSERT INTO categorie (id, code, libelle) VALUES (?, ?, ?)", proprietes.getTailleLot())) {
+            for (int i = 0; i < nombre; i++) {
+                String famille = FAMILLES[i % FAMILLES.length];
+                insertions.ajouter(i + 1, "CAT" + (i + 1), i < FAMILLES.length ? famille : famille + " " + (i / FAMILLES.length + 1));
+            }
+        }
+    }
+
+    private void genererProduits(TirageAleatoire tirage, GenerationProperties.Stock volumes) {
+        TirageAleatoire.Zipf tailleCategories = new TirageAleatoire.Zipf(volumes.getCategories(), 1.0);
+        // Gamme de prix propre à chaque catégorie, puis dispersion des produits autour de celle-ci
+        double[] prixMedian = new double[volumes.getCategories()];
+        for (int c = 0; c < prixMedian.length; c++) {
+            prixMedian[c] = tirage.logNormale(80, 1.0);
+        }
+
+        try (InsertionsParLots insertions = new InsertionsParLots(jdbcTemplate,
+                "INSERT INTO produit (id, reference, prix, categorie_id) VALUES (?, ?, ?, ?)", proprietes.getTailleLot())) {
+            for (int i = 0; i < volumes.getProduits(); i++) {
+                int categorie = tailleCategories.tirer(tirage);
+                double prix = Math.max(1, Math.round(tirage.logNormale(prixMedian[categorie], 0.5) * 100) / 100.0);
+                insertions.ajouter(i + 1, String.format("P%07d", i + 1), prix, categorie + 1);
+            }
+        }
+    }
+
+    /**
+     * Génère les commandes des trois dernières années et leurs lignes
+     * @return Nombre de lignes de commande créées
+     */
+    private long genererCommandes(TirageAleatoire tirage, GenerationProperties.Stock volumes, LocalDate aujourdhui) {
+        TirageAleatoire.Zipf popularite = new TirageAleatoire.Zipf(volumes.getProduits(), 1.1);
+        int jours = 3 * 365;
+        LocalDate origine = aujourdhui.minusDays(jours);
+        Set<Integer> commandes = new HashSet<>();
+        long idLigne = 0;
+
+        try (InsertionsParLots entetes = new InsertionsParLots(jdbcTemplate,
+                "INSERT INTO commande (id, date) VALUES (?, ?)", proprietes.getTailleLot());
+             InsertionsParLots lignes = new InsertionsParLots(jdbcTemplate,
+                     "INSERT INTO ligne_commande_produit (id, quantite, produit_id, commande_id) VALUES (?, ?, ?, ?)",
+                     proprietes.getTailleLot()).apres(entetes)) {
+            for (int i = 0; i < volumes.getCommandes(); i++) {
+                LocalDate date = dateCommande(tirage, origine, jours);
+                int idCommande = i + 1;
+                entetes.ajouter(idCommande, Date.valueOf(date));
+
+                commandes.clear();
+                int nombre = Math.min(MAX_LIGNES_PAR_COMMANDE, 1 + tirage.geometrique(volumes.getLignesParCommande() - 1));
+                for (int l = 0; l < nombre; l++) {
+                    int produit = popularite.tirer(tirage);
+                    if (commandes.add(produit)) {
+                        lignes.ajouter(++idLigne, 1 + tirage.geometrique(2), produit + 1, idCommande);
+                    }
+                }
+            }
+        }
+        return idLigne;
+    }
+
+    /**
+     * Date de commande : activité croissante sur la période (densité linéaire), réduite de moitié le week-end
+     */
+    private static LocalDate dateCommande(TirageAleatoire tirage, LocalDate origine, int jours) {
+        while (true) {
+            int jour = (int) Math.floor(Math.sqrt(tirage.reel()) * jours);
+            LocalDate date = origine.plusDays(jour);
+            boolean weekEnd = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            if (!weekEnd || tirage.probabilite(0.5)) {
+                return date;
+            }
+        }
+    }
+
+    /**
+     * Les IDs ont été fixés explicitement : MySQL avance AUTO_INCREMENT de lui-même,
+     * H2 (profil "h2") doit être repositionné après le plus grand ID
+     */
+    private void realignerIdentites() {
+        String base = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(base)) {
+            return;
+        }
+        for (String table : new String[]{"categorie", "produit", "commande", "ligne_commande_produit"}) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (max + 1));
+        }
+    }
+
+    private void vider() {
+        jdbcTemplate.update("DELETE FROM ligne_commande_produit");
+        jdbcTemplate.update("DELETE FROM commande");
+        jdbcTemplate.update("DELETE FROM produit");
+        jdbcTemplate.update("DELETE FROM categorie");
+    }
+}
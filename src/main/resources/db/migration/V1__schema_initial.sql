@@ -0,0 +1,95 @@
+-- Schéma d'origine des deux applications (gestion de projets et stock), tel que créé par ddl-auto=update
+-- CREATE TABLE IF NOT EXISTS : rejouable sur une base existante (marquée en version 0 par baseline-on-migrate),
+-- qui reçoit alors seulement les tables qui lui manquent
+
+-- Gestion de projets
+
+CREATE TABLE IF NOT EXISTS sequence_id (
+    nom_sequence    VARCHAR(255) NOT NULL,
+    valeur_suivante BIGINT,
+    PRIMARY KEY (nom_sequence)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS projet (
+    id_projet   INTEGER      NOT NULL,
+    nom         VARCHAR(100) NOT NULL,
+    description TEXT,
+    date_debut  DATE         NOT NULL,
+    date_fin    DATE,
+    version     BIGINT       NOT NULL,
+    PRIMARY KEY (id_projet)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS tache (
+    id_tache    INTEGER      NOT NULL,
+    titre       VARCHAR(100) NOT NULL,
+    description TEXT,
+    date_debut  DATE         NOT NULL,
+    date_fin    DATE,
+    statut      ENUM ('EN_ATTENTE', 'EN_COURS', 'TERMINEE'),
+    version     BIGINT       NOT NULL,
+    id_projet   INTEGER      NOT NULL,
+    PRIMARY KEY (id_tache),
+    CONSTRAINT fk_tache_projet FOREIGN KEY (id_projet) REFERENCES projet (id_projet)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS employe (
+    matricule VARCHAR(20)  NOT NULL,
+    nom       VARCHAR(50)  NOT NULL,
+    prenom    VARCHAR(50)  NOT NULL,
+    email     VARCHAR(100) NOT NULL,
+    version   BIGINT       NOT NULL,
+    PRIMARY KEY (matricule),
+    CONSTRAINT uk_employe_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS employee_tache (
+    id_tache  INTEGER      NOT NULL,
+    matricule VARCHAR(255) NOT NULL,
+    role      VARCHAR(50),
+    PRIMARY KEY (id_tache, matricule),
+    CONSTRAINT fk_affectation_tache FOREIGN KEY (id_tache) REFERENCES tache (id_tache),
+    CONSTRAINT fk_affectation_employe FOREIGN KEY (matricule) REFERENCES employe (matricule)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS dependance_tache (
+    id_tache        INTEGER NOT NULL,
+    id_predecesseur INTEGER NOT NULL,
+    PRIMARY KEY (id_predecesseur, id_tache),
+    CONSTRAINT fk_dependance_tache FOREIGN KEY (id_tache) REFERENCES tache (id_tache),
+    CONSTRAINT fk_dependance_predecesseur FOREIGN KEY (id_predecesseur) REFERENCES tache (id_tache)
+) ENGINE = InnoDB;
+
+-- Stock
+
+CREATE TABLE IF NOT EXISTS categorie (
+    id      INTEGER NOT NULL AUTO_INCREMENT,
+    code    VARCHAR(255),
+    libelle VARCHAR(255),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS produit (
+    id           INTEGER   NOT NULL AUTO_INCREMENT,
+    reference    VARCHAR(255),
+    prix         FLOAT(53) NOT NULL,
+    categorie_id INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_produit_categorie FOREIGN KEY (categorie_id) REFERENCES categorie (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS commande (
+    id   INTEGER NOT NULL AUTO_INCREMENT,
+    date DATE,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS ligne_commande_produit (
+    id          INTEGER NOT NULL AUTO_INCREMENT,
+    quantite    INTEGER NOT NULL,
+    produit_id  INTEGER,
+    commande_id INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_ligne_produit FOREIGN KEY (produit_id) REFERENCES produit (id),
+    CONSTRAINT fk_ligne_commande FOREIGN KEY (commande_id) REFERENCES commande (id)
+) ENGINE = InnoDB;
@@ -0,0 +1,131 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.Configuration;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.flywaydb.core.api.migration.Context;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrations sur une base créée par ddl-auto=update avant leur introduction (H2 en mode MySQL) :
+ * sans colonnes version et avec une partie des index, que V2 et V3 complètent
+ * Le SQL des migrations (V1, et les instructions de V2 et V3) est accepté à l'identique par MySQL et par H2 :
+ * ces tests, exécutés à chaque build, couvrent les mêmes cas que MigrationsMysqlTests (profil Maven "mysql").
+ */
+class MigrationsTests {
+
+    private static final List<String> INDEX = List.of(
+            "idx_tache_periode", "idx_tache_projet_statut", "idx_tache_statut_fin", "idx_tache_fin_statut",
+            "idx_projet_periode", "idx_projet_fin", "idx_affectation_tache", "idx_affectation_employe",
+            "idx_dependance_tache", "idx_commande_date", "idx_produit_prix",
+            "idx_ligne_produit_commande", "idx_ligne_commande_produit");
+
+    @Test
+    void baseExistanteCompleteeParV2EtV3() {
+        DataSource source = source("migrations-base-existante");
+        JdbcTemplate jdbc = new JdbcTemplate(source);
+        flyway(source).target("1").load().migrate();
+        // État d'une base créée par Hibernate avant l'ajout des colonnes version, avec un index déjà présent
+        for (String table : List.of("projet", "tache", "employe")) {
+            jdbc.execute("ALTER TABLE " + table + " DROP COLUMN version");
+        }
+        jdbc.execute("CREATE INDEX idx_tache_periode ON tache (date_debut, date_fin)");
+        jdbc.update("INSERT INTO projet (id_projet, nom, date_debut) VALUES (1, 'Existant', DATE '2024-01-01')");
+
+        assertEquals(2, flyway(source).load().migrate().migrationsExecuted);
+
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM projet WHERE id_projet = 1", Long.class));
+        assertEquals(3, jdbc.queryForObject("SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE column_name = 'version' AND table_name IN ('projet', 'tache', 'employe')", Integer.class));
+        assertEquals(INDEX.size(), jdbc.queryForObject("SELECT COUNT(DISTINCT index_name) FROM information_schema.indexes "
+                + "WHERE index_name LIKE 'idx\\_%'", Integer.class));
+    }
+
+    @Test
+    void baseSansHistoriqueAmeneeAuMemeSchema() {
+        DataSource reference = source("migrations-reference");
+        assertEquals(3, flyway(reference).load().migrate().migrationsExecuted);
+
+        DataSource source = source("migrations-sans-historique");
+        JdbcTemplate jdbc = new JdbcTemplate(source);
+        // Base créée par ddl-auto=update avant Flyway : tables de V1, sans colonnes version,
+        // avec les deux index alors déclarés par les entités, sans historique des migrations
+        flyway(source).target("1").load().migrate();
+        jdbc.execute("DROP TABLE flyway_schema_history");
+        for (String table : List.of("projet", "tache", "employe")) {
+            jdbc.execute("ALTER TABLE " + table + " DROP COLUMN version");
+        }
+        jdbc.execute("CREATE INDEX idx_tache_periode ON tache (date_debut, date_fin)");
+        jdbc.execute("CREATE INDEX idx_projet_periode ON projet (date_debut, date_fin)");
+        jdbc.update("INSERT INTO projet (id_projet, nom, date_debut) VALUES (1, 'Existant', DATE '2024-01-01')");
+
+        assertEquals(3, flyway(source).baselineOnMigrate(true).baselineVersion("0").load().migrate().migrationsExecuted);
+
+        JdbcTemplate jdbcReference = new JdbcTemplate(reference);
+        assertTrue(colonnes(jdbcReference).stream().anyMatch(c -> c.startsWith("tache.version bigint")));
+        assertEquals(colonnes(jdbcReference), colonnes(jdbc));
+        assertEquals(index(jdbcReference), index(jdbc));
+        assertEquals(INDEX.size(), index(jdbc).stream().map(i -> i.substring(0, i.indexOf(' '))).distinct().count());
+        assertEquals(0L, jdbc.queryForObject("SELECT version FROM projet WHERE id_projet = 1", Long.class));
+    }
+
+    @Test
+    void migrationsSansEffetSurUneBaseAJour() throws Exception {
+        DataSource source = source("migrations-base-a-jour");
+        assertEquals(3, flyway(source).load().migrate().migrationsExecuted);
+
+        // Rejouées sur un schéma complet, V2 et V3 ne recréent rien
+        try (Connection connexion = source.getConnection()) {
+            Context contexte = new Context() {
+                public Configuration getConfiguration() {
+                    return null;
+                }
+
+                public Connection getConnection() {
+                    return connexion;
+                }
+            };
+            new V2__index_secondaires().migrate(contexte);
+            new V3__colonnes_version().migrate(contexte);
+        }
+        assertEquals(0, flyway(source).load().migrate().migrationsExecuted);
+    }
+
+    /**
+     * Colonnes du schéma (hors historique Flyway), avec leur type, leur longueur et leur nullabilité
+     */
+    private static Set<String> colonnes(JdbcTemplate jdbc) {
+        return new TreeSet<>(jdbc.queryForList("SELECT CONCAT(table_name, '.', column_name, ' ', data_type, ' ', "
+                + "character_maximum_length, ' ', is_nullable) FROM information_schema.columns "
+                + "WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'", String.class));
+    }
+
+    /**
+     * Colonnes des index secondaires, sous la forme "index position colonne"
+     */
+    private static Set<String> index(JdbcTemplate jdbc) {
+        return new TreeSet<>(jdbc.queryForList("SELECT CONCAT(index_name, ' ', ordinal_position, ' ', column_name) "
+                + "FROM information_schema.index_columns WHERE index_name LIKE 'idx\\_%'", String.class));
+    }
+
+    private static FluentConfiguration flyway(DataSource source) {
+        return Flyway.configure().dataSource(source).locations("classpath:db/migration");
+    }
+
+    private static DataSource source(String base) {
+        JdbcDataSource source = new JdbcDataSource();
+        source.setURL("jdbc:h2:mem:" + base + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        source.setUser("sa");
+        return source;
+    }
+}
@@ -0,0 +1,125 @@
+package gestion.projets;
+
+import gestion.projets.dto.AffectationDemande;
+import gestion.projets.dto.AffectationResultat;
+import gestion.projets.dto.AffectationResultat.Statut;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.model.EmployeeTache;
+import gestion.projets.service.InsertionAffectations;
+import gestion.projets.service.TacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Affectations en masse : issue de chaque demande, y compris les éléments nuls, version signalée,
+ * et reprise ligne à ligne des lots qui rencontrent un couple affecté entre-temps
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=20",
+        "generation.gestion.projets=3",
+        "generation.gestion.taches=50",
+        "generation.gestion.affectations-par-tache=0"
+})
+@RecordApplicationEvents
+class AffectationsEnMasseTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TacheService tacheService;
+
+    @Autowired
+    private InsertionAffectations insertionAffectations;
+
+    @Autowired
+    private ApplicationEvents evenements;
+
+    private TransactionTemplate transactions;
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        transactions = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void issueDeChaqueDemande() {
+        rest.postForEntity("/api/taches/1/assigner?matricule=EMP0000002&role=Analyste", null, String.class);
+        List<Map<String, Object>> demandes = new ArrayList<>(List.of(
+                Map.of("idTache", 1, "matricule", "EMP0000001", "role", "Analyste"),
+                Map.of("idTache", 1, "matricule", "EMP0000001", "role", "Testeur"),
+                Map.of("idTache", 1, "matricule", "EMP0000002", "role", "Analyste"),
+                Map.of("idTache", 999999, "matricule", "EMP0000001"),
+                Map.of("idTache", 1, "matricule", "INCONNU"),
+                Map.of("idTache", 2)));
+        demandes.add(1, null);
+
+        ResponseEntity<List<AffectationResultat>> reponse = rest.exchange("/api/taches/affectations", HttpMethod.POST,
+                new HttpEntity<>(demandes), new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.OK, reponse.getStatusCode());
+        assertEquals(List.of(Statut.CREEE, Statut.INVALIDE, Statut.DOUBLON, Statut.DEJA_AFFECTE,
+                Statut.TACHE_INTROUVABLE, Statut.EMPLOYE_INTROUVABLE, Statut.INVALIDE),
+                reponse.getBody().stream().map(AffectationResultat::getStatut).toList());
+    }
+
+    @Test
+    void evenementsALaVersionLueSousLeVerrou() {
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM tache WHERE id_tache = 4", Long.class);
+
+        List<AffectationResultat> resultats = tacheService.assignerEmployesEnMasse(List.of(
+                new AffectationDemande(4, "EMP0000005", "Testeur"),
+                new AffectationDemande(4, "EMP0000006", "Testeur")));
+
+        assertEquals(List.of(Statut.CREEE, Statut.CREEE), resultats.stream().map(AffectationResultat::getStatut).toList());
+        // Une incrémentation par transaction ; chaque événement porte la version que l'écriture remplace
+        assertEquals(version + 1, jdbcTemplate.queryForObject("SELECT version FROM tache WHERE id_tache = 4", Long.class));
+        assertEquals(List.of(version, version), evenements.stream(AffectationEvenement.class)
+                .filter(evenement -> evenement.getIdTache() == 4)
+                .map(AffectationEvenement::getVersion)
+                .toList());
+    }
+
+    @Test
+    void insertionEcarteLesCouplesAffectesEntreTemps() {
+        List<AffectationDemande> affectations = new ArrayList<>(List.of(
+                new AffectationDemande(3, "EMP0000003", "Testeur"),
+                new AffectationDemande(3, "EMP0000004", "Testeur")));
+
+        Set<EmployeeTache.EmployeeTacheId> dejaAffectees = transactions.execute(statut -> {
+            // Couple affecté avant les lots, dans la même transaction : le lot échoue sur la clé primaire
+            jdbcTemplate.update("INSERT INTO employee_tache (matricule, id_tache, role) VALUES ('EMP0000003', 3, 'Analyste')");
+            return insertionAffectations.inserer(affectations);
+        });
+
+        assertEquals(Set.of(new EmployeeTache.EmployeeTacheId("EMP0000003", 3)), dejaAffectees);
+        assertEquals(List.of("EMP0000004"), affectations.stream().map(AffectationDemande::getMatricule).toList());
+        // L'annulation jusqu'au point de sauvegarde garde l'écriture antérieure, la transaction reste validable
+        assertEquals(List.of("Analyste", "Testeur"), jdbcTemplate.queryForList(
+                "SELECT role FROM employee_tache WHERE id_tache = 3 ORDER BY matricule", String.class));
+    }
+}
@@ -0,0 +1,37 @@
+package gestion.projets;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test d'intégration sur une base MySQL démarrée par Testcontainers (URL jdbc:tc:), vide au départ :
+ * le schéma est créé par les migrations Flyway, puis vérifié par Hibernate (ddl-auto=validate), comme en production.
+ * Exécuté seulement avec le profil Maven "mysql" (dépendance Testcontainers et Docker requis) :
+ * mvn -Pmysql test -Dtest='MigrationsMysql*'. Avec ce profil, l'absence de Docker fait échouer le démarrage du
+ * contexte, donc le test ; sans lui, le test est ignoré avec un motif affiché dans le rapport. La couverture
+ * de référence des migrations est MigrationsTests (H2 en mode MySQL), exécuté à chaque build.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIfSystemProperty(named = "tests.mysql", matches = "true",
+        disabledReason = "profil Maven mysql inactif : migrations vérifiées sur H2 par MigrationsTests")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:tc:mysql:8.0.36:///base?useCursorFetch=true&rewriteBatchedStatements=true",
+        "spring.datasource.driver-class-name=org.testcontainers.jdbc.ContainerDatabaseDriver",
+        "spring.datasource.username=test",
+        "spring.datasource.password=test",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.flyway.enabled=true",
+        "spring.sql.init.mode=never"
+})
+public @interface BaseMysql {
+}
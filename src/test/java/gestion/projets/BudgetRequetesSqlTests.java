@@ -0,0 +1,125 @@
+package gestion.projets;
+
+import gestion.projets.config.BudgetRequetesSqlFiltre;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Appelle les endpoints de la gestion de projets sur des données générées, en mode ECHEC :
+ * un endpoint qui dépasse son budget de requêtes SQL (requetes-sql.budgets) répond en erreur 500
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "requetes-sql.mode=ECHEC",
+        "generation.gestion.employes=200",
+        "generation.gestion.projets=20",
+        "generation.gestion.taches=1000"
+})
+class BudgetRequetesSqlTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/projets",
+            "/api/projets?details=true",
+            "/api/projets/page",
+            "/api/projets/1",
+            "/api/projets/search?nom=Paie",
+            "/api/projets/actifs",
+            "/api/projets/actifs?details=true",
+            "/api/projets/periode?dateDebut=2020-01-01&dateFin=2030-12-31",
+            "/api/projets/periode?dateDebut=2020-01-01&dateFin=2030-12-31&details=true",
+            "/api/projets/chevauchement?dateDebut=2024-01-01&dateFin=2026-12-31",
+            "/api/projets/chevauchement?dateDebut=2024-01-01&details=true",
+            "/api/projets/statuts?avecRetard=true",
+            "/api/projets/1/taches/count",
+            "/api/projets/1/planning",
+            "/api/taches",
+            "/api/taches?details=true",
+            "/api/taches/page",
+            "/api/taches/1",
+            "/api/taches/search?titre=module",
+            "/api/taches/projet/1",
+            "/api/taches/projet/1?details=true",
+            "/api/taches/employe/EMP0000001",
+            "/api/taches/en-retard",
+            "/api/taches/en-retard?details=false",
+            "/api/taches/en-retard/compteurs",
+            "/api/taches/chevauchement?dateDebut=2024-01-01&dateFin=2026-12-31",
+            "/api/taches/chevauchement?dateDebut=2024-01-01&details=true",
+            "/api/taches/statut/EN_COURS",
+            "/api/taches/1/predecesseurs",
+            "/api/employes",
+            "/api/employes/page",
+            "/api/employes/EMP0000001",
+            "/api/employes/search?terme=Alami",
+            "/api/employes/tache/1",
+            "/api/employes/EMP0000001/taches/count",
+            "/api/employes/charges",
+            "/api/employes/capacite?dateDebut=2025-01-01&dateFin=2025-12-31",
+            "/api/employes/EMP0000001/capacite?dateDebut=2025-01-01&dateFin=2025-12-31",
+            "/api/cache/statistiques"
+    })
+    void lecturesDansLeBudget(String chemin) {
+        ResponseEntity<String> reponse = rest.getForEntity(chemin, String.class);
+
+        assertTrue(reponse.getStatusCode().is2xxSuccessful(), chemin + " : " + reponse.getBody());
+        assertNotNull(reponse.getHeaders().getFirst(BudgetRequetesSqlFiltre.ENTETE));
+    }
+
+    @Test
+    void ecrituresDansLeBudget() {
+        LocalDate aujourdhui = LocalDate.now();
+
+        ResponseEntity<Map<String, Object>> projet = ReponsesJson.poster(rest, "/api/projets",
+                Map.of("nom", "Budget SQL", "dateDebut", aujourdhui.toString()));
+        verifier(projet);
+        Object idProjet = projet.getBody().get("idProjet");
+
+        verifier(ReponsesJson.modifier(rest, "/api/projets/" + idProjet,
+                Map.of("nom", "Budget SQL modifié", "dateDebut", aujourdhui.toString())));
+
+        ResponseEntity<Map<String, Object>> tache = ReponsesJson.poster(rest, "/api/taches/projet/" + idProjet,
+                Map.of("titre", "Mesurer les requêtes", "dateDebut", aujourdhui.toString(),
+                        "dateFin", aujourdhui.plusDays(3).toString()));
+        verifier(tache);
+        Object idTache = tache.getBody().get("idTache");
+
+        verifier(ReponsesJson.modifier(rest, "/api/taches/" + idTache,
+                Map.of("titre", "Mesurer les requêtes SQL", "dateDebut", aujourdhui.toString())));
+        verifier(rest.exchange("/api/taches/" + idTache + "/statut?statut=EN_COURS", HttpMethod.PUT, null, String.class));
+
+        verifier(ReponsesJson.poster(rest, "/api/employes", Map.of("matricule", "BUDGET01", "nom", "Sql",
+                "prenom", "Budget", "email", "budget.sql@entreprise.ma")));
+        verifier(ReponsesJson.modifier(rest, "/api/employes/BUDGET01", Map.of("matricule", "BUDGET01",
+                "nom", "Sql", "prenom", "Budget", "email", "budget.sql@entreprise.ma")));
+        verifier(rest.postForEntity("/api/taches/" + idTache + "/assigner?matricule=BUDGET01&role=Testeur", null, String.class));
+        verifier(rest.exchange("/api/taches/" + idTache + "/retirer?matricule=BUDGET01", HttpMethod.DELETE, null, String.class));
+        verifier(rest.postForEntity("/api/taches/affectations",
+                List.of(Map.of("idTache", idTache, "matricule", "BUDGET01", "role", "Testeur"),
+                        Map.of("idTache", idTache, "matricule", "EMP0000001", "role", "Analyste")), String.class));
+
+        verifier(rest.exchange("/api/employes/BUDGET01", HttpMethod.DELETE, null, String.class));
+        verifier(rest.exchange("/api/taches/" + idTache, HttpMethod.DELETE, null, String.class));
+        verifier(rest.exchange("/api/projets/" + idProjet, HttpMethod.DELETE, null, String.class));
+    }
+
+    private static void verifier(ResponseEntity<?> reponse) {
+        assertTrue(reponse.getStatusCode().is2xxSuccessful(), reponse.getStatusCode() + " : " + reponse.getBody());
+        assertNotNull(reponse.getHeaders().getFirst(BudgetRequetesSqlFiltre.ENTETE));
+    }
+}
@@ -0,0 +1,156 @@
+package gestion.projets;
+
+import gestion.projets.dto.CapaciteEmploye;
+import gestion.projets.dto.PageCurseur;
+import gestion.projets.dto.PeriodeCharge;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Capacité des employés : périodes d'occupation et surcharges calculées par balayage,
+ * comparées à un comptage jour par jour
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=40",
+        "generation.gestion.projets=5",
+        "generation.gestion.taches=400"
+})
+class CapaciteEmployesTests {
+
+    private static final LocalDate J = LocalDate.of(2030, 3, 4);
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void periodesDOccupationDUnEmploye() {
+        ReponsesJson.poster(rest, "/api/employes", Map.of("matricule", "CAPA01", "nom", "Capacite",
+                "prenom", "Pleine", "email", "capacite.pleine@entreprise.ma"));
+        Integer t1 = affecter("T1", J, J.plusDays(9));
+        Integer t2 = affecter("T2", J.plusDays(5), J.plusDays(14));
+        Integer t3 = affecter("T3", J.plusDays(7), null);
+        Integer t4 = affecter("T4", J, J.plusDays(19));
+        // Une tâche terminée n'occupe plus l'employé
+        rest.exchange("/api/taches/" + t4 + "/statut?statut=TERMINEE", HttpMethod.PUT, null, String.class);
+
+        ResponseEntity<CapaciteEmploye> reponse = rest.getForEntity("/api/employes/CAPA01/capacite?dateDebut=" + J
+                + "&dateFin=" + J.plusDays(19), CapaciteEmploye.class);
+        assertEquals(HttpStatus.OK, reponse.getStatusCode());
+        CapaciteEmploye capacite = reponse.getBody();
+        assertEquals(3, capacite.getPic());
+        assertEquals(10, capacite.getJoursSurcharge());
+        assertEquals(List.of(
+                new PeriodeCharge(J, J.plusDays(4), 1, List.of(t1)),
+                new PeriodeCharge(J.plusDays(5), J.plusDays(6), 2, List.of(t1, t2)),
+                new PeriodeCharge(J.plusDays(7), J.plusDays(9), 3, List.of(t1, t2, t3)),
+                new PeriodeCharge(J.plusDays(10), J.plusDays(14), 2, List.of(t2, t3)),
+                new PeriodeCharge(J.plusDays(15), J.plusDays(19), 1, List.of(t3))), capacite.getPeriodes());
+
+        CapaciteEmploye surcharge = surcharges(J, J.plusDays(19)).stream()
+                .filter(c -> c.getMatricule().equals("CAPA01")).findFirst().orElseThrow();
+        assertEquals(capacite.getPeriodes().subList(1, 4), surcharge.getPeriodes());
+
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/api/employes/INCONNU/capacite?dateDebut=" + J
+                + "&dateFin=" + J, String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/api/employes/capacite?dateDebut=" + J
+                + "&dateFin=" + J.minusDays(1), String.class).getStatusCode());
+        // La période est bornée à capacite.fenetre-max-jours, bornes incluses
+        assertEquals(HttpStatus.OK, rest.getForEntity("/api/employes/capacite?dateDebut=" + J
+                + "&dateFin=" + J.plusDays(365), String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/api/employes/capacite?dateDebut=" + J
+                + "&dateFin=" + J.plusDays(366), String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/api/employes/CAPA01/capacite?dateDebut=" + J
+                + "&dateFin=" + J.plusDays(366), String.class).getStatusCode());
+    }
+
+    @Test
+    void surchargesEgalesAuComptageJourParJour() {
+        LocalDate debut = LocalDate.now().minusDays(182);
+        LocalDate fin = LocalDate.now().plusDays(182);
+        Map<String, List<Long>> attendues = surchargesEnBase(debut, fin);
+        assertFalse(attendues.isEmpty());
+
+        List<CapaciteEmploye> pages = surcharges(debut, fin);
+        Map<String, List<Long>> servies = new HashMap<>();
+        for (CapaciteEmploye capacite : pages) {
+            servies.put(capacite.getMatricule(), List.of((long) capacite.getPic(), capacite.getJoursSurcharge()));
+        }
+        // Chaque employé surchargé est servi une seule fois, sur l'ensemble des pages
+        assertEquals(pages.size(), servies.size());
+        assertEquals(attendues, servies);
+    }
+
+    private Integer affecter(String titre, LocalDate debut, LocalDate fin) {
+        Map<String, Object> tache = new HashMap<>(Map.of("titre", titre, "dateDebut", debut.toString()));
+        if (fin != null) {
+            tache.put("dateFin", fin.toString());
+        }
+        Integer idTache = (Integer) ReponsesJson.poster(rest, "/api/taches/projet/1", tache).getBody().get("idTache");
+        rest.postForEntity("/api/taches/" + idTache + "/assigner?matricule=CAPA01&role=Analyste", null, String.class);
+        return idTache;
+    }
+
+    /**
+     * Surcharges de la période, lues page par page en suivant les curseurs
+     */
+    private List<CapaciteEmploye> surcharges(LocalDate debut, LocalDate fin) {
+        List<CapaciteEmploye> surcharges = new ArrayList<>();
+        String curseur = null;
+        do {
+            ResponseEntity<PageCurseur<CapaciteEmploye>> reponse = rest.exchange("/api/employes/capacite?dateDebut="
+                    + debut + "&dateFin=" + fin + "&taille=3" + (curseur != null ? "&curseur=" + curseur : ""),
+                    HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+                    });
+            assertEquals(HttpStatus.OK, reponse.getStatusCode());
+            assertTrue(reponse.getBody().getTaille() <= 3);
+            surcharges.addAll(reponse.getBody().getContenu());
+            curseur = reponse.getBody().getCurseurSuivant();
+        } while (curseur != null);
+        return surcharges;
+    }
+
+    /**
+     * Pic et nombre de jours à plusieurs tâches de chaque employé surchargé, comptés jour par jour
+     */
+    private Map<String, List<Long>> surchargesEnBase(LocalDate debut, LocalDate fin) {
+        Map<String, Map<LocalDate, Long>> parJour = new HashMap<>();
+        jdbcTemplate.query("SELECT a.matricule, t.date_debut, t.date_fin FROM employee_tache a " +
+                "JOIN tache t ON t.id_tache = a.id_tache WHERE t.statut <> 'TERMINEE'", ligne -> {
+            LocalDate jour = ligne.getDate(2).toLocalDate();
+            LocalDate dernier = ligne.getDate(3) != null ? ligne.getDate(3).toLocalDate() : fin;
+            for (; !jour.isAfter(dernier) && !jour.isAfter(fin); jour = jour.plusDays(1)) {
+                if (!jour.isBefore(debut)) {
+                    parJour.computeIfAbsent(ligne.getString(1), m -> new HashMap<>()).merge(jour, 1L, Long::sum);
+                }
+            }
+        });
+        Map<String, List<Long>> surcharges = new HashMap<>();
+        parJour.forEach((matricule, nombres) -> {
+            long pic = nombres.values().stream().mapToLong(Long::longValue).max().orElse(0);
+            long jours = nombres.values().stream().filter(n -> n >= 2).count();
+            if (pic >= 2) {
+                surcharges.put(matricule, List.of(pic, jours));
+            }
+        });
+        return surcharges;
+    }
+}
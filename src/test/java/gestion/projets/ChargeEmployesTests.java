@@ -0,0 +1,163 @@
+package gestion.projets;
+
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.index.IndexChargeEmployes;
+import gestion.projets.model.Tache;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.TacheRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compteurs de charge des employés : tenus à jour par les écritures validées, intacts après une annulation
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=50",
+        "generation.gestion.projets=5",
+        "generation.gestion.taches=300"
+})
+class ChargeEmployesTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private IndexChargeEmployes indexChargeEmployes;
+
+    @Test
+    void compteursEgauxALaBaseApresEcritures() {
+        assertEquals(chargesEnBase(), chargesServies());
+
+        ResponseEntity<Map<String, Object>> tache = ReponsesJson.poster(rest, "/api/taches/projet/2",
+                Map.of("titre", "Mesurer la charge", "dateDebut", LocalDate.now().minusDays(10).toString(),
+                        "dateFin", LocalDate.now().minusDays(1).toString()));
+        Object idTache = tache.getBody().get("idTache");
+        assertEquals(HttpStatus.CREATED, rest.postForEntity("/api/taches/" + idTache + "/assigner?matricule=EMP0000003&role=Analyste",
+                null, String.class).getStatusCode());
+        rest.postForEntity("/api/taches/affectations", List.of(
+                Map.of("idTache", idTache, "matricule", "EMP0000004", "role", "Testeur"),
+                Map.of("idTache", 7, "matricule", "EMP0000004", "role", "Testeur")), String.class);
+        ReponsesJson.poster(rest, "/api/employes", Map.of("matricule", "CHARGE01", "nom", "Charge",
+                "prenom", "Nulle", "email", "charge.nulle@entreprise.ma"));
+
+        Map<String, Object> attendue = new HashMap<>(Map.of("EN_ATTENTE", 0, "EN_COURS", 0, "TERMINEE", 0));
+        Map<String, Map<String, Object>> charges = chargesServies();
+        assertEquals(attendue, charges.get("CHARGE01"));
+        assertEquals(chargesEnBase(), charges);
+        // La tâche créée est en retard pour ses deux employés
+        assertTrue(((Number) enRetard("EMP0000003")).intValue() >= 1);
+
+        rest.exchange("/api/taches/" + idTache + "/statut?statut=EN_COURS", HttpMethod.PUT, null, String.class);
+        rest.exchange("/api/taches/7", HttpMethod.PUT, new HttpEntity<>(Map.of("titre", "Terminée par modification",
+                "dateDebut", LocalDate.now().toString(), "statut", "TERMINEE")), String.class);
+        rest.exchange("/api/taches/" + idTache + "/retirer?matricule=EMP0000003", HttpMethod.DELETE, null, String.class);
+        assertEquals(chargesEnBase(), chargesServies());
+
+        rest.exchange("/api/taches/" + idTache, HttpMethod.DELETE, null, String.class);
+        rest.exchange("/api/employes/EMP0000005", HttpMethod.DELETE, null, String.class);
+        Map<String, Map<String, Object>> apresSuppressions = chargesServies();
+        assertFalse(apresSuppressions.containsKey("EMP0000005"));
+        assertEquals(chargesEnBase(), apresSuppressions);
+
+        // Les affectations des tâches d'un projet supprimé disparaissent avec lui
+        assertEquals(HttpStatus.NO_CONTENT, rest.exchange("/api/projets/3", HttpMethod.DELETE, null, String.class).getStatusCode());
+        assertEquals(chargesEnBase(), chargesServies());
+    }
+
+    @Test
+    void ecrituresAnnuleesSansEffet() {
+        // Affectation en double : la transaction est annulée
+        rest.postForEntity("/api/taches/11/assigner?matricule=EMP0000009&role=Analyste", null, String.class);
+        ResponseEntity<String> doublon = rest.postForEntity("/api/taches/11/assigner?matricule=EMP0000009&role=Analyste",
+                null, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, doublon.getStatusCode());
+
+        // Changement de statut refusé par le verrouillage optimiste
+        HttpHeaders ifMatch = new HttpHeaders();
+        ifMatch.setIfMatch("W/\"999\"");
+        assertEquals(HttpStatus.PRECONDITION_FAILED, rest.exchange("/api/taches/11/statut?statut=TERMINEE", HttpMethod.PUT,
+                new HttpEntity<>(ifMatch), String.class).getStatusCode());
+
+        assertEquals(chargesEnBase(), chargesServies());
+    }
+
+    @Test
+    void changementDeStatutValideApresLaSuppressionDeLEmploye() {
+        Map<String, Object> affectation = jdbcTemplate.queryForMap("SELECT a.id_tache, a.matricule FROM employee_tache a " +
+                "JOIN tache t ON t.id_tache = a.id_tache WHERE t.statut = 'EN_ATTENTE' AND a.matricule > 'EMP0000020' " +
+                "ORDER BY a.id_tache, a.matricule LIMIT 1");
+        Integer idTache = ((Number) affectation.get("id_tache")).intValue();
+        String matricule = (String) affectation.get("matricule");
+
+        // Le changement de statut lit les employés affectés avant la suppression, puis est validé après elle
+        Tache tache = tacheRepository.findById(idTache).orElseThrow();
+        TacheInstantane avant = TacheInstantane.de(tache);
+        List<String> matricules = jdbcTemplate.queryForList("SELECT matricule FROM employee_tache WHERE id_tache = ?",
+                String.class, idTache);
+        assertEquals(HttpStatus.NO_CONTENT, rest.exchange("/api/employes/" + matricule, HttpMethod.DELETE, null, String.class)
+                .getStatusCode());
+        jdbcTemplate.update("UPDATE tache SET statut = 'EN_COURS', version = version + 1 WHERE id_tache = ?", idTache);
+        tache.setStatut(StatutTache.EN_COURS);
+        tache.setVersion(avant.getVersion() + 1);
+        indexChargeEmployes.surTache(TacheEvenement.statutModifie(avant, tache, matricules));
+
+        Map<String, Map<String, Object>> charges = chargesServies();
+        assertFalse(charges.containsKey(matricule));
+        assertEquals(chargesEnBase(), charges);
+    }
+
+    private Object enRetard(String matricule) {
+        return lireCharges().stream().filter(c -> matricule.equals(c.get("matricule"))).findFirst().orElseThrow().get("enRetard");
+    }
+
+    private List<Map<String, Object>> lireCharges() {
+        ResponseEntity<List<Map<String, Object>>> reponse = rest.exchange("/api/employes/charges", HttpMethod.GET, null,
+                ReponsesJson.LISTE);
+        assertEquals(HttpStatus.OK, reponse.getStatusCode());
+        return reponse.getBody();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> chargesServies() {
+        Map<String, Map<String, Object>> charges = new HashMap<>();
+        for (Map<String, Object> charge : lireCharges()) {
+            charges.put((String) charge.get("matricule"), new HashMap<>((Map<String, Object>) charge.get("parStatut")));
+        }
+        return charges;
+    }
+
+    private Map<String, Map<String, Object>> chargesEnBase() {
+        Map<String, Map<String, Object>> charges = new HashMap<>();
+        for (String matricule : jdbcTemplate.queryForList("SELECT matricule FROM employe", String.class)) {
+            charges.put(matricule, new HashMap<>(Map.of("EN_ATTENTE", 0, "EN_COURS", 0, "TERMINEE", 0)));
+        }
+        jdbcTemplate.query("SELECT a.matricule, t.statut, COUNT(*) FROM employee_tache a JOIN tache t ON t.id_tache = a.id_tache " +
+                "GROUP BY a.matricule, t.statut", ligne -> {
+            charges.get(ligne.getString(1)).put(ligne.getString(2), ligne.getInt(3));
+        });
+        return charges;
+    }
+}
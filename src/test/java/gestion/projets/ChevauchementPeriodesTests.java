@@ -0,0 +1,121 @@
+package gestion.projets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recherche par chevauchement de périodes : l'index des périodes rend les mêmes lignes, dans le même ordre,
+ * que la requête SQL, y compris après des écritures
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=20",
+        "generation.gestion.projets=30",
+        "generation.gestion.taches=500"
+})
+class ChevauchementPeriodesTests {
+
+    private static final LocalDate AUJOURDHUI = LocalDate.now();
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void indexEgalALaBaseApresEcritures() {
+        verifierPeriodes();
+
+        ResponseEntity<Map<String, Object>> projet = ReponsesJson.poster(rest, "/api/projets",
+                Map.of("nom", "Projet sans fin", "dateDebut", AUJOURDHUI.minusYears(3).toString()));
+        Object idProjet = projet.getBody().get("idProjet");
+        ResponseEntity<Map<String, Object>> tache = ReponsesJson.poster(rest, "/api/taches/projet/" + idProjet,
+                Map.of("titre", "Tâche courte", "dateDebut", AUJOURDHUI.minusDays(5).toString(),
+                        "dateFin", AUJOURDHUI.minusDays(2).toString()));
+        Object idTache = tache.getBody().get("idTache");
+        verifierPeriodes();
+
+        // La tâche devient ouverte, le projet se termine
+        rest.exchange("/api/taches/" + idTache, HttpMethod.PUT, new HttpEntity<>(Map.of("titre", "Tâche en cours",
+                "dateDebut", AUJOURDHUI.plusDays(10).toString())), String.class);
+        rest.exchange("/api/projets/" + idProjet, HttpMethod.PUT, new HttpEntity<>(Map.of("nom", "Projet terminé",
+                "dateDebut", AUJOURDHUI.minusYears(3).toString(), "dateFin", AUJOURDHUI.minusYears(2).toString())), String.class);
+        assertTrue(tachesServies(AUJOURDHUI.plusYears(5), null).contains(idTache));
+        assertFalse(projetsServis(AUJOURDHUI.minusYears(1), null).contains(idProjet));
+        verifierPeriodes();
+
+        rest.exchange("/api/taches/2", HttpMethod.DELETE, null, String.class);
+        assertEquals(HttpStatus.NO_CONTENT, rest.exchange("/api/projets/3", HttpMethod.DELETE, null, String.class).getStatusCode());
+        verifierPeriodes();
+    }
+
+    @Test
+    void periodeInverseeRefusee() {
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/api/taches/chevauchement?dateDebut=2025-06-01&dateFin=2025-01-01",
+                String.class).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, rest.getForEntity("/api/projets/chevauchement?dateDebut=2025-06-01&dateFin=2025-01-01",
+                String.class).getStatusCode());
+    }
+
+    /**
+     * Compare plusieurs fenêtres, dont un jour unique et des périodes sans fin, au recomptage en base
+     */
+    private void verifierPeriodes() {
+        LocalDate[][] fenetres = {
+                {AUJOURDHUI, AUJOURDHUI},
+                {AUJOURDHUI.minusMonths(1), AUJOURDHUI.plusMonths(1)},
+                {AUJOURDHUI.minusYears(2), AUJOURDHUI.minusYears(1)},
+                {AUJOURDHUI.plusMonths(6), null},
+                {LocalDate.of(2000, 1, 1), null}
+        };
+        for (LocalDate[] fenetre : fenetres) {
+            assertEquals(enBase("tache", "id_tache", fenetre[0], fenetre[1]), tachesServies(fenetre[0], fenetre[1]));
+            assertEquals(enBase("projet", "id_projet", fenetre[0], fenetre[1]), projetsServis(fenetre[0], fenetre[1]));
+        }
+        // Les tâches complètes suivent le même ordre que les résumés
+        assertEquals(tachesServies(AUJOURDHUI.minusMonths(1), AUJOURDHUI),
+                ids(lire("/api/taches/chevauchement?details=true&dateDebut=" + AUJOURDHUI.minusMonths(1) + "&dateFin=" + AUJOURDHUI), "idTache"));
+    }
+
+    private List<Object> tachesServies(LocalDate debut, LocalDate fin) {
+        return ids(lire("/api/taches/chevauchement?" + parametres(debut, fin)), "idTache");
+    }
+
+    private List<Object> projetsServis(LocalDate debut, LocalDate fin) {
+        return ids(lire("/api/projets/chevauchement?" + parametres(debut, fin)), "idProjet");
+    }
+
+    private static String parametres(LocalDate debut, LocalDate fin) {
+        return "dateDebut=" + debut + (fin != null ? "&dateFin=" + fin : "");
+    }
+
+    private List<Map<String, Object>> lire(String url) {
+        ResponseEntity<List<Map<String, Object>>> reponse = rest.exchange(url, HttpMethod.GET, null, ReponsesJson.LISTE);
+        assertEquals(HttpStatus.OK, reponse.getStatusCode());
+        return reponse.getBody();
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> lignes, String cle) {
+        return lignes.stream().map(ligne -> ligne.get(cle)).toList();
+    }
+
+    private List<Object> enBase(String table, String colonneId, LocalDate debut, LocalDate fin) {
+        return jdbcTemplate.queryForList("SELECT " + colonneId + " FROM " + table +
+                        " WHERE date_debut <= ? AND (date_fin IS NULL OR date_fin >= ?) ORDER BY date_debut, " + colonneId,
+                Object.class, fin != null ? fin : LocalDate.of(9999, 12, 31), debut);
+    }
+}
@@ -0,0 +1,35 @@
+package gestion.projets;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Test d'intégration sur une base H2 en mémoire propre à chaque contexte Spring, remplie par le générateur
+ * (profils "generation" et "h2"). L'application est celle du paquet de la classe de test.
+ * Les volumes et les autres propriétés se déclarent sur la classe avec @TestPropertySource.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@SpringBootTest
+@ActiveProfiles({"generation", "h2"})
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "generation.vider=true"
+})
+public @interface DonneesGenerees {
+
+    /**
+     * @return Environnement web du contexte (serveur sur un port aléatoire par défaut)
+     */
+    @AliasFor(annotation = SpringBootTest.class)
+    SpringBootTest.WebEnvironment webEnvironment() default SpringBootTest.WebEnvironment.RANDOM_PORT;
+}
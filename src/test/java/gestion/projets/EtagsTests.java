@@ -0,0 +1,148 @@
+package gestion.projets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ETags dérivés des versions : 304 sur If-None-Match, verrouillage optimiste sur If-Match
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "requetes-sql.mode=ECHEC",
+        "generation.gestion.employes=50",
+        "generation.gestion.projets=5",
+        "generation.gestion.taches=100"
+})
+class EtagsTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void detailProjetNonModifie() {
+        ResponseEntity<String> premiere = rest.getForEntity("/api/projets/2", String.class);
+        String etag = premiere.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, premiere.getStatusCode());
+        assertNotNull(etag);
+        // ETag fort : c'est lui que If-Match compare
+        assertFalse(etag.startsWith("W/"));
+
+        ResponseEntity<String> seconde = getConditionnel("/api/projets/2", etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, seconde.getStatusCode());
+        assertNull(seconde.getBody());
+        assertEquals(etag, seconde.getHeaders().getETag());
+        assertEquals("2", seconde.getHeaders().getFirst("X-Requetes-Sql"));
+    }
+
+    @Test
+    void listesInvalideesParUneEcriture() {
+        String projets = rest.getForEntity("/api/projets?details=true", String.class).getHeaders().getETag();
+        String taches = rest.getForEntity("/api/taches/projet/3", String.class).getHeaders().getETag();
+        String projet = rest.getForEntity("/api/projets/3", String.class).getHeaders().getETag();
+        assertEquals(HttpStatus.NOT_MODIFIED, getConditionnel("/api/projets?details=true", projets).getStatusCode());
+        assertEquals(HttpStatus.NOT_MODIFIED, getConditionnel("/api/taches/projet/3", taches).getStatusCode());
+
+        ResponseEntity<Map<String, Object>> tache = ReponsesJson.poster(rest, "/api/taches/projet/3",
+                Map.of("titre", "Invalider les ETags", "dateDebut", LocalDate.now().toString()));
+        assertEquals(HttpStatus.CREATED, tache.getStatusCode());
+        rest.exchange("/api/taches/" + tache.getBody().get("idTache") + "/statut?statut=EN_COURS",
+                HttpMethod.PUT, null, String.class);
+
+        assertEquals(HttpStatus.OK, getConditionnel("/api/projets?details=true", projets).getStatusCode());
+        assertEquals(HttpStatus.OK, getConditionnel("/api/taches/projet/3", taches).getStatusCode());
+        ResponseEntity<String> detail = getConditionnel("/api/projets/3", projet);
+        assertEquals(HttpStatus.OK, detail.getStatusCode());
+        // L'ETag calculé sur l'entité chargée est celui que la lecture conditionnelle recalcule
+        assertEquals(HttpStatus.NOT_MODIFIED, getConditionnel("/api/projets/3", detail.getHeaders().getETag()).getStatusCode());
+    }
+
+    @Test
+    void listeInvalideeParUnIdPlusPetit() {
+        // Une suppression puis une création de même version, sous le plus grand ID, laissent inchangés
+        // le nombre de lignes, la somme des versions et le plus grand ID : seule l'empreinte par ID les distingue
+        Integer supprimee = jdbcTemplate.queryForObject("SELECT MIN(id_tache) FROM tache WHERE id_projet = 4 "
+                + "AND version = 0 AND id_tache < (SELECT MAX(id_tache) FROM tache WHERE id_projet = 4)", Integer.class);
+        assertNotNull(supprimee);
+        String taches = rest.getForEntity("/api/taches/projet/4", String.class).getHeaders().getETag();
+
+        rest.delete("/api/taches/" + supprimee);
+        jdbcTemplate.update("INSERT INTO tache (id_tache, titre, date_debut, statut, version, id_projet) "
+                + "SELECT MIN(id_tache) - 1, 'Créée sous le plus grand ID', CURRENT_DATE, 'EN_ATTENTE', 0, 4 FROM tache");
+
+        assertEquals(HttpStatus.OK, getConditionnel("/api/taches/projet/4", taches).getStatusCode());
+    }
+
+    @Test
+    void modificationConditionnelle() {
+        ResponseEntity<Map<String, Object>> lue = ReponsesJson.lire(rest, "/api/taches/4");
+        String etag = lue.getHeaders().getETag();
+        Map<String, Object> tache = Map.of("titre", "Modifiée avec If-Match", "dateDebut", lue.getBody().get("dateDebut"),
+                "statut", "EN_COURS");
+
+        ResponseEntity<String> modifiee = putConditionnel("/api/taches/4", etag, tache);
+        assertEquals(HttpStatus.OK, modifiee.getStatusCode());
+        assertNotEquals(etag, modifiee.getHeaders().getETag());
+
+        // Un second client qui a lu la même version est refusé, sans écraser la modification
+        assertEquals(HttpStatus.PRECONDITION_FAILED, putConditionnel("/api/taches/4", etag, tache).getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, rest.exchange("/api/taches/4/statut?statut=TERMINEE", HttpMethod.PUT,
+                new HttpEntity<>(entetes(HttpHeaders.IF_MATCH, etag)), String.class).getStatusCode());
+        assertEquals(HttpStatus.OK, putConditionnel("/api/taches/4", modifiee.getHeaders().getETag(), tache).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, putConditionnel("/api/taches/4", "\"abc\"", tache).getStatusCode());
+
+        // Comparaison forte : la forme faible de l'ETag courant ne satisfait pas la précondition
+        String courant = rest.getForEntity("/api/taches/4", String.class).getHeaders().getETag();
+        assertEquals(HttpStatus.PRECONDITION_FAILED, putConditionnel("/api/taches/4", "W/" + courant, tache).getStatusCode());
+        assertEquals(courant, rest.getForEntity("/api/taches/4", String.class).getHeaders().getETag());
+    }
+
+    @Test
+    void employeEtProjetConditionnels() {
+        ResponseEntity<Map<String, Object>> employe = ReponsesJson.lire(rest, "/api/employes/EMP0000003");
+        String etag = employe.getHeaders().getETag();
+        assertEquals(HttpStatus.NOT_MODIFIED, getConditionnel("/api/employes/EMP0000003", etag).getStatusCode());
+
+        Map<String, Object> details = Map.of("matricule", "EMP0000003", "nom", "Conditionnel",
+                "prenom", employe.getBody().get("prenom"), "email", employe.getBody().get("email"));
+        ResponseEntity<String> modifie = putConditionnel("/api/employes/EMP0000003", etag, details);
+        assertEquals(HttpStatus.OK, modifie.getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, putConditionnel("/api/employes/EMP0000003", etag, details).getStatusCode());
+        assertEquals(HttpStatus.OK, getConditionnel("/api/employes/EMP0000003", etag).getStatusCode());
+
+        ResponseEntity<Map<String, Object>> projet = ReponsesJson.lire(rest, "/api/projets/5");
+        Map<String, Object> projetDetails = Map.of("nom", "Projet conditionnel", "dateDebut", projet.getBody().get("dateDebut"));
+        String etagProjet = projet.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, putConditionnel("/api/projets/5", etagProjet, projetDetails).getStatusCode());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, putConditionnel("/api/projets/5", etagProjet, projetDetails).getStatusCode());
+    }
+
+    private ResponseEntity<String> getConditionnel(String chemin, String etag) {
+        return rest.exchange(chemin, HttpMethod.GET, new HttpEntity<>(entetes(HttpHeaders.IF_NONE_MATCH, etag)), String.class);
+    }
+
+    private ResponseEntity<String> putConditionnel(String chemin, String etag, Map<String, Object> corps) {
+        return rest.exchange(chemin, HttpMethod.PUT, new HttpEntity<>(corps, entetes(HttpHeaders.IF_MATCH, etag)), String.class);
+    }
+
+    private static HttpHeaders entetes(String nom, String valeur) {
+        HttpHeaders entetes = new HttpHeaders();
+        entetes.set(nom, valeur);
+        return entetes;
+    }
+}
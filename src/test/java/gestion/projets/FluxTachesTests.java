@@ -0,0 +1,172 @@
+package gestion.projets;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Flux des changements de tâches (Server-Sent Events) : filtres par projet et par employé, resynchronisation
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=50",
+        "generation.gestion.projets=5",
+        "generation.gestion.taches=100"
+})
+class FluxTachesTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void changementsFiltresParProjet() throws Exception {
+        Integer tacheProjet2 = premiereTache(2);
+        Integer tacheProjet3 = premiereTache(3);
+
+        try (Abonnement abonnement = abonner("/api/taches/flux?idProjet=2", null)) {
+            changerStatut(tacheProjet3, "TERMINEE");
+            changerStatut(tacheProjet2, "EN_COURS");
+
+            // Le changement du projet 3 n'est pas diffusé : le premier reçu est celui du projet 2
+            JsonNode changement = abonnement.attendre("changement");
+            assertEquals("STATUT_MODIFIE", changement.get("type").asText());
+            assertEquals(tacheProjet2, changement.get("idTache").asInt());
+            assertEquals(2, changement.get("idProjet").asInt());
+            assertEquals("EN_COURS", changement.get("statut").asText());
+            assertFalse(changement.has("matricule"));
+        }
+    }
+
+    @Test
+    void changementsFiltresParEmploye() throws Exception {
+        ResponseEntity<Map<String, Object>> tache = ReponsesJson.poster(rest, "/api/taches/projet/4",
+                Map.of("titre", "Suivie par le flux", "dateDebut", LocalDate.now().toString()));
+        Integer idTache = (Integer) tache.getBody().get("idTache");
+
+        try (Abonnement abonnement = abonner("/api/taches/flux?matricule=EMP0000007", null)) {
+            assertEquals(HttpStatus.OK, rest.postForEntity("/api/taches/affectations",
+                    List.of(Map.of("idTache", idTache, "matricule", "EMP0000007", "role", "Développeur")), String.class)
+                    .getStatusCode());
+            JsonNode affectation = abonnement.attendre("changement");
+            assertEquals("AFFECTEE", affectation.get("type").asText());
+            assertEquals("EMP0000007", affectation.get("matricule").asText());
+            assertEquals(4, affectation.get("idProjet").asInt());
+
+            // Les changements d'une tâche sont diffusés aux employés qui y sont affectés
+            changerStatut(idTache, "TERMINEE");
+            JsonNode statut = abonnement.attendre("changement");
+            assertEquals("STATUT_MODIFIE", statut.get("type").asText());
+            assertEquals(idTache, statut.get("idTache").asInt());
+
+            rest.delete("/api/taches/" + idTache + "/retirer?matricule=EMP0000007");
+            JsonNode retrait = abonnement.attendre("changement");
+            assertEquals("RETIREE", retrait.get("type").asText());
+            assertEquals(4, retrait.get("idProjet").asInt());
+        }
+    }
+
+    @Test
+    void reconnexionResynchronisee() throws Exception {
+        try (Abonnement abonnement = abonner("/api/taches/flux", "42")) {
+            assertEquals("RECONNEXION", abonnement.attendreTexte("resync"));
+        }
+    }
+
+    private Integer premiereTache(int idProjet) {
+        List<Map<String, Object>> taches = rest.exchange("/api/taches/projet/" + idProjet, HttpMethod.GET, null,
+                ReponsesJson.LISTE).getBody();
+        assertNotNull(taches);
+        return (Integer) taches.get(0).get("idTache");
+    }
+
+    private void changerStatut(Integer idTache, String statut) {
+        assertEquals(HttpStatus.OK, rest.exchange("/api/taches/" + idTache + "/statut?statut=" + statut,
+                HttpMethod.PUT, null, String.class).getStatusCode());
+    }
+
+    private Abonnement abonner(String chemin, String dernierEvenement) throws Exception {
+        HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create("http://localhost:" + port + chemin))
+                .header("Accept", "text/event-stream");
+        if (dernierEvenement != null) {
+            requete.header("Last-Event-ID", dernierEvenement);
+        }
+        HttpResponse<Stream<String>> reponse = client.send(requete.build(), HttpResponse.BodyHandlers.ofLines());
+        assertEquals(200, reponse.statusCode());
+        return new Abonnement(reponse.body());
+    }
+
+    /**
+     * Lecture des événements d'un abonnement dans un thread séparé
+     */
+    private class Abonnement implements AutoCloseable {
+
+        private final Stream<String> lignes;
+        private final BlockingQueue<String[]> evenements = new LinkedBlockingQueue<>();
+
+        Abonnement(Stream<String> lignes) {
+            this.lignes = lignes;
+            CompletableFuture.runAsync(() -> {
+                String[] evenement = {null, null};
+                try {
+                    lignes.forEach(ligne -> {
+                        if (ligne.startsWith("event:")) {
+                            evenement[0] = ligne.substring(6);
+                        } else if (ligne.startsWith("data:")) {
+                            evenement[1] = ligne.substring(5);
+                        } else if (ligne.isEmpty() && evenement[0] != null) {
+                            evenements.add(evenement.clone());
+                            evenement[0] = null;
+                            evenement[1] = null;
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    // Flux fermé par close()
+                }
+            });
+        }
+
+        String attendreTexte(String nom) throws InterruptedException {
+            String[] evenement = evenements.poll(10, TimeUnit.SECONDS);
+            assertNotNull(evenement, "Aucun événement " + nom + " reçu");
+            assertEquals(nom, evenement[0]);
+            return evenement[1];
+        }
+
+        JsonNode attendre(String nom) throws Exception {
+            return objectMapper.readTree(attendreTexte(nom));
+        }
+
+        @Override
+        public void close() {
+            lignes.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package gestion.projets;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Négociation des encodages binaires (CBOR, Smile) et compression des listes volumineuses
+ * Client HTTP brut : les octets reçus sont ceux envoyés par le serveur, sans décompression implicite
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=50",
+        "generation.gestion.projets=5",
+        "generation.gestion.taches=500"
+})
+class FormatsBinairesTests {
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void memeContenuDansChaqueEncodage() throws Exception {
+        HttpResponse<byte[]> json = get("/api/taches", "application/json", null);
+        HttpResponse<byte[]> cbor = get("/api/taches", "application/cbor", null);
+        HttpResponse<byte[]> smile = get("/api/taches", "application/x-jackson-smile", null);
+
+        assertEquals("application/cbor", cbor.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow());
+        assertEquals("application/x-jackson-smile", smile.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow());
+        assertTrue(String.join(",", cbor.headers().allValues(HttpHeaders.VARY)).toLowerCase().matches("(.*,)?accept(,.*)?"));
+
+        JsonNode attendu = new ObjectMapper().readTree(json.body());
+        assertEquals(500, attendu.size());
+        assertEquals(attendu, new CBORMapper().readTree(cbor.body()));
+        assertEquals(attendu, new SmileMapper().readTree(smile.body()));
+        assertTrue(cbor.body().length < json.body().length);
+        assertTrue(smile.body().length < json.body().length);
+    }
+
+    @Test
+    void compressionAuDelaDuSeuil() throws Exception {
+        HttpResponse<byte[]> brute = get("/api/taches", "application/json", null);
+        HttpResponse<byte[]> compressee = get("/api/taches", "application/json", "gzip");
+
+        assertEquals("gzip", compressee.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElseThrow());
+        assertTrue(compressee.body().length < brute.body().length / 3);
+        assertArrayEquals(brute.body(), decompresser(compressee.body()));
+
+        // Une petite réponse n'est pas compressée
+        HttpResponse<byte[]> petite = get("/api/taches/1", "application/json", "gzip");
+        assertTrue(petite.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+    }
+
+    private HttpResponse<byte[]> get(String chemin, String accept, String acceptEncoding) throws Exception {
+        HttpRequest.Builder requete = HttpRequest.newBuilder(URI.create("http://localhost:" + port + chemin))
+                .header(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) {
+            requete.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        HttpResponse<byte[]> reponse = client.send(requete.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, reponse.statusCode(), chemin);
+        return reponse;
+    }
+
+    private static byte[] decompresser(byte[] octets) throws IOException {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(octets))) {
+            return gzip.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package gestion.projets;
+
+import gestion.projets.config.LimiteAimd;
+import gestion.projets.config.LimiteurConcurrenceFiltre;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Limiteur de concurrence : priorité des lectures légères, rejet en 503 avec Retry-After et métriques
+ * (l'ajustement AIMD de la limite est vérifié par LimiteAimdTests)
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=10",
+        "generation.gestion.projets=2",
+        "generation.gestion.taches=20",
+        "limiteur.groupes.taches.limite-initiale=4",
+        "limiteur.groupes.taches.delai-nouvel-essai=2s"
+})
+class LimiteurConcurrenceTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private LimiteurConcurrenceFiltre filtre;
+
+    @Autowired
+    private MeterRegistry registre;
+
+    @Test
+    void rejetEn503AvecRetryAfter() {
+        LimiteAimd limite = filtre.getLimite("taches");
+        int places = limite.getLimite();
+        for (int i = 0; i < places; i++) {
+            assertTrue(limite.acquerir(false));
+        }
+        double rejetsAvant = rejets("legere");
+        try {
+            ResponseEntity<String> reponse = rest.getForEntity("/api/taches/1", String.class);
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, reponse.getStatusCode());
+            assertEquals("2", reponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            assertEquals(rejetsAvant + 1, rejets("legere"));
+            assertEquals(places, registre.get("limiteur.actives").tag("groupe", "taches").gauge().value());
+        } finally {
+            for (int i = 0; i < places; i++) {
+                limite.liberer(false, System.nanoTime(), false);
+            }
+        }
+        assertTrue(rest.getForEntity("/api/taches/1", String.class).getStatusCode().is2xxSuccessful());
+        assertTrue(registre.get("limiteur.limite").tag("groupe", "taches").gauge().value() >= places);
+    }
+
+    @Test
+    void lecturesLegeresPrioritairesSurLesListes() {
+        LimiteAimd limite = filtre.getLimite("taches");
+        int placesLourdes = 0;
+        while (limite.acquerir(true)) {
+            placesLourdes++;
+        }
+        double rejetsAvant = rejets("lourde");
+        try {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rest.getForEntity("/api/taches", String.class).getStatusCode());
+            assertTrue(rest.getForEntity("/api/taches/1", String.class).getStatusCode().is2xxSuccessful());
+            assertEquals(rejetsAvant + 1, rejets("lourde"));
+        } finally {
+            for (int i = 0; i < placesLourdes; i++) {
+                limite.liberer(true, System.nanoTime(), false);
+            }
+        }
+        assertTrue(rest.getForEntity("/api/taches", String.class).getStatusCode().is2xxSuccessful());
+    }
+
+    private double rejets(String priorite) {
+        return registre.get("limiteur.rejets").tag("groupe", "taches").tag("priorite", priorite).counter().count();
+    }
+}
@@ -0,0 +1,102 @@
+package gestion.projets;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrations db/migration sur MySQL : base vide migrée puis validée par Hibernate au démarrage du contexte,
+ * et base existante créée par ddl-auto=update (baseline en version 0) amenée au même schéma
+ */
+@BaseMysql
+class MigrationsMysqlTests {
+
+    /**
+     * Index secondaires créés par V2__index_secondaires
+     */
+    private static final List<String> INDEX_SECONDAIRES = List.of(
+            "tache.idx_tache_periode", "tache.idx_tache_projet_statut", "tache.idx_tache_statut_fin",
+            "tache.idx_tache_fin_statut", "projet.idx_projet_periode", "projet.idx_projet_fin",
+            "employee_tache.idx_affectation_tache", "employee_tache.idx_affectation_employe",
+            "dependance_tache.idx_dependance_tache", "commande.idx_commande_date", "produit.idx_produit_prix",
+            "ligne_commande_produit.idx_ligne_produit_commande", "ligne_commande_produit.idx_ligne_commande_produit");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void baseVideMigreeEtValidee() {
+        // Le contexte a démarré : Hibernate a validé les entités sur le schéma migré
+        MigrationInfo[] appliquees = flyway.info().applied();
+        assertEquals(List.of("1", "2", "3"), Arrays.stream(appliquees).map(m -> m.getVersion().getVersion()).toList());
+        assertTrue(Arrays.stream(appliquees).allMatch(m -> m.getState() == MigrationState.SUCCESS));
+        assertTrue(index(jdbcTemplate, "base").containsAll(INDEX_SECONDAIRES));
+    }
+
+    @Test
+    void baseExistanteAmeneeAuMemeSchema() throws Exception {
+        String url = jdbcTemplate.execute((Connection connexion) -> connexion.getMetaData().getURL());
+        // L'utilisateur "test" n'a de droits que sur "base" ; root a le même mot de passe (MySQLContainer)
+        try (SingleConnectionDataSource root = new SingleConnectionDataSource(url, "root", "test", true)) {
+            JdbcTemplate administration = new JdbcTemplate(root);
+            administration.execute("DROP DATABASE IF EXISTS existante");
+            administration.execute("CREATE DATABASE existante");
+        }
+        try (SingleConnectionDataSource existante = new SingleConnectionDataSource(
+                url.replace("/base", "/existante"), "root", "test", true)) {
+            JdbcTemplate base = new JdbcTemplate(existante);
+            // Schéma d'une base créée par ddl-auto=update avant Flyway : tables de V1, sans colonnes version,
+            // avec les deux index alors déclarés par les entités, sans historique des migrations
+            Flyway.configure().dataSource(existante).locations("classpath:db/migration").target("1").load().migrate();
+            base.execute("DROP TABLE flyway_schema_history");
+            for (String table : new String[] {"projet", "tache", "employe"}) {
+                base.execute("ALTER TABLE " + table + " DROP COLUMN version");
+            }
+            base.execute("CREATE INDEX idx_tache_periode ON tache (date_debut, date_fin)");
+            base.execute("CREATE INDEX idx_projet_periode ON projet (date_debut, date_fin)");
+            base.update("INSERT INTO projet (id_projet, nom, date_debut) VALUES (1, 'Existant', '2024-01-01')");
+
+            MigrateResult resultat = Flyway.configure().dataSource(existante).locations("classpath:db/migration")
+                    .baselineOnMigrate(true).baselineVersion("0").load().migrate();
+
+            assertEquals(3, resultat.migrationsExecuted);
+            assertEquals(colonnes(jdbcTemplate, "base"), colonnes(base, "existante"));
+            assertEquals(index(jdbcTemplate, "base"), index(base, "existante"));
+            assertEquals(0L, base.queryForObject("SELECT version FROM projet WHERE id_projet = 1", Long.class));
+        }
+    }
+
+    /**
+     * Colonnes du schéma (hors historique Flyway), avec leur type et leur nullabilité
+     */
+    private static Set<String> colonnes(JdbcTemplate jdbcTemplate, String schema) {
+        return new TreeSet<>(jdbcTemplate.queryForList("SELECT CONCAT(table_name, '.', column_name, ' ', column_type, " +
+                "' ', is_nullable) FROM information_schema.columns " +
+                "WHERE table_schema = ? AND table_name <> 'flyway_schema_history'", String.class, schema));
+    }
+
+    /**
+     * Index du schéma (hors historique Flyway), sous la forme "table.index"
+     */
+    private static Set<String> index(JdbcTemplate jdbcTemplate, String schema) {
+        return new TreeSet<>(jdbcTemplate.queryForList("SELECT DISTINCT CONCAT(table_name, '.', index_name) " +
+                "FROM information_schema.statistics " +
+                "WHERE table_schema = ? AND table_name <> 'flyway_schema_history'", String.class, schema));
+    }
+}
@@ -0,0 +1,140 @@
+package gestion.projets;
+
+import gestion.projets.dto.PlanningProjet;
+import gestion.projets.dto.PlanningTache;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.index.IndexPlanning;
+import gestion.projets.repository.DependanceTacheRepository;
+import gestion.projets.repository.TacheRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dépendances entre tâches et planification : chemin critique, refus des cycles,
+ * recalcul incrémental identique à un calcul complet depuis la base
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=10",
+        "generation.gestion.projets=3",
+        "generation.gestion.taches=150"
+})
+class PlanningProjetTests {
+
+    private static final LocalDate LUNDI = LocalDate.of(2025, 1, 6);
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private TacheRepository tacheRepository;
+
+    @Autowired
+    private DependanceTacheRepository dependanceTacheRepository;
+
+    @Test
+    void cheminCritiqueEtMarges() {
+        Object idProjet = ReponsesJson.poster(rest, "/api/projets", Map.of("nom", "Chemin critique",
+                "dateDebut", LUNDI.toString())).getBody().get("idProjet");
+        // a (5 j) -> c (2 j) ; b (2 j) -> c : b a 3 jours de marge
+        Integer a = creerTache(idProjet, "a", LUNDI, LUNDI.plusDays(4));
+        Integer b = creerTache(idProjet, "b", LUNDI, LUNDI.plusDays(1));
+        Integer c = creerTache(idProjet, "c", LUNDI, LUNDI.plusDays(1));
+        assertEquals(HttpStatus.CREATED, ajouter(c, a).getStatusCode());
+        assertEquals(HttpStatus.CREATED, ajouter(c, b).getStatusCode());
+
+        PlanningProjet planning = planning(idProjet);
+        assertEquals(List.of(a, c), planning.getCheminCritique());
+        assertEquals(LUNDI.plusDays(6), planning.getFinAuPlusTot());
+        assertEquals(LUNDI.plusDays(5), tache(planning, c).getDebutAuPlusTot());
+        assertEquals(3, tache(planning, b).getMarge());
+        assertEquals(LUNDI.plusDays(3), tache(planning, b).getDebutAuPlusTard());
+
+        // Une fois a terminée, b devient critique
+        rest.exchange("/api/taches/" + a + "/statut?statut=TERMINEE", HttpMethod.PUT, null, String.class);
+        planning = planning(idProjet);
+        assertEquals(List.of(b, c), planning.getCheminCritique().stream().filter(id -> !id.equals(a)).toList());
+        assertEquals(LUNDI.plusDays(3), planning.getFinAuPlusTot());
+
+        // Cycle, auto-dépendance, doublon et tâches de projets différents sont refusés
+        assertEquals(HttpStatus.BAD_REQUEST, ajouter(a, c).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, ajouter(a, a).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, ajouter(c, a).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, ajouter(c, 1).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, ajouter(c, 999_999).getStatusCode());
+        assertEquals(HttpStatus.NOT_FOUND, rest.getForEntity("/api/projets/999999/planning", String.class).getStatusCode());
+    }
+
+    @Test
+    void recalculIncrementalEgalAuCalculComplet() {
+        Random aleatoire = new Random(21);
+        Integer idProjet = 2;
+        List<Integer> taches = new ArrayList<>(tacheRepository.findResumesByProjetId(idProjet).stream()
+                .map(TacheResume::getIdTache).sorted().toList());
+        verifier(idProjet);
+
+        for (int i = 0; i < 120; i++) {
+            Integer tache = taches.get(aleatoire.nextInt(taches.size()));
+            Integer autre = taches.get(aleatoire.nextInt(taches.size()));
+            switch (aleatoire.nextInt(4)) {
+                // Ajouts et retraits de dépendances (les cycles sont refusés)
+                case 0, 1 -> ajouter(tache, autre);
+                case 2 -> rest.delete("/api/taches/" + tache + "/predecesseurs/" + autre);
+                default -> {
+                    LocalDate debut = LUNDI.plusDays(aleatoire.nextInt(60));
+                    rest.exchange("/api/taches/" + tache, HttpMethod.PUT, new HttpEntity<>(Map.of("titre", "Replanifiée",
+                            "dateDebut", debut.toString(), "dateFin", debut.plusDays(aleatoire.nextInt(15)).toString(),
+                            "statut", aleatoire.nextInt(5) == 0 ? "TERMINEE" : "EN_COURS")), String.class);
+                }
+            }
+            if (i % 20 == 19) {
+                verifier(idProjet);
+            }
+        }
+
+        Integer supprimee = taches.get(aleatoire.nextInt(taches.size()));
+        assertEquals(HttpStatus.NO_CONTENT, rest.exchange("/api/taches/" + supprimee, HttpMethod.DELETE, null, String.class)
+                .getStatusCode());
+        verifier(idProjet);
+    }
+
+    private void verifier(Integer idProjet) {
+        PlanningProjet attendu = IndexPlanning.planifier(idProjet, tacheRepository.findResumesByProjetId(idProjet),
+                dependanceTacheRepository.findResumesByProjetId(idProjet));
+        assertEquals(attendu, planning(idProjet));
+    }
+
+    private Integer creerTache(Object idProjet, String titre, LocalDate debut, LocalDate fin) {
+        ResponseEntity<Map<String, Object>> tache = ReponsesJson.poster(rest, "/api/taches/projet/" + idProjet,
+                Map.of("titre", titre, "dateDebut", debut.toString(), "dateFin", fin.toString()));
+        return (Integer) tache.getBody().get("idTache");
+    }
+
+    private ResponseEntity<String> ajouter(Integer idTache, Integer idPredecesseur) {
+        return rest.postForEntity("/api/taches/" + idTache + "/predecesseurs/" + idPredecesseur, null, String.class);
+    }
+
+    private PlanningProjet planning(Object idProjet) {
+        ResponseEntity<PlanningProjet> reponse = rest.getForEntity("/api/projets/" + idProjet + "/planning", PlanningProjet.class);
+        assertEquals(HttpStatus.OK, reponse.getStatusCode());
+        return reponse.getBody();
+    }
+
+    private static PlanningTache tache(PlanningProjet planning, Integer idTache) {
+        return planning.getTaches().stream().filter(t -> t.getIdTache().equals(idTache)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,160 @@
+package gestion.projets;
+
+import gestion.projets.config.CompteurRequetesSql;
+import gestion.projets.model.Tache.StatutTache;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie le plan d'exécution (EXPLAIN H2) de chaque requête déclarée par des repositories
+ * Chaque méthode déclarée (@Query ou requête dérivée) est appelée avec des arguments factices dans une transaction
+ * annulée ; les textes SQL préparés par Hibernate sont relevés par CompteurRequetesSql, puis expliqués.
+ * Un parcours complet de table ("tableScan") échoue, sauf pour les méthodes justifiées dans les exceptions.
+ */
+public final class PlansRequetes {
+
+    private static final Pattern PARCOURS_COMPLET = Pattern.compile("/\\* [\\w.]*?(\\w+)\\.tableScan \\*/");
+
+    private PlansRequetes() {
+    }
+
+    /**
+     * @param repository Repository (proxy Spring Data) dont les méthodes déclarées sont vérifiées
+     * @param type Interface du repository
+     * @param exceptions Méthodes autorisées à parcourir une table entière, avec leur justification
+     * @param jdbcTemplate Accès à la base embarquée (EXPLAIN)
+     * @param transactions Transactions annulées après chaque appel
+     * @return Parcours complets relevés hors exceptions, sous la forme "Repository.methode : table"
+     */
+    public static List<String> parcoursComplets(Object repository, Class<?> type, Map<String, String> exceptions,
+                                                JdbcTemplate jdbcTemplate, TransactionTemplate transactions) {
+        List<String> parcours = new ArrayList<>();
+        Method[] methodes = type.getDeclaredMethods();
+        Arrays.sort(methodes, Comparator.comparing(Method::toString));
+
+        for (Method methode : methodes) {
+            if (methode.isDefault() || methode.isSynthetic()) {
+                continue;
+            }
+            String nom = type.getSimpleName() + "." + methode.getName();
+            Set<String> requetes = relever(repository, methode, transactions);
+            assertFalse(requetes.isEmpty(), nom + " n'a exécuté aucune requête SQL");
+
+            for (String sql : requetes) {
+                Set<String> tables = tablesParcourues(jdbcTemplate, sql);
+                if (!exceptions.containsKey(nom)) {
+                    tables.forEach(table -> parcours.add(nom + " : " + table + " (" + sql + ")"));
+                }
+            }
+        }
+        return parcours;
+    }
+
+    /**
+     * @param sql Requête SELECT, UPDATE ou DELETE (paramètres "?" non liés)
+     * @return Tables lues entièrement d'après le plan H2
+     */
+    public static Set<String> tablesParcourues(JdbcTemplate jdbcTemplate, String sql) {
+        Set<String> tables = new TreeSet<>();
+        String debut = sql.stripLeading().toLowerCase();
+        if (!debut.startsWith("select") && !debut.startsWith("with")
+                && !debut.startsWith("update") && !debut.startsWith("delete")) {
+            return tables;
+        }
+
+        String plan = jdbcTemplate.execute((Connection connexion) -> {
+            try (var requete = connexion.prepareStatement("EXPLAIN " + sql);
+                 var resultat = requete.executeQuery()) {
+                StringBuilder texte = new StringBuilder();
+                while (resultat.next()) {
+                    texte.append(resultat.getString(1)).append('\n');
+                }
+                return texte.toString();
+            }
+        });
+        Matcher matcher = PARCOURS_COMPLET.matcher(plan);
+        while (matcher.find()) {
+            tables.add(matcher.group(1));
+        }
+        return tables;
+    }
+
+    private static Set<String> relever(Object repository, Method methode, TransactionTemplate transactions) {
+        Object[] arguments = Arrays.stream(methode.getGenericParameterTypes())
+                .map(PlansRequetes::argument)
+                .toArray();
+
+        CompteurRequetesSql.Releve releve;
+        CompteurRequetesSql.demarrer();
+        try {
+            transactions.executeWithoutResult(statut -> {
+                try {
+                    Object resultat = methode.invoke(repository, arguments);
+                    if (resultat instanceof Stream<?> flux) {
+                        try (flux) {
+                            flux.limit(1).forEach(element -> { });
+                        }
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(methode + " : " + e.getCause(), e);
+                } finally {
+                    statut.setRollbackOnly();
+                }
+            });
+        } finally {
+            releve = CompteurRequetesSql.arreter();
+        }
+        return new TreeSet<>(releve.getRequetes());
+    }
+
+    /**
+     * Argument factice d'après le type déclaré du paramètre
+     */
+    private static Object argument(Type type) {
+        if (type instanceof ParameterizedType parametre
+                && Collection.class.isAssignableFrom((Class<?>) parametre.getRawType())) {
+            Object element = argument(parametre.getActualTypeArguments()[0]);
+            return List.of(element, element);
+        }
+        if (type == Integer.class || type == int.class) {
+            return 1;
+        }
+        if (type == String.class) {
+            return "EMP0000001";
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        if (type == Date.class) {
+            return new Date();
+        }
+        if (type == StatutTache.class) {
+            return StatutTache.EN_COURS;
+        }
+        if (type == Limit.class) {
+            return Limit.of(10);
+        }
+        throw new IllegalArgumentException("Type de paramètre non pris en charge : " + type);
+    }
+}
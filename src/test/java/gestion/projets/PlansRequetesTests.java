@@ -0,0 +1,73 @@
+package gestion.projets;
+
+import gestion.projets.repository.DependanceTacheRepository;
+import gestion.projets.repository.EmployeRepository;
+import gestion.projets.repository.EmployeeTacheRepository;
+import gestion.projets.repository.ProjetRepository;
+import gestion.projets.repository.TacheRepository;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plans d'exécution des requêtes des repositories de la gestion de projets, sur le schéma déclaré par les entités
+ * (mêmes index que les migrations db/migration) : aucune requête ne parcourt une table entière, hors exceptions
+ */
+@DonneesGenerees(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {
+        "generation.gestion.employes=200",
+        "generation.gestion.projets=20",
+        "generation.gestion.taches=1000"
+})
+class PlansRequetesTests {
+
+    /**
+     * Méthodes autorisées à lire une table entière, avec la raison
+     */
+    private static final Map<String, String> EXCEPTIONS = Map.ofEntries(
+            Map.entry("TacheRepository.findAllResumes", "liste complète"),
+            Map.entry("TacheRepository.streamResumes", "construction de l'index de planification"),
+            Map.entry("TacheRepository.streamTextesTaches", "construction de l'index de recherche"),
+            Map.entry("TacheRepository.streamVersions", "construction de l'index des charges"),
+            Map.entry("TacheRepository.findEmpreinteVersions", "agrégat sur toutes les tâches (ETag des listes)"),
+            Map.entry("TacheRepository.findResumesByTitreContenant", "LIKE '%terme%' : repli de l'index de recherche"),
+            Map.entry("ProjetRepository.findAllAvecTaches", "liste complète"),
+            Map.entry("ProjetRepository.findAllResumes", "liste complète"),
+            Map.entry("ProjetRepository.findEmpreinteVersions", "agrégat sur tous les projets (ETag des listes)"),
+            Map.entry("ProjetRepository.findRepartitionStatuts", "agrégat sur tous les projets (construction du cache)"),
+            Map.entry("ProjetRepository.findByNomContainingIgnoreCase", "LIKE '%terme%'"),
+            Map.entry("ProjetRepository.findResumesByNomContainingIgnoreCase", "LIKE '%terme%'"),
+            Map.entry("EmployeRepository.findByNomContainingIgnoreCaseOrPrenomContainingIgnoreCase",
+                    "LIKE '%terme%' : repli de l'index de recherche")
+    );
+
+    @Autowired
+    private ApplicationContext contexte;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @ValueSource(classes = {TacheRepository.class, ProjetRepository.class, EmployeRepository.class,
+            EmployeeTacheRepository.class, DependanceTacheRepository.class})
+    void aucunParcoursCompletDeTable(Class<?> type) {
+        List<String> parcours = PlansRequetes.parcoursComplets(contexte.getBean(type), type, EXCEPTIONS,
+                jdbcTemplate, new TransactionTemplate(transactionManager));
+
+        assertTrue(parcours.isEmpty(), String.join("\n", parcours));
+    }
+}
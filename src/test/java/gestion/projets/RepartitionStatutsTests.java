@@ -0,0 +1,96 @@
+package gestion.projets;
+
+import gestion.projets.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Répartition des tâches par statut : servie depuis le cache sous une clé unique,
+ * les retards étant ajoutés à chaque lecture pour la date du jour
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "generation.gestion.employes=20",
+        "generation.gestion.projets=6",
+        "generation.gestion.taches=300"
+})
+class RepartitionStatutsTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void repartitionEgaleALaBaseSousUneSeuleCle() {
+        assertEquals(repartitionEnBase(), repartitionServie(true));
+        assertTrue(repartitionServie(false).values().stream().allMatch(r -> !r.containsKey("enRetard")));
+
+        ResponseEntity<Map<String, Object>> tache = ReponsesJson.poster(rest, "/api/taches/projet/2",
+                Map.of("titre", "Compter les retards", "dateDebut", LocalDate.now().minusDays(10).toString(),
+                        "dateFin", LocalDate.now().minusDays(1).toString()));
+        assertEquals(HttpStatus.CREATED, tache.getStatusCode());
+        assertEquals(repartitionEnBase(), repartitionServie(true));
+
+        // Avec ou sans retard, quelle que soit la date, la répartition tient dans une seule entrée du cache
+        assertEquals(1, ((ConcurrentMap<?, ?>) cacheManager.getCache(CacheConfig.REPARTITION_STATUTS).getNativeCache()).size());
+    }
+
+    private Map<Object, Map<String, Object>> repartitionServie(boolean avecRetard) {
+        ResponseEntity<List<Map<String, Object>>> reponse = rest.exchange("/api/projets/statuts?avecRetard=" + avecRetard,
+                HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+                });
+        assertEquals(HttpStatus.OK, reponse.getStatusCode());
+        Map<Object, Map<String, Object>> parProjet = new HashMap<>();
+        for (Map<String, Object> repartition : reponse.getBody()) {
+            parProjet.put(((Number) repartition.get("idProjet")).intValue(), repartition);
+        }
+        return parProjet;
+    }
+
+    /**
+     * Répartition comptée en base, au format servi par l'API
+     */
+    private Map<Object, Map<String, Object>> repartitionEnBase() {
+        Map<Object, Map<String, Object>> parProjet = new HashMap<>();
+        jdbcTemplate.query("SELECT id_projet FROM projet", ligne -> {
+            Map<String, Object> repartition = new HashMap<>();
+            repartition.put("idProjet", ligne.getInt(1));
+            repartition.put("parStatut", new HashMap<>(Map.of("EN_ATTENTE", 0, "EN_COURS", 0, "TERMINEE", 0)));
+            repartition.put("total", 0);
+            repartition.put("enRetard", 0);
+            parProjet.put(ligne.getInt(1), repartition);
+        });
+        jdbcTemplate.query("SELECT id_projet, statut, COUNT(*), " +
+                "SUM(CASE WHEN date_fin < CURRENT_DATE AND statut <> 'TERMINEE' THEN 1 ELSE 0 END) " +
+                "FROM tache GROUP BY id_projet, statut", ligne -> {
+            Map<String, Object> repartition = parProjet.get(ligne.getInt(1));
+            @SuppressWarnings("unchecked")
+            Map<String, Object> parStatut = (Map<String, Object>) repartition.get("parStatut");
+            parStatut.put(ligne.getString(2), ligne.getInt(3));
+            repartition.put("total", (Integer) repartition.get("total") + ligne.getInt(3));
+            repartition.put("enRetard", (Integer) repartition.get("enRetard") + ligne.getInt(4));
+        });
+        return parProjet;
+    }
+}
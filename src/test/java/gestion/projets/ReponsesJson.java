@@ -0,0 +1,46 @@
+package gestion.projets;
+
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corps JSON lus sans DTO par TestRestTemplate
+ */
+public final class ReponsesJson {
+
+    public static final ParameterizedTypeReference<Map<String, Object>> OBJET = new ParameterizedTypeReference<>() {
+    };
+
+    public static final ParameterizedTypeReference<List<Map<String, Object>>> LISTE = new ParameterizedTypeReference<>() {
+    };
+
+    private ReponsesJson() {
+    }
+
+    /**
+     * @return Réponse d'un GET, corps lu comme un objet JSON
+     */
+    public static ResponseEntity<Map<String, Object>> lire(TestRestTemplate rest, String url) {
+        return rest.exchange(url, HttpMethod.GET, null, OBJET);
+    }
+
+    /**
+     * @return Réponse d'un POST du corps en JSON, corps de la réponse lu comme un objet JSON
+     */
+    public static ResponseEntity<Map<String, Object>> poster(TestRestTemplate rest, String url, Object corps) {
+        return rest.exchange(url, HttpMethod.POST, new HttpEntity<>(corps), OBJET);
+    }
+
+    /**
+     * @return Réponse d'un PUT du corps en JSON, corps de la réponse lu comme un objet JSON
+     */
+    public static ResponseEntity<Map<String, Object>> modifier(TestRestTemplate rest, String url, Object corps) {
+        return rest.exchange(url, HttpMethod.PUT, new HttpEntity<>(corps), OBJET);
+    }
+}
@@ -0,0 +1,246 @@
+package gestion.projets;
+
+import gestion.projets.config.RoutageLectures;
+import gestion.projets.dto.ProjetResume;
+import gestion.projets.index.IndexChargeEmployes;
+import gestion.projets.model.Projet;
+import gestion.projets.service.ProjetService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routage des lectures vers la réplique, sur deux bases H2 distinctes (principale et réplique, sans réplication) :
+ * une ligne présente sur une seule base indique laquelle a servi la lecture
+ * Threads virtuels actifs : chaque pool passe par son propre limiteur de connexions.
+ * Les requêtes HTTP enchaînant lecture et écriture vérifient le routage sans session ouverte pour toute la requête.
+ */
+@SpringBootTest(classes = {GestionProjetApplication.class, RoutageLecturesTests.CopieSchema.class,
+        RoutageLecturesTests.LectureEcritureController.class},
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routage-principale;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "replique.datasource.jdbc-url=jdbc:h2:mem:routage-replique;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "replique.datasource.username=sa",
+        "spring.threads.virtual.enabled=true"
+})
+class RoutageLecturesTests {
+
+    @Autowired
+    private ProjetService projetService;
+
+    @Autowired
+    @Qualifier("sourcePrincipale")
+    private DataSource principale;
+
+    @Autowired
+    @Qualifier("sourceReplique")
+    private DataSource replique;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry registre;
+
+    @Autowired
+    private IndexChargeEmployes indexChargeEmployes;
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @Test
+    void lecturesSurLaRepliqueEtEcrituresSurLaPrincipale() {
+        new JdbcTemplate(replique).update("INSERT INTO projet (id_projet, nom, date_debut, version) VALUES (?, ?, ?, 0)",
+                900001, "Présent sur la réplique", LocalDate.now());
+        assertEquals(List.of(900001), ids(projetService.searchProjetsResumesByNom("Présent sur la réplique")));
+
+        projetService.createProjet(projet("Écrit sur la principale"));
+        assertEquals(1, compter(principale, "Écrit sur la principale"));
+        assertEquals(0, compter(replique, "Écrit sur la principale"));
+        // Hors requête HTTP, la lecture suivante va à la réplique, qui n'a pas reçu l'écriture
+        assertTrue(projetService.searchProjetsResumesByNom("Écrit sur la principale").isEmpty());
+    }
+
+    @Test
+    void relectureApresEcritureDansLaMemeRequete() {
+        RoutageLectures.demarrer();
+        try {
+            assertTrue(projetService.searchProjetsResumesByNom("Relu après écriture").isEmpty());
+            assertFalse(RoutageLectures.apresEcriture());
+
+            Projet cree = projetService.createProjet(projet("Relu après écriture"));
+
+            assertTrue(RoutageLectures.apresEcriture());
+            assertEquals(List.of(cree.getIdProjet()), ids(projetService.searchProjetsResumesByNom("Relu après écriture")));
+        } finally {
+            RoutageLectures.terminer();
+        }
+        assertTrue(projetService.searchProjetsResumesByNom("Relu après écriture").isEmpty());
+    }
+
+    @Test
+    void requeteHttpLecturePuisEcriture() {
+        new JdbcTemplate(replique).update("INSERT INTO projet (id_projet, nom, date_debut, version) VALUES (?, ?, ?, 0)",
+                900004, "Lu puis écrit", LocalDate.now());
+
+        ResponseEntity<Integer[]> lus = rest.postForEntity("/test/routage/lecture-puis-ecriture?nom={nom}", null,
+                Integer[].class, "Lu puis écrit");
+
+        assertEquals(HttpStatus.OK, lus.getStatusCode());
+        // La lecture a servi la réplique, l'écriture qui la suit a bien la principale
+        assertArrayEquals(new Integer[]{900004}, lus.getBody());
+        assertEquals(1, compter(principale, "Lu puis écrit"));
+        assertEquals(1, compter(replique, "Lu puis écrit"));
+    }
+
+    @Test
+    void requeteHttpEcriturePuisLecture() {
+        ResponseEntity<Integer[]> lus = rest.postForEntity("/test/routage/ecriture-puis-lecture?nom={nom}", null,
+                Integer[].class, "Écrit puis lu");
+
+        assertEquals(HttpStatus.OK, lus.getStatusCode());
+        // Relu sur la principale dans la même requête
+        assertEquals(1, lus.getBody().length);
+        assertEquals(1, compter(principale, "Écrit puis lu"));
+        assertEquals(0, compter(replique, "Écrit puis lu"));
+        // La requête suivante lit de nouveau la réplique
+        assertArrayEquals(new Integer[0], rest.postForEntity("/test/routage/lecture?nom={nom}", null,
+                Integer[].class, "Écrit puis lu").getBody());
+    }
+
+    @Test
+    void sessionsEnLectureSeuleSansInstantanes() {
+        for (DataSource source : List.of(principale, replique)) {
+            new JdbcTemplate(source).update("INSERT INTO projet (id_projet, nom, date_debut, version) VALUES (?, ?, ?, 0)",
+                    900002, "Instantanés", LocalDate.now());
+        }
+        TransactionTemplate lecture = new TransactionTemplate(transactionManager);
+        lecture.setReadOnly(true);
+        TransactionTemplate ecriture = new TransactionTemplate(transactionManager);
+
+        assertEquals(Boolean.TRUE, lecture.execute(statut -> chargeEnLectureSeule("Instantanés")));
+        assertEquals(Boolean.FALSE, ecriture.execute(statut -> chargeEnLectureSeule("Instantanés")));
+    }
+
+    @Test
+    void indexConstruitsSurLaPrincipale() {
+        new JdbcTemplate(principale).update("INSERT INTO employe (matricule, nom, prenom, email, version) VALUES (?, ?, ?, ?, 0)",
+                "PRINC01", "Principale", "Seule", "principale.seule@entreprise.ma");
+        new JdbcTemplate(replique).update("INSERT INTO employe (matricule, nom, prenom, email, version) VALUES (?, ?, ?, ?, 0)",
+                "REPLI01", "Replique", "Seule", "replique.seule@entreprise.ma");
+
+        // Transaction en lecture seule, hors requête HTTP : servie par la principale malgré tout
+        indexChargeEmployes.construire();
+
+        assertEquals(0L, indexChargeEmployes.getTotal("PRINC01"));
+        assertNull(indexChargeEmployes.getTotal("REPLI01"));
+        // Les lectures suivantes retournent à la réplique
+        new JdbcTemplate(principale).update("INSERT INTO projet (id_projet, nom, date_debut, version) VALUES (?, ?, ?, 0)",
+                900003, "Présent sur la principale", LocalDate.now());
+        assertTrue(projetService.searchProjetsResumesByNom("Présent sur la principale").isEmpty());
+    }
+
+    @Test
+    void jaugesDuLimiteurParPool() {
+        for (String pool : List.of("principale", "replique")) {
+            assertEquals(0, registre.get("connexions.limiteur.attente").tag("pool", pool).gauge().value());
+            assertTrue(registre.get("connexions.limiteur.disponibles").tag("pool", pool).gauge().value() > 0);
+        }
+    }
+
+    private boolean chargeEnLectureSeule(String nom) {
+        Projet projet = entityManager.createQuery("SELECT p FROM Projet p WHERE p.nom = :nom", Projet.class)
+                .setParameter("nom", nom)
+                .getSingleResult();
+        return entityManager.unwrap(Session.class).isReadOnly(projet);
+    }
+
+    private static Projet projet(String nom) {
+        Projet projet = new Projet();
+        projet.setNom(nom);
+        projet.setDateDebut(LocalDate.now());
+        return projet;
+    }
+
+    private static List<Integer> ids(List<ProjetResume> projets) {
+        return projets.stream().map(ProjetResume::getIdProjet).toList();
+    }
+
+    private static int compter(DataSource source, String nom) {
+        return new JdbcTemplate(source).queryForObject("SELECT COUNT(*) FROM projet WHERE nom = ?", Integer.class, nom);
+    }
+
+    /**
+     * Requêtes HTTP enchaînant une lecture et une écriture, chacune dans sa transaction de service
+     */
+    @RestController
+    @RequestMapping("/test/routage")
+    static class LectureEcritureController {
+
+        @Autowired
+        private ProjetService projetService;
+
+        @PostMapping("/lecture")
+        public List<Integer> lecture(@RequestParam String nom) {
+            return ids(projetService.searchProjetsResumesByNom(nom));
+        }
+
+        @PostMapping("/lecture-puis-ecriture")
+        public List<Integer> lecturePuisEcriture(@RequestParam String nom) {
+            List<Integer> lus = ids(projetService.searchProjetsResumesByNom(nom));
+            projetService.createProjet(projet(nom));
+            return lus;
+        }
+
+        @PostMapping("/ecriture-puis-lecture")
+        public List<Integer> ecriturePuisLecture(@RequestParam String nom) {
+            projetService.createProjet(projet(nom));
+            return ids(projetService.searchProjetsResumesByNom(nom));
+        }
+    }
+
+    /**
+     * Crée sur la réplique le schéma généré par Hibernate sur la principale, avant la construction des index
+     */
+    @TestConfiguration
+    static class CopieSchema {
+
+        @EventListener(ContextRefreshedEvent.class)
+        public void copier(ContextRefreshedEvent evenement) {
+            DataSource principale = evenement.getApplicationContext().getBean("sourcePrincipale", DataSource.class);
+            DataSource replique = evenement.getApplicationContext().getBean("sourceReplique", DataSource.class);
+            JdbcTemplate cible = new JdbcTemplate(replique);
+            new JdbcTemplate(principale).queryForList("SCRIPT NODATA", String.class).forEach(cible::execute);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package gestion.projets.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Test de charge en boucle fermée sur les contrôleurs REST des deux applications
+ * Chaque "utilisateur" (thread virtuel) enchaîne des requêtes tirées d'un mélange pondéré,
+ * majoritairement des lectures sur /api/projets, /api/taches, /api/employes, /api/produits et /api/commandes.
+ * Les écritures (changeStatut, assigner) sont rares, sauf pendant des rafales périodiques.
+ *
+ * La charge monte par paliers d'utilisateurs ; pour chaque palier, une ligne JSON par endpoint et une par
+ * contrôleur (débit, latences HdrHistogram p50/p90/p99/p99.9/max, refus 4xx, erreurs 5xx ou réseau).
+ * Une dernière ligne par contrôleur indique le palier de saturation : le premier où le débit ne progresse
+ * plus (moins de 10 %) alors que le p99 augmente de plus de 50 %.
+ *
+ * Les identifiants de projets, tâches et employés sont lus par les endpoints paginés avant la mesure ;
+ * ceux du stock sont tirés dans [1, max] (propriétés système banc.produits, banc.commandes, banc.categories,
+ * par défaut les volumes du profil "generation"), un 404 comptant comme un refus.
+ * En boucle fermée, le débit s'adapte à la latence : les centiles ne corrigent pas l'omission coordonnée.
+ *
+ * Usage : BancCharge <urlGestion> <urlStock> [paliers=25,50,100,200,400,800] [chauffeSecondes=10] [mesureSecondes=30]
+ */
+public class BancCharge {
+
+    private static final double PART_ECRITURES = 0.02;
+    private static final double PART_ECRITURES_RAFALE = 0.30;
+    private static final long PERIODE_RAFALE_NANOS = Duration.ofSeconds(20).toNanos();
+    private static final long DUREE_RAFALE_NANOS = Duration.ofSeconds(3).toNanos();
+
+    private static final int PAGES_DECOUVERTE = 20;
+    private static final int TAILLE_PAGE_DECOUVERTE = 500;
+
+    private static final double SEUIL_PROGRESSION_DEBIT = 1.10;
+    private static final double SEUIL_HAUSSE_P99 = 1.50;
+
+    private static final String[] TERMES = {"Développer", "module", "API", "facturation", "tableau", "Tester",
+            "Paie", "CRM", "Portail", "Alami", "Claire", "Youssef", "Berrada", "emp00"};
+    private static final String[] ROLES = {"Développeur", "Testeur", "Analyste"};
+    private static final String[] STATUTS = {"EN_ATTENTE", "EN_COURS", "TERMINEE"};
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        String urlGestion = args[0];
+        String urlStock = args[1];
+        int[] paliers = Arrays.stream((args.length > 2 ? args[2] : "25,50,100,200,400,800").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        int chauffe = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int mesure = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        Catalogue catalogue = Catalogue.decouvrir(client, urlGestion);
+        List<Operation> lectures = lectures(urlGestion, urlStock, catalogue);
+        List<Operation> ecritures = ecritures(urlGestion, catalogue);
+
+        Map<String, List<Palier>> paliersParControleur = new LinkedHashMap<>();
+        for (int utilisateurs : paliers) {
+            executer(client, lectures, ecritures, utilisateurs, Duration.ofSeconds(chauffe));
+            Map<Operation, Statistiques> resultats =
+                    executer(client, lectures, ecritures, utilisateurs, Duration.ofSeconds(mesure));
+
+            Map<String, Statistiques> parControleur = new LinkedHashMap<>();
+            for (Map.Entry<Operation, Statistiques> entree : resultats.entrySet()) {
+                Operation operation = entree.getKey();
+                Statistiques statistiques = entree.getValue();
+                System.out.println(statistiques.enJson(utilisateurs, operation.controleur(), operation.endpoint(), mesure));
+                parControleur.computeIfAbsent(operation.controleur(), c -> new Statistiques()).ajouter(statistiques);
+            }
+            parControleur.forEach((controleur, statistiques) -> {
+                System.out.println(statistiques.enJson(utilisateurs, controleur, "*", mesure));
+                paliersParControleur.computeIfAbsent(controleur, c -> new ArrayList<>())
+                        .add(new Palier(utilisateurs, statistiques.debit(mesure), statistiques.centileMs(99)));
+            });
+        }
+
+        paliersParControleur.forEach((controleur, resultats) -> System.out.println(saturation(controleur, resultats)));
+    }
+
+    /**
+     * Mélange de lectures, pondéré pour refléter un usage courant (consultation unitaire surtout)
+     */
+    private static List<Operation> lectures(String urlGestion, String urlStock, Catalogue catalogue) {
+        int maxProduit = Integer.getInteger("banc.produits", 200_000);
+        int maxCommande = Integer.getInteger("banc.commandes", 1_000_000);
+        int maxCategorie = Integer.getInteger("banc.categories", 200);
+
+        List<Operation> operations = new ArrayList<>();
+        operations.add(get("projets", "/api/projets/{id}", 8,
+                r -> urlGestion + "/api/projets/" + catalogue.projet(r)));
+        operations.add(get("projets", "/api/projets/page", 3,
+                r -> urlGestion + "/api/projets/page"));
+        operations.add(get("projets", "/api/projets/{id}/taches/count", 3,
+                r -> urlGestion + "/api/projets/" + catalogue.projet(r) + "/taches/count"));
+        operations.add(get("projets", "/api/projets/search", 2,
+                r -> urlGestion + "/api/projets/search?nom=" + terme(r)));
+
+        operations.add(get("taches", "/api/taches/{id}", 12,
+                r -> urlGestion + "/api/taches/" + catalogue.tache(r)));
+        operations.add(get("taches", "/api/taches/projet/{idProjet}", 10,
+                r -> urlGestion + "/api/taches/projet/" + catalogue.projet(r)));
+        operations.add(get("taches", "/api/taches/employe/{matricule}", 5,
+                r -> urlGestion + "/api/taches/employe/" + catalogue.matricule(r)));
+        operations.add(get("taches", "/api/taches/page", 3,
+                r -> urlGestion + "/api/taches/page"));
+        operations.add(get("taches", "/api/taches/search", 3,
+                r -> urlGestion + "/api/taches/search?titre=" + terme(r)));
+        operations.add(get("taches", "/api/taches/en-retard", 2,
+                r -> urlGestion + "/api/taches/en-retard?details=false"));
+
+        operations.add(get("employes", "/api/employes/{matricule}", 8,
+                r -> urlGestion + "/api/employes/" + catalogue.matricule(r)));
+        operations.add(get("employes", "/api/employes/search", 4,
+                r -> urlGestion + "/api/employes/search?terme=" + terme(r)));
+        operations.add(get("employes", "/api/employes/{matricule}/taches/count", 3,
+                r -> urlGestion + "/api/employes/" + catalogue.matricule(r) + "/taches/count"));
+
+        operations.add(get("produits", "/api/produits/{id}", 8,
+                r -> urlStock + "/api/produits/" + (1 + r.nextInt(maxProduit))));
+        operations.add(get("produits", "/api/produits/categorie/{categorieId}", 3,
+                r -> urlStock + "/api/produits/categorie/" + (1 + r.nextInt(maxCategorie))));
+        operations.add(get("produits", "/api/produits/commande/{commandeId}", 3,
+                r -> urlStock + "/api/produits/commande/" + (1 + r.nextInt(maxCommande))));
+
+        operations.add(get("commandes", "/api/commandes/{id}", 6,
+                r -> urlStock + "/api/commandes/" + (1 + r.nextInt(maxCommande))));
+        return operations;
+    }
+
+    /**
+     * Écritures tirées pendant les rafales : changement de statut et affectation d'un employé
+     */
+    private static List<Operation> ecritures(String urlGestion, Catalogue catalogue) {
+        return List.of(
+                new Operation("taches", "PUT /api/taches/{id}/statut", 1, r -> HttpRequest.newBuilder(URI.create(
+                                urlGestion + "/api/taches/" + catalogue.tache(r) + "/statut?statut=" + STATUTS[r.nextInt(STATUTS.length)]))
+                        .PUT(HttpRequest.BodyPublishers.noBody())),
+                new Operation("taches", "POST /api/taches/{idTache}/assigner", 1, r -> HttpRequest.newBuilder(URI.create(
+                                urlGestion + "/api/taches/" + catalogue.tache(r) + "/assigner?matricule=" + catalogue.matricule(r)
+                                        + "&role=" + encoder(ROLES[r.nextInt(ROLES.length)])))
+                        .POST(HttpRequest.BodyPublishers.noBody())));
+    }
+
+    private static Map<Operation, Statistiques> executer(HttpClient client, List<Operation> lectures,
+                                                         List<Operation> ecritures, int utilisateurs, Duration duree)
+            throws InterruptedException {
+        Map<Operation, Statistiques> statistiques = new LinkedHashMap<>();
+        lectures.forEach(operation -> statistiques.put(operation, new Statistiques()));
+        ecritures.forEach(operation -> statistiques.put(operation, new Statistiques()));
+        int poidsLectures = lectures.stream().mapToInt(Operation::poids).sum();
+        int poidsEcritures = ecritures.stream().mapToInt(Operation::poids).sum();
+
+        long debutPhase = System.nanoTime();
+        long fin = debutPhase + duree.toNanos();
+
+        try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < utilisateurs; i++) {
+                executeur.submit(() -> {
+                    ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+                    long maintenant;
+                    while ((maintenant = System.nanoTime()) < fin) {
+                        boolean rafale = (maintenant - debutPhase) % PERIODE_RAFALE_NANOS < DUREE_RAFALE_NANOS;
+                        double partEcritures = rafale ? PART_ECRITURES_RAFALE : PART_ECRITURES;
+                        Operation operation = aleatoire.nextDouble() < partEcritures
+                                ? tirer(ecritures, poidsEcritures, aleatoire)
+                                : tirer(lectures, poidsLectures, aleatoire);
+                        Statistiques cible = statistiques.get(operation);
+
+                        long debut = System.nanoTime();
+                        try {
+                            HttpRequest requete = operation.requete().apply(aleatoire)
+                                    .timeout(Duration.ofSeconds(30))
+                                    .build();
+                            HttpResponse<Void> reponse = client.send(requete, HttpResponse.BodyHandlers.discarding());
+                            cible.enregistrer(reponse.statusCode(), System.nanoTime() - debut);
+                        } catch (IOException e) {
+                            cible.erreurs.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                });
+            }
+        }
+        return statistiques;
+    }
+
+    private static Operation tirer(List<Operation> operations, int poidsTotal, ThreadLocalRandom aleatoire) {
+        int tirage = aleatoire.nextInt(poidsTotal);
+        for (Operation operation : operations) {
+            tirage -= operation.poids();
+            if (tirage < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /**
+     * Premier palier où le débit du contrôleur stagne alors que sa latence se dégrade
+     */
+    private static String saturation(String controleur, List<Palier> paliers) {
+        Palier sature = null;
+        for (int i = 1; i < paliers.size() && sature == null; i++) {
+            Palier precedent = paliers.get(i - 1);
+            Palier courant = paliers.get(i);
+            if (courant.debit() < precedent.debit() * SEUIL_PROGRESSION_DEBIT
+                    && courant.p99Ms() > precedent.p99Ms() * SEUIL_HAUSSE_P99) {
+                sature = courant;
+            }
+        }
+        double debitMax = paliers.stream().mapToDouble(Palier::debit).max().orElse(0);
+        return String.format(Locale.ROOT,
+                "{\"controleur\":\"%s\",\"saturation\":%s,\"debitMaxParSeconde\":%.1f}",
+                controleur, sature == null ? "null" : String.valueOf(sature.utilisateurs()), debitMax);
+    }
+
+    private static Operation get(String controleur, String chemin, int poids, Function<ThreadLocalRandom, String> url) {
+        return new Operation(controleur, "GET " + chemin, poids, r -> HttpRequest.newBuilder(URI.create(url.apply(r))).GET());
+    }
+
+    private static String terme(ThreadLocalRandom aleatoire) {
+        return encoder(TERMES[aleatoire.nextInt(TERMES.length)]);
+    }
+
+    private static String encoder(String valeur) {
+        return URLEncoder.encode(valeur, StandardCharsets.UTF_8);
+    }
+
+    private record Operation(String controleur, String endpoint, int poids,
+                             Function<ThreadLocalRandom, HttpRequest.Builder> requete) {
+    }
+
+    private record Palier(int utilisateurs, double debit, double p99Ms) {
+    }
+
+    /**
+     * Identifiants existants, lus une fois par les endpoints paginés de l'application de gestion
+     */
+    private record Catalogue(int[] projets, int[] taches, String[] matricules) {
+
+        static Catalogue decouvrir(HttpClient client, String urlGestion) throws IOException, InterruptedException {
+            int[] projets = lire(client, urlGestion + "/api/projets/page", "idProjet").stream()
+                    .mapToInt(Integer::parseInt).toArray();
+            int[] taches = lire(client, urlGestion + "/api/taches/page", "idTache").stream()
+                    .mapToInt(Integer::parseInt).toArray();
+            String[] matricules = lire(client, urlGestion + "/api/employes/page", "matricule").toArray(String[]::new);
+            if (projets.length == 0 || taches.length == 0 || matricules.length == 0) {
+                throw new IllegalStateException("Base vide : projets, tâches et employés sont nécessaires au test de charge");
+            }
+            return new Catalogue(projets, taches, matricules);
+        }
+
+        private static List<String> lire(HttpClient client, String url, String champ)
+                throws IOException, InterruptedException {
+            List<String> valeurs = new ArrayList<>();
+            String curseur = null;
+            for (int page = 0; page < PAGES_DECOUVERTE; page++) {
+                String adresse = url + "?taille=" + TAILLE_PAGE_DECOUVERTE
+                        + (curseur == null ? "" : "&curseur=" + encoder(curseur));
+                HttpResponse<String> reponse = client.send(HttpRequest.newBuilder(URI.create(adresse)).GET().build(),
+                        HttpResponse.BodyHandlers.ofString());
+                if (reponse.statusCode() != 200) {
+                    throw new IOException("GET " + adresse + " : HTTP " + reponse.statusCode());
+                }
+                JsonNode corps = JSON.readTree(reponse.body());
+                corps.path("contenu").forEach(element -> valeurs.add(element.path(champ).asText()));
+                curseur = corps.path("curseurSuivant").isTextual() ? corps.path("curseurSuivant").asText() : null;
+                if (curseur == null) {
+                    break;
+                }
+            }
+            return valeurs;
+        }
+
+        int projet(ThreadLocalRandom aleatoire) {
+            return projets[aleatoire.nextInt(projets.length)];
+        }
+
+        int tache(ThreadLocalRandom aleatoire) {
+            return taches[aleatoire.nextInt(taches.length)];
+        }
+
+        String matricule(ThreadLocalRandom aleatoire) {
+            return matricules[aleatoire.nextInt(matricules.length)];
+        }
+    }
+
+    /**
+     * Latences (en microsecondes) et compteurs d'un endpoint, ou d'un contrôleur une fois agrégés
+     */
+    private static final class Statistiques {
+
+        private final Recorder enregistreur = new Recorder(3);
+        private final LongAdder refus = new LongAdder();
+        private final LongAdder erreurs = new LongAdder();
+        private Histogram histogramme;
+
+        void enregistrer(int statut, long dureeNanos) {
+            if (statut >= 500) {
+                erreurs.increment();
+                return;
+            }
+            if (statut >= 400) {
+                refus.increment();
+            }
+            enregistreur.recordValue(Math.max(1, dureeNanos / 1000));
+        }
+
+        Histogram histogramme() {
+            if (histogramme == null) {
+                histogramme = enregistreur.getIntervalHistogram();
+            }
+            return histogramme;
+        }
+
+        void ajouter(Statistiques autres) {
+            histogramme().add(autres.histogramme());
+            refus.add(autres.refus.sum());
+            erreurs.add(autres.erreurs.sum());
+        }
+
+        double debit(int secondes) {
+            return histogramme().getTotalCount() / (double) secondes;
+        }
+
+        double centileMs(double p) {
+            return histogramme().getValueAtPercentile(p) / 1000.0;
+        }
+
+        String enJson(int utilisateurs, String controleur, String endpoint, int secondes) {
+            Histogram h = histogramme();
+            return String.format(Locale.ROOT,
+                    "{\"utilisateurs\":%d,\"controleur\":\"%s\",\"endpoint\":\"%s\",\"requetes\":%d,\"refus\":%d,"
+                            + "\"erreurs\":%d,\"debitParSeconde\":%.1f,\"p50Ms\":%.2f,\"p90Ms\":%.2f,\"p99Ms\":%.2f,"
+                            + "\"p999Ms\":%.2f,\"maxMs\":%.2f}",
+                    utilisateurs, controleur, endpoint, h.getTotalCount(), refus.sum(), erreurs.sum(),
+                    debit(secondes), centileMs(50), centileMs(90), centileMs(99), centileMs(99.9),
+                    h.getMaxValue() / 1000.0);
+        }
+    }
+}
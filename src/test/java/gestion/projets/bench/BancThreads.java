@@ -0,0 +1,114 @@
+package gestion.projets.bench;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Banc d'essai comparant les modes d'exécution (threads de plateforme / threads virtuels)
+ * Boucle fermée : "utilisateurs" clients enchaînent les requêtes GET sur les endpoints /api/taches
+ * pendant la durée de mesure, après une phase de chauffe. Affiche une ligne JSON par endpoint
+ * (débit, latences p50/p99/max, erreurs). Lancé par scripts/banc-threads.sh pour chaque mode.
+ *
+ * Usage : BancThreads <urlBase> <mode> [utilisateurs=400] [chauffeSecondes=10] [mesureSecondes=30]
+ */
+public class BancThreads {
+
+    private static final List<String> ENDPOINTS = List.of(
+            "/api/taches",
+            "/api/taches/page",
+            "/api/taches/en-retard",
+            "/api/taches/statut/EN_COURS");
+
+    public static void main(String[] args) throws Exception {
+        String urlBase = args[0];
+        String mode = args[1];
+        int utilisateurs = args.length > 2 ? Integer.parseInt(args[2]) : 400;
+        int chauffe = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int mesure = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        for (String endpoint : ENDPOINTS) {
+            URI uri = URI.create(urlBase + endpoint);
+            executer(client, uri, utilisateurs, Duration.ofSeconds(chauffe));
+            Resultat resultat = executer(client, uri, utilisateurs, Duration.ofSeconds(mesure));
+            System.out.println(resultat.enJson(mode, endpoint, utilisateurs, mesure));
+        }
+    }
+
+    private static Resultat executer(HttpClient client, URI uri, int utilisateurs, Duration duree)
+            throws InterruptedException {
+        HttpRequest requete = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        long fin = System.nanoTime() + duree.toNanos();
+        AtomicLong erreurs = new AtomicLong();
+        Queue<long[]> latencesParUtilisateur = new ConcurrentLinkedQueue<>();
+
+        try (ExecutorService executeur = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < utilisateurs; i++) {
+                executeur.submit(() -> {
+                    long[] latences = new long[1024];
+                    int nombre = 0;
+                    while (System.nanoTime() < fin) {
+                        long debut = System.nanoTime();
+                        try {
+                            HttpResponse<Void> reponse = client.send(requete, HttpResponse.BodyHandlers.discarding());
+                            if (reponse.statusCode() >= 400) {
+                                erreurs.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            erreurs.incrementAndGet();
+                            continue;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        if (nombre == latences.length) {
+                            latences = Arrays.copyOf(latences, nombre * 2);
+                        }
+                        latences[nombre++] = System.nanoTime() - debut;
+                    }
+                    latencesParUtilisateur.add(Arrays.copyOf(latences, nombre));
+                });
+            }
+        }
+
+        long[] toutes = latencesParUtilisateur.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Resultat(toutes, erreurs.get());
+    }
+
+    private record Resultat(long[] latencesTriees, long erreurs) {
+
+        long centile(double p) {
+            if (latencesTriees.length == 0) {
+                return 0;
+            }
+            int rang = (int) Math.ceil(p / 100.0 * latencesTriees.length) - 1;
+            return latencesTriees[Math.max(0, rang)];
+        }
+
+        String enJson(String mode, String endpoint, int utilisateurs, int secondes) {
+            return String.format(Locale.ROOT,
+                    "{\"mode\":\"%s\",\"endpoint\":\"%s\",\"utilisateurs\":%d,\"requetes\":%d,\"erreurs\":%d,"
+                            + "\"debitParSeconde\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+                    mode, endpoint, utilisateurs, latencesTriees.length, erreurs,
+                    latencesTriees.length / (double) secondes,
+                    centile(50) / 1e6, centile(99) / 1e6, centile(100) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package gestion.projets.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compare deux fichiers de résultats JMH (JSON) banc par banc
+ * Affiche l'écart relatif de chaque score et termine en erreur si l'un se dégrade au-delà du seuil.
+ * En mode débit (thrpt) un score plus élevé est meilleur ; dans les autres modes (temps), plus bas est meilleur.
+ *
+ * Usage : ComparerJmh <reference.json> <courant.json> [seuilPourcent=10]
+ */
+public class ComparerJmh {
+
+    public static void main(String[] args) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> reference = indexer(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> courant = indexer(objectMapper.readTree(new File(args[1])));
+        double seuil = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entree : courant.entrySet()) {
+            JsonNode avant = reference.get(entree.getKey());
+            JsonNode apres = entree.getValue();
+            double scoreApres = apres.path("primaryMetric").path("score").asDouble();
+            String unite = apres.path("primaryMetric").path("scoreUnit").asText();
+            if (avant == null) {
+                System.out.printf(Locale.ROOT, "%-80s %12.3f %s (nouveau)%n", entree.getKey(), scoreApres, unite);
+                continue;
+            }
+            double scoreAvant = avant.path("primaryMetric").path("score").asDouble();
+            double ecart = (scoreApres - scoreAvant) / scoreAvant * 100.0;
+            boolean plusHautMeilleur = "thrpt".equals(apres.path("mode").asText());
+            boolean regression = plusHautMeilleur ? ecart < -seuil : ecart > seuil;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-80s %12.3f -> %12.3f %s %+7.1f%%%s%n", entree.getKey(),
+                    scoreAvant, scoreApres, unite, ecart, regression ? "  RÉGRESSION" : "");
+        }
+
+        if (regressions > 0) {
+            System.out.println(regressions + " régression(s) au-delà de " + seuil + " %");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Indexe les résultats par nom de banc, mode et paramètres
+     */
+    private static Map<String, JsonNode> indexer(JsonNode resultats) {
+        Map<String, JsonNode> parCle = new LinkedHashMap<>();
+        for (JsonNode resultat : resultats) {
+            StringBuilder cle = new StringBuilder(resultat.path("benchmark").asText())
+                    .append(" [").append(resultat.path("mode").asText()).append(']');
+            resultat.path("params").fields().forEachRemaining(p ->
+                    cle.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            parCle.put(cle.toString(), resultat);
+        }
+        return parCle;
+    }
+}
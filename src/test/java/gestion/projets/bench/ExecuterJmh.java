@@ -0,0 +1,31 @@
+package gestion.projets.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Lance les bancs d'essai JMH et écrit les résultats au format JSON
+ * Les fichiers de deux commits se comparent avec ComparerJmh.
+ *
+ * Usage : ExecuterJmh [filtre=.*\.bench\..*Jmh.*] [fichierResultat=target/jmh/resultats.json]
+ */
+public class ExecuterJmh {
+
+    public static void main(String[] args) throws RunnerException {
+        String filtre = args.length > 0 ? args[0] : ".*\\.bench\\..*Jmh.*";
+        File resultat = new File(args.length > 1 ? args[1] : "target/jmh/resultats.json").getAbsoluteFile();
+        resultat.getParentFile().mkdirs();
+
+        Options options = new OptionsBuilder()
+                .include(filtre)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultat.getPath())
+                .build();
+        new Runner(options).run();
+    }
+}
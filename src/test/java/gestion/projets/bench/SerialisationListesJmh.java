@@ -0,0 +1,150 @@
+package gestion.projets.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gestion.projets.index.EcheanceTache;
+import gestion.projets.model.Tache;
+import ma.projet.classes.Categorie;
+import ma.projet.classes.Commande;
+import ma.projet.classes.LigneCommandeProduit;
+import ma.projet.classes.Produit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Banc d'essai des encodages des listes volumineuses : JSON, CBOR et Smile, avec ou sans gzip
+ * Listes : résumés de GET /api/taches et commandes complètes de GET /api/commandes.
+ * La taille de chaque réponse (brute et compressée) est affichée au début de chaque essai.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerialisationListesJmh {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"taches", "commandes"})
+    public String liste;
+
+    @Param("10000")
+    public int taille;
+
+    private ObjectMapper objectMapper;
+    private List<?> elements;
+    private byte[] encode;
+
+    @Setup(Level.Trial)
+    public void preparer() throws IOException {
+        // Même configuration que les convertisseurs de FormatsBinairesConfig (dates ISO)
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> throw new IllegalArgumentException("Format inconnu: " + format);
+        };
+        objectMapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        elements = liste.equals("taches") ? taches() : commandes();
+        encode = objectMapper.writeValueAsBytes(elements);
+        System.out.printf("%n%s / %s : %d octets, %d octets compressés%n", liste, format, encode.length, compresser(encode).length);
+    }
+
+    @Benchmark
+    public byte[] serialiser() throws IOException {
+        return objectMapper.writeValueAsBytes(elements);
+    }
+
+    @Benchmark
+    public byte[] serialiserCompresse() throws IOException {
+        return compresser(objectMapper.writeValueAsBytes(elements));
+    }
+
+    @Benchmark
+    public JsonNode lire() throws IOException {
+        return objectMapper.readTree(encode);
+    }
+
+    private static byte[] compresser(byte[] octets) throws IOException {
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream(octets.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(sortie)) {
+            gzip.write(octets);
+        }
+        return sortie.toByteArray();
+    }
+
+    private List<EcheanceTache> taches() {
+        LocalDate origine = LocalDate.of(2025, 1, 1);
+        List<EcheanceTache> taches = new ArrayList<>(taille);
+        for (int i = 0; i < taille; i++) {
+            taches.add(new EcheanceTache(i + 1, "Développer le module " + i, Tache.StatutTache.values()[i % 3],
+                    origine.plusDays(i % 180), origine.plusDays(i % 180 + 30), 1 + i % 50));
+        }
+        return taches;
+    }
+
+    private List<Commande> commandes() {
+        List<Categorie> categories = new ArrayList<>();
+        for (int c = 0; c < 10; c++) {
+            Categorie categorie = new Categorie();
+            categorie.setId(c + 1);
+            categorie.setCode("CAT" + c);
+            categorie.setLibelle("Catégorie " + c);
+            categories.add(categorie);
+        }
+        List<Produit> produits = new ArrayList<>();
+        for (int p = 0; p < 200; p++) {
+            Produit produit = new Produit();
+            produit.setId(p + 1);
+            produit.setReference("REF-" + p);
+            produit.setPrix(10 + p * 1.5);
+            produit.setCategorie(categories.get(p % categories.size()));
+            produits.add(produit);
+        }
+
+        LocalDate origine = LocalDate.of(2025, 1, 1);
+        List<Commande> commandes = new ArrayList<>(taille);
+        int idLigne = 0;
+        for (int i = 0; i < taille; i++) {
+            Commande commande = new Commande();
+            commande.setId(i + 1);
+            commande.setDate(Date.from(origine.plusDays(i % 365).atStartOfDay().toInstant(ZoneOffset.UTC)));
+            List<LigneCommandeProduit> lignes = new ArrayList<>();
+            for (int l = 0; l < 1 + i % 4; l++) {
+                LigneCommandeProduit ligne = new LigneCommandeProduit();
+                ligne.setId(++idLigne);
+                ligne.setQuantite(1 + (i + l) % 10);
+                ligne.setProduit(produits.get((i * 7 + l) % produits.size()));
+                ligne.setCommande(commande);
+                lignes.add(ligne);
+            }
+            commande.setLignesCommande(lignes);
+            commandes.add(commande);
+        }
+        return commandes;
+    }
+}
@@ -0,0 +1,71 @@
+package gestion.projets.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import gestion.projets.model.Projet;
+import gestion.projets.model.Tache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Banc d'essai de la sérialisation JSON d'un projet et de ses tâches (réponse de GET /api/projets/{id})
+ * ObjectMapper configuré comme celui de Spring Boot, sans base de données
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerialisationProjetJmh {
+
+    @Param("10000")
+    public int taches;
+
+    private ObjectMapper objectMapper;
+    private Projet projet;
+
+    @Setup(Level.Trial)
+    public void preparer() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDate origine = LocalDate.of(2025, 1, 1);
+        projet = new Projet();
+        projet.setIdProjet(1);
+        projet.setNom("Projet volumineux");
+        projet.setDescription("Projet de référence pour la sérialisation");
+        projet.setDateDebut(origine);
+        for (int i = 0; i < taches; i++) {
+            Tache tache = new Tache();
+            tache.setIdTache(i + 1);
+            tache.setTitre("Tâche " + i);
+            tache.setDescription("Description détaillée de la tâche " + i);
+            tache.setDateDebut(origine.plusDays(i % 180));
+            tache.setDateFin(origine.plusDays(i % 180 + 30));
+            tache.setStatut(Tache.StatutTache.values()[i % 3]);
+            projet.addTache(tache);
+        }
+    }
+
+    @Benchmark
+    public byte[] serialiserProjet() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(projet);
+    }
+}
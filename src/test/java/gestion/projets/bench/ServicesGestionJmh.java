@@ -0,0 +1,158 @@
+package gestion.projets.bench;
+
+import gestion.projets.GestionProjetApplication;
+import gestion.projets.index.IndexRecherche;
+import gestion.projets.model.Employe;
+import gestion.projets.model.EmployeeTache;
+import gestion.projets.model.Projet;
+import gestion.projets.model.Tache;
+import gestion.projets.repository.EmployeRepository;
+import gestion.projets.repository.EmployeeTacheRepository;
+import gestion.projets.repository.ProjetRepository;
+import gestion.projets.service.EmployeService;
+import gestion.projets.service.TacheService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bancs d'essai des chemins critiques de la gestion de projets (services et repositories)
+ * Démarre la couche JPA de GestionProjetApplication sur H2 en mode MySQL (profil "h2"),
+ * sans serveur web, puis remplit la base avec des données déterministes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServicesGestionJmh {
+
+    private static final String[] NOMS = {"Alami", "Benani", "Chraibi", "Dupont", "El Idrissi", "Fassi",
+            "Garcia", "Haddad", "Idrissi", "Martin", "Naciri", "Ouazzani", "Petit", "Rachidi", "Tazi"};
+    private static final String[] PRENOMS = {"Ahmed", "Amina", "Claire", "Youssef", "Fatima", "Karim",
+            "Julien", "Salma", "Omar", "Nadia", "Hugo", "Leila", "Mehdi", "Sophie", "Yasmine"};
+    private static final String[] TERMES = {"alam", "fatima", "tazi", "claire", "idriss", "mar"};
+
+    @Param("20")
+    public int projets;
+
+    @Param("500")
+    public int tachesParProjet;
+
+    @Param("2000")
+    public int employes;
+
+    private ConfigurableApplicationContext contexte;
+    private TacheService tacheService;
+    private EmployeService employeService;
+    private EmployeeTacheRepository employeeTacheRepository;
+
+    private final List<Integer> idsProjets = new ArrayList<>();
+    private final List<Integer> idsTaches = new ArrayList<>();
+    private final List<String> matricules = new ArrayList<>();
+    private int compteur;
+    private int prochaineAffectation;
+
+    @Setup(Level.Trial)
+    public void demarrer() {
+        contexte = new SpringApplicationBuilder(GestionProjetApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                .run("--spring.datasource.url=jdbc:h2:mem:gestion;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        tacheService = contexte.getBean(TacheService.class);
+        employeService = contexte.getBean(EmployeService.class);
+        employeeTacheRepository = contexte.getBean(EmployeeTacheRepository.class);
+
+        SplittableRandom aleatoire = new SplittableRandom(42);
+        LocalDate origine = LocalDate.of(2025, 1, 1);
+        ProjetRepository projetRepository = contexte.getBean(ProjetRepository.class);
+        for (int p = 0; p < projets; p++) {
+            Projet projet = new Projet();
+            projet.setNom("Projet " + p);
+            projet.setDateDebut(origine);
+            for (int t = 0; t < tachesParProjet; t++) {
+                Tache tache = new Tache();
+                tache.setTitre("Tâche " + p + "-" + t);
+                tache.setDateDebut(origine.plusDays(aleatoire.nextInt(180)));
+                tache.setDateFin(tache.getDateDebut().plusDays(1 + aleatoire.nextInt(60)));
+                tache.setStatut(Tache.StatutTache.values()[aleatoire.nextInt(3)]);
+                projet.addTache(tache);
+            }
+            Projet enregistre = projetRepository.save(projet);
+            idsProjets.add(enregistre.getIdProjet());
+            enregistre.getTaches().forEach(t -> idsTaches.add(t.getIdTache()));
+        }
+
+        List<Employe> nouveaux = new ArrayList<>(employes);
+        for (int e = 0; e < employes; e++) {
+            Employe employe = new Employe();
+            employe.setMatricule(String.format("EMP%05d", e));
+            employe.setNom(NOMS[aleatoire.nextInt(NOMS.length)]);
+            employe.setPrenom(PRENOMS[aleatoire.nextInt(PRENOMS.length)]);
+            employe.setEmail("employe" + e + "@gestion-projets.com");
+            nouveaux.add(employe);
+            matricules.add(employe.getMatricule());
+        }
+        contexte.getBean(EmployeRepository.class).saveAll(nouveaux);
+
+        // Les données sont chargées sans passer par les services : l'index est reconstruit
+        contexte.getBean(IndexRecherche.class).construire();
+    }
+
+    @TearDown(Level.Iteration)
+    public void viderAffectations() {
+        employeeTacheRepository.deleteAllInBatch();
+        prochaineAffectation = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        contexte.close();
+    }
+
+    @Benchmark
+    public List<Tache> getTachesByProjet() {
+        return tacheService.getTachesByProjet(idsProjets.get(compteur++ % idsProjets.size()));
+    }
+
+    /**
+     * Chaque appel crée un couple (tâche, employé) inédit ; les affectations sont vidées entre les itérations
+     */
+    @Benchmark
+    public EmployeeTache assignerEmploye() {
+        int i = prochaineAffectation++;
+        Integer idTache = idsTaches.get(i % idsTaches.size());
+        String matricule = matricules.get((i / idsTaches.size()) % matricules.size());
+        return tacheService.assignerEmploye(idTache, matricule, "Développeur");
+    }
+
+    @Benchmark
+    public List<Employe> searchEmployes() {
+        return employeService.searchEmployes(TERMES[compteur++ % TERMES.length]);
+    }
+
+    @Benchmark
+    public List<Employe> searchEmployesIndex() {
+        return employeService.searchEmployes(TERMES[compteur++ % TERMES.length], 20);
+    }
+}
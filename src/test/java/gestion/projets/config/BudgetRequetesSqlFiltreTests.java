@@ -0,0 +1,168 @@
+package gestion.projets.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * En-tête X-Requetes-Sql posé avant l'envoi des petites réponses, réponses volumineuses transmises sans les garder
+ * en mémoire, réponse non enveloppée sans tampon, et erreur 500 du mode ECHEC
+ */
+class BudgetRequetesSqlFiltreTests {
+
+    private static final CompteurRequetesSql COMPTEUR = new CompteurRequetesSql();
+
+    @Test
+    void enTeteSurUnePetiteReponse() throws Exception {
+        MockHttpServletResponse reponse = filtrer(RequetesSqlProperties.Mode.LOG, 2, 100);
+
+        assertEquals("2", reponse.getHeader(BudgetRequetesSqlFiltre.ENTETE));
+        assertEquals(100, reponse.getContentLength());
+        assertEquals(100, reponse.getContentAsByteArray().length);
+    }
+
+    @Test
+    void reponseVolumineuseTransmiseSansEnTete() throws Exception {
+        MockHttpServletResponse reponse = filtrer(RequetesSqlProperties.Mode.ECHEC, 5, 5000);
+
+        assertNull(reponse.getHeader(BudgetRequetesSqlFiltre.ENTETE));
+        assertEquals(200, reponse.getStatus(), "le corps déjà envoyé ne peut plus être remplacé");
+        assertEquals(5000, reponse.getContentAsByteArray().length);
+    }
+
+    @Test
+    void depassementEnModeEchec() throws Exception {
+        MockHttpServletResponse reponse = filtrer(RequetesSqlProperties.Mode.ECHEC, 5, 100);
+
+        assertEquals(500, reponse.getStatus());
+        assertTrue(reponse.getContentAsString().startsWith("Budget SQL dépassé sur Object.toString : 5 requêtes"));
+    }
+
+    @Test
+    void depassementJournaliseEnModeLog() throws Exception {
+        MockHttpServletResponse reponse = filtrer(RequetesSqlProperties.Mode.LOG, 5, 100);
+
+        assertEquals(200, reponse.getStatus());
+        assertEquals("5", reponse.getHeader(BudgetRequetesSqlFiltre.ENTETE));
+        assertEquals(100, reponse.getContentAsByteArray().length);
+    }
+
+    @Test
+    void sansTamponLaReponseNEstPasEnveloppee() throws Exception {
+        RequetesSqlProperties proprietes = proprietes(RequetesSqlProperties.Mode.LOG, 0);
+        MockHttpServletResponse reponse = new MockHttpServletResponse();
+        AtomicReference<Object> recue = new AtomicReference<>();
+
+        new BudgetRequetesSqlFiltre(proprietes).doFilter(requete(), reponse, (req, res) -> {
+            recue.set(res);
+            COMPTEUR.inspect("select 1");
+            res.getOutputStream().write(new byte[100]);
+        });
+
+        assertSame(reponse, recue.get());
+        assertNull(reponse.getHeader(BudgetRequetesSqlFiltre.ENTETE));
+        assertEquals(100, reponse.getContentAsByteArray().length);
+    }
+
+    @Test
+    void tamponDuModeEchecSansTailleConfiguree() {
+        assertEquals(0, proprietes(RequetesSqlProperties.Mode.LOG, 0).tailleTampon());
+        assertEquals(RequetesSqlProperties.TAMPON_ECHEC, proprietes(RequetesSqlProperties.Mode.ECHEC, 0).tailleTampon());
+        assertEquals(1024, proprietes(RequetesSqlProperties.Mode.LOG, 1024).tailleTampon());
+    }
+
+    @Test
+    void ecouteurTransmisAuFluxDOrigine() throws Exception {
+        AtomicReference<WriteListener> ecouteur = new AtomicReference<>();
+        ByteArrayOutputStream envoye = new ByteArrayOutputStream();
+        ServletOutputStream origine = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                envoye.write(b);
+            }
+
+            @Override
+            public boolean isReady() {
+                return false;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                ecouteur.set(writeListener);
+            }
+        };
+        HttpServletResponse reponse = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return origine;
+            }
+        };
+        WriteListener attendu = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+            }
+        };
+
+        new BudgetRequetesSqlFiltre(proprietes(RequetesSqlProperties.Mode.LOG, 1024)).doFilter(requete(), reponse, (req, res) -> {
+            ServletOutputStream flux = res.getOutputStream();
+            flux.write(new byte[10]);
+            assertTrue(flux.isReady(), "corps gardé en mémoire");
+            flux.setWriteListener(attendu);
+            assertFalse(flux.isReady(), "état du flux d'origine une fois la réponse passée en direct");
+        });
+
+        assertSame(attendu, ecouteur.get());
+        assertEquals(10, envoye.size(), "le début du corps est envoyé avant l'écouteur");
+    }
+
+    /**
+     * Traite une requête dont le contrôleur exécute "requetes" requêtes SQL et écrit "octets" octets,
+     * avec un budget de 3 requêtes et un tampon de 1 Ko
+     */
+    private static MockHttpServletResponse filtrer(RequetesSqlProperties.Mode mode, int requetes, int octets)
+            throws Exception {
+        MockHttpServletResponse reponse = new MockHttpServletResponse();
+        FilterChain controleur = (req, res) -> {
+            for (int i = 0; i < requetes; i++) {
+                COMPTEUR.inspect("select " + i);
+            }
+            res.getOutputStream().write(new byte[octets]);
+            res.flushBuffer();
+        };
+
+        new BudgetRequetesSqlFiltre(proprietes(mode, 1024)).doFilter(requete(), reponse, controleur);
+        return reponse;
+    }
+
+    private static RequetesSqlProperties proprietes(RequetesSqlProperties.Mode mode, int tailleMaxTampon) {
+        RequetesSqlProperties proprietes = new RequetesSqlProperties();
+        proprietes.setMode(mode);
+        proprietes.setTailleMaxTampon(tailleMaxTampon);
+        proprietes.setBudgets(Map.of("Object.toString", 3));
+        return proprietes;
+    }
+
+    private static MockHttpServletRequest requete() throws NoSuchMethodException {
+        MockHttpServletRequest requete = new MockHttpServletRequest("GET", "/api/test");
+        requete.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new Object(), Object.class.getMethod("toString")));
+        return requete;
+    }
+}
@@ -0,0 +1,80 @@
+package gestion.projets.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ajustement AIMD de la limite : part des requêtes lourdes, croissance sous sollicitation,
+ * réduction au plus une fois par fenêtre
+ */
+class LimiteAimdTests {
+
+    @Test
+    void limiteAdditiveEtMultiplicative() {
+        LimiteAimd limite = new LimiteAimd(4, 2, 8, 0.5, 0.5);
+        long debut = System.nanoTime();
+
+        assertTrue(limite.acquerir(true));
+        assertTrue(limite.acquerir(true));
+        assertFalse(limite.acquerir(true), "les requêtes lourdes n'ont accès qu'à la moitié de la limite");
+        assertTrue(limite.acquerir(false));
+        assertTrue(limite.acquerir(false));
+        assertFalse(limite.acquerir(false));
+
+        limite.liberer(false, debut, true);
+        assertEquals(2, limite.getLimite());
+        limite.liberer(true, debut, false);
+        limite.liberer(true, debut, false);
+        limite.liberer(false, debut, false);
+        assertEquals(0, limite.getActives());
+
+        for (int i = 0; i < 100; i++) {
+            int places = limite.getLimite();
+            debut = System.nanoTime();
+            for (int j = 0; j < places; j++) {
+                assertTrue(limite.acquerir(false));
+            }
+            for (int j = 0; j < places; j++) {
+                limite.liberer(false, debut, false);
+            }
+        }
+        assertEquals(8, limite.getLimite(), "la limite remonte jusqu'au plafond tant qu'elle est sollicitée");
+
+        assertTrue(limite.acquerir(false));
+        for (int i = 0; i < 100; i++) {
+            debut = System.nanoTime();
+            assertTrue(limite.acquerir(false));
+            limite.liberer(false, debut, true);
+        }
+        assertEquals(2, limite.getLimite(), "la limite ne descend pas sous le plancher");
+        limite.liberer(false, debut, false);
+        for (int i = 0; i < 100; i++) {
+            debut = System.nanoTime();
+            assertTrue(limite.acquerir(false));
+            limite.liberer(false, debut, false);
+        }
+        assertEquals(2, limite.getLimite(), "une limite peu sollicitée ne croît pas");
+    }
+
+    @Test
+    void uneSeuleReductionParFenetre() {
+        LimiteAimd limite = new LimiteAimd(8, 1, 8, 0.5, 1);
+        long debut = System.nanoTime();
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limite.acquerir(false));
+        }
+
+        // Toute la fenêtre échoue : les requêtes admises avant la réduction ne la répètent pas
+        for (int i = 0; i < 8; i++) {
+            limite.liberer(false, debut, true);
+        }
+        assertEquals(4, limite.getLimite());
+        assertEquals(0, limite.getActives());
+
+        debut = System.nanoTime();
+        assertTrue(limite.acquerir(false));
+        limite.liberer(false, debut, true);
+        assertEquals(2, limite.getLimite(), "une requête admise après la réduction la signale de nouveau");
+    }
+}
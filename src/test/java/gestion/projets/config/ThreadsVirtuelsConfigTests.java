@@ -0,0 +1,67 @@
+package gestion.projets.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Limiteur de connexions du mode threads virtuels, sur un pool Hikari H2 enveloppé comme au démarrage
+ */
+class ThreadsVirtuelsConfigTests {
+
+    @Test
+    void requetesSurThreadsVirtuelsSansTailleDePoolRenseignee() throws Exception {
+        // maximum-pool-size n'est renseigné nulle part : getMaximumPoolSize() vaut -1 avant le démarrage du pool
+        try (HikariDataSource hikari = pool("threads-virtuels")) {
+            assertEquals(ThreadsVirtuelsConfig.TAILLE_POOL_DEFAUT, ThreadsVirtuelsConfig.taillePool(hikari));
+            JdbcTemplate jdbc = new JdbcTemplate(envelopper(hikari));
+
+            VirtualThreadTaskExecutor executeur = new VirtualThreadTaskExecutor("test-limiteur-");
+            List<Future<Integer>> resultats = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                resultats.add(executeur.submit(() -> jdbc.queryForObject("SELECT 1", Integer.class)));
+            }
+            for (Future<Integer> resultat : resultats) {
+                assertEquals(1, resultat.get(10, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    void attenteBorneeParLeDelaiDeConnexion() throws Exception {
+        try (HikariDataSource hikari = pool("limite-atteinte")) {
+            hikari.setMaximumPoolSize(2);
+            hikari.setConnectionTimeout(250);
+            DataSource source = envelopper(hikari);
+
+            try (Connection premiere = source.getConnection(); Connection seconde = source.getConnection()) {
+                assertThrows(SQLTransientConnectionException.class, source::getConnection);
+            }
+            try (Connection rendue = source.getConnection()) {
+                assertTrue(rendue.isValid(1), "les permis sont rendus à la fermeture des connexions");
+            }
+        }
+    }
+
+    private static HikariDataSource pool(String base) {
+        HikariDataSource hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:" + base + ";DB_CLOSE_DELAY=-1");
+        hikari.setUsername("sa");
+        return hikari;
+    }
+
+    private static DataSource envelopper(HikariDataSource hikari) {
+        return (DataSource) ThreadsVirtuelsConfig.limiteurConnexions().postProcessAfterInitialization(hikari, "dataSource");
+    }
+}
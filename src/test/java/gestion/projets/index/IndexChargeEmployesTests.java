@@ -0,0 +1,152 @@
+package gestion.projets.index;
+
+import gestion.projets.dto.ChargeEmploye;
+import gestion.projets.dto.ChargeStatutLigne;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.event.AffectationEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.model.Tache;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.EmployeRepository;
+import gestion.projets.repository.TacheRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Index des charges : événements reçus pendant l'agrégation ou en retard, comptés une seule fois
+ */
+class IndexChargeEmployesTests {
+
+    private final IndexChargeEmployes index = new IndexChargeEmployes();
+    private final EmployeRepository employeRepository = mock(EmployeRepository.class);
+    private final TacheRepository tacheRepository = mock(TacheRepository.class);
+
+    @BeforeEach
+    void brancherRepositories() {
+        ReflectionTestUtils.setField(index, "employeRepository", employeRepository);
+        ReflectionTestUtils.setField(index, "tacheRepository", tacheRepository);
+    }
+
+    @Test
+    void evenementsRecusPendantLaConstructionComptesUneFois() {
+        Tache creee = new Tache();
+        creee.setIdTache(13);
+        creee.setStatut(StatutTache.EN_ATTENTE);
+        creee.setVersion(0L);
+        when(employeRepository.findChargesParStatut()).thenAnswer(invocation -> {
+            // Validée avant l'instantané : la version 3 a été remplacée par la 4 qu'il contient
+            index.surAffectation(AffectationEvenement.affectee(10, 1, StatutTache.EN_COURS, "EMP1", 3L));
+            // Validée après l'instantané, qui contient encore la version 5
+            index.surAffectation(AffectationEvenement.affectee(11, 1, StatutTache.EN_COURS, "EMP2", 5L));
+            // Tâche supprimée avant l'instantané
+            index.surAffectation(AffectationEvenement.retiree(12, 1, StatutTache.EN_ATTENTE, "EMP1", 2L));
+            // Tâche créée puis affectée après l'instantané
+            index.surTache(TacheEvenement.creee(creee));
+            index.surAffectation(AffectationEvenement.affectee(13, 1, StatutTache.EN_ATTENTE, "EMP2", 0L));
+            return List.of(ligne("EMP1", StatutTache.EN_COURS, 2), ligne("EMP2", null, 0));
+        });
+        when(tacheRepository.streamVersions()).thenAnswer(invocation -> Stream.of(tache(10, 4L), tache(11, 5L)));
+
+        index.construire();
+
+        assertTrue(index.isPret());
+        Map<String, Map<StatutTache, Long>> charges = charges(index);
+        assertEquals(2L, charges.get("EMP1").get(StatutTache.EN_COURS));
+        assertEquals(0L, charges.get("EMP1").get(StatutTache.EN_ATTENTE));
+        assertEquals(1L, charges.get("EMP2").get(StatutTache.EN_COURS));
+        assertEquals(1L, charges.get("EMP2").get(StatutTache.EN_ATTENTE));
+
+        // Après la construction, les événements sont appliqués directement
+        index.surAffectation(AffectationEvenement.retiree(10, 1, StatutTache.EN_COURS, "EMP1", 4L));
+        assertEquals(1L, index.getTotal("EMP1"));
+    }
+
+    @Test
+    void evenementDejaCompteIgnoreApresLaConstruction() {
+        when(employeRepository.findChargesParStatut()).thenReturn(List.of(ligne("EMP1", StatutTache.EN_COURS, 1)));
+        when(tacheRepository.streamVersions()).thenAnswer(invocation -> Stream.of(tache(10, 4L)));
+        index.construire();
+
+        // Validée avant l'instantané (version 3 remplacée par la 4), écouteur exécuté après la construction
+        index.surAffectation(AffectationEvenement.affectee(10, 1, StatutTache.EN_COURS, "EMP1", 3L));
+        assertEquals(1L, index.getTotal("EMP1"));
+
+        // Écritures suivantes : retrait (version 4), puis réaffectation (version 5) ; le retrait rejoué est écarté
+        index.surAffectation(AffectationEvenement.retiree(10, 1, StatutTache.EN_COURS, "EMP1", 4L));
+        index.surAffectation(AffectationEvenement.affectee(10, 1, StatutTache.EN_COURS, "EMP1", 5L));
+        index.surAffectation(AffectationEvenement.retiree(10, 1, StatutTache.EN_COURS, "EMP1", 4L));
+        assertEquals(1L, index.getTotal("EMP1"));
+    }
+
+    @Test
+    void affectationAvantLaCreationAppliqueeAvecElle() {
+        when(employeRepository.findChargesParStatut()).thenReturn(List.of(ligne("EMP1", null, 0)));
+        when(tacheRepository.streamVersions()).thenAnswer(invocation -> Stream.empty());
+        index.construire();
+
+        Tache creee = new Tache();
+        creee.setIdTache(20);
+        creee.setStatut(StatutTache.EN_ATTENTE);
+        creee.setVersion(0L);
+        // Écouteur de l'affectation exécuté avant celui de la création
+        index.surAffectation(AffectationEvenement.affectee(20, 1, StatutTache.EN_ATTENTE, "EMP1", 0L));
+        assertEquals(0L, index.getTotal("EMP1"));
+        index.surTache(TacheEvenement.creee(creee));
+        assertEquals(1L, index.getTotal("EMP1"));
+
+        // Tâche supprimée avant l'instantané : son retrait n'est jamais appliqué
+        index.surAffectation(AffectationEvenement.retiree(12, 1, StatutTache.EN_ATTENTE, "EMP1", 2L));
+        assertEquals(1L, index.getTotal("EMP1"));
+    }
+
+    private static Map<String, Map<StatutTache, Long>> charges(IndexChargeEmployes index) {
+        return index.getCharges().stream()
+                .collect(Collectors.toMap(ChargeEmploye::getMatricule, ChargeEmploye::getParStatut));
+    }
+
+    private static ChargeStatutLigne ligne(String matricule, StatutTache statut, long nombre) {
+        return new ChargeStatutLigne() {
+            public String getMatricule() {
+                return matricule;
+            }
+
+            public StatutTache getStatut() {
+                return statut;
+            }
+
+            public Long getNombre() {
+                return nombre;
+            }
+        };
+    }
+
+    private static TacheProjet tache(Integer idTache, Long version) {
+        return new TacheProjet() {
+            public Integer getIdTache() {
+                return idTache;
+            }
+
+            public Integer getIdProjet() {
+                return 1;
+            }
+
+            public StatutTache getStatut() {
+                return StatutTache.EN_COURS;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,114 @@
+package gestion.projets.index;
+
+import gestion.projets.dto.Periode;
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.model.Tache;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.ProjetRepository;
+import gestion.projets.repository.TacheRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Construction de l'index des périodes hors du verrou : les écritures reçues pendant la lecture ne sont pas bloquées,
+ * puis sont rejouées sauf si l'instantané les contient déjà
+ */
+class IndexPeriodesTests {
+
+    private static final LocalDate JOUR = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void evenementsRecusPendantLaLectureRejouesSansBloquer() {
+        IndexPeriodes index = new IndexPeriodes();
+        TacheRepository tacheRepository = mock(TacheRepository.class);
+        ProjetRepository projetRepository = mock(ProjetRepository.class);
+        ReflectionTestUtils.setField(index, "tacheRepository", tacheRepository);
+        ReflectionTestUtils.setField(index, "projetRepository", projetRepository);
+
+        when(tacheRepository.streamPeriodes()).thenAnswer(invocation -> {
+            // Reçus depuis un autre thread, comme un écouteur après commit : aucun ne doit attendre la fin de la lecture
+            CompletableFuture.runAsync(() -> {
+                // Validée avant l'instantané, qui contient déjà la version 2 de la tâche 1
+                index.surTache(TacheEvenement.modifiee(instantane(1, 1L, 5), tache(1, 2L, 5), List.of()));
+                // Validée après l'instantané (version 2 de la tâche 2 lue par l'écriture)
+                index.surTache(TacheEvenement.modifiee(instantane(2, 2L, 0), tache(2, 3L, 30), List.of()));
+                // Tâche créée après l'instantané
+                index.surTache(TacheEvenement.creee(tache(3, 0L, 10)));
+            }).get(5, TimeUnit.SECONDS);
+            return Stream.of(periode(1, 0), periode(2, 0));
+        });
+        when(projetRepository.findPeriodes()).thenReturn(List.of());
+        when(tacheRepository.findProjetsExistants(any())).thenReturn(List.of(version(1, 2L), version(2, 2L)));
+
+        index.construire();
+
+        assertTrue(index.isPret());
+        assertEquals(List.of(1), index.getTachesChevauchant(JOUR, JOUR));
+        assertEquals(List.of(3), index.getTachesChevauchant(JOUR.plusDays(10), JOUR.plusDays(10)));
+        assertEquals(List.of(2), index.getTachesChevauchant(JOUR.plusDays(30), JOUR.plusDays(30)));
+    }
+
+    private static Tache tache(int id, Long version, int decalage) {
+        Tache tache = new Tache();
+        tache.setIdTache(id);
+        tache.setTitre("Tâche " + id);
+        tache.setStatut(StatutTache.EN_COURS);
+        tache.setDateDebut(JOUR.plusDays(decalage));
+        tache.setDateFin(JOUR.plusDays(decalage));
+        tache.setVersion(version);
+        return tache;
+    }
+
+    private static TacheInstantane instantane(int id, Long version, int decalage) {
+        return TacheInstantane.de(tache(id, version, decalage));
+    }
+
+    private static Periode periode(Integer id, int decalage) {
+        return new Periode() {
+            public Integer getId() {
+                return id;
+            }
+
+            public LocalDate getDateDebut() {
+                return JOUR.plusDays(decalage);
+            }
+
+            public LocalDate getDateFin() {
+                return JOUR.plusDays(decalage);
+            }
+        };
+    }
+
+    private static TacheProjet version(Integer idTache, Long version) {
+        return new TacheProjet() {
+            public Integer getIdTache() {
+                return idTache;
+            }
+
+            public Integer getIdProjet() {
+                return 1;
+            }
+
+            public StatutTache getStatut() {
+                return StatutTache.EN_COURS;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package gestion.projets.index;
+
+import gestion.projets.dto.DependanceResume;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.DependanceTacheRepository;
+import gestion.projets.repository.TacheRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Détection des cycles par l'index de planification : graphe du projet et dépendances réservées
+ * par une transaction en cours, jusqu'à ce que celle-ci se termine
+ */
+class IndexPlanningTests {
+
+    @AfterEach
+    void terminerSynchronisation() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cycleDetecteAvecLesDependancesReservees() {
+        IndexPlanning index = new IndexPlanning();
+        TacheRepository tacheRepository = mock(TacheRepository.class);
+        DependanceTacheRepository dependanceTacheRepository = mock(DependanceTacheRepository.class);
+        ReflectionTestUtils.setField(index, "tacheRepository", tacheRepository);
+        ReflectionTestUtils.setField(index, "dependanceTacheRepository", dependanceTacheRepository);
+
+        assertNull(index.creeraitUnCycle(1, 1, 2));
+
+        // Projet 1 : 1 -> 2, et 3 sans dépendance
+        when(tacheRepository.streamResumes()).thenAnswer(invocation -> Stream.of(tache(1), tache(2), tache(3)));
+        when(dependanceTacheRepository.streamResumes()).thenAnswer(invocation -> Stream.of(dependance(2, 1)));
+        index.construire();
+
+        assertTrue(index.creeraitUnCycle(1, 1, 2));
+        assertFalse(index.creeraitUnCycle(1, 1, 3));
+        // Tâche inconnue de l'index : la vérification revient à la base
+        assertNull(index.creeraitUnCycle(1, 1, 4));
+
+        // 2 -> 3 vérifiée par une transaction pas encore validée
+        TransactionSynchronizationManager.initSynchronization();
+        index.reserver(1, 3, 2);
+        assertTrue(index.creeraitUnCycle(1, 1, 3));
+
+        // Annulée : la réservation est libérée
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertFalse(index.creeraitUnCycle(1, 1, 3));
+    }
+
+    private static TacheResume tache(Integer idTache) {
+        return new TacheResume() {
+            public Integer getIdTache() {
+                return idTache;
+            }
+
+            public String getTitre() {
+                return "Tâche " + idTache;
+            }
+
+            public StatutTache getStatut() {
+                return StatutTache.EN_COURS;
+            }
+
+            public LocalDate getDateDebut() {
+                return LocalDate.of(2025, 1, 6);
+            }
+
+            public LocalDate getDateFin() {
+                return LocalDate.of(2025, 1, 10);
+            }
+
+            public Integer getIdProjet() {
+                return 1;
+            }
+        };
+    }
+
+    private static DependanceResume dependance(Integer idTache, Integer idPredecesseur) {
+        return new DependanceResume() {
+            public Integer getIdTache() {
+                return idTache;
+            }
+
+            public Integer getIdPredecesseur() {
+                return idPredecesseur;
+            }
+
+            public Integer getIdProjet() {
+                return 1;
+            }
+        };
+    }
+}
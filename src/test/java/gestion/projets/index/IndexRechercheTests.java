@@ -0,0 +1,177 @@
+package gestion.projets.index;
+
+import gestion.projets.dto.TacheProjet;
+import gestion.projets.dto.TacheResume;
+import gestion.projets.dto.TacheTexte;
+import gestion.projets.dto.VersionEmploye;
+import gestion.projets.event.EmployeEvenement;
+import gestion.projets.event.TacheEvenement;
+import gestion.projets.event.TacheInstantane;
+import gestion.projets.model.Employe;
+import gestion.projets.model.Tache;
+import gestion.projets.model.Tache.StatutTache;
+import gestion.projets.repository.EmployeRepository;
+import gestion.projets.repository.TacheRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Construction de l'index de recherche hors du verrou et recherche des tâches sans relecture de la base
+ */
+class IndexRechercheTests {
+
+    private static final LocalDate JOUR = LocalDate.of(2024, 1, 1);
+
+    @Test
+    void evenementsRecusPendantLaLectureRejouesSansBloquer() {
+        IndexRecherche index = new IndexRecherche();
+        TacheRepository tacheRepository = mock(TacheRepository.class);
+        EmployeRepository employeRepository = mock(EmployeRepository.class);
+        ReflectionTestUtils.setField(index, "tacheRepository", tacheRepository);
+        ReflectionTestUtils.setField(index, "employeRepository", employeRepository);
+
+        when(tacheRepository.streamTextesTaches()).thenAnswer(invocation -> {
+            // Reçus depuis un autre thread, comme un écouteur après commit : aucun ne doit attendre la fin de la lecture
+            CompletableFuture.runAsync(() -> {
+                // Validée avant l'instantané, qui contient déjà la version 2 de la tâche 1 : ne doit pas l'écraser
+                index.surTache(TacheEvenement.modifiee(instantane(1, 0L, "Audit initial"),
+                        tache(1, 1L, "Audit intermédiaire"), List.of()));
+                // Validées après l'instantané
+                index.surTache(TacheEvenement.creee(tache(2, 0L, "Migration des serveurs")));
+                index.surEmploye(EmployeEvenement.modifie(employe("E001", 3L, "Bennani")));
+            }).get(5, TimeUnit.SECONDS);
+            return Stream.of(texte(1, "Audit final"));
+        });
+        when(employeRepository.findAll()).thenReturn(List.of(employe("E001", 3L, "Alami")));
+        when(tacheRepository.findProjetsExistants(any())).thenReturn(List.of(version(1, 2L)));
+        when(employeRepository.findVersionsByMatricules(any())).thenReturn(List.of(versionEmploye("E001", 3L)));
+
+        index.construire();
+
+        assertTrue(index.isPret());
+        List<TacheResume> audits = index.rechercherTaches("audit", 10);
+        assertEquals(1, audits.size());
+        assertEquals("Audit final", audits.get(0).getTitre());
+        assertEquals(List.of(), index.rechercherTaches("intermediaire", 10));
+        assertEquals(List.of(2), index.rechercherTaches("mi", 10).stream().map(TacheResume::getIdTache).toList());
+        assertEquals(List.of("E001"), index.rechercherEmployes("bennani", 10));
+        assertEquals(List.of(), index.rechercherEmployes("alami", 10));
+    }
+
+    @Test
+    void changementDeStatutMetAJourLeResume() {
+        IndexRecherche index = new IndexRecherche();
+        TacheRepository tacheRepository = mock(TacheRepository.class);
+        EmployeRepository employeRepository = mock(EmployeRepository.class);
+        ReflectionTestUtils.setField(index, "tacheRepository", tacheRepository);
+        ReflectionTestUtils.setField(index, "employeRepository", employeRepository);
+        when(tacheRepository.streamTextesTaches()).thenReturn(Stream.of(texte(1, "Audit final")));
+        when(employeRepository.findAll()).thenReturn(List.of());
+        index.construire();
+
+        Tache terminee = tache(1, 1L, "Audit final");
+        terminee.setStatut(StatutTache.TERMINEE);
+        index.surTache(TacheEvenement.statutModifie(instantane(1, 0L, "Audit final"), terminee, List.of()));
+
+        assertEquals(StatutTache.TERMINEE, index.rechercherTaches("audit", 10).get(0).getStatut());
+    }
+
+    private static Tache tache(int id, Long version, String titre) {
+        Tache tache = new Tache();
+        tache.setIdTache(id);
+        tache.setTitre(titre);
+        tache.setStatut(StatutTache.EN_COURS);
+        tache.setDateDebut(JOUR);
+        tache.setVersion(version);
+        return tache;
+    }
+
+    private static TacheInstantane instantane(int id, Long version, String titre) {
+        return TacheInstantane.de(tache(id, version, titre));
+    }
+
+    private static Employe employe(String matricule, Long version, String nom) {
+        Employe employe = new Employe();
+        employe.setMatricule(matricule);
+        employe.setNom(nom);
+        employe.setPrenom("Sara");
+        employe.setEmail(matricule.toLowerCase() + "@entreprise.ma");
+        employe.setVersion(version);
+        return employe;
+    }
+
+    private static TacheTexte texte(Integer id, String titre) {
+        return new TacheTexte() {
+            public Integer getIdTache() {
+                return id;
+            }
+
+            public String getTitre() {
+                return titre;
+            }
+
+            public String getDescription() {
+                return null;
+            }
+
+            public StatutTache getStatut() {
+                return StatutTache.EN_COURS;
+            }
+
+            public LocalDate getDateDebut() {
+                return JOUR;
+            }
+
+            public LocalDate getDateFin() {
+                return null;
+            }
+
+            public Integer getIdProjet() {
+                return 1;
+            }
+        };
+    }
+
+    private static TacheProjet version(Integer idTache, Long version) {
+        return new TacheProjet() {
+            public Integer getIdTache() {
+                return idTache;
+            }
+
+            public Integer getIdProjet() {
+                return 1;
+            }
+
+            public StatutTache getStatut() {
+                return StatutTache.EN_COURS;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static VersionEmploye versionEmploye(String matricule, Long version) {
+        return new VersionEmploye() {
+            public String getMatricule() {
+                return matricule;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
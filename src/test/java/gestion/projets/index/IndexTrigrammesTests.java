@@ -0,0 +1,99 @@
+package gestion.projets.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Classement des résultats de l'index de trigrammes et recherche des termes courts
+ */
+class IndexTrigrammesTests {
+
+    @Test
+    void correspondanceExacteAvantCorrespondanceApprochee() {
+        IndexTrigrammes<Integer> index = new IndexTrigrammes<>();
+        index.indexer(1, "Replanification");
+        index.indexer(2, "Planification du sprint");
+        index.indexer(3, "Plan de charge");
+
+        // Début de mot, puis terme au milieu d'un mot ; "Plan de charge" partage trop peu de trigrammes
+        assertEquals(List.of(2, 1), index.rechercher("planification", 10));
+    }
+
+    @Test
+    void fauteDeFrappeToleree() {
+        IndexTrigrammes<Integer> index = new IndexTrigrammes<>();
+        index.indexer(1, "Planification du sprint");
+        index.indexer(2, "Budget annuel");
+
+        assertEquals(List.of(1), index.rechercher("planificaton", 10));
+        assertEquals(List.of(), index.rechercher("plateforme", 10));
+    }
+
+    @Test
+    void aScoreEgalLeTexteLePlusCourtDabord() {
+        IndexTrigrammes<Integer> index = new IndexTrigrammes<>();
+        index.indexer(1, "Rapport mensuel", "Synthèse des indicateurs");
+        index.indexer(2, "Rapport");
+
+        assertEquals(List.of(2, 1), index.rechercher("rapport", 10));
+        assertEquals(List.of(2), index.rechercher("rapport", 1));
+    }
+
+    @Test
+    void sansAccentsNiCasse() {
+        IndexTrigrammes<String> index = new IndexTrigrammes<>();
+        index.indexer("E001", "Équipe réseau", null, "reseau@exemple.fr");
+
+        assertEquals(List.of("E001"), index.rechercher("equipe", 10));
+        assertEquals(List.of("E001"), index.rechercher("RÉSEAU", 10));
+        assertEquals("equipe reseau", IndexTrigrammes.normaliser("  Équipe, RÉSEAU ! "));
+    }
+
+    @Test
+    void termeCourtSurLeDebutDesMots() {
+        IndexTrigrammes<Integer> index = new IndexTrigrammes<>();
+        index.indexer(1, "Audit de sécurité");
+        index.indexer(2, "Base de données");
+        index.indexer(3, "Code");
+
+        // "de" au milieu de "Code" n'est pas un début de mot
+        assertEquals(List.of(2, 1), index.rechercher("de", 10));
+        assertEquals(List.of(2), index.rechercher("De", 1));
+        assertEquals(List.of(3), index.rechercher("co", 10));
+        assertEquals(List.of(1), index.rechercher("s", 10));
+    }
+
+    @Test
+    void termeVideOuLimiteNulle() {
+        IndexTrigrammes<Integer> index = new IndexTrigrammes<>();
+        index.indexer(1, "Planification");
+
+        assertEquals(List.of(), index.rechercher(" ,; ", 10));
+        assertEquals(List.of(), index.rechercher(null, 10));
+        assertEquals(List.of(), index.rechercher("planification", 0));
+    }
+
+    @Test
+    void reindexationEtRetrait() {
+        IndexTrigrammes<Integer> index = new IndexTrigrammes<>();
+        index.indexer(1, "Planification");
+        index.indexer(1, "Budget");
+
+        assertEquals(List.of(), index.rechercher("planification", 10));
+        assertEquals(List.of(), index.rechercher("pl", 10));
+        assertEquals(List.of(1), index.rechercher("budget", 10));
+        assertEquals(1, index.taille());
+
+        assertEquals(List.of(1), index.rechercher("b", 10));
+        assertEquals(List.of(), index.rechercher("p", 10));
+
+        index.retirer(1);
+        assertEquals(List.of(), index.rechercher("budget", 10));
+        assertEquals(List.of(), index.rechercher("bu", 10));
+        assertEquals(List.of(), index.rechercher("b", 10));
+        assertEquals(0, index.taille());
+    }
+}
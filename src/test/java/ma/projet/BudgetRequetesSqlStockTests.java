@@ -0,0 +1,77 @@
+package ma.projet;
+
+import gestion.projets.DonneesGenerees;
+import gestion.projets.ReponsesJson;
+import gestion.projets.config.BudgetRequetesSqlFiltre;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Appelle les endpoints du stock sur des données générées, en mode ECHEC :
+ * un endpoint qui dépasse son budget de requêtes SQL répond en erreur 500
+ */
+@DonneesGenerees
+@TestPropertySource(properties = {
+        "requetes-sql.mode=ECHEC",
+        "generation.stock.categories=5",
+        "generation.stock.produits=50",
+        "generation.stock.commandes=100"
+})
+class BudgetRequetesSqlStockTests {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/api/produits",
+            "/api/produits/1",
+            "/api/produits/categorie/1",
+            "/api/produits/prix-superieur-100",
+            "/api/produits/commandes-entre-dates?startDate=2000-01-01&endDate=2100-12-31",
+            "/api/produits/commande/1",
+            "/api/categories",
+            "/api/categories/1",
+            "/api/commandes",
+            "/api/commandes/1"
+    })
+    void lecturesDansLeBudget(String chemin) {
+        ResponseEntity<String> reponse = rest.getForEntity(chemin, String.class);
+
+        assertTrue(reponse.getStatusCode().is2xxSuccessful(), chemin + " : " + reponse.getBody());
+        assertNotNull(reponse.getHeaders().getFirst(BudgetRequetesSqlFiltre.ENTETE));
+    }
+
+    @Test
+    void ecrituresDansLeBudget() {
+        ResponseEntity<Map<String, Object>> categorie = ReponsesJson.poster(rest, "/api/categories",
+                Map.of("code", "BUDGET", "libelle", "Budget SQL"));
+        verifier(categorie);
+        Object idCategorie = categorie.getBody().get("id");
+
+        ResponseEntity<Map<String, Object>> produit = ReponsesJson.poster(rest, "/api/produits",
+                Map.of("reference", "BUDGET-1", "prix", 120.0, "categorie", Map.of("id", idCategorie)));
+        verifier(produit);
+        Object idProduit = produit.getBody().get("id");
+
+        verifier(ReponsesJson.modifier(rest, "/api/produits/" + idProduit,
+                Map.of("reference", "BUDGET-1", "prix", 130.0, "categorie", Map.of("id", idCategorie))));
+        verifier(rest.exchange("/api/produits/" + idProduit, HttpMethod.DELETE, null, String.class));
+        verifier(rest.exchange("/api/categories/" + idCategorie, HttpMethod.DELETE, null, String.class));
+    }
+
+    private static void verifier(ResponseEntity<?> reponse) {
+        assertTrue(reponse.getStatusCode().is2xxSuccessful(), reponse.getStatusCode() + " : " + reponse.getBody());
+        assertNotNull(reponse.getHeaders().getFirst(BudgetRequetesSqlFiltre.ENTETE));
+    }
+}
@@ -0,0 +1,28 @@
+package ma.projet;
+
+import gestion.projets.BaseMysql;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationState;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrations db/migration sur MySQL : base vide migrée puis validée par Hibernate sur les entités du stock
+ */
+@BaseMysql
+class MigrationsMysqlStockTests {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Test
+    void baseVideMigreeEtValidee() {
+        // Le contexte a démarré : Hibernate a validé les entités sur le schéma migré
+        assertEquals(3, flyway.info().applied().length);
+        assertTrue(Arrays.stream(flyway.info().applied()).allMatch(m -> m.getState() == MigrationState.SUCCESS));
+    }
+}
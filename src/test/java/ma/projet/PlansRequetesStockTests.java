@@ -0,0 +1,62 @@
+package ma.projet;
+
+import gestion.projets.DonneesGenerees;
+import gestion.projets.PlansRequetes;
+import ma.projet.dao.CategorieService;
+import ma.projet.dao.CommandeService;
+import ma.projet.dao.LigneCommandeService;
+import ma.projet.dao.ProduitService;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Plans d'exécution des requêtes des repositories du stock, sur le schéma déclaré par les entités
+ * (mêmes index que les migrations db/migration) : aucune requête ne parcourt une table entière, hors exceptions
+ */
+@DonneesGenerees(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@TestPropertySource(properties = {
+        "generation.stock.categories=5",
+        "generation.stock.produits=200",
+        "generation.stock.commandes=1000"
+})
+class PlansRequetesStockTests {
+
+    /**
+     * Méthodes autorisées à lire une table entière, avec la raison
+     */
+    private static final Map<String, String> EXCEPTIONS = Map.ofEntries(
+            Map.entry("ProduitService.findAll", "liste complète"),
+            Map.entry("CommandeService.findAll", "liste complète")
+    );
+
+    @Autowired
+    private ApplicationContext contexte;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @ParameterizedTest
+    @ValueSource(classes = {ProduitService.class, CommandeService.class, CategorieService.class,
+            LigneCommandeService.class})
+    void aucunParcoursCompletDeTable(Class<?> type) {
+        List<String> parcours = PlansRequetes.parcoursComplets(contexte.getBean(type), type, EXCEPTIONS,
+                jdbcTemplate, new TransactionTemplate(transactionManager));
+
+        assertTrue(parcours.isEmpty(), String.join("\n", parcours));
+    }
+}
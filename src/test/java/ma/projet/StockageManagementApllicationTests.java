@@ -1,5 +1,6 @@
 package ma.projet;
 
+import gestion.projets.DonneesGenerees;
 import ma.projet.classes.Categorie;
 import ma.projet.classes.Produit;
 import ma.projet.dao.CategorieService;
@@ -7,12 +8,19 @@ import ma.projet.dao.ProduitService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+@DonneesGenerees(webEnvironment = SpringBootTest.WebEnvironment.MOCK)
+@TestPropertySource(properties = {
+        "generation.date-reference=2026-01-01",
+        "generation.stock.categories=5",
+        "generation.stock.produits=50",
+        "generation.stock.commandes=100"
+})
 class StockManagementApplicationTests {
 
     @Autowired
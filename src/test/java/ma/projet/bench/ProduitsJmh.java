@@ -0,0 +1,129 @@
+package ma.projet.bench;
+
+import ma.projet.StockManagementApplication;
+import ma.projet.classes.Categorie;
+import ma.projet.classes.Commande;
+import ma.projet.classes.LigneCommandeProduit;
+import ma.projet.classes.Produit;
+import ma.projet.dao.CategorieService;
+import ma.projet.dao.CommandeService;
+import ma.projet.dao.LigneCommandeService;
+import ma.projet.dao.ProduitService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Banc d'essai des requêtes de la gestion de stock
+ * Démarre la couche JPA de StockManagementApplication sur H2 en mode MySQL (profil "h2"),
+ * sans serveur web, puis remplit la base avec des commandes déterministes sur quatre ans.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProduitsJmh {
+
+    private static final LocalDate ORIGINE = LocalDate.of(2021, 1, 1);
+    private static final int JOURS_HISTORIQUE = 4 * 365;
+
+    @Param("2000")
+    public int produits;
+
+    @Param("5000")
+    public int commandes;
+
+    @Param({"30", "365"})
+    public int joursFenetre;
+
+    private ConfigurableApplicationContext contexte;
+    private ProduitService produitService;
+    private int compteur;
+
+    @Setup(Level.Trial)
+    public void demarrer() {
+        contexte = new SpringApplicationBuilder(StockManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                .run("--spring.datasource.url=jdbc:h2:mem:stock;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        produitService = contexte.getBean(ProduitService.class);
+
+        SplittableRandom aleatoire = new SplittableRandom(42);
+        List<Categorie> categories = new ArrayList<>();
+        for (int c = 0; c < 20; c++) {
+            Categorie categorie = new Categorie();
+            categorie.setCode("BANC" + c);
+            categorie.setLibelle("Catégorie " + c);
+            categories.add(categorie);
+        }
+        contexte.getBean(CategorieService.class).saveAll(categories);
+
+        List<Produit> nouveauxProduits = new ArrayList<>(produits);
+        for (int p = 0; p < produits; p++) {
+            Produit produit = new Produit();
+            produit.setReference("REF" + p);
+            produit.setPrix(10 + aleatoire.nextInt(990));
+            produit.setCategorie(categories.get(aleatoire.nextInt(categories.size())));
+            nouveauxProduits.add(produit);
+        }
+        produitService.saveAll(nouveauxProduits);
+
+        List<Commande> nouvellesCommandes = new ArrayList<>(commandes);
+        List<LigneCommandeProduit> lignes = new ArrayList<>();
+        for (int c = 0; c < commandes; c++) {
+            Commande commande = new Commande();
+            commande.setDate(enDate(ORIGINE.plusDays(aleatoire.nextInt(JOURS_HISTORIQUE))));
+            nouvellesCommandes.add(commande);
+            for (int l = 1 + aleatoire.nextInt(5); l > 0; l--) {
+                LigneCommandeProduit ligne = new LigneCommandeProduit();
+                ligne.setCommande(commande);
+                ligne.setProduit(nouveauxProduits.get(aleatoire.nextInt(nouveauxProduits.size())));
+                ligne.setQuantite(1 + aleatoire.nextInt(20));
+                lignes.add(ligne);
+            }
+        }
+        contexte.getBean(CommandeService.class).saveAll(nouvellesCommandes);
+        contexte.getBean(LigneCommandeService.class).saveAll(lignes);
+    }
+
+    @TearDown(Level.Trial)
+    public void arreter() {
+        contexte.close();
+    }
+
+    /**
+     * La fenêtre glisse d'un appel à l'autre sur l'historique des commandes
+     */
+    @Benchmark
+    public List<Produit> findProduitsCommandesEntreDates() {
+        LocalDate debut = ORIGINE.plusDays((compteur++ * 7L) % (JOURS_HISTORIQUE - joursFenetre));
+        return produitService.findProduitsCommandesEntreDates(enDate(debut), enDate(debut.plusDays(joursFenetre)));
+    }
+
+    private static Date enDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}